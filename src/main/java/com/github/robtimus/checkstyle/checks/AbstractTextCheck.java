@@ -0,0 +1,297 @@
+/*
+ * AbstractTextCheck.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedSet;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+/**
+ * Base class for checks that inspect the text of files.
+ * <p>
+ * Files can optionally be skipped before any of their lines are processed:
+ * <ul>
+ *   <li>If {@link #setSkipBinaryOrMinifiedFiles(boolean)} has been called with {@code true}, binary and minified files are skipped.
+ *       Only the first few KB of a file are inspected to detect these.</li>
+ *   <li>If {@link #setSkipGeneratedFiles(boolean)} has been called with {@code true}, generated files are skipped.
+ *       Only the first lines of a file are inspected to detect these, and the result is shared with all other checks with the same settings.</li>
+ * </ul>
+ * <p>
+ * The processing of a single file can be limited to a maximum number of lines or milliseconds using {@link #setMaxLinesPerFile(int)} and
+ * {@link #setMaxMillisPerFile(int)}. If a file exceeds this budget, a single {@code budgetExceeded} violation is reported, and the remainder
+ * of the file is not processed.
+ * <p>
+ * The processing of each file, including skipped files, can be recorded using JDK Flight Recorder event
+ * {@code com.github.robtimus.checkstyle.ProcessFile}. This event is disabled by default.
+ * <p>
+ * Subclasses must not modify any fields while processing a file. All state for a single file must be kept in local variables, so configured
+ * instances can be used by several threads at the same time. See the {@link com.github.robtimus.checkstyle.checks package documentation}.
+ *
+ * @author Rob Spoor
+ */
+public abstract class AbstractTextCheck extends AbstractFileSetCheck {
+
+    // set while only some of the lines of a file are processed; whether or not the file is skipped has then been decided for the entire file
+    private static final ThreadLocal<Boolean> PROCESSING_LINES = new ThreadLocal<>();
+
+    private boolean skipBinaryOrMinifiedFiles;
+
+    private boolean skipGeneratedFiles;
+    private List<String> generatedFileMarkers = GeneratedFileDetector.DEFAULT_MARKERS;
+    private int generatedFileHeaderLines = GeneratedFileDetector.DEFAULT_HEADER_LINES;
+    private GeneratedFileDetector generatedFileDetector;
+
+    private final FileBudget budget = new FileBudget();
+
+    @Override
+    protected final void processFiltered(File file, FileText fileText) throws CheckstyleException {
+        ProcessFileProbe probe = ProcessFileProbe.start();
+        try {
+            processUnlessSkipped(file, fileText);
+        } finally {
+            probe.finish(this, file, fileText);
+        }
+    }
+
+    private void processUnlessSkipped(File file, FileText fileText) throws CheckstyleException {
+        if (PROCESSING_LINES.get() == null && isSkipped(fileText)) {
+            return;
+        }
+        budget.start();
+        processText(file, fileText);
+    }
+
+    /**
+     * Processes some of the lines of a file. Unlike {@link #process(File, FileText)}, the lines are never skipped.
+     *
+     * @param file The file to process.
+     * @param lines The lines to process.
+     * @return The violations for the given lines. Line numbers are relative to the given lines.
+     * @throws CheckstyleException If an error occurs while processing the lines.
+     */
+    final SortedSet<Violation> processLines(File file, FileText lines) throws CheckstyleException {
+        PROCESSING_LINES.set(Boolean.TRUE);
+        try {
+            return process(file, lines);
+        } finally {
+            PROCESSING_LINES.remove();
+        }
+    }
+
+    /**
+     * Returns whether or not a file is skipped because it is binary, minified or generated.
+     *
+     * @param fileText The contents of the file. This may be limited to the first {@link #skipDetectionLineCount(List)} lines.
+     * @return {@code true} if the file is skipped, or {@code false} otherwise.
+     */
+    final boolean isSkipped(FileText fileText) {
+        return skipBinaryOrMinifiedFiles && BinaryFileDetector.isBinaryOrMinified(fileText)
+                || generatedFileDetector != null && generatedFileDetector.isGenerated(fileText);
+    }
+
+    /**
+     * Returns the tab width that is used to expand tabs in the columns of violations.
+     *
+     * @return The tab width that is used to expand tabs in the columns of violations.
+     */
+    final int tabWidth() {
+        return getTabWidth();
+    }
+
+    /**
+     * Returns the number of leading lines of a file that determine whether or not the file is skipped.
+     *
+     * @param lines The lines of the file.
+     * @return The number of leading lines of the file that determine whether or not the file is skipped, or 0 if no files are skipped.
+     */
+    final int skipDetectionLineCount(List<String> lines) {
+        int lineCount = generatedFileDetector != null ? generatedFileHeaderLines : 0;
+        if (skipBinaryOrMinifiedFiles) {
+            lineCount = Math.max(lineCount, BinaryFileDetector.sampleLineCount(lines));
+        }
+        return Math.min(lineCount, lines.size());
+    }
+
+    /**
+     * Returns which lines need to be re-checked after lines of a file have been replaced.
+     * This default implementation returns {@link EditScope#FILE}.
+     *
+     * @return Which lines need to be re-checked after lines of a file have been replaced.
+     */
+    EditScope editScope() {
+        return EditScope.FILE;
+    }
+
+    /**
+     * Returns the number of header lines of a file, if {@link #editScope()} returns {@link EditScope#HEADER}.
+     * This default implementation returns the number of lines of the file.
+     *
+     * @param lines The lines of the file.
+     * @return The number of header lines of the file.
+     */
+    int headerLineCount(List<String> lines) {
+        return lines.size();
+    }
+
+    private void updateGeneratedFileDetector() {
+        // the detector is looked up while configuring, so processing a file does not need to modify any fields
+        generatedFileDetector = skipGeneratedFiles
+                ? GeneratedFileDetector.getInstance(generatedFileMarkers, generatedFileHeaderLines)
+                : null;
+    }
+
+    /**
+     * Processes a file that has not been skipped.
+     *
+     * @param file The file to process.
+     * @param fileText The contents of the file.
+     * @throws CheckstyleException If an error occurs while processing the file.
+     */
+    protected abstract void processText(File file, FileText fileText) throws CheckstyleException;
+
+    /**
+     * Returns whether or not the per-file budget is exceeded. If so, a {@code budgetExceeded} violation has been logged, and the current file
+     * should no longer be processed. Implementations should call this method before processing each line. Implementations that scan entire lines
+     * should process long lines in chunks, and call this method before processing each chunk.
+     *
+     * @param lineIndex The 0-based index of the line that is about to be processed.
+     * @param characters The number of characters that are about to be processed; usually the length of the line.
+     * @return {@code true} if the per-file budget is exceeded, or {@code false} otherwise.
+     * @see #setMaxLinesPerFile(int)
+     * @see #setMaxMillisPerFile(int)
+     */
+    protected final boolean isBudgetExceeded(int lineIndex, int characters) {
+        return budget.isExceeded(this, lineIndex, characters);
+    }
+
+    /**
+     * Returns the first line that is no longer suppressed by inline suppression markers. Skipped lines count towards the time budget.
+     *
+     * @param fileText The file text to check.
+     * @param lineNumber The 0-based number of the line to start at.
+     * @param lineCount The number of lines in the file text.
+     * @return The result of {@link SuppressionMarkers#skipSuppressedLines(FileText, int, int, FileBudget, AbstractFileSetCheck)}.
+     */
+    final int skipSuppressedLines(FileText fileText, int lineNumber, int lineCount) {
+        return SuppressionMarkers.skipSuppressedLines(fileText, lineNumber, lineCount, budget, this);
+    }
+
+    /**
+     * Returns whether or not a line is blank. This is the same as {@link com.puppycrawl.tools.checkstyle.utils.CommonUtil#isBlank(String)},
+     * except that the characters that are examined are counted: the leading whitespace, and the first non-whitespace character if there is one.
+     *
+     * @param line The line to check.
+     * @return {@code true} if the line is empty or contains only whitespace, or {@code false} otherwise.
+     */
+    static boolean isBlank(String line) {
+        int length = line.length();
+        int index = 0;
+        while (index < length && Character.isWhitespace(line.charAt(index))) {
+            index++;
+        }
+        WorkCounters.charactersExamined(Math.min(index + 1, length));
+        return index == length;
+    }
+
+    /**
+     * Sets whether or not binary and minified files are skipped. Defaults to {@code false}.
+     * <p>
+     * A file is considered to be binary or minified if its first line is longer than 4096 characters, or if its first 4096 characters contain a
+     * NUL character or more than 10% non-printable characters.
+     *
+     * @param skipBinaryOrMinifiedFiles {@code true} to skip binary and minified files, or {@code false} to process all files.
+     */
+    public final void setSkipBinaryOrMinifiedFiles(boolean skipBinaryOrMinifiedFiles) {
+        this.skipBinaryOrMinifiedFiles = skipBinaryOrMinifiedFiles;
+    }
+
+    /**
+     * Sets whether or not generated files are skipped. Defaults to {@code false}.
+     * <p>
+     * A file is considered to be generated if any of its first lines contains any of the generated file markers.
+     *
+     * @param skipGeneratedFiles {@code true} to skip generated files, or {@code false} to process all files.
+     * @see #setGeneratedFileMarkers(String...)
+     * @see #setGeneratedFileHeaderLines(int)
+     */
+    public final void setSkipGeneratedFiles(boolean skipGeneratedFiles) {
+        this.skipGeneratedFiles = skipGeneratedFiles;
+        updateGeneratedFileDetector();
+    }
+
+    /**
+     * Sets the markers that indicate that a file is generated. Markers are matched case-sensitively.
+     * Defaults to {@code @Generated}, {@code DO NOT EDIT}, {@code Generated by the protocol buffer compiler}, {@code Generated from},
+     * {@code Autogenerated} and {@code auto-generated}.
+     *
+     * @param generatedFileMarkers The markers that indicate that a file is generated.
+     * @throws IllegalArgumentException If any of the given markers is empty.
+     */
+    public final void setGeneratedFileMarkers(String... generatedFileMarkers) {
+        List<String> markers = List.copyOf(Arrays.asList(generatedFileMarkers));
+        if (markers.contains("")) {
+            throw new IllegalArgumentException("Empty generated file markers are not allowed");
+        }
+        this.generatedFileMarkers = markers;
+        updateGeneratedFileDetector();
+    }
+
+    /**
+     * Sets the number of lines at the start of each file that are searched for generated file markers. Defaults to 50.
+     *
+     * @param generatedFileHeaderLines The number of lines at the start of each file that are searched for generated file markers.
+     * @throws IllegalArgumentException If the given number of lines is not positive.
+     */
+    public final void setGeneratedFileHeaderLines(int generatedFileHeaderLines) {
+        if (generatedFileHeaderLines <= 0) {
+            throw new IllegalArgumentException("Number of generated file header lines must be positive: " + generatedFileHeaderLines);
+        }
+        this.generatedFileHeaderLines = generatedFileHeaderLines;
+        updateGeneratedFileDetector();
+    }
+
+    /**
+     * Sets the maximum number of lines to process per file. Defaults to 0.
+     * <p>
+     * If a file has more lines, a {@code budgetExceeded} violation is reported, and the remainder of the file is not processed.
+     *
+     * @param maxLinesPerFile The maximum number of lines to process per file, or 0 for no maximum.
+     * @throws IllegalArgumentException If the given number of lines is negative.
+     */
+    public final void setMaxLinesPerFile(int maxLinesPerFile) {
+        budget.setMaxLines(maxLinesPerFile);
+    }
+
+    /**
+     * Sets the maximum time to spend per file, in milliseconds. Defaults to 0.
+     * <p>
+     * If processing a file takes longer, a {@code budgetExceeded} violation is reported, and the remainder of the file is not processed.
+     * To keep the overhead low, this time is only checked every 16384 characters.
+     *
+     * @param maxMillisPerFile The maximum time to spend per file in milliseconds, or 0 for no maximum.
+     * @throws IllegalArgumentException If the given time is negative.
+     */
+    public final void setMaxMillisPerFile(int maxMillisPerFile) {
+        budget.setMaxMillis(maxMillisPerFile);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * BinaryFileDetector.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import java.util.List;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+/**
+ * Utility class for detecting binary and minified files. Only the start of a file is inspected. A file is considered to be binary or minified if
+ * any of the following is true:
+ * <ul>
+ *   <li>The start of the file contains a NUL character.</li>
+ *   <li>The start of the file contains many non-printable characters, including replacement characters that indicate decoding errors.</li>
+ *   <li>The first line is longer than the inspected start of the file.</li>
+ * </ul>
+ *
+ * @author Rob Spoor
+ */
+final class BinaryFileDetector {
+
+    static final int SAMPLE_SIZE = 4096;
+
+    // a file is considered binary if more than 1 in 10 characters in the sample is non-printable
+    private static final int MAX_NON_PRINTABLE_RATIO = 10;
+
+    private static final char REPLACEMENT_CHARACTER = '\uFFFD';
+
+    private BinaryFileDetector() {
+    }
+
+    static boolean isBinaryOrMinified(FileText fileText) {
+        if (fileText.size() > 0 && fileText.get(0).length() > SAMPLE_SIZE) {
+            return true;
+        }
+
+        CharSequence fullText = fileText.getFullText();
+        int sampleSize = Math.min(fullText.length(), SAMPLE_SIZE);
+        int nonPrintableCount = 0;
+        for (int i = 0; i < sampleSize; i++) {
+            char c = fullText.charAt(i);
+            if (c == '\0') {
+                return true;
+            }
+            if (isNonPrintable(c)) {
+                nonPrintableCount++;
+            }
+        }
+        return nonPrintableCount * MAX_NON_PRINTABLE_RATIO > sampleSize;
+    }
+
+    /**
+     * Returns the number of leading lines that are needed to inspect the sample.
+     *
+     * @param lines The lines of a file.
+     * @return The number of leading lines that are needed to inspect the sample.
+     */
+    static int sampleLineCount(List<String> lines) {
+        int lineCount = lines.size();
+        int characterCount = 0;
+        for (int i = 0; i < lineCount; i++) {
+            // each line is followed by a line terminator
+            characterCount += lines.get(i).length() + 1;
+            if (characterCount >= SAMPLE_SIZE) {
+                return i + 1;
+            }
+        }
+        return lineCount;
+    }
+
+    private static boolean isNonPrintable(char c) {
+        if (c < ' ') {
+            return c != '\t' && c != '\n' && c != '\r' && c != '\f';
+        }
+        return c == REPLACEMENT_CHARACTER || Character.isISOControl(c);
+    }
+}
@@ -0,0 +1,369 @@
+/*
+ * CheckDaemon.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+
+/**
+ * A long-lived process that runs the line based checks of this project on request. Because the checks are created and configured once, and
+ * the JVM stays warm, repeated invocations from editors, pre-commit hooks and scripts do not pay for JVM startup, configuration or JIT
+ * compilation each time. The checks are shared between requests; this is possible because of the thread-safety contract of the checks in this
+ * package.
+ * <p>
+ * Usage: {@code java -cp checkstyle.jar:checkstyle-extension.jar com.github.robtimus.checkstyle.checks.CheckDaemon [-c <file>]
+ * (--socket <path> | --port <port>)}
+ * <p>
+ * The configuration file has the same format as for {@link PreCommitMain}. With {@code --socket}, the daemon listens on a Unix domain socket;
+ * this requires Java 16 or later. With {@code --port}, the daemon listens on the given TCP port of the loopback address.
+ * <p>
+ * Each connection is a single request. The client sends the paths of the files or directories to check, one per line, followed by an empty
+ * line or the end of its output. Relative paths are resolved against the working directory of the daemon. The daemon responds with the same
+ * output as {@link PreCommitMain}, followed by a status line {@code Exit code: <code>}, and then closes the connection. The code has the same
+ * meaning as the exit code of {@link PreCommitMain}: 0 if there are no errors, 1 if there are errors, and 2 if a file cannot be read or the
+ * request fails unexpectedly. In the latter two cases the error is printed before the status line. For instance:
+ * <pre><code>
+ * response=$(git diff --cached --name-only | sed "s|^|$PWD/|" | nc -U /tmp/checkstyle.sock)
+ * echo "$response"
+ * [ "${response##*$'\n'}" = "Exit code: 0" ]
+ * </code></pre>
+ * If the daemon can no longer accept connections, it stops with exit code 2, like it does for an invalid configuration.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+public final class CheckDaemon implements AutoCloseable {
+
+    private static final int MAX_CONCURRENT_REQUESTS = 4;
+
+    static final String STATUS_PREFIX = "Exit code: ";
+
+    private final List<AbstractFileSetCheck> checks;
+    private final ServerSocketChannel serverChannel;
+    private final ExecutorService requestExecutor;
+    private final Thread acceptThread;
+
+    private volatile IOException acceptFailure;
+
+    /**
+     * Creates a new daemon. It does not accept requests until {@link #start()} is called.
+     *
+     * @param checks The configured checks to run for each request.
+     * @param serverChannel The bound server channel to accept requests from. It will be closed when the daemon is closed.
+     */
+    public CheckDaemon(List<AbstractFileSetCheck> checks, ServerSocketChannel serverChannel) {
+        this.checks = List.copyOf(checks);
+        this.serverChannel = serverChannel;
+
+        AtomicInteger requestThreadCount = new AtomicInteger();
+        this.requestExecutor = Executors.newFixedThreadPool(MAX_CONCURRENT_REQUESTS, r -> {
+            Thread thread = new Thread(r, "checkstyle-daemon-request-" + requestThreadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.acceptThread = new Thread(this::acceptRequests, "checkstyle-daemon");
+    }
+
+    /**
+     * Runs a daemon until the JVM is stopped.
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String... args) {
+        int exitCode = run(args, System.err);
+        if (exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+
+    static int run(String[] args, PrintStream err) {
+        Path configFile = null;
+        Path socket = null;
+        Integer port = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "-c":
+                    configFile = Path.of(args[i + 1]);
+                    break;
+                case "--socket":
+                    socket = Path.of(args[i + 1]);
+                    break;
+                case "--port":
+                    port = parsePort(args[i + 1]);
+                    if (port == null) {
+                        return usage(err);
+                    }
+                    break;
+                default:
+                    return usage(err);
+            }
+        }
+        if (args.length % 2 != 0 || (socket == null) == (port == null)) {
+            return usage(err);
+        }
+
+        try {
+            List<AbstractFileSetCheck> checks = configFile == null
+                    ? PreCommitMain.createChecks(PreCommitMain.DEFAULT_CHECKS)
+                    : PreCommitMain.createChecks(Files.readAllLines(configFile));
+
+            ServerSocketChannel serverChannel = socket != null ? openUnixDomainSocket(socket) : openLoopbackSocket(port);
+            CheckDaemon daemon = new CheckDaemon(checks, serverChannel);
+            Path socketToDelete = socket;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                daemon.close();
+                deleteSocket(socketToDelete);
+            }));
+            daemon.start();
+            daemon.await();
+            return PreCommitMain.EXIT_SUCCESS;
+        } catch (CheckstyleException | IOException | UnsupportedOperationException e) {
+            err.println(e.getMessage());
+            return PreCommitMain.EXIT_FAILURE;
+        } catch (@SuppressWarnings("unused") InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return PreCommitMain.EXIT_FAILURE;
+        }
+    }
+
+    private static Integer parsePort(String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (@SuppressWarnings("unused") NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int usage(PrintStream err) {
+        err.println("Usage: CheckDaemon [-c <configuration file>] (--socket <path> | --port <port>)");
+        return PreCommitMain.EXIT_FAILURE;
+    }
+
+    private static void deleteSocket(Path socket) {
+        if (socket != null) {
+            try {
+                Files.deleteIfExists(socket);
+            } catch (@SuppressWarnings("unused") IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * Returns whether or not Unix domain sockets are supported. They are supported as of Java 16.
+     *
+     * @return {@code true} if Unix domain sockets are supported, or {@code false} otherwise.
+     */
+    public static boolean isUnixDomainSocketSupported() {
+        try {
+            Class.forName("java.net.UnixDomainSocketAddress");
+            return true;
+        } catch (@SuppressWarnings("unused") ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Opens a server channel that listens on a Unix domain socket.
+     *
+     * @param socket The path of the socket file. This file must not exist yet.
+     * @return The opened server channel.
+     * @throws IOException If the server channel could not be opened.
+     * @throws UnsupportedOperationException If Unix domain sockets are not supported.
+     */
+    public static ServerSocketChannel openUnixDomainSocket(Path socket) throws IOException {
+        if (!isUnixDomainSocketSupported()) {
+            throw new UnsupportedOperationException("Unix domain sockets require Java 16 or later");
+        }
+        // The Unix domain socket API was added in Java 16; reflection keeps this class compatible with Java 11
+        try {
+            ProtocolFamily unix = StandardProtocolFamily.valueOf("UNIX");
+            ServerSocketChannel serverChannel = (ServerSocketChannel) ServerSocketChannel.class.getMethod("open", ProtocolFamily.class)
+                    .invoke(null, unix);
+            SocketAddress address = (SocketAddress) Class.forName("java.net.UnixDomainSocketAddress").getMethod("of", Path.class)
+                    .invoke(null, socket);
+            try {
+                serverChannel.bind(address);
+            } catch (IOException e) {
+                serverChannel.close();
+                throw e;
+            }
+            return serverChannel;
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Opens a server channel that listens on a TCP port of the loopback address.
+     *
+     * @param port The port to listen on, or 0 to pick a free port.
+     * @return The opened server channel.
+     * @throws IOException If the server channel could not be opened.
+     */
+    public static ServerSocketChannel openLoopbackSocket(int port) throws IOException {
+        ServerSocketChannel serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        } catch (IOException e) {
+            serverChannel.close();
+            throw e;
+        }
+        return serverChannel;
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        acceptThread.start();
+    }
+
+    /**
+     * Waits until this daemon stops accepting requests. This happens when the daemon is closed, or when accepting requests fails.
+     *
+     * @throws InterruptedException If the current thread is interrupted while waiting.
+     * @throws IOException If accepting requests failed.
+     */
+    public void await() throws InterruptedException, IOException {
+        acceptThread.join();
+        IOException failure = acceptFailure;
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void acceptRequests() {
+        while (serverChannel.isOpen()) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (@SuppressWarnings("unused") ClosedChannelException e) {
+                // the daemon is closed
+                return;
+            } catch (IOException e) {
+                // a daemon that keeps running without accepting requests would look alive to clients, so stop it
+                acceptFailure = e;
+                close();
+                return;
+            }
+            try {
+                requestExecutor.execute(() -> handleRequest(channel));
+            } catch (@SuppressWarnings("unused") RejectedExecutionException e) {
+                // the daemon was closed while accepting this request
+                closeQuietly(channel);
+                return;
+            }
+        }
+    }
+
+    private void handleRequest(SocketChannel channel) {
+        try (SocketChannel c = channel) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(c), StandardCharsets.UTF_8));
+            List<String> lines = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                lines.add(line);
+            }
+
+            PrintStream out = new PrintStream(Channels.newOutputStream(c), false, StandardCharsets.UTF_8);
+            int exitCode;
+            try {
+                List<Path> paths = new ArrayList<>(lines.size());
+                for (String path : lines) {
+                    paths.add(Path.of(path));
+                }
+                int errorCount = PreCommitMain.audit(checks, PreCommitMain.listFiles(paths), out);
+                exitCode = errorCount > 0 ? PreCommitMain.EXIT_VIOLATIONS : PreCommitMain.EXIT_SUCCESS;
+            } catch (CheckstyleException | IOException e) {
+                out.println(e.getMessage());
+                exitCode = PreCommitMain.EXIT_FAILURE;
+            } catch (RuntimeException e) {
+                // without a response, the client cannot tell a failed request from a request without violations
+                out.println("Exception was thrown while processing request: " + e);
+                exitCode = PreCommitMain.EXIT_FAILURE;
+            }
+            // the client cannot get an exit code from the daemon process, so it gets a status line instead
+            out.println(STATUS_PREFIX + exitCode);
+            out.flush();
+        } catch (@SuppressWarnings("unused") IOException e) {
+            // the client went away; there is nobody to report this to
+        }
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (@SuppressWarnings("unused") IOException e) {
+            // ignore
+        }
+    }
+
+    /**
+     * Returns the address this daemon listens on.
+     *
+     * @return The address this daemon listens on.
+     * @throws IOException If the address could not be determined.
+     */
+    public SocketAddress getLocalAddress() throws IOException {
+        return serverChannel.getLocalAddress();
+    }
+
+    /**
+     * Stops accepting requests. Requests that are being handled are completed.
+     */
+    @Override
+    public void close() {
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            requestExecutor.shutdown();
+        }
+    }
+}
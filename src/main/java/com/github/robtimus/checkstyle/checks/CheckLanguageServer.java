@@ -0,0 +1,696 @@
+/*
+ * CheckLanguageServer.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+/**
+ * A <a href="https://microsoft.github.io/language-server-protocol/">Language Server Protocol</a> server that runs the line based checks of
+ * this project, for editors like VS Code. The server communicates over its standard input and output.
+ * <p>
+ * Usage: {@code java -cp checkstyle.jar:checkstyle-extension.jar com.github.robtimus.checkstyle.checks.CheckLanguageServer [-c <file>]
+ * [--debounce <millis>]}
+ * <p>
+ * The configuration file has the same format as for {@link PreCommitMain}.
+ * <p>
+ * Open documents are kept in memory, and are synchronized incrementally. After each change, only the changed lines are re-checked using an
+ * {@link IncrementalChecker}. Diagnostics are published once a document has not changed for the debounce time. Code actions are available to
+ * remove trailing whitespace and subsequent blank lines.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+public final class CheckLanguageServer {
+
+    /** The default debounce time in milliseconds. */
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 200;
+
+    private static final int TEXT_DOCUMENT_SYNC_INCREMENTAL = 2;
+
+    private static final int PARSE_ERROR = -32700;
+    private static final int INVALID_PARAMS = -32602;
+    private static final int METHOD_NOT_FOUND = -32601;
+    private static final int INTERNAL_ERROR = -32603;
+
+    private static final int MESSAGE_TYPE_ERROR = 1;
+
+    // Checkstyle's default tab width, for checks that are not of this package
+    private static final int DEFAULT_TAB_WIDTH = 8;
+
+    private static final String TRAILING_WHITESPACE = "whitespace.trailing";
+    private static final String MULTIPLE_BLANK_LINES = "whitespace.multipleBlankLinesInARow";
+
+    private final IncrementalChecker checker;
+    // the tab width per check class, to convert columns back to character indexes
+    private final Map<String, Integer> tabWidths;
+    private final InputStream in;
+    private final OutputStream out;
+
+    private final Map<String, Document> documents = new ConcurrentHashMap<>();
+    private final Map<String, ScheduledFuture<?>> pendingDiagnostics = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService diagnosticsPublisher;
+
+    private long debounceMillis = DEFAULT_DEBOUNCE_MILLIS;
+    private boolean shutdownRequested;
+
+    /**
+     * Creates a new server.
+     *
+     * @param checks The configured checks to run.
+     * @param in The stream to read messages from.
+     * @param out The stream to write messages to.
+     */
+    public CheckLanguageServer(List<AbstractFileSetCheck> checks, InputStream in, OutputStream out) {
+        this.checker = new IncrementalChecker(checks);
+        this.tabWidths = new HashMap<>();
+        for (AbstractFileSetCheck check : checks) {
+            if (check instanceof AbstractTextCheck) {
+                tabWidths.put(check.getClass().getName(), ((AbstractTextCheck) check).tabWidth());
+            }
+        }
+        this.in = new BufferedInputStream(in);
+        this.out = out;
+        this.diagnosticsPublisher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "checkstyle-lsp-diagnostics");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sets the time to wait for more changes to a document before publishing its diagnostics. Defaults to {@value #DEFAULT_DEBOUNCE_MILLIS}.
+     *
+     * @param debounceMillis The time to wait for more changes in milliseconds.
+     * @throws IllegalArgumentException If the given time is negative.
+     */
+    public void setDebounceMillis(long debounceMillis) {
+        if (debounceMillis < 0) {
+            throw new IllegalArgumentException("Negative debounce time: " + debounceMillis);
+        }
+        this.debounceMillis = debounceMillis;
+    }
+
+    /**
+     * Runs a server over the standard input and output until the client tells it to exit.
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String... args) {
+        int exitCode = run(args, System.in, System.out, System.err);
+        if (exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+
+    static int run(String[] args, InputStream in, OutputStream out, PrintStream err) {
+        Path configFile = null;
+        Long debounceMillis = null;
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if ("-c".equals(args[i]) && i + 1 < args.length) {
+                    configFile = Path.of(args[i + 1]);
+                } else if ("--debounce".equals(args[i]) && i + 1 < args.length) {
+                    debounceMillis = Long.valueOf(args[i + 1]);
+                } else {
+                    return usage(err);
+                }
+            }
+        } catch (@SuppressWarnings("unused") NumberFormatException e) {
+            return usage(err);
+        }
+
+        try {
+            List<AbstractFileSetCheck> checks = configFile == null
+                    ? PreCommitMain.createChecks(PreCommitMain.DEFAULT_CHECKS)
+                    : PreCommitMain.createChecks(Files.readAllLines(configFile));
+            CheckLanguageServer server = new CheckLanguageServer(checks, in, out);
+            if (debounceMillis != null) {
+                server.setDebounceMillis(debounceMillis);
+            }
+            return server.serve();
+        } catch (CheckstyleException | IOException | IllegalArgumentException e) {
+            err.println(e.getMessage());
+            return PreCommitMain.EXIT_FAILURE;
+        }
+    }
+
+    private static int usage(PrintStream err) {
+        err.println("Usage: CheckLanguageServer [-c <configuration file>] [--debounce <millis>]");
+        return PreCommitMain.EXIT_FAILURE;
+    }
+
+    /**
+     * Handles messages until the client sends an {@code exit} notification, or closes its output.
+     *
+     * @return The exit code: 0 if the client sent a {@code shutdown} request before the {@code exit} notification, or 1 otherwise.
+     * @throws IOException If an I/O error occurs.
+     */
+    public int serve() throws IOException {
+        try {
+            String content;
+            while ((content = readMessage()) != null) {
+                Map<String, Object> message;
+                try {
+                    message = object(Json.parse(content), "message");
+                } catch (IllegalArgumentException | ResponseError e) {
+                    sendError(null, PARSE_ERROR, e.getMessage());
+                    continue;
+                }
+                if ("exit".equals(message.get("method"))) {
+                    return shutdownRequested ? 0 : 1;
+                }
+                handleMessage(message);
+            }
+            return 1;
+        } finally {
+            diagnosticsPublisher.shutdownNow();
+        }
+    }
+
+    private void handleMessage(Map<String, Object> message) throws IOException {
+        Object id = message.get("id");
+        Object method = message.get("method");
+        if (!(method instanceof String)) {
+            // a response to a request from this server; this server does not send any requests
+            return;
+        }
+        try {
+            Object result = handleMethod((String) method, message.get("params"), id != null);
+            if (id != null) {
+                Map<String, Object> response = new LinkedHashMap<>();
+                response.put("jsonrpc", "2.0");
+                response.put("id", id);
+                response.put("result", result);
+                send(response);
+            }
+        } catch (ResponseError e) {
+            handleError(id, e.code, e.getMessage());
+        } catch (CheckstyleException | RuntimeException e) {
+            handleError(id, INTERNAL_ERROR, e.getMessage());
+        }
+    }
+
+    private void handleError(Object id, int code, String errorMessage) throws IOException {
+        if (id != null) {
+            sendError(id, code, errorMessage);
+        } else {
+            // notifications have no response, so the error can only be logged
+            Map<String, Object> params = new LinkedHashMap<>();
+            params.put("type", MESSAGE_TYPE_ERROR);
+            params.put("message", errorMessage);
+            sendNotification("window/logMessage", params);
+        }
+    }
+
+    private Object handleMethod(String method, Object params, boolean isRequest) throws ResponseError, CheckstyleException {
+        switch (method) {
+            case "initialize":
+                return initialize();
+            case "shutdown":
+                shutdownRequested = true;
+                return null;
+            case "textDocument/didOpen":
+                didOpen(object(params, "params"));
+                return null;
+            case "textDocument/didChange":
+                didChange(object(params, "params"));
+                return null;
+            case "textDocument/didClose":
+                didClose(object(params, "params"));
+                return null;
+            case "textDocument/codeAction":
+                return codeAction(object(params, "params"));
+            default:
+                if (isRequest) {
+                    throw new ResponseError(METHOD_NOT_FOUND, "Method not found: " + method);
+                }
+                // notifications that are not supported, like initialized and $/cancelRequest, can be ignored
+                return null;
+        }
+    }
+
+    private static Map<String, Object> initialize() {
+        Map<String, Object> textDocumentSync = new LinkedHashMap<>();
+        textDocumentSync.put("openClose", true);
+        textDocumentSync.put("change", TEXT_DOCUMENT_SYNC_INCREMENTAL);
+
+        Map<String, Object> capabilities = new LinkedHashMap<>();
+        capabilities.put("textDocumentSync", textDocumentSync);
+        capabilities.put("codeActionProvider", Map.of("codeActionKinds", List.of("quickfix")));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("capabilities", capabilities);
+        result.put("serverInfo", Map.of("name", "checkstyle-extension"));
+        return result;
+    }
+
+    private void didOpen(Map<String, Object> params) throws ResponseError, CheckstyleException {
+        Map<String, Object> textDocument = object(params.get("textDocument"), "textDocument");
+        String uri = string(textDocument.get("uri"), "uri");
+        int version = integer(textDocument.get("version"), "version");
+        String text = string(textDocument.get("text"), "text");
+
+        documents.put(uri, Document.open(checker, uri, version, text));
+        scheduleDiagnostics(uri);
+    }
+
+    private void didChange(Map<String, Object> params) throws ResponseError, CheckstyleException {
+        Map<String, Object> textDocument = object(params.get("textDocument"), "textDocument");
+        String uri = string(textDocument.get("uri"), "uri");
+        int version = integer(textDocument.get("version"), "version");
+        Document document = documents.get(uri);
+        if (document == null) {
+            throw new ResponseError(INVALID_PARAMS, "Document is not open: " + uri);
+        }
+        for (Object change : list(params.get("contentChanges"), "contentChanges")) {
+            document = document.change(checker, version, object(change, "contentChange"));
+        }
+        documents.put(uri, document);
+        scheduleDiagnostics(uri);
+    }
+
+    private void didClose(Map<String, Object> params) throws ResponseError {
+        Map<String, Object> textDocument = object(params.get("textDocument"), "textDocument");
+        String uri = string(textDocument.get("uri"), "uri");
+        documents.remove(uri);
+        ScheduledFuture<?> pending = pendingDiagnostics.remove(uri);
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        // clear the diagnostics of the closed document
+        Map<String, Object> diagnostics = new LinkedHashMap<>();
+        diagnostics.put("uri", uri);
+        diagnostics.put("diagnostics", List.of());
+        sendNotificationQuietly("textDocument/publishDiagnostics", diagnostics);
+    }
+
+    private List<Object> codeAction(Map<String, Object> params) throws ResponseError {
+        Map<String, Object> textDocument = object(params.get("textDocument"), "textDocument");
+        String uri = string(textDocument.get("uri"), "uri");
+        Map<String, Object> range = object(params.get("range"), "range");
+        int startLine = integer(object(range.get("start"), "start").get("line"), "line");
+        int endLine = integer(object(range.get("end"), "end").get("line"), "line");
+
+        Document document = documents.get(uri);
+        List<Object> codeActions = new ArrayList<>();
+        if (document == null) {
+            return codeActions;
+        }
+        for (Violation violation : document.state.getViolations()) {
+            int line = lineIndex(violation);
+            if (line < startLine || line > endLine) {
+                continue;
+            }
+            Map<String, Object> textEdit = null;
+            String title = null;
+            if (TRAILING_WHITESPACE.equals(violation.getKey())) {
+                String text = document.line(line);
+                textEdit = textEdit(line, characterIndex(text, violation.getColumnNo(), tabWidth(violation)), line, text.length());
+                title = "Remove trailing whitespace";
+            } else if (MULTIPLE_BLANK_LINES.equals(violation.getKey())) {
+                // keep the first blank line, and remove the line terminators and contents of the others
+                int lastBlankLine = line;
+                while (lastBlankLine + 1 < document.checkedLineCount() && document.line(lastBlankLine + 1).isBlank()) {
+                    lastBlankLine++;
+                }
+                textEdit = textEdit(line, document.line(line).length(), lastBlankLine, document.line(lastBlankLine).length());
+                title = "Remove subsequent blank lines";
+            }
+            if (textEdit != null) {
+                Map<String, Object> codeAction = new LinkedHashMap<>();
+                codeAction.put("title", title);
+                codeAction.put("kind", "quickfix");
+                codeAction.put("diagnostics", List.of(diagnostic(document, violation)));
+                codeAction.put("edit", Map.of("changes", Map.of(uri, List.of(textEdit))));
+                codeActions.add(codeAction);
+            }
+        }
+        return codeActions;
+    }
+
+    private void scheduleDiagnostics(String uri) {
+        ScheduledFuture<?> pending = diagnosticsPublisher.schedule(() -> publishDiagnostics(uri), debounceMillis, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> previous = pendingDiagnostics.put(uri, pending);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+
+    private void publishDiagnostics(String uri) {
+        Document document = documents.get(uri);
+        if (document == null) {
+            return;
+        }
+        List<Object> diagnostics = new ArrayList<>();
+        for (Violation violation : document.state.getViolations()) {
+            if (violation.getSeverityLevel() != SeverityLevel.IGNORE) {
+                diagnostics.add(diagnostic(document, violation));
+            }
+        }
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("uri", uri);
+        params.put("version", document.version);
+        params.put("diagnostics", diagnostics);
+        sendNotificationQuietly("textDocument/publishDiagnostics", params);
+    }
+
+    private Map<String, Object> diagnostic(Document document, Violation violation) {
+        int line = lineIndex(violation);
+        String text = line < document.checkedLineCount() ? document.line(line) : "";
+        // without a column, the entire line is affected
+        int character = violation.getColumnNo() > 0 ? characterIndex(text, violation.getColumnNo(), tabWidth(violation)) : 0;
+
+        Map<String, Object> diagnostic = new LinkedHashMap<>();
+        diagnostic.put("range", range(line, character, line, text.length()));
+        diagnostic.put("severity", severity(violation.getSeverityLevel()));
+        diagnostic.put("code", PreCommitMain.moduleName(violation));
+        diagnostic.put("source", "checkstyle");
+        diagnostic.put("message", violation.getViolation());
+        return diagnostic;
+    }
+
+    private static int lineIndex(Violation violation) {
+        // line numbers start at 1, not 0
+        return Math.max(violation.getLineNo() - 1, 0);
+    }
+
+    private int tabWidth(Violation violation) {
+        return tabWidths.getOrDefault(violation.getSourceName(), DEFAULT_TAB_WIDTH);
+    }
+
+    private static int characterIndex(String line, int column, int tabWidth) {
+        // columns start at 1, and tabs are expanded using the tab width of the check that reported the violation
+        int expandedColumn = 0;
+        int length = line.length();
+        for (int i = 0; i < length; i++) {
+            if (expandedColumn >= column - 1) {
+                return i;
+            }
+            expandedColumn = line.charAt(i) == '\t' ? (expandedColumn / tabWidth + 1) * tabWidth : expandedColumn + 1;
+        }
+        return length;
+    }
+
+    private static int severity(SeverityLevel severityLevel) {
+        switch (severityLevel) {
+            case ERROR:
+                return 1;
+            case WARNING:
+                return 2;
+            case INFO:
+                return 3;
+            default:
+                return 4;
+        }
+    }
+
+    private static Map<String, Object> textEdit(int startLine, int startCharacter, int endLine, int endCharacter) {
+        Map<String, Object> textEdit = new LinkedHashMap<>();
+        textEdit.put("range", range(startLine, startCharacter, endLine, endCharacter));
+        textEdit.put("newText", "");
+        return textEdit;
+    }
+
+    private static Map<String, Object> range(int startLine, int startCharacter, int endLine, int endCharacter) {
+        Map<String, Object> range = new LinkedHashMap<>();
+        range.put("start", position(startLine, startCharacter));
+        range.put("end", position(endLine, endCharacter));
+        return range;
+    }
+
+    private static Map<String, Object> position(int line, int character) {
+        Map<String, Object> position = new LinkedHashMap<>();
+        position.put("line", line);
+        position.put("character", character);
+        return position;
+    }
+
+    private String readMessage() throws IOException {
+        int contentLength = -1;
+        String header;
+        while ((header = readHeader()) != null && !header.isEmpty()) {
+            int colonIndex = header.indexOf(':');
+            if (colonIndex != -1 && "Content-Length".equalsIgnoreCase(header.substring(0, colonIndex).trim())) {
+                try {
+                    contentLength = Integer.parseInt(header.substring(colonIndex + 1).trim());
+                } catch (@SuppressWarnings("unused") NumberFormatException e) {
+                    throw new IOException("Invalid header: " + header);
+                }
+            }
+        }
+        if (header == null) {
+            return null;
+        }
+        if (contentLength < 0) {
+            throw new IOException("Missing Content-Length header");
+        }
+        byte[] content = in.readNBytes(contentLength);
+        return content.length == contentLength ? new String(content, StandardCharsets.UTF_8) : null;
+    }
+
+    private String readHeader() throws IOException {
+        // headers are ASCII, and end with \r\n
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                String line = header.toString(StandardCharsets.US_ASCII);
+                return line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+            }
+            header.write(b);
+        }
+        return null;
+    }
+
+    private void sendError(Object id, int code, String errorMessage) throws IOException {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("code", code);
+        error.put("message", errorMessage);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("jsonrpc", "2.0");
+        response.put("id", id);
+        response.put("error", error);
+        send(response);
+    }
+
+    private void sendNotification(String method, Map<String, Object> params) throws IOException {
+        Map<String, Object> notification = new LinkedHashMap<>();
+        notification.put("jsonrpc", "2.0");
+        notification.put("method", method);
+        notification.put("params", params);
+        send(notification);
+    }
+
+    private void sendNotificationQuietly(String method, Map<String, Object> params) {
+        try {
+            sendNotification(method, params);
+        } catch (@SuppressWarnings("unused") IOException e) {
+            // the client went away; it will not send an exit notification, so the server stops when its input is closed
+        }
+    }
+
+    private synchronized void send(Map<String, Object> message) throws IOException {
+        byte[] content = Json.write(message).getBytes(StandardCharsets.UTF_8);
+        out.write(("Content-Length: " + content.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(content);
+        out.flush();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> object(Object value, String name) throws ResponseError {
+        if (value instanceof Map<?, ?>) {
+            return (Map<String, Object>) value;
+        }
+        throw new ResponseError(INVALID_PARAMS, "Missing or invalid " + name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> list(Object value, String name) throws ResponseError {
+        if (value instanceof List<?>) {
+            return (List<Object>) value;
+        }
+        throw new ResponseError(INVALID_PARAMS, "Missing or invalid " + name);
+    }
+
+    private static String string(Object value, String name) throws ResponseError {
+        if (value instanceof String) {
+            return (String) value;
+        }
+        throw new ResponseError(INVALID_PARAMS, "Missing or invalid " + name);
+    }
+
+    private static int integer(Object value, String name) throws ResponseError {
+        if (value instanceof Long) {
+            return ((Long) value).intValue();
+        }
+        throw new ResponseError(INVALID_PARAMS, "Missing or invalid " + name);
+    }
+
+    /**
+     * Splits text into lines like the Language Server Protocol does. Line terminators are {@code \n}, {@code \r\n} and {@code \r}. If the text
+     * ends with a line terminator, the last line is empty.
+     *
+     * @param text The text to split.
+     * @return The lines of the text.
+     */
+    static List<String> splitLines(String text) {
+        List<String> lines = new ArrayList<>();
+        int start = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r') {
+                lines.add(text.substring(start, i));
+                if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                start = i + 1;
+            }
+        }
+        lines.add(text.substring(start));
+        return lines;
+    }
+
+    private static File toFile(String uri) {
+        try {
+            URI parsed = new URI(uri);
+            // relative URIs have no scheme
+            String scheme = parsed.getScheme();
+            if (scheme != null && "file".equals(scheme.toLowerCase(Locale.ROOT))) {
+                return new File(parsed);
+            }
+        } catch (@SuppressWarnings("unused") URISyntaxException | IllegalArgumentException e) {
+            // not a valid file URI
+        }
+        // for instance an unsaved document; the name is still needed to filter on file extensions
+        return new File(uri.substring(uri.lastIndexOf('/') + 1));
+    }
+
+    /**
+     * An open document. The lines of a document are the lines of its state, followed by an empty line if the text ends with a line terminator.
+     * That empty line is not checked, because checks do not see it for files either.
+     */
+    private static final class Document {
+
+        private final int version;
+        private final IncrementalChecker.State state;
+        private final boolean endsWithLineTerminator;
+
+        private Document(int version, IncrementalChecker.State state, boolean endsWithLineTerminator) {
+            this.version = version;
+            this.state = state;
+            this.endsWithLineTerminator = endsWithLineTerminator;
+        }
+
+        private static Document open(IncrementalChecker checker, String uri, int version, String text) throws CheckstyleException {
+            List<String> lines = splitLines(text);
+            boolean endsWithLineTerminator = lines.get(lines.size() - 1).isEmpty();
+            List<String> checkedLines = endsWithLineTerminator ? lines.subList(0, lines.size() - 1) : lines;
+            return new Document(version, checker.check(toFile(uri), checkedLines), endsWithLineTerminator);
+        }
+
+        private Document change(IncrementalChecker checker, int newVersion, Map<String, Object> change) throws ResponseError, CheckstyleException {
+            String text = string(change.get("text"), "text");
+            Object range = change.get("range");
+            if (range == null) {
+                List<String> lines = splitLines(text);
+                boolean newEndsWithLineTerminator = lines.get(lines.size() - 1).isEmpty();
+                List<String> checkedLines = newEndsWithLineTerminator ? lines.subList(0, lines.size() - 1) : lines;
+                return new Document(newVersion, checker.check(state.getFile(), checkedLines), newEndsWithLineTerminator);
+            }
+
+            Map<String, Object> start = object(object(range, "range").get("start"), "start");
+            Map<String, Object> end = object(object(range, "range").get("end"), "end");
+            int lineCount = lineCount();
+            int startLine = Math.min(integer(start.get("line"), "line"), lineCount - 1);
+            int endLine = Math.min(integer(end.get("line"), "line"), lineCount - 1);
+            String startText = line(startLine);
+            String endText = line(endLine);
+            int startCharacter = Math.min(integer(start.get("character"), "character"), startText.length());
+            int endCharacter = Math.min(integer(end.get("character"), "character"), endText.length());
+            if (startLine < 0 || endLine < startLine || endLine == startLine && endCharacter < startCharacter) {
+                throw new ResponseError(INVALID_PARAMS, "Invalid range");
+            }
+
+            // the replaced lines, including the parts of the first and last line that are not replaced
+            List<String> newLines = splitLines(startText.substring(0, startCharacter) + text + endText.substring(endCharacter));
+            int newLineCount = lineCount - (endLine - startLine + 1) + newLines.size();
+            boolean newEndsWithLineTerminator = endLine == lineCount - 1
+                    ? newLines.get(newLines.size() - 1).isEmpty()
+                    : endsWithLineTerminator;
+            int newCheckedLineCount = newEndsWithLineTerminator ? newLineCount - 1 : newLineCount;
+
+            // the trailing empty line is not part of the state
+            int checkedStartLine = Math.min(startLine, checkedLineCount());
+            int checkedEndLine = Math.min(endLine + 1, checkedLineCount());
+            List<String> newCheckedLines = newLines.subList(0, Math.max(Math.min(newLines.size(), newCheckedLineCount - startLine), 0));
+            return new Document(newVersion, checker.edit(state, checkedStartLine, checkedEndLine, newCheckedLines), newEndsWithLineTerminator);
+        }
+
+        private int lineCount() {
+            return endsWithLineTerminator ? checkedLineCount() + 1 : checkedLineCount();
+        }
+
+        private int checkedLineCount() {
+            return state.getLines().size();
+        }
+
+        private String line(int index) {
+            return index < checkedLineCount() ? state.getLines().get(index) : "";
+        }
+    }
+
+    private static final class ResponseError extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int code;
+
+        private ResponseError(int code, String message) {
+            super(message);
+            this.code = code;
+        }
+    }
+}
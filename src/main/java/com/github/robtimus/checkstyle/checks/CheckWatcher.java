@@ -0,0 +1,403 @@
+/*
+ * CheckWatcher.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+/**
+ * Watches files and directories, and re-checks only files that are modified. The violations of each file are kept in memory. After each
+ * change, only violations that were added or removed are printed, prefixed with {@code +} or {@code -} respectively. Bursts of changes, like
+ * those caused by saving several files or switching branches, are combined: files are only re-checked once no new changes have been seen for
+ * the debounce time.
+ * <p>
+ * Violations are compared by check, message, column and the text of their line, but not by line number. A violation that only moved because
+ * lines were inserted or removed above it is therefore not printed again.
+ * <p>
+ * Usage: {@code java -cp checkstyle.jar:checkstyle-extension.jar com.github.robtimus.checkstyle.checks.CheckWatcher [-c <file>]
+ * [--debounce <millis>] <file or directory>...}
+ * <p>
+ * The configuration file has the same format as for {@link PreCommitMain}. Violations have the same format as well. Like for
+ * {@link PreCommitMain}, {@code .git} and {@code target} directories inside watched directories are not watched.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+public final class CheckWatcher implements AutoCloseable {
+
+    /** The default debounce time in milliseconds. */
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 200;
+
+    private final List<AbstractFileSetCheck> checks;
+    private final List<Path> roots;
+    private final List<Path> directoryRoots;
+    private final Set<Path> fileRoots;
+    private final PrintStream out;
+
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+
+    // the formatted violations per file by violation key, for all files that have been checked
+    private final Map<Path, Map<String, String>> violations = new TreeMap<>();
+
+    private long debounceMillis = DEFAULT_DEBOUNCE_MILLIS;
+
+    /**
+     * Creates a new watcher.
+     *
+     * @param checks The configured checks to run.
+     * @param roots The files and directories to watch. Directories are watched recursively, except for {@code .git} and {@code target}
+     *                  directories inside them.
+     * @param out The stream to print added and removed violations to.
+     * @throws IOException If the files and directories could not be watched.
+     */
+    public CheckWatcher(List<AbstractFileSetCheck> checks, List<Path> roots, PrintStream out) throws IOException {
+        this.checks = List.copyOf(checks);
+        this.roots = roots.stream()
+                .map(Path::toAbsolutePath)
+                .collect(Collectors.toUnmodifiableList());
+        this.directoryRoots = this.roots.stream()
+                .filter(Files::isDirectory)
+                .collect(Collectors.toUnmodifiableList());
+        this.fileRoots = this.roots.stream()
+                .filter(root -> !Files.isDirectory(root))
+                .collect(Collectors.toUnmodifiableSet());
+        this.out = out;
+
+        this.watchService = FileSystems.getDefault().newWatchService();
+        try {
+            for (Path root : directoryRoots) {
+                watchDirectories(root);
+            }
+            for (Path root : fileRoots) {
+                // WatchService only supports directories; a file is watched through its parent, but not through its parent's sub directories
+                watchDirectory(root.getParent());
+            }
+        } catch (IOException | RuntimeException e) {
+            watchService.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Sets the time to wait for more changes before re-checking files. Defaults to {@value #DEFAULT_DEBOUNCE_MILLIS}.
+     *
+     * @param debounceMillis The time to wait for more changes in milliseconds.
+     * @throws IllegalArgumentException If the given time is negative.
+     */
+    public void setDebounceMillis(long debounceMillis) {
+        if (debounceMillis < 0) {
+            throw new IllegalArgumentException("Negative debounce time: " + debounceMillis);
+        }
+        this.debounceMillis = debounceMillis;
+    }
+
+    /**
+     * Watches files until interrupted or closed.
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String... args) {
+        int exitCode = run(args, System.out, System.err);
+        if (exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        Path configFile = null;
+        Long debounceMillis = null;
+        List<Path> paths = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if ("-c".equals(args[i]) && i + 1 < args.length) {
+                    configFile = Path.of(args[++i]);
+                } else if ("--debounce".equals(args[i]) && i + 1 < args.length) {
+                    debounceMillis = Long.valueOf(args[++i]);
+                } else {
+                    paths.add(Path.of(args[i]));
+                }
+            }
+        } catch (@SuppressWarnings("unused") NumberFormatException e) {
+            paths.clear();
+        }
+        if (paths.isEmpty()) {
+            err.println("Usage: CheckWatcher [-c <configuration file>] [--debounce <millis>] <file or directory>...");
+            return PreCommitMain.EXIT_FAILURE;
+        }
+
+        try {
+            List<AbstractFileSetCheck> checks = configFile == null
+                    ? PreCommitMain.createChecks(PreCommitMain.DEFAULT_CHECKS)
+                    : PreCommitMain.createChecks(Files.readAllLines(configFile));
+            try (CheckWatcher watcher = new CheckWatcher(checks, paths, out)) {
+                if (debounceMillis != null) {
+                    watcher.setDebounceMillis(debounceMillis);
+                }
+                watcher.watch();
+            }
+            return PreCommitMain.EXIT_SUCCESS;
+        } catch (CheckstyleException | IOException | IllegalArgumentException e) {
+            err.println(e.getMessage());
+            return PreCommitMain.EXIT_FAILURE;
+        } catch (@SuppressWarnings("unused") InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return PreCommitMain.EXIT_SUCCESS;
+        }
+    }
+
+    private void watchDirectories(Path directory) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (!dir.equals(directory) && PreCommitMain.isExcludedDirectory(dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                watchDirectory(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void watchDirectory(Path directory) throws IOException {
+        WatchKey key = directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        watchedDirectories.put(key, directory);
+    }
+
+    /**
+     * Returns the directories that are being watched.
+     *
+     * @return The directories that are being watched, sorted.
+     */
+    SortedSet<Path> watchedDirectories() {
+        return new TreeSet<>(watchedDirectories.values());
+    }
+
+    /**
+     * Checks all files, then re-checks files whenever they change. Violations of the initial check are printed as added violations.
+     * This method returns when the watcher is closed.
+     *
+     * @throws IOException If an I/O error occurs.
+     * @throws InterruptedException If the current thread is interrupted while waiting for changes.
+     */
+    public void watch() throws IOException, InterruptedException {
+        print(checkAll());
+        try {
+            while (true) {
+                Set<Path> changedPaths = new TreeSet<>();
+                WatchKey key = watchService.take();
+                collectChanges(key, changedPaths);
+                // debounce: keep collecting until there are no new changes for the debounce time
+                while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    collectChanges(key, changedPaths);
+                }
+                print(recheck(changedPaths));
+            }
+        } catch (@SuppressWarnings("unused") ClosedWatchServiceException e) {
+            // the watcher is closed
+        }
+    }
+
+    private void collectChanges(WatchKey key, Set<Path> changedPaths) throws IOException {
+        Path directory = watchedDirectories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // events were lost, so re-check everything
+                changedPaths.addAll(violations.keySet());
+                changedPaths.addAll(listFiles());
+            } else if (directory != null) {
+                Path path = directory.resolve((Path) event.context());
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                    if (isInDirectoryRoot(path) && !PreCommitMain.isExcludedDirectory(path)) {
+                        watchDirectories(path);
+                        changedPaths.addAll(PreCommitMain.listFiles(List.of(path)).stream()
+                                .map(File::toPath)
+                                .collect(Collectors.toList()));
+                    }
+                } else if (isWatched(path)) {
+                    changedPaths.add(path);
+                }
+            }
+        }
+        if (!key.reset()) {
+            watchedDirectories.remove(key);
+        }
+    }
+
+    private boolean isWatched(Path path) {
+        // files that are not in a watched directory tree are watched through their parent, but other files in that parent are not watched
+        return fileRoots.contains(path) || isInDirectoryRoot(path) || violations.containsKey(path);
+    }
+
+    private boolean isInDirectoryRoot(Path path) {
+        for (Path root : directoryRoots) {
+            if (path.startsWith(root) && !isInExcludedDirectory(path, root)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isInExcludedDirectory(Path path, Path root) {
+        for (Path directory = path.getParent(); directory != null && !directory.equals(root); directory = directory.getParent()) {
+            if (PreCommitMain.isExcludedDirectory(directory)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Path> listFiles() throws IOException {
+        return PreCommitMain.listFiles(roots).stream()
+                .map(File::toPath)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Checks all watched files, and remembers their violations.
+     *
+     * @return The violations of all files, prefixed with {@code +}.
+     * @throws IOException If the watched files could not be listed.
+     */
+    List<String> checkAll() throws IOException {
+        violations.clear();
+        return recheck(listFiles());
+    }
+
+    /**
+     * Re-checks the given files, and remembers their violations. Paths that no longer exist lose all of their violations, as do files in
+     * directories that no longer exist.
+     *
+     * @param paths The paths of the files to re-check.
+     * @return The violations that were removed, prefixed with {@code -}, followed by the violations that were added, prefixed with {@code +}.
+     */
+    List<String> recheck(Collection<Path> paths) {
+        List<String> removed = new ArrayList<>();
+        List<String> added = new ArrayList<>();
+        for (Path path : paths) {
+            if (Files.isRegularFile(path)) {
+                Map<String, String> oldViolations = violations.getOrDefault(path, Map.of());
+                Map<String, String> newViolations = check(path);
+                violations.put(path, newViolations);
+                diff(oldViolations, newViolations, removed, added);
+            } else if (!Files.exists(path)) {
+                List<Path> deletedFiles = violations.keySet().stream()
+                        .filter(p -> p.startsWith(path))
+                        .collect(Collectors.toList());
+                for (Path deletedFile : deletedFiles) {
+                    diff(violations.remove(deletedFile), Map.of(), removed, added);
+                }
+            }
+        }
+        removed.addAll(added);
+        return removed;
+    }
+
+    private Map<String, String> check(Path path) {
+        File file = path.toFile();
+        Map<String, String> fileViolations = new LinkedHashMap<>();
+        try {
+            FileText fileText = PreCommitMain.readFile(file);
+            SortedSet<Violation> sortedViolations = new TreeSet<>();
+            for (AbstractFileSetCheck check : checks) {
+                sortedViolations.addAll(check.process(file, fileText));
+            }
+            Map<String, Integer> occurrences = new HashMap<>();
+            for (Violation violation : sortedViolations) {
+                String key = violationKey(violation, fileText);
+                // equal violations on equal lines are told apart by their order, which line shifts do not change
+                int occurrence = occurrences.merge(key, 1, Integer::sum);
+                fileViolations.put(key + "#" + occurrence, PreCommitMain.format(file, violation));
+            }
+        } catch (CheckstyleException e) {
+            // report the error like a violation, so it's removed once the file can be read again
+            fileViolations.put(e.getMessage(), e.getMessage());
+        }
+        return fileViolations;
+    }
+
+    private static String violationKey(Violation violation, FileText fileText) {
+        // the line number is left out, so violations keep their key if lines are inserted or removed above them
+        int lineIndex = violation.getLineNo() - 1;
+        String line = lineIndex >= 0 && lineIndex < fileText.size() ? fileText.get(lineIndex) : "";
+        return String.join("\u0000", PreCommitMain.moduleName(violation), violation.getKey(), violation.getSeverityLevel().getName(),
+                Integer.toString(violation.getColumnNo()), violation.getViolation(), line);
+    }
+
+    private static void diff(Map<String, String> oldViolations, Map<String, String> newViolations, List<String> removed, List<String> added) {
+        for (Map.Entry<String, String> violation : oldViolations.entrySet()) {
+            if (!newViolations.containsKey(violation.getKey())) {
+                removed.add("- " + violation.getValue());
+            }
+        }
+        for (Map.Entry<String, String> violation : newViolations.entrySet()) {
+            if (!oldViolations.containsKey(violation.getKey())) {
+                added.add("+ " + violation.getValue());
+            }
+        }
+    }
+
+    private void print(List<String> lines) {
+        for (String line : lines) {
+            out.println(line);
+        }
+        out.flush();
+    }
+
+    /**
+     * Stops watching files. If another thread is watching files, it will return from {@link #watch()}.
+     */
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
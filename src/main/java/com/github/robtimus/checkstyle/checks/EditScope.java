@@ -0,0 +1,46 @@
+/*
+ * EditScope.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+/**
+ * The lines that need to be re-checked by a check after lines of a file have been replaced.
+ *
+ * @author Rob Spoor
+ * @see IncrementalChecker
+ */
+enum EditScope {
+
+    /** Only the replaced lines need to be re-checked, because each line is checked on its own. */
+    LINE,
+
+    /** The replaced lines and the lines directly before and after them need to be re-checked, because violations depend on pairs of lines. */
+    ADJACENT_LINES,
+
+    /** The replaced lines and any blank lines directly before and after them need to be re-checked. */
+    BLANK_LINES,
+
+    /**
+     * The entire file needs to be re-checked, but only if any of its header lines have been replaced.
+     *
+     * @see AbstractTextCheck#headerLineCount(java.util.List)
+     */
+    HEADER,
+
+    /** The entire file needs to be re-checked. */
+    FILE
+}
@@ -0,0 +1,137 @@
+/*
+ * FileBudget.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import java.util.concurrent.TimeUnit;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+
+/**
+ * A budget for processing a single file, in lines, in milliseconds, or both. Checks call {@link #start()} before processing a file, and
+ * {@link #isExceeded(AbstractFileSetCheck, int, int)} for each line they are about to process. Once the budget is exceeded, a
+ * {@code budgetExceeded} violation is logged, and the check should stop processing the file.
+ * <p>
+ * To keep the overhead of reading the clock low, the time budget is only checked once every {@value #TIME_CHECK_INTERVAL} characters. Checks
+ * report the number of characters they process with each call, so files with very long lines are stopped as well. Checks that scan entire lines
+ * should process lines that are longer than {@value #TIME_CHECK_INTERVAL} characters in chunks, and call
+ * {@link #isExceeded(AbstractFileSetCheck, int, int)} for each chunk. Lines that are skipped without being processed, like suppressed lines,
+ * should be reported using {@link #isTimeExceeded(AbstractFileSetCheck, int, int)}, so they count towards the time budget but not the line budget.
+ * <p>
+ * Budgets are configured once, and can then be used by several threads at the same time. The deadline and character count for the current file
+ * are kept per thread, and the line count is derived from the line index, so checks do not keep any per-file state in their fields.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+final class FileBudget {
+
+    static final String MESSAGE_KEY = "budgetExceeded";
+
+    static final int TIME_CHECK_INTERVAL = 16384;
+
+    private static final int DEADLINE_NANOS = 0;
+    private static final int UNCHECKED_CHARACTERS = 1;
+
+    private int maxLines;
+    private int maxMillis;
+
+    // the deadline for the current file, and the number of characters processed since the clock was last read
+    private final ThreadLocal<long[]> fileState = ThreadLocal.withInitial(() -> new long[2]);
+
+    /**
+     * Sets the maximum number of lines to process per file.
+     *
+     * @param maxLines The maximum number of lines to process per file, or 0 for no maximum.
+     * @throws IllegalArgumentException If the given number of lines is negative.
+     */
+    void setMaxLines(int maxLines) {
+        if (maxLines < 0) {
+            throw new IllegalArgumentException("Negative maximum number of lines per file: " + maxLines);
+        }
+        this.maxLines = maxLines;
+    }
+
+    /**
+     * Sets the maximum time to spend per file.
+     *
+     * @param maxMillis The maximum time to spend per file in milliseconds, or 0 for no maximum.
+     * @throws IllegalArgumentException If the given time is negative.
+     */
+    void setMaxMillis(int maxMillis) {
+        if (maxMillis < 0) {
+            throw new IllegalArgumentException("Negative maximum number of milliseconds per file: " + maxMillis);
+        }
+        this.maxMillis = maxMillis;
+    }
+
+    /**
+     * Starts the budget for a new file in the current thread.
+     */
+    void start() {
+        if (maxMillis > 0) {
+            long[] state = fileState.get();
+            state[DEADLINE_NANOS] = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxMillis);
+            state[UNCHECKED_CHARACTERS] = 0;
+        }
+    }
+
+    /**
+     * Returns whether or not the budget is exceeded. If so, a {@code budgetExceeded} violation is logged.
+     * The time budget is only checked if at least {@value #TIME_CHECK_INTERVAL} characters have been reported since it was last checked.
+     *
+     * @param check The check that is processing the file.
+     * @param lineIndex The 0-based index of the line that the check is about to process.
+     * @param characters The number of characters that the check is about to process.
+     *            Each call also counts one character for the line terminator.
+     * @return {@code true} if the budget is exceeded, or {@code false} otherwise.
+     */
+    boolean isExceeded(AbstractFileSetCheck check, int lineIndex, int characters) {
+        if (maxLines > 0 && lineIndex >= maxLines) {
+            // Line numbers start at 1, not 0
+            check.log(lineIndex + 1, MESSAGE_KEY, check.getClass().getSimpleName(), maxLines + " lines");
+            return true;
+        }
+        return isTimeExceeded(check, lineIndex, characters);
+    }
+
+    /**
+     * Returns whether or not the time budget is exceeded. If so, a {@code budgetExceeded} violation is logged.
+     * The time budget is only checked if at least {@value #TIME_CHECK_INTERVAL} characters have been reported since it was last checked.
+     *
+     * @param check The check that is processing the file.
+     * @param lineIndex The 0-based index of the line that the check is about to process or skip.
+     * @param characters The number of characters that the check is about to process or skip.
+     *            Each call also counts one character for the line terminator.
+     * @return {@code true} if the time budget is exceeded, or {@code false} otherwise.
+     */
+    boolean isTimeExceeded(AbstractFileSetCheck check, int lineIndex, int characters) {
+        if (maxMillis > 0) {
+            long[] state = fileState.get();
+            // count the line terminator as well, so runs of empty lines add up too
+            state[UNCHECKED_CHARACTERS] += characters + 1L;
+            if (state[UNCHECKED_CHARACTERS] >= TIME_CHECK_INTERVAL) {
+                state[UNCHECKED_CHARACTERS] = 0;
+                if (System.nanoTime() - state[DEADLINE_NANOS] > 0) {
+                    // Line numbers start at 1, not 0
+                    check.log(lineIndex + 1, MESSAGE_KEY, check.getClass().getSimpleName(), maxMillis + " ms");
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * FileTextPrefetcher.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+/**
+ * Reads and decodes files into {@link FileText} instances ahead of the code that checks them. While one file is being checked, the next files
+ * are already being read in the background, so checking does not have to wait for file reads and charset decoding.
+ * <p>
+ * Files are returned in the order they were given. Files are read using virtual threads if these are available (Java 21 and up), or using a
+ * small pool of platform threads otherwise. Reading stays a bounded number of files ahead, and the total size of the files that are being read
+ * or have been read but not yet returned is capped. A single file that is larger than this cap is still read, but only once it's the next file
+ * to return.
+ * <p>
+ * Instances are not thread-safe; if {@link #hasNext()} and {@link #next()} are called from several threads, these calls must be synchronized.
+ * Instances should be closed when no longer needed, to stop any remaining reads.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+public final class FileTextPrefetcher implements AutoCloseable {
+
+    /** The default maximum number of files to read ahead. */
+    public static final int DEFAULT_MAX_FILES_AHEAD = 16;
+
+    /** The default maximum total size of files that are read ahead, in bytes. */
+    public static final long DEFAULT_MAX_BUFFERED_BYTES = 64L * 1024 * 1024;
+
+    private static final int MAX_PLATFORM_THREADS = 4;
+
+    private final List<File> files;
+    private final String charset;
+    private final int maxFilesAhead;
+    private final long maxBufferedBytes;
+
+    private final ExecutorService executor;
+    private final Deque<PendingFile> pendingFiles;
+
+    private int nextFileToRead;
+    // files that have been taken from pendingFiles but are not yet returned; they still count towards the limits
+    private int claimedFiles;
+    private long bufferedBytes;
+    private boolean closed;
+
+    /**
+     * Creates a new prefetcher with the default limits.
+     *
+     * @param files The files to read.
+     * @param charset The name of the charset to read files with.
+     * @throws IllegalArgumentException If the given charset is not supported.
+     */
+    public FileTextPrefetcher(List<File> files, String charset) {
+        this(files, charset, DEFAULT_MAX_FILES_AHEAD, DEFAULT_MAX_BUFFERED_BYTES);
+    }
+
+    /**
+     * Creates a new prefetcher.
+     *
+     * @param files The files to read.
+     * @param charset The name of the charset to read files with.
+     * @param maxFilesAhead The maximum number of files that are being read or have been read but not yet returned.
+     * @param maxBufferedBytes The maximum total size of the files that are being read or have been read but not yet returned, in bytes.
+     *                             This is based on the sizes of the files, not on the memory used by the decoded text.
+     * @throws IllegalArgumentException If the given charset is not supported, or if either limit is not positive.
+     */
+    public FileTextPrefetcher(List<File> files, String charset, int maxFilesAhead, long maxBufferedBytes) {
+        if (!Charset.isSupported(charset)) {
+            throw new IllegalArgumentException("Unsupported charset: " + charset);
+        }
+        if (maxFilesAhead <= 0) {
+            throw new IllegalArgumentException("Non-positive maximum number of files ahead: " + maxFilesAhead);
+        }
+        if (maxBufferedBytes <= 0) {
+            throw new IllegalArgumentException("Non-positive maximum number of buffered bytes: " + maxBufferedBytes);
+        }
+
+        this.files = List.copyOf(files);
+        this.charset = charset;
+        this.maxFilesAhead = maxFilesAhead;
+        this.maxBufferedBytes = maxBufferedBytes;
+
+        this.executor = newExecutor(Math.min(maxFilesAhead, MAX_PLATFORM_THREADS));
+        this.pendingFiles = new ArrayDeque<>(Math.min(maxFilesAhead, this.files.size()));
+
+        readAhead();
+    }
+
+    private static ExecutorService newExecutor(int platformThreads) {
+        try {
+            // Executors.newVirtualThreadPerTaskExecutor() is only available as of Java 21
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (@SuppressWarnings("unused") ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(platformThreads, new PrefetchThreadFactory());
+        }
+    }
+
+    /**
+     * Returns whether or not there are more files to return.
+     *
+     * @return {@code true} if there are more files to return, or {@code false} otherwise.
+     */
+    public boolean hasNext() {
+        return !pendingFiles.isEmpty() || nextFileToRead < files.size();
+    }
+
+    /**
+     * Returns the contents of the next file. If this file has not been read yet, this method waits until it has been.
+     * If reading the file failed, the error is thrown; the file after it can still be retrieved by calling this method again.
+     *
+     * @return The contents of the next file.
+     * @throws NoSuchElementException If there are no more files to return.
+     * @throws IllegalStateException If this prefetcher is closed.
+     * @throws IOException If the next file could not be read.
+     */
+    public FileText next() throws IOException {
+        PendingFile pendingFile = claim();
+        try {
+            return pendingFile.await();
+        } finally {
+            release(pendingFile);
+        }
+    }
+
+    /**
+     * Takes the next file without waiting until it has been read. This allows several threads to wait for their files at the same time;
+     * calls to this method and {@link #release(PendingFile)} must be synchronized like calls to {@link #next()}, but calls to
+     * {@link PendingFile#await()} need not be. The file keeps counting towards the limits until it's released.
+     *
+     * @return The next file.
+     * @throws NoSuchElementException If there are no more files to return.
+     * @throws IllegalStateException If this prefetcher is closed.
+     */
+    PendingFile claim() {
+        if (closed) {
+            throw new IllegalStateException("closed");
+        }
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        if (pendingFiles.isEmpty()) {
+            // the claimed files fill up the limits, but the next file to return is always read
+            File file = files.get(nextFileToRead);
+            readFile(file, file.length());
+        }
+        claimedFiles++;
+        return pendingFiles.removeFirst();
+    }
+
+    /**
+     * Releases a file that was returned by {@link #claim()}, so it no longer counts towards the limits. This must be called after
+     * {@link PendingFile#await()} has returned or thrown an exception.
+     *
+     * @param pendingFile The file to release.
+     */
+    void release(PendingFile pendingFile) {
+        if (!closed) {
+            claimedFiles--;
+            bufferedBytes -= pendingFile.size;
+            readAhead();
+        }
+    }
+
+    private void readAhead() {
+        while (nextFileToRead < files.size() && bufferedFileCount() < maxFilesAhead) {
+            File file = files.get(nextFileToRead);
+            long size = file.length();
+            // the next file to return is always read, even if it alone exceeds the cap
+            if (bufferedFileCount() > 0 && bufferedBytes + size > maxBufferedBytes) {
+                return;
+            }
+            readFile(file, size);
+        }
+    }
+
+    private void readFile(File file, long size) {
+        pendingFiles.addLast(new PendingFile(file, size, CompletableFuture.supplyAsync(() -> read(file), executor)));
+        bufferedBytes += size;
+        nextFileToRead++;
+    }
+
+    private FileText read(File file) {
+        try {
+            return new FileText(file.getAbsoluteFile(), charset);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    int bufferedFileCount() {
+        return pendingFiles.size() + claimedFiles;
+    }
+
+    long bufferedBytes() {
+        return bufferedBytes;
+    }
+
+    /**
+     * Closes this prefetcher. Files that have not been read yet will not be read.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            for (PendingFile pendingFile : pendingFiles) {
+                pendingFile.future.cancel(false);
+            }
+            pendingFiles.clear();
+            claimedFiles = 0;
+            bufferedBytes = 0;
+            nextFileToRead = files.size();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * A file that is being read or has been read, but has not yet been returned.
+     */
+    static final class PendingFile {
+
+        private final File file;
+        private final long size;
+        private final CompletableFuture<FileText> future;
+
+        private PendingFile(File file, long size, CompletableFuture<FileText> future) {
+            this.file = file;
+            this.size = size;
+            this.future = future;
+        }
+
+        /**
+         * Returns the contents of this file. If this file has not been read yet, this method waits until it has been.
+         *
+         * @return The contents of this file.
+         * @throws IOException If this file could not be read.
+         */
+        FileText await() throws IOException {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                InterruptedIOException exception = new InterruptedIOException("Interrupted while reading " + file);
+                exception.initCause(e);
+                throw exception;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) cause).getCause();
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IOException(cause);
+            }
+        }
+    }
+
+    private static final class PrefetchThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "checkstyle-prefetch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
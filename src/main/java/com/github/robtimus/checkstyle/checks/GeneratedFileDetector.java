@@ -0,0 +1,121 @@
+/*
+ * GeneratedFileDetector.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+/**
+ * Detects generated files by looking for marker strings in the first lines of files.
+ * <p>
+ * Instances are shared between checks with the same configuration, and remember the verdict for the last inspected file per thread.
+ * Because a {@code Checker} runs all of its checks on a file before moving on to the next file, the first lines of each file are only inspected
+ * once, regardless of the number of checks that use the same detector. This also holds for {@link ParallelAuditRunner}, where each worker thread
+ * runs all of its checks on a file before moving on to the next file.
+ *
+ * @author Rob Spoor
+ */
+final class GeneratedFileDetector {
+
+    static final List<String> DEFAULT_MARKERS = List.of(
+            "@Generated", "DO NOT EDIT", "Generated by the protocol buffer compiler", "Generated from", "Autogenerated", "auto-generated");
+
+    static final int DEFAULT_HEADER_LINES = 50;
+
+    private static final Map<Key, GeneratedFileDetector> INSTANCES = new ConcurrentHashMap<>();
+
+    private final MultiTokenMatcher markerMatcher;
+    private final int headerLines;
+
+    private final ThreadLocal<Verdict> lastVerdict = new ThreadLocal<>();
+
+    private GeneratedFileDetector(Key key) {
+        this.markerMatcher = key.markers.isEmpty() ? null : new MultiTokenMatcher(key.markers);
+        this.headerLines = key.headerLines;
+    }
+
+    static GeneratedFileDetector getInstance(List<String> markers, int headerLines) {
+        return INSTANCES.computeIfAbsent(new Key(markers, headerLines), GeneratedFileDetector::new);
+    }
+
+    boolean isGenerated(FileText fileText) {
+        Verdict verdict = lastVerdict.get();
+        if (verdict == null || verdict.fileText.get() != fileText) {
+            verdict = new Verdict(fileText, containsMarker(fileText));
+            lastVerdict.set(verdict);
+        }
+        return verdict.generated;
+    }
+
+    private boolean containsMarker(FileText fileText) {
+        if (markerMatcher == null) {
+            return false;
+        }
+        int lineCount = Math.min(fileText.size(), headerLines);
+        for (int i = 0; i < lineCount; i++) {
+            if (markerMatcher.containsAny(fileText.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Key {
+
+        private final List<String> markers;
+        private final int headerLines;
+
+        private Key(List<String> markers, int headerLines) {
+            this.markers = List.copyOf(markers);
+            this.headerLines = headerLines;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key other = (Key) o;
+            return markers.equals(other.markers) && headerLines == other.headerLines;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(markers, headerLines);
+        }
+    }
+
+    private static final class Verdict {
+
+        // a weak reference prevents the detector from keeping the last file in memory
+        private final WeakReference<FileText> fileText;
+        private final boolean generated;
+
+        private Verdict(FileText fileText, boolean generated) {
+            this.fileText = new WeakReference<>(fileText);
+            this.generated = generated;
+        }
+    }
+}
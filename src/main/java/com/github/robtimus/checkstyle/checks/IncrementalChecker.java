@@ -0,0 +1,400 @@
+/*
+ * IncrementalChecker.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
+
+/**
+ * Re-checks files after edits, for instance while they are being edited in an IDE. Instead of re-checking an entire file after each edit, only the
+ * lines that can be affected by the edit are re-checked:
+ * <ul>
+ *   <li>For {@link NoTrailingWhitespaceCheck} and {@link IndentationWhitespaceCheck}, only the replaced lines.
+ *       If {@link IndentationWhitespaceCheck} uses consistent indentation, the entire file.</li>
+ *   <li>For {@link NoBlankLineAfterSymbolsCheck} and {@link NoBlankLineBeforeSymbolsCheck}, the replaced lines and the lines directly before and
+ *       after them.</li>
+ *   <li>For {@link NoSubsequentBlankLinesCheck}, the replaced lines and the runs of blank lines directly before and after them.</li>
+ *   <li>For {@link LicenseCommentCheck}, the entire file if the license comment has been edited.</li>
+ *   <li>For all other checks, the entire file.</li>
+ * </ul>
+ * Lines are re-checked together with any suppressed region they are in. If an edit adds or removes suppression markers, or changes whether or
+ * not a file is skipped, the entire file is re-checked.
+ * <p>
+ * The state of a checked file is kept in {@link State} objects. This includes the lines of the file, a classification of each line, and the
+ * violations of each check. States are immutable, so instances of this class can be used by several threads at the same time, as long as the
+ * checks comply with the thread-safety contract of the checks in this package.
+ * <p>
+ * Because files are represented as lines, line terminators are not known. Checks that inspect line terminators, like {@link LineEndingsCheck},
+ * should not be used. If a maximum number of lines or milliseconds per file is configured, it applies to each group of lines that is
+ * re-checked.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+public final class IncrementalChecker {
+
+    // line classification flags
+    private static final byte BLANK = 1;
+    private static final byte SUPPRESSION_OFF = 2;
+    private static final byte SUPPRESSION_ON = 4;
+    private static final byte SUPPRESSED = 8;
+
+    private final List<AbstractFileSetCheck> checks;
+
+    /**
+     * Creates a new incremental checker.
+     *
+     * @param checks The configured checks to run.
+     */
+    public IncrementalChecker(List<? extends AbstractFileSetCheck> checks) {
+        this.checks = List.copyOf(checks);
+    }
+
+    /**
+     * Checks an entire file.
+     *
+     * @param file The file to check. It is not read; it is only used to filter on file extensions and to report violations.
+     * @param lines The lines of the file.
+     * @return The state of the checked file.
+     * @throws CheckstyleException If an error occurs while checking the file.
+     */
+    public State check(File file, List<String> lines) throws CheckstyleException {
+        String[] lineArray = lines.toArray(new String[0]);
+        byte[] lineFlags = new byte[lineArray.length];
+        classifyLines(lineArray, 0, lineArray.length, lineFlags);
+        markSuppressedLines(lineFlags);
+
+        FileText fileText = new FileText(file, Arrays.asList(lineArray));
+        List<List<Violation>> violations = new ArrayList<>(checks.size());
+        boolean[] skipped = new boolean[checks.size()];
+        for (int i = 0; i < checks.size(); i++) {
+            AbstractFileSetCheck check = checks.get(i);
+            violations.add(List.copyOf(check.process(file, fileText)));
+            skipped[i] = check instanceof AbstractTextCheck && ((AbstractTextCheck) check).isSkipped(fileText);
+        }
+        return new State(file, lineArray, lineFlags, violations, skipped);
+    }
+
+    /**
+     * Re-checks a file after some of its lines have been replaced.
+     *
+     * @param state The state of the file before the edit.
+     * @param startLine The 0-based index of the first replaced line, inclusive.
+     * @param endLine The 0-based index of the last replaced line, exclusive. If equal to {@code startLine}, lines are only inserted.
+     * @param newLines The lines that replace the replaced lines. If empty, lines are only removed.
+     * @return The state of the file after the edit.
+     * @throws IndexOutOfBoundsException If the start or end line is invalid for the given state.
+     * @throws CheckstyleException If an error occurs while re-checking the file.
+     */
+    public State edit(State state, int startLine, int endLine, List<String> newLines) throws CheckstyleException {
+        Objects.checkFromToIndex(startLine, endLine, state.lines.length);
+
+        int lineCountDelta = newLines.size() - (endLine - startLine);
+        int newEndLine = endLine + lineCountDelta;
+
+        String[] lines = new String[state.lines.length + lineCountDelta];
+        System.arraycopy(state.lines, 0, lines, 0, startLine);
+        for (int i = startLine; i < newEndLine; i++) {
+            lines[i] = newLines.get(i - startLine);
+        }
+        System.arraycopy(state.lines, endLine, lines, newEndLine, state.lines.length - endLine);
+
+        byte[] lineFlags = new byte[lines.length];
+        System.arraycopy(state.lineFlags, 0, lineFlags, 0, startLine);
+        classifyLines(lines, startLine, newEndLine, lineFlags);
+        System.arraycopy(state.lineFlags, endLine, lineFlags, newEndLine, state.lines.length - endLine);
+        markSuppressedLines(lineFlags);
+
+        boolean suppressionChanged = containsSuppressionMarkers(state.lineFlags, startLine, endLine)
+                || containsSuppressionMarkers(lineFlags, startLine, newEndLine);
+
+        Edit edit = new Edit(state.file, lines, lineFlags, startLine, endLine, newEndLine);
+        List<List<Violation>> violations = new ArrayList<>(checks.size());
+        boolean[] skipped = state.skipped.clone();
+        for (int i = 0; i < checks.size(); i++) {
+            AbstractFileSetCheck check = checks.get(i);
+            List<Violation> oldViolations = state.violations.get(i);
+            List<Violation> newViolations;
+            if (check instanceof AbstractTextCheck) {
+                AbstractTextCheck textCheck = (AbstractTextCheck) check;
+                boolean wasSkipped = skipped[i];
+                skipped[i] = isSkipped(textCheck, edit, wasSkipped);
+                EditScope scope = suppressionChanged || skipped[i] != wasSkipped ? EditScope.FILE : textCheck.editScope();
+                newViolations = skipped[i]
+                        ? List.of()
+                        : recheck(textCheck, scope, edit, oldViolations);
+            } else {
+                newViolations = List.copyOf(check.process(edit.file, edit.fileText()));
+            }
+            violations.add(newViolations);
+        }
+        return new State(state.file, lines, lineFlags, violations, skipped);
+    }
+
+    private static boolean isSkipped(AbstractTextCheck check, Edit edit, boolean wasSkipped) {
+        int skipDetectionLineCount = check.skipDetectionLineCount(edit.lineList);
+        if (edit.startLine >= skipDetectionLineCount) {
+            // none of the lines that determine whether or not the file is skipped have been replaced
+            return wasSkipped;
+        }
+        return check.isSkipped(new FileText(edit.file, edit.lineList.subList(0, skipDetectionLineCount)));
+    }
+
+    private static List<Violation> recheck(AbstractTextCheck check, EditScope scope, Edit edit, List<Violation> oldViolations)
+            throws CheckstyleException {
+
+        int lineCount = edit.lines.length;
+        // violations in the core are replaced; other lines are only re-checked to give the checks the necessary context
+        int coreStart;
+        int coreEnd;
+        int context;
+        switch (scope) {
+            case LINE:
+                coreStart = edit.startLine;
+                coreEnd = edit.newEndLine;
+                context = 0;
+                break;
+            case ADJACENT_LINES:
+                coreStart = Math.max(edit.startLine - 1, 0);
+                coreEnd = Math.min(edit.newEndLine + 1, lineCount);
+                context = 1;
+                break;
+            case BLANK_LINES:
+                coreStart = edit.startLine;
+                while (coreStart > 0 && edit.hasFlag(coreStart - 1, BLANK)) {
+                    coreStart--;
+                }
+                coreEnd = edit.newEndLine;
+                while (coreEnd < lineCount && edit.hasFlag(coreEnd, BLANK)) {
+                    coreEnd++;
+                }
+                context = 0;
+                break;
+            case HEADER:
+                if (edit.startLine < check.headerLineCount(edit.lineList)) {
+                    return List.copyOf(check.process(edit.file, edit.fileText()));
+                }
+                // the header is not affected, so there are no violations for the replaced lines; other violations only move
+                coreStart = edit.startLine;
+                coreEnd = edit.newEndLine;
+                context = 0;
+                break;
+            case FILE:
+            default:
+                return List.copyOf(check.process(edit.file, edit.fileText()));
+        }
+
+        int start = Math.max(coreStart - context, 0);
+        int end = Math.min(coreEnd + context, lineCount);
+        // never start inside a suppressed region, otherwise its lines are not suppressed
+        while (start > 0 && start < lineCount && edit.hasFlag(start, SUPPRESSED)) {
+            start--;
+        }
+
+        List<Violation> newViolations = new ArrayList<>(oldViolations.size());
+        int oldCoreEnd = coreEnd - edit.lineCountDelta();
+        Class<?> source = check.getClass();
+        for (Violation violation : oldViolations) {
+            int lineIndex = lineIndex(violation);
+            if (lineIndex < coreStart) {
+                newViolations.add(violation);
+            } else if (lineIndex >= oldCoreEnd) {
+                newViolations.add(moveTo(violation, violation.getLineNo() + edit.lineCountDelta(), source));
+            }
+        }
+        if (scope != EditScope.HEADER && start < end) {
+            FileText fileText = new FileText(edit.file, edit.lineList.subList(start, end));
+            for (Violation violation : check.processLines(edit.file, fileText)) {
+                int lineIndex = start + lineIndex(violation);
+                if (lineIndex >= coreStart && lineIndex < coreEnd) {
+                    newViolations.add(moveTo(violation, violation.getLineNo() + start, source));
+                }
+            }
+        }
+        Collections.sort(newViolations);
+        return Collections.unmodifiableList(newViolations);
+    }
+
+    private static int lineIndex(Violation violation) {
+        // line numbers start at 1, not 0; violations for the entire file are treated as violations for the first line
+        return Math.max(violation.getLineNo() - 1, 0);
+    }
+
+    private static Violation moveTo(Violation violation, int lineNo, Class<?> source) {
+        if (violation.getLineNo() == lineNo) {
+            return violation;
+        }
+        // the original message arguments are not available, so the formatted message is used as custom message
+        return new Violation(lineNo, violation.getColumnNo(), source.getPackageName() + ".messages", violation.getKey(), new Object[0],
+                violation.getSeverityLevel(), violation.getModuleId(), source, escapeMessageFormat(violation.getViolation()));
+    }
+
+    private static String escapeMessageFormat(String message) {
+        // single quotes need to be doubled, and opening curly braces need to be quoted, or they are treated as part of the format
+        return message.replace("'", "''").replace("{", "'{'");
+    }
+
+    private static void classifyLines(String[] lines, int start, int end, byte[] lineFlags) {
+        for (int i = start; i < end; i++) {
+            String line = lines[i];
+            byte flags = 0;
+            if (CommonUtil.isBlank(line)) {
+                flags |= BLANK;
+            }
+            if (SuppressionMarkers.hasMarker(line, SuppressionMarkers.OFF)) {
+                flags |= SUPPRESSION_OFF;
+            }
+            if (SuppressionMarkers.hasMarker(line, SuppressionMarkers.ON)) {
+                flags |= SUPPRESSION_ON;
+            }
+            lineFlags[i] = flags;
+        }
+    }
+
+    private static void markSuppressedLines(byte[] lineFlags) {
+        // the same rules as SuppressionMarkers.skipSuppressedLines, but using the classification of each line
+        boolean suppressed = false;
+        for (int i = 0; i < lineFlags.length; i++) {
+            byte flags = lineFlags[i];
+            if (suppressed) {
+                lineFlags[i] = (byte) (flags | SUPPRESSED);
+                suppressed = (flags & SUPPRESSION_ON) == 0;
+            } else if ((flags & SUPPRESSION_OFF) != 0) {
+                lineFlags[i] = (byte) (flags | SUPPRESSED);
+                suppressed = true;
+            } else {
+                lineFlags[i] = (byte) (flags & ~SUPPRESSED);
+            }
+        }
+    }
+
+    private static boolean containsSuppressionMarkers(byte[] lineFlags, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if ((lineFlags[i] & (SUPPRESSION_OFF | SUPPRESSION_ON)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Edit {
+
+        private final File file;
+        private final String[] lines;
+        private final List<String> lineList;
+        private final byte[] lineFlags;
+
+        private final int startLine;
+        private final int endLine;
+        private final int newEndLine;
+
+        // only created if an entire file needs to be re-checked
+        private FileText fileText;
+
+        private Edit(File file, String[] lines, byte[] lineFlags, int startLine, int endLine, int newEndLine) {
+            this.file = file;
+            this.lines = lines;
+            this.lineList = Arrays.asList(lines);
+            this.lineFlags = lineFlags;
+            this.startLine = startLine;
+            this.endLine = endLine;
+            this.newEndLine = newEndLine;
+        }
+
+        private int lineCountDelta() {
+            return newEndLine - endLine;
+        }
+
+        private boolean hasFlag(int lineIndex, byte flag) {
+            return (lineFlags[lineIndex] & flag) != 0;
+        }
+
+        private FileText fileText() {
+            if (fileText == null) {
+                fileText = new FileText(file, lineList);
+            }
+            return fileText;
+        }
+    }
+
+    /**
+     * The state of a checked file.
+     *
+     * @author Rob Spoor
+     */
+    public static final class State {
+
+        private final File file;
+        private final String[] lines;
+        private final byte[] lineFlags;
+        private final List<List<Violation>> violations;
+        private final boolean[] skipped;
+
+        private final SortedSet<Violation> allViolations;
+
+        private State(File file, String[] lines, byte[] lineFlags, List<List<Violation>> violations, boolean[] skipped) {
+            this.file = file;
+            this.lines = lines;
+            this.lineFlags = lineFlags;
+            this.violations = violations;
+            this.skipped = skipped;
+
+            SortedSet<Violation> sortedViolations = new TreeSet<>();
+            violations.forEach(sortedViolations::addAll);
+            this.allViolations = Collections.unmodifiableSortedSet(sortedViolations);
+        }
+
+        /**
+         * Returns the checked file.
+         *
+         * @return The checked file.
+         */
+        public File getFile() {
+            return file;
+        }
+
+        /**
+         * Returns the lines of the checked file.
+         *
+         * @return An unmodifiable list with the lines of the checked file.
+         */
+        public List<String> getLines() {
+            return Collections.unmodifiableList(Arrays.asList(lines));
+        }
+
+        /**
+         * Returns the violations of all checks.
+         *
+         * @return An unmodifiable sorted set with the violations of all checks.
+         */
+        public SortedSet<Violation> getViolations() {
+            return allViolations;
+        }
+    }
+}
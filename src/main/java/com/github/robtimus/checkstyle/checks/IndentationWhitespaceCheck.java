@@ -0,0 +1,190 @@
+/*
+ * IndentationWhitespaceCheck.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import java.io.File;
+import java.util.Locale;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+/**
+ * Checks that lines are indented with the expected whitespace characters. The indentation can be one of the following:
+ * <ul>
+ *   <li>{@code spaces}: lines must be indented with spaces only.</li>
+ *   <li>{@code tabs}: lines must be indented with tabs only.</li>
+ *   <li>{@code consistent}: lines must be indented with the same character as the first indented line.</li>
+ * </ul>
+ * Lines that are indented with both spaces and tabs are always reported. If an indentation size is set, lines that are indented with spaces must
+ * be indented with a multiple of that size.
+ * <p>
+ * Only the leading spaces and tabs of each line are inspected. A single space before a leading {@code *} is not considered to be part of the
+ * indentation, so comment lines like {@code  * text} are indented the same as the line that starts the comment.
+ * Lines that contain only whitespace are ignored.
+ * <p>
+ * By default, lines must be indented with spaces, and the indentation size is not checked.
+ * <p>
+ * Lines between a line containing {@code checkstyle-ext:off} and a line containing {@code checkstyle-ext:on} are skipped.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+public class IndentationWhitespaceCheck extends AbstractTextCheck {
+
+    private static final char SPACE = ' ';
+    private static final char TAB = '\t';
+    private static final char NONE = 0;
+
+    private char indentWith;
+    private int indentationSize;
+
+    /**
+     * Creates a new check.
+     */
+    public IndentationWhitespaceCheck() {
+        setIndentWith("spaces");
+    }
+
+    @Override
+    protected void processText(File file, FileText fileText) throws CheckstyleException {
+        char expected = indentWith;
+        int lineNumber = 0;
+        int lineCount = fileText.size();
+
+        while (lineNumber < lineCount) {
+            int nextLineNumber = skipSuppressedLines(fileText, lineNumber, lineCount);
+            if (nextLineNumber != lineNumber) {
+                lineNumber = nextLineNumber;
+                continue;
+            }
+            String line = fileText.get(lineNumber);
+            if (isBudgetExceeded(lineNumber, line.length())) {
+                return;
+            }
+            WorkCounters.lineVisited();
+            // Line numbers start at 1, not 0
+            expected = checkIndentation(line, lineNumber + 1, expected);
+            lineNumber++;
+        }
+    }
+
+    @Override
+    EditScope editScope() {
+        // with consistent indentation, the first indented line determines the expected indentation of all other lines
+        return indentWith == NONE ? EditScope.FILE : EditScope.LINE;
+    }
+
+    private char checkIndentation(String line, int lineNumber, char expected) {
+        int length = line.length();
+        if (length == 0) {
+            return expected;
+        }
+        char first = line.charAt(0);
+        if (first != SPACE && first != TAB) {
+            WorkCounters.charactersExamined(1);
+            return expected;
+        }
+
+        int index = 1;
+        int mixedIndex = -1;
+        while (index < length) {
+            char c = line.charAt(index);
+            if (c != SPACE && c != TAB) {
+                break;
+            }
+            if (c != first && mixedIndex == -1) {
+                mixedIndex = index;
+            }
+            index++;
+        }
+        // the leading whitespace, and the character after it if there is one
+        WorkCounters.charactersExamined(Math.min(index + 1, length));
+        if (index == length) {
+            // only whitespace
+            return expected;
+        }
+
+        int end = index;
+        if (line.charAt(end) == '*' && line.charAt(end - 1) == SPACE) {
+            // comment alignment, not indentation
+            end--;
+            if (mixedIndex == end) {
+                mixedIndex = -1;
+            }
+        }
+        if (end == 0) {
+            return expected;
+        }
+
+        if (mixedIndex != -1) {
+            log(lineNumber, mixedIndex, "indentation.mixed");
+            return expected;
+        }
+        if (expected == NONE) {
+            // consistent, and this is the first indented line
+            expected = first;
+        }
+        if (first != expected) {
+            log(lineNumber, 0, first == TAB ? "indentation.tab" : "indentation.space");
+        } else if (first == SPACE && indentationSize > 0 && end % indentationSize != 0) {
+            log(lineNumber, end, "indentation.size", end, indentationSize);
+        }
+        return expected;
+    }
+
+    /**
+     * Sets the characters to indent with. This must be one of the following:
+     * <ul>
+     *   <li>{@code spaces}: lines must be indented with spaces only.</li>
+     *   <li>{@code tabs}: lines must be indented with tabs only.</li>
+     *   <li>{@code consistent}: lines must be indented with the same character as the first indented line.</li>
+     * </ul>
+     *
+     * @param indentWith The characters to indent with.
+     * @throws NullPointerException If the given string is {@code null}.
+     * @throws IllegalArgumentException If the given string is not one of the allowed values.
+     */
+    public final void setIndentWith(String indentWith) {
+        switch (indentWith.toLowerCase(Locale.ROOT)) {
+            case "spaces":
+                this.indentWith = SPACE;
+                break;
+            case "tabs":
+                this.indentWith = TAB;
+                break;
+            case "consistent":
+                this.indentWith = NONE;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown indentation: " + indentWith);
+        }
+    }
+
+    /**
+     * Sets the indentation size. If larger than 0, lines that are indented with spaces must be indented with a multiple of this size.
+     * Defaults to 0.
+     *
+     * @param indentationSize The indentation size.
+     * @throws IllegalArgumentException If the given size is negative.
+     */
+    public final void setIndentationSize(int indentationSize) {
+        if (indentationSize < 0) {
+            throw new IllegalArgumentException("Negative indentation size: " + indentationSize);
+        }
+        this.indentationSize = indentationSize;
+    }
+}
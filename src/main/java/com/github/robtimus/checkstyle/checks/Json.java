@@ -0,0 +1,312 @@
+/*
+ * Json.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON support, to prevent a dependency on a JSON library. JSON objects are represented as {@link Map Maps} with {@link String} keys,
+ * JSON arrays as {@link List Lists}, JSON numbers as {@link Long Longs} or {@link Double Doubles}, and the other JSON values as
+ * {@link String Strings}, {@link Boolean Booleans} and {@code null}.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+final class Json {
+
+    private final String text;
+    private int index;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parses a JSON value.
+     *
+     * @param text The JSON text to parse.
+     * @return The parsed value.
+     * @throws IllegalArgumentException If the given text is not valid JSON.
+     */
+    static Object parse(String text) {
+        Json parser = new Json(text);
+        Object value = parser.parseValue();
+        parser.skipWhitespace();
+        if (parser.index != text.length()) {
+            throw parser.error("Unexpected trailing characters");
+        }
+        return value;
+    }
+
+    private Object parseValue() {
+        skipWhitespace();
+        if (index == text.length()) {
+            throw error("Unexpected end of input");
+        }
+        char c = text.charAt(index);
+        switch (c) {
+            case '{':
+                return parseObject();
+            case '[':
+                return parseArray();
+            case '"':
+                return parseString();
+            case 't':
+                return parseLiteral("true", Boolean.TRUE);
+            case 'f':
+                return parseLiteral("false", Boolean.FALSE);
+            case 'n':
+                return parseLiteral("null", null);
+            default:
+                if (c == '-' || c >= '0' && c <= '9') {
+                    return parseNumber();
+                }
+                throw error("Unexpected character '" + c + "'");
+        }
+    }
+
+    private Map<String, Object> parseObject() {
+        Map<String, Object> object = new LinkedHashMap<>();
+        index++;
+        skipWhitespace();
+        if (consume('}')) {
+            return object;
+        }
+        do {
+            skipWhitespace();
+            if (index == text.length() || text.charAt(index) != '"') {
+                throw error("Expected a property name");
+            }
+            String name = parseString();
+            skipWhitespace();
+            expect(':');
+            object.put(name, parseValue());
+            skipWhitespace();
+        } while (consume(','));
+        expect('}');
+        return object;
+    }
+
+    private List<Object> parseArray() {
+        List<Object> array = new ArrayList<>();
+        index++;
+        skipWhitespace();
+        if (consume(']')) {
+            return array;
+        }
+        do {
+            array.add(parseValue());
+            skipWhitespace();
+        } while (consume(','));
+        expect(']');
+        return array;
+    }
+
+    private String parseString() {
+        StringBuilder sb = new StringBuilder();
+        index++;
+        while (index < text.length()) {
+            char c = text.charAt(index++);
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+            } else if (index < text.length()) {
+                char escaped = text.charAt(index++);
+                switch (escaped) {
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'u':
+                        if (index + 4 > text.length()) {
+                            throw error("Invalid unicode escape");
+                        }
+                        try {
+                            sb.append((char) Integer.parseInt(text.substring(index, index + 4), 16));
+                        } catch (@SuppressWarnings("unused") NumberFormatException e) {
+                            throw error("Invalid unicode escape");
+                        }
+                        index += 4;
+                        break;
+                    default:
+                        sb.append(escaped);
+                        break;
+                }
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private Object parseLiteral(String literal, Object value) {
+        if (!text.startsWith(literal, index)) {
+            throw error("Unexpected character '" + text.charAt(index) + "'");
+        }
+        index += literal.length();
+        return value;
+    }
+
+    private Number parseNumber() {
+        int start = index;
+        boolean integral = true;
+        while (index < text.length()) {
+            char c = text.charAt(index);
+            if (c == '.' || c == 'e' || c == 'E') {
+                integral = false;
+            } else if (c != '-' && c != '+' && (c < '0' || c > '9')) {
+                break;
+            }
+            index++;
+        }
+        String number = text.substring(start, index);
+        try {
+            return integral ? (Number) Long.valueOf(number) : (Number) Double.valueOf(number);
+        } catch (@SuppressWarnings("unused") NumberFormatException e) {
+            throw error("Invalid number " + number);
+        }
+    }
+
+    private void skipWhitespace() {
+        while (index < text.length() && " \t\r\n".indexOf(text.charAt(index)) != -1) {
+            index++;
+        }
+    }
+
+    private boolean consume(char c) {
+        if (index < text.length() && text.charAt(index) == c) {
+            index++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!consume(c)) {
+            throw error("Expected '" + c + "'");
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at index " + index);
+    }
+
+    /**
+     * Writes a JSON value.
+     *
+     * @param value The value to write.
+     * @return The JSON text for the given value.
+     * @throws IllegalArgumentException If the given value, or any value it contains, cannot be represented as JSON.
+     */
+    static String write(Object value) {
+        StringBuilder sb = new StringBuilder();
+        appendValue(value, sb);
+        return sb.toString();
+    }
+
+    private static void appendValue(Object value, StringBuilder sb) {
+        if (value == null || value instanceof Boolean || value instanceof Number) {
+            sb.append(value);
+        } else if (value instanceof String) {
+            appendString((String) value, sb);
+        } else if (value instanceof Map<?, ?>) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!first) {
+                    sb.append(',');
+                }
+                appendString(entry.getKey().toString(), sb);
+                sb.append(':');
+                appendValue(entry.getValue(), sb);
+                first = false;
+            }
+            sb.append('}');
+        } else if (value instanceof List<?>) {
+            sb.append('[');
+            boolean first = true;
+            for (Object element : (List<?>) value) {
+                if (!first) {
+                    sb.append(',');
+                }
+                appendValue(element, sb);
+                first = false;
+            }
+            sb.append(']');
+        } else {
+            throw new IllegalArgumentException("Unsupported JSON value: " + value);
+        }
+    }
+
+    /**
+     * Appends a JSON string.
+     *
+     * @param value The string to append; may be {@code null}.
+     * @param sb The string builder to append to.
+     */
+    static void appendString(String value, StringBuilder sb) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                    break;
+            }
+        }
+        sb.append('"');
+    }
+}
@@ -38,7 +38,6 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
@@ -60,7 +59,7 @@ import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
  * @author Rob Spoor
  */
 @SuppressWarnings("nls")
-public class LicenseCommentCheck extends AbstractFileSetCheck {
+public class LicenseCommentCheck extends AbstractTextCheck {
 
     private static final Set<String> PREDEFINED_LICENSES = Set.of(
             "Apache-2.0", "BSD-2-Clause", "EPL-1.0", "EPL-2.0", "GPL-2.0", "GPL-3.0", "LGPL-2.0", "LGPL-2.1", "MIT", "MPL-2.0");
@@ -90,9 +89,13 @@ public class LicenseCommentCheck extends AbstractFileSetCheck {
     }
 
     @Override
-    protected void processFiltered(File file, FileText fileText) throws CheckstyleException {
+    protected void processText(File file, FileText fileText) throws CheckstyleException {
         List<String> requiredLicenseText = getRequiredLicenseText();
         List<Line> licenseText = readLicenseText(fileText);
+        if (licenseText == null) {
+            // the budget has been exceeded
+            return;
+        }
 
         // line numbers start at 1, not 0
         LicenseTextContext context = new LicenseTextContext(requiredLicenseText, licenseText, 1);
@@ -114,6 +117,26 @@ public class LicenseCommentCheck extends AbstractFileSetCheck {
         validateLicenseText(context);
     }
 
+    @Override
+    EditScope editScope() {
+        return EditScope.HEADER;
+    }
+
+    @Override
+    int headerLineCount(List<String> lines) {
+        // the license comment, or only the first line if that does not start the license comment
+        int lineCount = lines.size();
+        if (lineCount == 0 || !"/*".equals(lines.get(0))) {
+            return 1;
+        }
+        for (int i = 1; i < lineCount; i++) {
+            if (lines.get(i).contains("*/")) {
+                return i + 1;
+            }
+        }
+        return lineCount;
+    }
+
     List<String> getRequiredLicenseText() throws CheckstyleException {
         List<List<String>> candidates = Stream.of(predefinedLicenseText, customLicenseText)
                 .filter(Objects::nonNull)
@@ -126,14 +149,27 @@ public class LicenseCommentCheck extends AbstractFileSetCheck {
 
     private List<Line> readLicenseText(FileText fileText) {
         int lineCount = fileText.size();
-        if (lineCount == 0 || !"/*".equals(fileText.get(0))) {
+        if (lineCount == 0) {
+            return Collections.emptyList();
+        }
+        WorkCounters.lineVisited();
+        if (!"/*".equals(fileText.get(0))) {
             return Collections.emptyList();
         }
         List<Line> result = new ArrayList<>();
-        for (int i = 1; i < lineCount && !fileText.get(i).contains("*/"); i++) {
-            int startColumn = endOfCommentPrefix(fileText.get(i));
+        for (int i = 1; i < lineCount; i++) {
+            String line = fileText.get(i);
+            if (isBudgetExceeded(i, line.length())) {
+                return null;
+            }
+            WorkCounters.lineVisited();
+            WorkCounters.charactersExamined(line.length());
+            if (line.contains("*/")) {
+                break;
+            }
+            int startColumn = endOfCommentPrefix(line);
             // column numbers start at 0
-            result.add(new Line(fileText.get(i).substring(startColumn), startColumn));
+            result.add(new Line(line.substring(startColumn), startColumn));
         }
         // no */ found means a compiler error, no need to report a Checkstyle error
         return result;
@@ -0,0 +1,150 @@
+/*
+ * LineEndingsCheck.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import java.io.File;
+import java.util.Locale;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+/**
+ * Checks that files use the expected line endings. This can be one of the following:
+ * <ul>
+ *   <li>{@code lf}: all lines must end with LF ({@code \n}).</li>
+ *   <li>{@code crlf}: all lines must end with CRLF ({@code \r\n}).</li>
+ *   <li>{@code consistent}: all lines must end with the same line ending as the first line.</li>
+ * </ul>
+ * Only the first line with a different line ending is reported.
+ * <p>
+ * By default, line endings must be consistent.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+public class LineEndingsCheck extends AbstractTextCheck {
+
+    private LineEnding expectedLineEnding;
+
+    /**
+     * Creates a new check.
+     */
+    public LineEndingsCheck() {
+        setLineEndings("consistent");
+    }
+
+    @Override
+    protected void processText(File file, FileText fileText) throws CheckstyleException {
+        CharSequence fullText = fileText.getFullText();
+        int length = fullText.length();
+
+        LineEnding expected = expectedLineEnding;
+        int lineNumber = 0;
+        int lineStart = 0;
+        int index = 0;
+        // the index up to which characters have been reported to the budget
+        int budgetIndex = 0;
+
+        while (index < length) {
+            LineEnding lineEnding = lineEndingAt(fullText, index, length);
+            if (lineEnding != null) {
+                if (expected == null) {
+                    expected = lineEnding;
+                } else if (lineEnding != expected) {
+                    // Line numbers start at 1, not 0
+                    String key = expectedLineEnding == null ? "whitespace.inconsistentLineEnding" : "whitespace.invalidLineEnding";
+                    log(lineNumber + 1, index - lineStart, key, lineEnding, expected);
+                    return;
+                }
+                index += lineEnding.length;
+                lineNumber++;
+                lineStart = index;
+                if (index < length && isBudgetExceeded(lineNumber, index - budgetIndex)) {
+                    return;
+                }
+                budgetIndex = index;
+            } else {
+                index++;
+                // report long lines in chunks, so the time budget is also checked while scanning them
+                if (index - budgetIndex >= FileBudget.TIME_CHECK_INTERVAL) {
+                    if (isBudgetExceeded(lineNumber, index - budgetIndex)) {
+                        return;
+                    }
+                    budgetIndex = index;
+                }
+            }
+        }
+    }
+
+    private LineEnding lineEndingAt(CharSequence fullText, int index, int length) {
+        char c = fullText.charAt(index);
+        WorkCounters.charactersExamined(1);
+        if (c == '\n') {
+            return LineEnding.LF;
+        }
+        if (c == '\r') {
+            if (index + 1 < length && fullText.charAt(index + 1) == '\n') {
+                // the LF is part of the line ending, and is not examined again
+                WorkCounters.charactersExamined(1);
+                return LineEnding.CRLF;
+            }
+            return LineEnding.CR;
+        }
+        return null;
+    }
+
+    /**
+     * Sets the expected line endings. This must be one of the following:
+     * <ul>
+     *   <li>{@code lf}: all lines must end with LF ({@code \n}).</li>
+     *   <li>{@code crlf}: all lines must end with CRLF ({@code \r\n}).</li>
+     *   <li>{@code consistent}: all lines must end with the same line ending as the first line.</li>
+     * </ul>
+     *
+     * @param lineEndings The expected line endings.
+     * @throws NullPointerException If the given string is {@code null}.
+     * @throws IllegalArgumentException If the given string is not one of the allowed values.
+     */
+    public final void setLineEndings(String lineEndings) {
+        switch (lineEndings.toLowerCase(Locale.ROOT)) {
+            case "lf":
+                expectedLineEnding = LineEnding.LF;
+                break;
+            case "crlf":
+                expectedLineEnding = LineEnding.CRLF;
+                break;
+            case "consistent":
+                expectedLineEnding = null;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown line endings: " + lineEndings);
+        }
+    }
+
+    private enum LineEnding {
+        LF(1),
+        CRLF(2),
+        CR(1),
+        ;
+
+        private final int length;
+
+        LineEnding(int length) {
+            this.length = length;
+        }
+    }
+}
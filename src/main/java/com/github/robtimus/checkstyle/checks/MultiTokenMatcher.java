@@ -0,0 +1,300 @@
+/*
+ * MultiTokenMatcher.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * A matcher that finds occurrences of several literal tokens in a single pass, using the Aho-Corasick algorithm.
+ * <p>
+ * The tokens are compiled into a deterministic automaton with one state per distinct token prefix. Characters that do not occur in any token all
+ * share the same transitions, so the transition table only needs one column per distinct token character.
+ * <p>
+ * Instances of this class are immutable and can be shared between threads.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+final class MultiTokenMatcher {
+
+    private static final int ASCII_SIZE = 128;
+    private static final int NO_TOKEN = -1;
+    private static final int NO_STATE = -1;
+
+    /** The state to pass to {@link #findAll(CharSequence, int, int, int, MatchHandler)} for the first range of a string. */
+    static final int INITIAL_STATE = 0;
+
+    private final List<String> tokens;
+
+    // maps ASCII characters to their column in the transition table; column 0 is for characters that do not occur in any token
+    private final int[] asciiColumns;
+    // the non-ASCII characters that occur in any token, sorted, and their columns in the transition table
+    private final char[] nonAsciiCharacters;
+    private final int[] nonAsciiColumns;
+    private final int columnCount;
+
+    private final int[] transitions;
+    // the index of the token that ends in a state, or NO_TOKEN
+    private final int[] stateTokens;
+    // the nearest state reachable through failure links that has a token, or NO_STATE
+    private final int[] outputLinks;
+
+    /**
+     * Creates a new matcher.
+     *
+     * @param tokens The tokens to match. Duplicate tokens are matched only once, as the first occurrence.
+     * @throws NullPointerException If the given list is {@code null} or contains {@code null} elements.
+     * @throws IllegalArgumentException If any of the given tokens is empty.
+     */
+    MultiTokenMatcher(List<String> tokens) {
+        this.tokens = List.copyOf(tokens);
+
+        this.asciiColumns = new int[ASCII_SIZE];
+        Map<Character, Integer> nonAsciiColumnMap = new HashMap<>();
+        int nextColumn = 1;
+        for (String token : this.tokens) {
+            if (token.isEmpty()) {
+                throw new IllegalArgumentException("Empty tokens are not allowed");
+            }
+            for (int i = 0; i < token.length(); i++) {
+                char c = token.charAt(i);
+                if (c < ASCII_SIZE) {
+                    if (asciiColumns[c] == 0) {
+                        asciiColumns[c] = nextColumn++;
+                    }
+                } else if (!nonAsciiColumnMap.containsKey(c)) {
+                    nonAsciiColumnMap.put(c, nextColumn++);
+                }
+            }
+        }
+        this.columnCount = nextColumn;
+
+        this.nonAsciiCharacters = new char[nonAsciiColumnMap.size()];
+        int index = 0;
+        for (Character c : nonAsciiColumnMap.keySet()) {
+            nonAsciiCharacters[index++] = c;
+        }
+        Arrays.sort(nonAsciiCharacters);
+        this.nonAsciiColumns = new int[nonAsciiCharacters.length];
+        for (int i = 0; i < nonAsciiCharacters.length; i++) {
+            nonAsciiColumns[i] = nonAsciiColumnMap.get(nonAsciiCharacters[i]);
+        }
+
+        Trie trie = buildTrie();
+        int stateCount = trie.size();
+
+        this.transitions = new int[stateCount * columnCount];
+        this.stateTokens = Arrays.copyOf(trie.stateTokens, stateCount);
+        this.outputLinks = new int[stateCount];
+
+        compile(trie);
+    }
+
+    private Trie buildTrie() {
+        Trie trie = new Trie(columnCount);
+        for (int tokenIndex = 0; tokenIndex < tokens.size(); tokenIndex++) {
+            String token = tokens.get(tokenIndex);
+            int state = 0;
+            for (int i = 0; i < token.length(); i++) {
+                state = trie.childOrNew(state, column(token.charAt(i)));
+            }
+            if (trie.stateTokens[state] == NO_TOKEN) {
+                trie.stateTokens[state] = tokenIndex;
+            }
+        }
+        return trie;
+    }
+
+    private void compile(Trie trie) {
+        int[] failures = new int[trie.size()];
+        Queue<Integer> queue = new ArrayDeque<>();
+
+        // the root state; missing transitions stay at the root
+        outputLinks[0] = NO_STATE;
+        for (int column = 0; column < columnCount; column++) {
+            int child = trie.child(0, column);
+            if (child != NO_STATE) {
+                transitions[column] = child;
+                failures[child] = 0;
+                queue.add(child);
+            }
+        }
+
+        // breadth-first, so the failure state of each state has been completed before the state itself
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            int failure = failures[state];
+            outputLinks[state] = stateTokens[failure] != NO_TOKEN ? failure : outputLinks[failure];
+
+            int offset = state * columnCount;
+            int failureOffset = failure * columnCount;
+            for (int column = 0; column < columnCount; column++) {
+                int child = trie.child(state, column);
+                if (child != NO_STATE) {
+                    transitions[offset + column] = child;
+                    failures[child] = transitions[failureOffset + column];
+                    queue.add(child);
+                } else {
+                    transitions[offset + column] = transitions[failureOffset + column];
+                }
+            }
+        }
+    }
+
+    private int column(char c) {
+        if (c < ASCII_SIZE) {
+            return asciiColumns[c];
+        }
+        int index = Arrays.binarySearch(nonAsciiCharacters, c);
+        return index >= 0 ? nonAsciiColumns[index] : 0;
+    }
+
+    /**
+     * Returns the tokens of this matcher.
+     *
+     * @return An unmodifiable list with the tokens of this matcher.
+     */
+    List<String> tokens() {
+        return tokens;
+    }
+
+    /**
+     * Finds all occurrences of the tokens of this matcher in a string. Overlapping occurrences are all found.
+     * Occurrences are reported in order of their end index; occurrences with the same end index are reported longest first.
+     *
+     * @param text The string to find occurrences in.
+     * @param handler The handler to report occurrences to.
+     */
+    void findAll(CharSequence text, MatchHandler handler) {
+        findAll(text, 0, text.length(), INITIAL_STATE, handler);
+    }
+
+    /**
+     * Finds all occurrences of the tokens of this matcher in a range of a string, continuing from the state returned for the preceding range.
+     * This allows long strings to be processed in chunks, including occurrences that span several chunks.
+     * Occurrences are reported in the same order as {@link #findAll(CharSequence, MatchHandler)}, with start indexes relative to the entire string.
+     *
+     * @param text The string to find occurrences in.
+     * @param start The start of the range, inclusive.
+     * @param end The end of the range, exclusive.
+     * @param state The state returned for the preceding range, or {@link #INITIAL_STATE} if {@code start} is 0.
+     * @param handler The handler to report occurrences to.
+     * @return The state to pass when finding occurrences in the range that starts at {@code end}.
+     */
+    int findAll(CharSequence text, int start, int end, int state, MatchHandler handler) {
+        int currentState = state;
+        for (int i = start; i < end; i++) {
+            currentState = transitions[currentState * columnCount + column(text.charAt(i))];
+            reportMatches(currentState, i + 1, handler);
+        }
+        return currentState;
+    }
+
+    /**
+     * Returns whether or not a string contains any of the tokens of this matcher.
+     *
+     * @param text The string to check.
+     * @return {@code true} if the given string contains any of the tokens of this matcher, or {@code false} otherwise.
+     */
+    boolean containsAny(CharSequence text) {
+        int state = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            state = transitions[state * columnCount + column(text.charAt(i))];
+            if (stateTokens[state] != NO_TOKEN || outputLinks[state] != NO_STATE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void reportMatches(int state, int endIndex, MatchHandler handler) {
+        int current = stateTokens[state] != NO_TOKEN ? state : outputLinks[state];
+        while (current != NO_STATE) {
+            int tokenIndex = stateTokens[current];
+            handler.match(tokenIndex, endIndex - tokens.get(tokenIndex).length());
+            current = outputLinks[current];
+        }
+    }
+
+    /**
+     * A handler for token occurrences.
+     *
+     * @author Rob Spoor
+     */
+    interface MatchHandler {
+
+        /**
+         * Handles an occurrence of a token.
+         *
+         * @param tokenIndex The index of the token in {@link MultiTokenMatcher#tokens()}.
+         * @param startIndex The index in the string where the token starts.
+         */
+        void match(int tokenIndex, int startIndex);
+    }
+
+    private static final class Trie {
+
+        private final int columnCount;
+        private final List<int[]> children;
+        private int[] stateTokens;
+
+        private Trie(int columnCount) {
+            this.columnCount = columnCount;
+            this.children = new ArrayList<>();
+            this.stateTokens = new int[0];
+            newState();
+        }
+
+        private int size() {
+            return children.size();
+        }
+
+        private int child(int state, int column) {
+            return children.get(state)[column];
+        }
+
+        private int childOrNew(int state, int column) {
+            int child = child(state, column);
+            if (child == NO_STATE) {
+                child = newState();
+                children.get(state)[column] = child;
+            }
+            return child;
+        }
+
+        private int newState() {
+            int[] stateChildren = new int[columnCount];
+            Arrays.fill(stateChildren, NO_STATE);
+            children.add(stateChildren);
+
+            int state = children.size() - 1;
+            if (state >= stateTokens.length) {
+                stateTokens = Arrays.copyOf(stateTokens, Math.max(16, stateTokens.length * 2));
+                Arrays.fill(stateTokens, state, stateTokens.length, NO_TOKEN);
+            }
+            return state;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * NdjsonLogger.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import com.puppycrawl.tools.checkstyle.AbstractAutomaticBean;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+
+/**
+ * An audit listener that writes violations and exceptions as newline-delimited JSON, one object per line.
+ * <p>
+ * The threads that report events do not format or write anything; they only add events to a bounded lock-free ring buffer. Events may be
+ * reported from any thread, not just the thread that runs the audit. A background thread takes events from the ring buffer, formats them, and
+ * writes them in large batches. If the ring buffer is full, the reporting thread waits until the background thread has caught up. Waiting
+ * threads are parked until they are woken up explicitly, so neither side polls. When the audit is finished, all remaining events are written
+ * and the output is flushed.
+ * <p>
+ * If writing fails, the audit fails as well: the next event that is reported, or the end of the audit, throws an exception.
+ * <p>
+ * Violations are written as objects with properties {@code file}, {@code line}, {@code column}, {@code severity}, {@code message},
+ * {@code source} and, if the module has an id, {@code moduleId}. Violations with severity {@code ignore} are not written.
+ * Exceptions are written as objects with properties {@code file}, {@code exception} and {@code message}.
+ * <p>
+ * This listener can be added as a child module of the {@code Checker} module. It should not be shared between concurrent audits.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+public class NdjsonLogger extends AbstractAutomaticBean implements AuditListener {
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+    private static final int BATCH_SIZE = 32 * 1024;
+
+    private int bufferSize = 8192;
+    private String file;
+
+    private RingBuffer<Object> buffer;
+    private Thread writer;
+
+    // the threads that wait for the writer to make room in the ring buffer
+    private final Queue<Thread> waitingProducers = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean writerWaiting;
+    private volatile boolean finished;
+    private volatile Exception writeFailure;
+
+    /**
+     * Sets the number of events that can be waiting to be written before the audit waits for the background thread. Defaults to 8192.
+     * The actual size is rounded up to the nearest power of two.
+     *
+     * @param bufferSize The number of events that can be waiting to be written.
+     * @throws IllegalArgumentException If the given size is not positive, or larger than {@code 2^30}.
+     */
+    public final void setBufferSize(int bufferSize) {
+        if (bufferSize <= 0 || bufferSize > 1 << 30) {
+            throw new IllegalArgumentException("Invalid buffer size: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Sets the file to write to. If not set, output is written to {@link System#out}.
+     *
+     * @param file The file to write to.
+     */
+    public final void setFile(String file) {
+        this.file = file;
+    }
+
+    @Override
+    protected void finishLocalSetup() {
+        // nothing to do
+    }
+
+    @Override
+    public void auditStarted(AuditEvent event) {
+        buffer = new RingBuffer<>(bufferSize);
+        waitingProducers.clear();
+        writerWaiting = false;
+        finished = false;
+        writeFailure = null;
+
+        Writer output = openOutput();
+        writer = new Thread(() -> writeEvents(output), "checkstyle-ndjson-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private Writer openOutput() {
+        try {
+            OutputStream outputStream = file == null ? new NonClosingOutputStream() : Files.newOutputStream(Paths.get(file));
+            return new OutputStreamWriter(new BufferedOutputStream(outputStream, OUTPUT_BUFFER_SIZE), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void auditFinished(AuditEvent event) {
+        finished = true;
+        LockSupport.unpark(writer);
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (@SuppressWarnings("unused") InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        buffer = null;
+        writer = null;
+
+        checkWriter();
+    }
+
+    @Override
+    public void fileStarted(AuditEvent event) {
+        // nothing to do
+    }
+
+    @Override
+    public void fileFinished(AuditEvent event) {
+        // nothing to do
+    }
+
+    @Override
+    public void addError(AuditEvent event) {
+        if (event.getSeverityLevel() != SeverityLevel.IGNORE) {
+            publish(event);
+        }
+    }
+
+    @Override
+    public void addException(AuditEvent event, Throwable throwable) {
+        publish(new ExceptionEvent(event.getFileName(), throwable));
+    }
+
+    private void publish(Object event) {
+        checkWriter();
+        if (!buffer.offer(event)) {
+            awaitRoom(event);
+        }
+        if (writerWaiting) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void awaitRoom(Object event) {
+        Thread current = Thread.currentThread();
+        try {
+            do {
+                // Dekker-style handshake: announce the wait, then check again before parking
+                // the writer wakes up all waiting threads after taking an event, and when it stops
+                waitingProducers.add(current);
+                if (buffer.offer(event)) {
+                    return;
+                }
+                checkWriter();
+                LockSupport.unpark(writer);
+                LockSupport.park(this);
+                waitingProducers.remove(current);
+            } while (!buffer.offer(event));
+        } finally {
+            waitingProducers.remove(current);
+        }
+    }
+
+    private void checkWriter() {
+        Exception failure = writeFailure;
+        if (failure instanceof IOException) {
+            throw new UncheckedIOException((IOException) failure);
+        }
+        if (failure != null) {
+            throw new IllegalStateException(failure);
+        }
+        if (!finished && !writer.isAlive()) {
+            throw new IllegalStateException("The NDJSON writer has stopped");
+        }
+    }
+
+    private void wakeUpProducers() {
+        for (Thread producer : waitingProducers) {
+            LockSupport.unpark(producer);
+        }
+    }
+
+    private void writeEvents(Writer output) {
+        // events are formatted into a batch that is written once it's large enough, so strings are created per batch, not per event
+        StringBuilder batch = new StringBuilder(BATCH_SIZE + 1024);
+        try (Writer out = output) {
+            while (true) {
+                Object event = buffer.poll();
+                if (event != null) {
+                    format(event, batch);
+                    if (batch.length() >= BATCH_SIZE) {
+                        out.append(batch);
+                        batch.setLength(0);
+                    }
+                    if (!waitingProducers.isEmpty()) {
+                        wakeUpProducers();
+                    }
+                } else if (finished) {
+                    // finished is set after the last event has been published, so if the buffer is still empty, everything has been written
+                    if (buffer.isEmpty()) {
+                        break;
+                    }
+                } else {
+                    // Dekker-style handshake: announce the wait, then check again before parking
+                    writerWaiting = true;
+                    if (buffer.isEmpty() && !finished) {
+                        LockSupport.park(this);
+                    }
+                    writerWaiting = false;
+                }
+            }
+            out.append(batch);
+        } catch (IOException | RuntimeException e) {
+            writeFailure = e;
+        } finally {
+            // threads that wait for room would otherwise wait forever
+            wakeUpProducers();
+        }
+    }
+
+    private static void format(Object event, StringBuilder line) {
+        if (event instanceof ExceptionEvent) {
+            ExceptionEvent exceptionEvent = (ExceptionEvent) event;
+            line.append("{\"file\":");
+            Json.appendString(exceptionEvent.fileName, line);
+            line.append(",\"exception\":");
+            Json.appendString(exceptionEvent.throwable.getClass().getName(), line);
+            line.append(",\"message\":");
+            Json.appendString(exceptionEvent.throwable.getMessage(), line);
+        } else {
+            AuditEvent auditEvent = (AuditEvent) event;
+            line.append("{\"file\":");
+            Json.appendString(auditEvent.getFileName(), line);
+            line.append(",\"line\":").append(auditEvent.getLine());
+            line.append(",\"column\":").append(auditEvent.getColumn());
+            line.append(",\"severity\":");
+            Json.appendString(auditEvent.getSeverityLevel().getName(), line);
+            line.append(",\"message\":");
+            Json.appendString(auditEvent.getMessage(), line);
+            line.append(",\"source\":");
+            Json.appendString(auditEvent.getSourceName(), line);
+            String moduleId = auditEvent.getModuleId();
+            if (moduleId != null) {
+                line.append(",\"moduleId\":");
+                Json.appendString(moduleId, line);
+            }
+        }
+        line.append("}\n");
+    }
+
+    private static final class ExceptionEvent {
+
+        private final String fileName;
+        private final Throwable throwable;
+
+        private ExceptionEvent(String fileName, Throwable throwable) {
+            this.fileName = fileName;
+            this.throwable = throwable;
+        }
+    }
+
+    private static final class NonClosingOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) {
+            System.out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            System.out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() {
+            System.out.flush();
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+    }
+}
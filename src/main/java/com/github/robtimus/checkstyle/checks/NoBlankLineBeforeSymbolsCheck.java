@@ -19,23 +19,30 @@ package com.github.robtimus.checkstyle.checks;
 
 import java.io.File;
 import java.util.Objects;
-import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.FileText;
-import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
 /**
  * Checks that files do not contain blank lines before lines that only consist of specific symbols. Trailing semicolons are ignored while checking,
  * except if semicolons are part of the symbols to check for.
  * <p>
  * By default, the symbols are ), }, ] and ;.
+ * <p>
+ * Lines between a line containing {@code checkstyle-ext:off} and a line containing {@code checkstyle-ext:on} are skipped.
  *
  * @author Rob Spoor
  */
 @SuppressWarnings("nls")
-public class NoBlankLineBeforeSymbolsCheck extends AbstractFileSetCheck {
+public class NoBlankLineBeforeSymbolsCheck extends AbstractTextCheck {
+
+    // line types are bit flags, because lines can both match and be blank if the symbols contain whitespace
+    private static final int OTHER = 0;
+    private static final int MATCHING = 1;
+    private static final int BLANK = 2;
 
     private String symbols;
+    // one bit per symbol, so checking a character does not need to search the symbols
+    private long[] symbolBits;
     private boolean trimSemicolons;
 
     /**
@@ -46,45 +53,80 @@ public class NoBlankLineBeforeSymbolsCheck extends AbstractFileSetCheck {
     }
 
     @Override
-    protected void processFiltered(File file, FileText fileText) throws CheckstyleException {
+    protected void processText(File file, FileText fileText) throws CheckstyleException {
         int lineNumber = 0;
         int lineCount = fileText.size();
+        // each line is examined only once, so the type of the previous line is remembered
+        boolean previousLineIsBlank = false;
 
         while (lineNumber < lineCount) {
+            int nextLineNumber = skipSuppressedLines(fileText, lineNumber, lineCount);
+            if (nextLineNumber != lineNumber) {
+                lineNumber = nextLineNumber;
+                previousLineIsBlank = false;
+                continue;
+            }
             String line = fileText.get(lineNumber);
-            if (isMatchingLine(line) && previousLineIsBlank(fileText, lineNumber)) {
+            if (isBudgetExceeded(lineNumber, line.length())) {
+                return;
+            }
+            WorkCounters.lineVisited();
+            int lineType = lineType(line);
+            if (previousLineIsBlank && (lineType & MATCHING) != 0) {
                 // Line numbers start at 1, not 0
                 log(lineNumber, "whitespace.blankLineBeforeSymbols", symbols);
             }
+            previousLineIsBlank = (lineType & BLANK) != 0;
             lineNumber++;
         }
     }
 
-    private boolean isMatchingLine(String line) {
-        int end = line.length();
-        if (trimSemicolons) {
-            while (end > 0 && line.charAt(end - 1) == ';') {
-                end--;
-            }
-        }
+    @Override
+    EditScope editScope() {
+        return EditScope.ADJACENT_LINES;
+    }
+
+    private int lineType(String line) {
+        int length = line.length();
+        boolean blank = true;
         int numberOfSymbols = 0;
-        for (int i = 0; i < end; i++) {
+        // semicolons can only be ignored if they turn out to be trailing; until then they are pending
+        boolean pendingSemicolons = false;
+        for (int i = 0; i < length; i++) {
             char c = line.charAt(i);
-            boolean isSymbol = symbols.indexOf(c) != -1;
-            if (!isSymbol && !Character.isWhitespace(c)) {
-                return false;
+            if (trimSemicolons && c == ';') {
+                pendingSemicolons = true;
+                blank = false;
+                continue;
+            }
+            if (pendingSemicolons) {
+                // the semicolons are not trailing, and semicolons are only trimmed if they are not symbols
+                WorkCounters.charactersExamined(i + 1);
+                return OTHER;
+            }
+            boolean isSymbol = isSymbol(c);
+            boolean isWhitespace = Character.isWhitespace(c);
+            if (!isSymbol && !isWhitespace) {
+                WorkCounters.charactersExamined(i + 1);
+                return OTHER;
             }
             // whitespace or a symbol
             if (isSymbol) {
                 numberOfSymbols++;
             }
+            if (!isWhitespace) {
+                blank = false;
+            }
         }
-        // Don't return true for lines containing only whitespace
-        return numberOfSymbols > 0;
+        WorkCounters.charactersExamined(length);
+        // Don't consider lines containing only whitespace as matching
+        int lineType = numberOfSymbols > 0 ? MATCHING : OTHER;
+        return blank ? lineType | BLANK : lineType;
     }
 
-    private boolean previousLineIsBlank(FileText fileText, int lineNumber) {
-        return lineNumber - 1 >= 0 && CommonUtil.isBlank(fileText.get(lineNumber - 1));
+    private boolean isSymbol(char c) {
+        int word = c >>> 6;
+        return word < symbolBits.length && (symbolBits[word] & (1L << c)) != 0;
     }
 
     /**
@@ -94,7 +136,10 @@ public class NoBlankLineBeforeSymbolsCheck extends AbstractFileSetCheck {
      * @throws NullPointerException If the given string is {@code null}.
      */
     public final void setSymbols(String symbols) {
-        this.symbols = Objects.requireNonNull(symbols);
-        this.trimSemicolons = symbols.indexOf(';') == -1;
+        long[] bits = new long[Objects.requireNonNull(symbols).chars().max().orElse(0) / Long.SIZE + 1];
+        symbols.chars().forEach(c -> bits[c >>> 6] |= 1L << c);
+        this.symbols = symbols;
+        this.symbolBits = bits;
+        this.trimSemicolons = !isSymbol(';');
     }
 }
@@ -0,0 +1,214 @@
+/*
+ * NoDisallowedCharactersCheck.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+/**
+ * Checks that files do not contain disallowed characters, and optionally that files do not start with a byte order mark.
+ * <p>
+ * Disallowed characters are specified as code points ({@code U+00A0}) or ranges of code points ({@code U+200B-U+200F}).
+ * By default, the following characters are disallowed:
+ * <ul>
+ *   <li>{@code U+00A0}: no-break space</li>
+ *   <li>{@code U+00AD}: soft hyphen</li>
+ *   <li>{@code U+200B-U+200F}: zero width spaces, joiners and directional marks</li>
+ *   <li>{@code U+2028-U+202E}: line and paragraph separators and directional formatting characters</li>
+ *   <li>{@code U+2060-U+2064}: word joiner and invisible operators</li>
+ *   <li>{@code U+2066-U+2069}: directional isolates</li>
+ *   <li>{@code U+FEFF}: zero width no-break space</li>
+ * </ul>
+ * A byte order mark at the start of the file is reported separately, and only if byte order marks are not allowed.
+ * <p>
+ * Lines that contain only ASCII characters are skipped quickly if no ASCII characters are disallowed.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+public class NoDisallowedCharactersCheck extends AbstractTextCheck {
+
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private static final int ASCII_LIMIT = 0x80;
+    private static final int BMP_SIZE = Character.MAX_VALUE + 1;
+
+    private static final Pattern CODE_POINTS_PATTERN = Pattern.compile("(?i)U\\+(?<from>[0-9A-F]{4,6})(?:-U\\+(?<to>[0-9A-F]{4,6}))?");
+
+    private boolean allowByteOrderMark;
+
+    // one bit per BMP character
+    private long[] disallowedBmpCharacters;
+    private boolean allowsAllAsciiCharacters;
+    // sorted
+    private int[] disallowedSupplementaryCodePoints;
+
+    /**
+     * Creates a new check.
+     */
+    public NoDisallowedCharactersCheck() {
+        setDisallowedCharacters("U+00A0", "U+00AD", "U+200B-U+200F", "U+2028-U+202E", "U+2060-U+2064", "U+2066-U+2069", "U+FEFF");
+    }
+
+    @Override
+    protected void processText(File file, FileText fileText) {
+        int lineCount = fileText.size();
+        if (lineCount == 0) {
+            return;
+        }
+
+        CharSequence fullText = fileText.getFullText();
+        boolean hasByteOrderMark = hasByteOrderMark(fullText);
+        WorkCounters.charactersExamined(Math.min(fullText.length(), 1));
+        if (hasByteOrderMark && !allowByteOrderMark) {
+            log(1, "characters.byteOrderMark");
+        }
+
+        int lineNumber = 0;
+        while (lineNumber < lineCount) {
+            // skip past the byte order mark if there is one
+            int start = lineNumber == 0 && hasByteOrderMark ? 1 : 0;
+            if (!checkLine(fileText.get(lineNumber), lineNumber, start)) {
+                return;
+            }
+            lineNumber++;
+        }
+    }
+
+    private boolean hasByteOrderMark(CharSequence fullText) {
+        return fullText.length() > 0 && fullText.charAt(0) == BYTE_ORDER_MARK;
+    }
+
+    private boolean checkLine(String line, int lineIndex, int start) {
+        int length = line.length();
+        WorkCounters.lineVisited();
+        int index = start;
+        // long lines are checked in chunks, so the time budget is also checked while scanning them
+        do {
+            int end = Math.min(length, index + FileBudget.TIME_CHECK_INTERVAL);
+            if (isBudgetExceeded(lineIndex, end - index)) {
+                return false;
+            }
+            WorkCounters.charactersExamined(end - index);
+            // Line numbers start at 1, not 0
+            index = checkCharacters(line, lineIndex + 1, index, end);
+        } while (index < length);
+        return true;
+    }
+
+    private int checkCharacters(String line, int lineNumber, int start, int end) {
+        int length = line.length();
+        int index = start;
+        if (allowsAllAsciiCharacters) {
+            index = indexOfNonAscii(line, index, end);
+        }
+        while (index < end) {
+            char c = line.charAt(index);
+            // surrogate pairs are checked as a whole, so disallowing a lone surrogate does not disallow the pairs it's part of
+            if (Character.isHighSurrogate(c) && index + 1 < length && Character.isLowSurrogate(line.charAt(index + 1))) {
+                int codePoint = Character.toCodePoint(c, line.charAt(index + 1));
+                if (Arrays.binarySearch(disallowedSupplementaryCodePoints, codePoint) >= 0) {
+                    log(lineNumber, index, "characters.disallowed", toString(codePoint));
+                }
+                // the low surrogate may be the first character of the next chunk
+                index++;
+            } else if (isDisallowed(c)) {
+                log(lineNumber, index, "characters.disallowed", toString(c));
+            }
+            index++;
+        }
+        // this is end + 1 if the last character of the chunk was a high surrogate followed by a low surrogate
+        return index;
+    }
+
+    private int indexOfNonAscii(String line, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (line.charAt(i) >= ASCII_LIMIT) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private boolean isDisallowed(char c) {
+        return (disallowedBmpCharacters[c >>> 6] & (1L << c)) != 0;
+    }
+
+    private static String toString(int codePoint) {
+        return String.format(Locale.ROOT, "U+%04X", codePoint);
+    }
+
+    /**
+     * Sets whether or not files may start with a byte order mark. Defaults to {@code false}.
+     *
+     * @param allowByteOrderMark {@code true} if files may start with a byte order mark, or {@code false} otherwise.
+     */
+    public final void setAllowByteOrderMark(boolean allowByteOrderMark) {
+        this.allowByteOrderMark = allowByteOrderMark;
+    }
+
+    /**
+     * Sets the disallowed characters. Each value must be either a single code point like {@code U+00A0},
+     * or a range of code points like {@code U+200B-U+200F}.
+     *
+     * @param disallowedCharacters The disallowed characters.
+     * @throws NullPointerException If the given array or any of its elements is {@code null}.
+     * @throws IllegalArgumentException If any of the given values is not a valid code point or range of code points.
+     */
+    public final void setDisallowedCharacters(String... disallowedCharacters) {
+        long[] bmpCharacters = new long[BMP_SIZE / Long.SIZE];
+        IntStream.Builder supplementaryCodePoints = IntStream.builder();
+
+        for (String value : disallowedCharacters) {
+            Matcher matcher = CODE_POINTS_PATTERN.matcher(value.strip());
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Invalid code point or range of code points: " + value);
+            }
+            int from = parseCodePoint(matcher.group("from"), value);
+            String toGroup = matcher.group("to");
+            int to = toGroup != null ? parseCodePoint(toGroup, value) : from;
+            if (to < from) {
+                throw new IllegalArgumentException("Invalid range of code points: " + value);
+            }
+            for (int codePoint = from; codePoint <= to; codePoint++) {
+                if (codePoint < BMP_SIZE) {
+                    bmpCharacters[codePoint >>> 6] |= 1L << codePoint;
+                } else {
+                    supplementaryCodePoints.add(codePoint);
+                }
+            }
+        }
+
+        this.disallowedBmpCharacters = bmpCharacters;
+        this.allowsAllAsciiCharacters = bmpCharacters[0] == 0 && bmpCharacters[1] == 0;
+        this.disallowedSupplementaryCodePoints = supplementaryCodePoints.build().sorted().distinct().toArray();
+    }
+
+    private static int parseCodePoint(String hex, String value) {
+        int codePoint = Integer.parseInt(hex, 16);
+        if (!Character.isValidCodePoint(codePoint)) {
+            throw new IllegalArgumentException("Invalid code point or range of code points: " + value);
+        }
+        return codePoint;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * NoForbiddenTokensCheck.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
+
+/**
+ * Checks that files do not contain any of a set of literal tokens.
+ * <p>
+ * The tokens are specified one per line. Each line can optionally specify the message to use, separated from the token by {@code =>}.
+ * Such messages can use <code>{0}</code> to include the token. Other than that, messages are used as-is; they are not message formats.
+ * Lines without a message use a default message.
+ * <p>
+ * All tokens are matched at the same time, in a single pass over each line.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+public class NoForbiddenTokensCheck extends AbstractTextCheck {
+
+    private static final String MESSAGE_SEPARATOR = "=>";
+
+    private static final String TOKEN_PLACEHOLDER = "{0}";
+
+    private static final String DEFAULT_MESSAGE_KEY = "forbiddenToken.found";
+    private static final String CUSTOM_MESSAGE_KEY = "forbiddenToken.custom";
+
+    private MultiTokenMatcher matcher;
+    // the custom message per token, with the token already included, or null for the default message
+    private List<String> messages;
+
+    /**
+     * Creates a new check.
+     */
+    public NoForbiddenTokensCheck() {
+        matcher = new MultiTokenMatcher(Collections.emptyList());
+        messages = Collections.emptyList();
+    }
+
+    @Override
+    protected void processText(File file, FileText fileText) {
+        MultiTokenMatcher currentMatcher = matcher;
+        if (currentMatcher.tokens().isEmpty()) {
+            return;
+        }
+
+        LineMatchHandler handler = new LineMatchHandler(currentMatcher, messages);
+
+        int lineNumber = 0;
+        int lineCount = fileText.size();
+
+        while (lineNumber < lineCount) {
+            // Line numbers start at 1, not 0
+            handler.lineNumber = lineNumber + 1;
+            String line = fileText.get(lineNumber);
+            WorkCounters.lineVisited();
+            if (!checkLine(currentMatcher, line, lineNumber, handler)) {
+                return;
+            }
+            lineNumber++;
+        }
+    }
+
+    private boolean checkLine(MultiTokenMatcher currentMatcher, String line, int lineIndex, LineMatchHandler handler) {
+        int length = line.length();
+        int index = 0;
+        int state = MultiTokenMatcher.INITIAL_STATE;
+        // long lines are checked in chunks, so the time budget is also checked while scanning them
+        do {
+            int end = Math.min(length, index + FileBudget.TIME_CHECK_INTERVAL);
+            if (isBudgetExceeded(lineIndex, end - index)) {
+                return false;
+            }
+            WorkCounters.charactersExamined(end - index);
+            state = currentMatcher.findAll(line, index, end, state, handler);
+            index = end;
+        } while (index < length);
+        return true;
+    }
+
+    /**
+     * Sets the forbidden tokens. Each non-blank line specifies one token, optionally followed by {@code =>} and the message to use.
+     * Leading and trailing whitespace is ignored for both tokens and messages.
+     *
+     * @param forbiddenTokens The forbidden tokens.
+     * @throws NullPointerException If the given string is {@code null}.
+     * @throws IllegalArgumentException If a line specifies a message but no token.
+     */
+    public final void setForbiddenTokens(String forbiddenTokens) {
+        List<String> lines = new BufferedReader(new StringReader(forbiddenTokens))
+                .lines()
+                .filter(line -> !CommonUtil.isBlank(line))
+                .collect(Collectors.toList());
+
+        List<String> tokens = new ArrayList<>(lines.size());
+        List<String> customMessages = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            int separatorIndex = line.indexOf(MESSAGE_SEPARATOR);
+            if (separatorIndex == -1) {
+                tokens.add(line.strip());
+                customMessages.add(null);
+            } else {
+                String token = line.substring(0, separatorIndex).strip();
+                if (token.isEmpty()) {
+                    throw new IllegalArgumentException("Missing token: " + line);
+                }
+                String message = line.substring(separatorIndex + MESSAGE_SEPARATOR.length()).strip();
+                tokens.add(token);
+                customMessages.add(message.isEmpty() ? null : message.replace(TOKEN_PLACEHOLDER, token));
+            }
+        }
+
+        this.matcher = new MultiTokenMatcher(tokens);
+        this.messages = Collections.unmodifiableList(customMessages);
+    }
+
+    private final class LineMatchHandler implements MultiTokenMatcher.MatchHandler {
+
+        private final MultiTokenMatcher matcher;
+        private final List<String> messages;
+        private int lineNumber;
+
+        private LineMatchHandler(MultiTokenMatcher matcher, List<String> messages) {
+            this.matcher = matcher;
+            this.messages = messages;
+        }
+
+        @Override
+        public void match(int tokenIndex, int startIndex) {
+            String message = messages.get(tokenIndex);
+            if (message == null) {
+                log(lineNumber, startIndex, DEFAULT_MESSAGE_KEY, matcher.tokens().get(tokenIndex));
+            } else {
+                // log the message as argument, so Checkstyle does not treat it as a message format
+                log(lineNumber, startIndex, CUSTOM_MESSAGE_KEY, message);
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * NoLeadingOrTrailingBlankLinesCheck.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import java.io.File;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+/**
+ * Checks that files do not start or end with blank lines, and that non-empty files end with a newline.
+ * <p>
+ * Only the lines at the start and end of the file are inspected, so the cost of this check does not depend on the size of the file.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+public class NoLeadingOrTrailingBlankLinesCheck extends AbstractTextCheck {
+
+    private boolean requireNewlineAtEndOfFile = true;
+
+    @Override
+    protected void processText(File file, FileText fileText) throws CheckstyleException {
+        int lineCount = fileText.size();
+        if (lineCount == 0) {
+            return;
+        }
+
+        int firstNonBlankLine = findFirstNonBlankLine(fileText, lineCount);
+        if (firstNonBlankLine < 0) {
+            // the budget has been exceeded
+            return;
+        }
+        if (firstNonBlankLine > 0) {
+            // Line numbers start at 1, not 0
+            log(1, "whitespace.leadingBlankLines");
+        }
+        if (firstNonBlankLine == lineCount) {
+            // the file contains only blank lines; they have been reported as leading blank lines already
+            return;
+        }
+
+        int lastNonBlankLine = findLastNonBlankLine(fileText, lineCount);
+        if (lastNonBlankLine < 0) {
+            // the budget has been exceeded
+            return;
+        }
+        if (lastNonBlankLine < lineCount - 1) {
+            // Line numbers start at 1, not 0
+            log(lastNonBlankLine + 2, "whitespace.trailingBlankLines");
+        } else if (requireNewlineAtEndOfFile && !endsWithNewline(fileText.getFullText())) {
+            log(lineCount, fileText.get(lineCount - 1).length(), "whitespace.missingNewlineAtEndOfFile");
+        }
+    }
+
+    private int findFirstNonBlankLine(FileText fileText, int lineCount) {
+        for (int i = 0; i < lineCount; i++) {
+            String line = fileText.get(i);
+            if (isBudgetExceeded(i, line.length())) {
+                return -1;
+            }
+            WorkCounters.lineVisited();
+            if (!isBlank(line)) {
+                return i;
+            }
+        }
+        return lineCount;
+    }
+
+    private int findLastNonBlankLine(FileText fileText, int lineCount) {
+        for (int i = lineCount - 1; i >= 0; i--) {
+            String line = fileText.get(i);
+            if (isBudgetExceeded(i, line.length())) {
+                return -1;
+            }
+            WorkCounters.lineVisited();
+            if (!isBlank(line)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean endsWithNewline(CharSequence fullText) {
+        int length = fullText.length();
+        if (length == 0) {
+            return true;
+        }
+        char last = fullText.charAt(length - 1);
+        WorkCounters.charactersExamined(1);
+        return last == '\n' || last == '\r';
+    }
+
+    /**
+     * Sets whether or not non-empty files must end with a newline. Defaults to {@code true}.
+     *
+     * @param requireNewlineAtEndOfFile {@code true} if non-empty files must end with a newline, or {@code false} otherwise.
+     */
+    public final void setRequireNewlineAtEndOfFile(boolean requireNewlineAtEndOfFile) {
+        this.requireNewlineAtEndOfFile = requireNewlineAtEndOfFile;
+    }
+}
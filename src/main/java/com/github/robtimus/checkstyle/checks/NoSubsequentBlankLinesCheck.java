@@ -18,27 +18,41 @@
 package com.github.robtimus.checkstyle.checks;
 
 import java.io.File;
-import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.FileText;
-import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
 /**
  * Checks that files do not have multiple blank lines in a row.
+ * <p>
+ * Lines between a line containing {@code checkstyle-ext:off} and a line containing {@code checkstyle-ext:on} are skipped.
  *
  * @author Rob Spoor
  */
 @SuppressWarnings("nls")
-public class NoSubsequentBlankLinesCheck extends AbstractFileSetCheck {
+public class NoSubsequentBlankLinesCheck extends AbstractTextCheck {
 
     @Override
-    protected void processFiltered(File file, FileText fileText) throws CheckstyleException {
+    protected void processText(File file, FileText fileText) throws CheckstyleException {
         int lineNumber = 0;
         int lineCount = fileText.size();
 
         while (lineNumber < lineCount) {
-            if (CommonUtil.isBlank(fileText.get(lineNumber))) {
+            int nextLineNumber = skipSuppressedLines(fileText, lineNumber, lineCount);
+            if (nextLineNumber != lineNumber) {
+                lineNumber = nextLineNumber;
+                continue;
+            }
+            String line = fileText.get(lineNumber);
+            if (isBudgetExceeded(lineNumber, line.length())) {
+                return;
+            }
+            WorkCounters.lineVisited();
+            if (isBlank(line)) {
                 int nextNonBlankLine = findNextNonBlankLine(fileText, lineNumber, lineCount);
+                if (nextNonBlankLine < 0) {
+                    // the budget has been exceeded
+                    return;
+                }
                 if (nextNonBlankLine - lineNumber > 1) {
                     // Line numbers start at 1, not 0
                     log(lineNumber + 1, "whitespace.multipleBlankLinesInARow");
@@ -49,9 +63,19 @@ public class NoSubsequentBlankLinesCheck extends AbstractFileSetCheck {
         }
     }
 
+    @Override
+    EditScope editScope() {
+        return EditScope.BLANK_LINES;
+    }
+
     private int findNextNonBlankLine(FileText fileText, int lineNumber, int lineCount) {
         for (int i = lineNumber + 1; i < lineCount; i++) {
-            if (!CommonUtil.isBlank(fileText.get(i))) {
+            String line = fileText.get(i);
+            if (isBudgetExceeded(i, line.length())) {
+                return -1;
+            }
+            WorkCounters.lineVisited();
+            if (!isBlank(line)) {
                 return i;
             }
         }
@@ -18,24 +18,34 @@
 package com.github.robtimus.checkstyle.checks;
 
 import java.io.File;
-import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 
 /**
  * Checks that files have no trailing whitespace.
+ * <p>
+ * Lines between a line containing {@code checkstyle-ext:off} and a line containing {@code checkstyle-ext:on} are skipped.
  *
  * @author Rob Spoor
  */
 @SuppressWarnings("nls")
-public class NoTrailingWhitespaceCheck extends AbstractFileSetCheck {
+public class NoTrailingWhitespaceCheck extends AbstractTextCheck {
 
     @Override
-    protected void processFiltered(File file, FileText fileText) {
+    protected void processText(File file, FileText fileText) {
         int lineNumber = 0;
         int lineCount = fileText.size();
 
         while (lineNumber < lineCount) {
+            int nextLineNumber = skipSuppressedLines(fileText, lineNumber, lineCount);
+            if (nextLineNumber != lineNumber) {
+                lineNumber = nextLineNumber;
+                continue;
+            }
             String line = fileText.get(lineNumber);
+            if (isBudgetExceeded(lineNumber, line.length())) {
+                return;
+            }
+            WorkCounters.lineVisited();
             if (!line.isEmpty()) {
                 int indexOfLastNonWhitespace = indexOfLastNonWhitespace(line);
                 if (indexOfLastNonWhitespace != line.length() - 1) {
@@ -47,12 +57,19 @@ public class NoTrailingWhitespaceCheck extends AbstractFileSetCheck {
         }
     }
 
+    @Override
+    EditScope editScope() {
+        return EditScope.LINE;
+    }
+
     private int indexOfLastNonWhitespace(String line) {
         for (int i = line.length() - 1; i >= 0; i--) {
             if (!Character.isWhitespace(line.charAt(i))) {
+                WorkCounters.charactersExamined(line.length() - i);
                 return i;
             }
         }
+        WorkCounters.charactersExamined(line.length());
         return -1;
     }
 }
@@ -0,0 +1,284 @@
+/*
+ * ParallelAuditRunner.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+/**
+ * Runs checks on files using several threads. Checkstyle's {@code Checker} processes files one by one; this class instead shards files across a
+ * work-stealing pool. Each worker thread gets its own check instances from a factory, and runs all of its checks on a file before moving on to
+ * the next file. The result contains the violations per file in the order the files were given, regardless of which worker processed which file.
+ * <p>
+ * By default, files are read and decoded ahead of the workers by a {@link FileTextPrefetcher}, and each worker takes the next file from it
+ * when it's done with its previous file. That way the workers spend their time on running checks instead of waiting for file reads, and
+ * memory usage is bounded by the limits of the prefetcher. If prefetching is disabled, files are sharded across the workers, and each worker
+ * reads the files it checks itself.
+ * <p>
+ * The checks in this package can be used with this class, because they keep no per-file state in their fields. Other checks can be used if
+ * they do the same.
+ * <p>
+ * Unlike {@code Checker}, this class does not notify audit listeners, does not apply filters, and does not cache results. However, if
+ * {@link #run(List)} is called while a {@link PerformanceReportListener} is recording an audit on the same thread, the time spent by the checks
+ * of this package on each worker thread is included in its report.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+public final class ParallelAuditRunner {
+
+    private final Supplier<? extends List<? extends AbstractFileSetCheck>> checkFactory;
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private String charset = StandardCharsets.UTF_8.name();
+    private boolean prefetchFiles = true;
+
+    /**
+     * Creates a new parallel audit runner.
+     *
+     * @param checkFactory A factory for check instances. It is called once per worker thread, and should return new, fully configured
+     *                         check instances each time.
+     * @throws NullPointerException If the given factory is {@code null}.
+     */
+    public ParallelAuditRunner(Supplier<? extends List<? extends AbstractFileSetCheck>> checkFactory) {
+        this.checkFactory = Objects.requireNonNull(checkFactory);
+    }
+
+    /**
+     * Sets the number of worker threads. Defaults to the number of available processors.
+     *
+     * @param parallelism The number of worker threads.
+     * @throws IllegalArgumentException If the given number is not positive.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Non-positive parallelism: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets the charset to read files with. Defaults to {@code UTF-8}.
+     *
+     * @param charset The name of the charset to read files with.
+     * @throws IllegalArgumentException If the given charset is not supported.
+     */
+    public void setCharset(String charset) {
+        if (!Charset.isSupported(charset)) {
+            throw new IllegalArgumentException("Unsupported charset: " + charset);
+        }
+        this.charset = charset;
+    }
+
+    /**
+     * Sets whether or not files are read ahead of the workers using a {@link FileTextPrefetcher}. Defaults to {@code true}.
+     *
+     * @param prefetchFiles {@code true} to read files ahead of the workers, or {@code false} to let each worker read its own files.
+     */
+    public void setPrefetchFiles(boolean prefetchFiles) {
+        this.prefetchFiles = prefetchFiles;
+    }
+
+    /**
+     * Runs the checks on the given files.
+     *
+     * @param files The files to check. Files that occur more than once are checked only once.
+     * @return A map with the violations per file, in the order of the given files. Files without violations are mapped to an empty set.
+     * @throws CheckstyleException If an error occurs while reading or checking any of the files. If several files fail, the error for the first
+     *                                 of these files is thrown.
+     */
+    public Map<File, SortedSet<Violation>> run(List<File> files) throws CheckstyleException {
+        // the result has one entry per file, so a file that occurs more than once is checked only once
+        Audit audit = new Audit(List.copyOf(new LinkedHashSet<>(files)));
+
+        int fileCount = audit.files.size();
+        int workerCount = Math.min(parallelism, Math.max(fileCount, 1));
+        ForkJoinPool pool = new ForkJoinPool(workerCount);
+        try {
+            if (prefetchFiles) {
+                audit.processPrefetched(pool, workerCount);
+            } else {
+                pool.invoke(audit.new Shard(0, fileCount));
+            }
+        } finally {
+            pool.shutdown();
+            audit.finishChecks();
+        }
+
+        return audit.result();
+    }
+
+    private final class Audit {
+
+        private final List<File> files;
+        private final List<SortedSet<Violation>> violations;
+        private final List<Exception> failures;
+
+        private final ThreadLocal<List<? extends AbstractFileSetCheck>> workerChecks = new ThreadLocal<>();
+        private final Queue<AbstractFileSetCheck> allChecks = new ConcurrentLinkedQueue<>();
+
+        // the observer of the thread that started the audit, for the worker threads
+        private final ProcessFileProbe.Observer observer;
+
+        // guarded by the prefetcher
+        private int nextPrefetchedIndex;
+
+        private Audit(List<File> files) {
+            this.files = files;
+            this.observer = ProcessFileProbe.registered();
+            // every index is written by exactly one task, and read after the pool has finished
+            this.violations = new ArrayList<>(Collections.nCopies(files.size(), null));
+            this.failures = new ArrayList<>(Collections.nCopies(files.size(), null));
+        }
+
+        private List<? extends AbstractFileSetCheck> checks() {
+            List<? extends AbstractFileSetCheck> checks = workerChecks.get();
+            if (checks == null) {
+                checks = checkFactory.get();
+                for (AbstractFileSetCheck check : checks) {
+                    check.beginProcessing(charset);
+                }
+                allChecks.addAll(checks);
+                workerChecks.set(checks);
+            }
+            return checks;
+        }
+
+        private void processPrefetched(ForkJoinPool pool, int workerCount) {
+            try (FileTextPrefetcher prefetcher = new FileTextPrefetcher(files, charset)) {
+                Callable<Void> worker = () -> {
+                    processPrefetched(prefetcher);
+                    return null;
+                };
+                pool.invokeAll(Collections.nCopies(workerCount, worker));
+            }
+        }
+
+        private void processPrefetched(FileTextPrefetcher prefetcher) {
+            while (true) {
+                int index;
+                FileTextPrefetcher.PendingFile pendingFile;
+                // files are taken in order, so the prefetcher reads the files that are needed next
+                synchronized (prefetcher) {
+                    if (!prefetcher.hasNext()) {
+                        return;
+                    }
+                    index = nextPrefetchedIndex++;
+                    pendingFile = prefetcher.claim();
+                }
+                // wait outside the lock, so other workers can take their files while this file is still being read
+                FileText fileText;
+                try {
+                    fileText = pendingFile.await();
+                } catch (IOException | RuntimeException e) {
+                    failures.set(index, e);
+                    continue;
+                } finally {
+                    synchronized (prefetcher) {
+                        prefetcher.release(pendingFile);
+                    }
+                }
+                process(index, fileText);
+            }
+        }
+
+        private void process(int index, FileText prefetchedFileText) {
+            File file = files.get(index);
+            ProcessFileProbe.Observer previousObserver = ProcessFileProbe.replace(observer);
+            try {
+                FileText fileText = prefetchedFileText != null ? prefetchedFileText : new FileText(file.getAbsoluteFile(), charset);
+                SortedSet<Violation> fileViolations = new TreeSet<>();
+                for (AbstractFileSetCheck check : checks()) {
+                    fileViolations.addAll(check.process(file, fileText));
+                }
+                violations.set(index, fileViolations);
+            } catch (Exception e) {
+                failures.set(index, e);
+            } finally {
+                ProcessFileProbe.replace(previousObserver);
+            }
+        }
+
+        private void finishChecks() {
+            for (AbstractFileSetCheck check : allChecks) {
+                check.finishProcessing();
+                check.destroy();
+            }
+        }
+
+        private Map<File, SortedSet<Violation>> result() throws CheckstyleException {
+            Map<File, SortedSet<Violation>> result = new LinkedHashMap<>();
+            for (int i = 0; i < files.size(); i++) {
+                File file = files.get(i);
+                Exception failure = failures.get(i);
+                if (failure != null) {
+                    throw new CheckstyleException("Exception was thrown while processing " + file.getPath(), failure);
+                }
+                result.put(file, violations.get(i));
+            }
+            return result;
+        }
+
+        // Shards are split in halves until they contain a single file, so idle workers can steal work at the granularity of files
+        private final class Shard extends RecursiveAction {
+
+            private static final long serialVersionUID = 1L;
+
+            private final int from;
+            private final int to;
+
+            private Shard(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from <= 1) {
+                    if (from < to) {
+                        process(from, null);
+                    }
+                } else {
+                    int middle = (from + to) >>> 1;
+                    invokeAll(new Shard(from, middle), new Shard(middle, to));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,335 @@
+/*
+ * PerformanceReportListener.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Formatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import com.puppycrawl.tools.checkstyle.AbstractAutomaticBean;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+/**
+ * An audit listener that reports how long the checks of this project take. When the audit is finished it prints a report with the total time,
+ * number of files and lines per check, the slowest files, the overall throughput in lines per second, the number of violations per check,
+ * and a histogram of the time spent per file.
+ * <p>
+ * The time per file is measured from the start to the end of each file, and therefore includes all checks. The time per check and line counts
+ * are only available for the checks of this project; for other modules only the number of violations is reported.
+ * <p>
+ * Memory usage does not depend on the number of files: the histogram has a fixed number of buckets, only the slowest files are retained,
+ * and statistics are kept per check, not per file.
+ * <p>
+ * Only checks that run on the thread that started the audit are recorded, and checks that run on the worker threads of a
+ * {@link ParallelAuditRunner} that is run from that thread. Checks that run on threads that are started in other ways are not included.
+ * The files that a {@link ParallelAuditRunner} processes are only included in the statistics per check, because it does not notify listeners.
+ * <p>
+ * This listener can be added as a child module of the {@code Checker} module. It should not be shared between concurrent audits.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+public class PerformanceReportListener extends AbstractAutomaticBean implements AuditListener {
+
+    // bucket 0 contains times below 1 microsecond; bucket i contains times in [2^(i - 1), 2^i) microseconds; the last bucket contains the rest
+    private static final int HISTOGRAM_BUCKET_COUNT = 32;
+
+    private static final double NANOS_PER_MILLI = 1_000_000D;
+    private static final double NANOS_PER_SECOND = 1_000_000_000D;
+
+    private int slowestFileCount = 10;
+    private String file;
+
+    private final ProcessFileProbe.Observer observer = this::fileProcessed;
+
+    private final Map<String, CheckStatistics> checkStatistics = new TreeMap<>();
+    private final long[] fileTimeHistogram = new long[HISTOGRAM_BUCKET_COUNT];
+    private final PriorityQueue<FileTiming> slowestFiles = new PriorityQueue<>(Comparator.comparingLong(f -> f.nanos));
+
+    private Thread auditThread;
+    private long auditStartNanos;
+    private long fileCount;
+    private long lineCount;
+    private long fileNanos;
+    private long maxFileNanos;
+
+    private String currentFileName;
+    private long currentFileStartNanos;
+    private int currentFileLineCount;
+
+    /**
+     * Sets the number of slowest files to report. Defaults to 10.
+     *
+     * @param slowestFiles The number of slowest files to report.
+     * @throws IllegalArgumentException If the given number is negative.
+     */
+    public final void setSlowestFiles(int slowestFiles) {
+        if (slowestFiles < 0) {
+            throw new IllegalArgumentException("Negative number of slowest files: " + slowestFiles);
+        }
+        this.slowestFileCount = slowestFiles;
+    }
+
+    /**
+     * Sets the file to write the report to. If not set, the report is written to {@link System#out}.
+     *
+     * @param file The file to write the report to.
+     */
+    public final void setFile(String file) {
+        this.file = file;
+    }
+
+    @Override
+    protected void finishLocalSetup() {
+        // nothing to do
+    }
+
+    @Override
+    public synchronized void auditStarted(AuditEvent event) {
+        checkStatistics.clear();
+        Arrays.fill(fileTimeHistogram, 0);
+        slowestFiles.clear();
+        fileCount = 0;
+        lineCount = 0;
+        fileNanos = 0;
+        maxFileNanos = 0;
+
+        ProcessFileProbe.register(observer);
+        auditThread = Thread.currentThread();
+        auditStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public synchronized void auditFinished(AuditEvent event) {
+        long auditNanos = System.nanoTime() - auditStartNanos;
+        ProcessFileProbe.unregister(observer);
+        auditThread = null;
+
+        String report = report(auditNanos);
+        if (file == null) {
+            System.out.print(report);
+            System.out.flush();
+        } else {
+            try {
+                Files.writeString(Paths.get(file), report);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void fileStarted(AuditEvent event) {
+        currentFileName = event.getFileName();
+        currentFileLineCount = 0;
+        currentFileStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public synchronized void fileFinished(AuditEvent event) {
+        long nanos = System.nanoTime() - currentFileStartNanos;
+
+        fileCount++;
+        lineCount += currentFileLineCount;
+        fileNanos += nanos;
+        maxFileNanos = Math.max(maxFileNanos, nanos);
+        fileTimeHistogram[histogramBucket(nanos)]++;
+        recordSlowestFile(event.getFileName(), nanos, currentFileLineCount);
+
+        currentFileName = null;
+    }
+
+    @Override
+    public synchronized void addError(AuditEvent event) {
+        checkStatistics(event.getSourceName()).violations++;
+    }
+
+    @Override
+    public void addException(AuditEvent event, Throwable throwable) {
+        // exceptions are reported by other listeners
+    }
+
+    // called from worker threads as well if a ParallelAuditRunner is used
+    private synchronized void fileProcessed(AbstractFileSetCheck check, FileText fileText, long nanos) {
+        int fileLineCount = fileText.size();
+
+        CheckStatistics statistics = checkStatistics(check.getClass().getName());
+        statistics.files++;
+        statistics.lines += fileLineCount;
+        statistics.nanos += nanos;
+
+        // worker threads process other files than the current file
+        if (currentFileName != null && Thread.currentThread() == auditThread) {
+            currentFileLineCount = Math.max(currentFileLineCount, fileLineCount);
+        }
+    }
+
+    private CheckStatistics checkStatistics(String sourceName) {
+        return checkStatistics.computeIfAbsent(sourceName, CheckStatistics::new);
+    }
+
+    private void recordSlowestFile(String fileName, long nanos, int fileLineCount) {
+        if (slowestFileCount == 0) {
+            return;
+        }
+        FileTiming timing;
+        if (slowestFiles.size() < slowestFileCount) {
+            timing = new FileTiming();
+        } else if (slowestFiles.peek().nanos < nanos) {
+            // reuse the fastest of the retained files
+            timing = slowestFiles.poll();
+        } else {
+            return;
+        }
+        timing.fileName = fileName;
+        timing.nanos = nanos;
+        timing.lineCount = fileLineCount;
+        slowestFiles.add(timing);
+    }
+
+    static int histogramBucket(long nanos) {
+        long micros = nanos / 1000;
+        int bucket = 64 - Long.numberOfLeadingZeros(micros);
+        return Math.min(bucket, HISTOGRAM_BUCKET_COUNT - 1);
+    }
+
+    private String report(long auditNanos) {
+        try (Formatter formatter = new Formatter(Locale.ROOT)) {
+            formatter.format("Performance report%n");
+            formatter.format("Files:       %,d (%,d lines)%n", fileCount, lineCount);
+            formatter.format("Audit time:  %,.3f ms%n", auditNanos / NANOS_PER_MILLI);
+            formatter.format("Throughput:  %,.0f lines/s%n", perSecond(lineCount, auditNanos));
+            if (fileCount > 0) {
+                formatter.format("File time:   %,.3f ms total, p50 %s, p90 %s, p99 %s, max %,.3f ms%n",
+                        fileNanos / NANOS_PER_MILLI, percentile(0.5), percentile(0.9), percentile(0.99), maxFileNanos / NANOS_PER_MILLI);
+            }
+
+            formatCheckStatistics(formatter);
+            formatSlowestFiles(formatter);
+            formatHistogram(formatter);
+
+            return formatter.toString();
+        }
+    }
+
+    private void formatCheckStatistics(Formatter formatter) {
+        if (checkStatistics.isEmpty()) {
+            return;
+        }
+        formatter.format("%nChecks:%n");
+        formatter.format("  %-40s %12s %10s %14s %12s%n", "Check", "Time (ms)", "Files", "Lines/s", "Violations");
+        for (CheckStatistics statistics : checkStatistics.values()) {
+            if (statistics.files > 0) {
+                formatter.format("  %-40s %,12.3f %,10d %,14.0f %,12d%n", statistics.name, statistics.nanos / NANOS_PER_MILLI, statistics.files,
+                        perSecond(statistics.lines, statistics.nanos), statistics.violations);
+            } else {
+                formatter.format("  %-40s %12s %10s %14s %,12d%n", statistics.name, "-", "-", "-", statistics.violations);
+            }
+        }
+    }
+
+    private void formatSlowestFiles(Formatter formatter) {
+        if (slowestFiles.isEmpty()) {
+            return;
+        }
+        List<FileTiming> timings = new ArrayList<>(slowestFiles);
+        timings.sort(Comparator.comparingLong((FileTiming f) -> f.nanos).reversed());
+
+        formatter.format("%nSlowest files:%n");
+        formatter.format("  %12s %10s  %s%n", "Time (ms)", "Lines", "File");
+        for (FileTiming timing : timings) {
+            formatter.format("  %,12.3f %,10d  %s%n", timing.nanos / NANOS_PER_MILLI, timing.lineCount, timing.fileName);
+        }
+    }
+
+    private void formatHistogram(Formatter formatter) {
+        int first = 0;
+        while (first < HISTOGRAM_BUCKET_COUNT && fileTimeHistogram[first] == 0) {
+            first++;
+        }
+        if (first == HISTOGRAM_BUCKET_COUNT) {
+            return;
+        }
+        int last = HISTOGRAM_BUCKET_COUNT - 1;
+        while (fileTimeHistogram[last] == 0) {
+            last--;
+        }
+
+        formatter.format("%nFile time histogram:%n");
+        for (int bucket = first; bucket <= last; bucket++) {
+            formatter.format("  %15s %,12d%n", histogramBucketLabel(bucket), fileTimeHistogram[bucket]);
+        }
+    }
+
+    private String percentile(double fraction) {
+        long threshold = (long) Math.ceil(fileCount * fraction);
+        long cumulative = 0;
+        int bucket = 0;
+        while (bucket < HISTOGRAM_BUCKET_COUNT - 1 && cumulative + fileTimeHistogram[bucket] < threshold) {
+            cumulative += fileTimeHistogram[bucket];
+            bucket++;
+        }
+        // the maximum is a better upper bound than the bucket's upper bound
+        return bucket == histogramBucket(maxFileNanos)
+                ? String.format(Locale.ROOT, "<= %,.3f ms", maxFileNanos / NANOS_PER_MILLI)
+                : histogramBucketLabel(bucket);
+    }
+
+    private static String histogramBucketLabel(int bucket) {
+        return bucket == HISTOGRAM_BUCKET_COUNT - 1
+                ? String.format(Locale.ROOT, ">= %,.3f ms", (1L << (bucket - 1)) / 1000D)
+                : String.format(Locale.ROOT, "< %,.3f ms", (1L << bucket) / 1000D);
+    }
+
+    private static double perSecond(long count, long nanos) {
+        return nanos == 0 ? 0 : count * NANOS_PER_SECOND / nanos;
+    }
+
+    private static final class CheckStatistics {
+
+        private final String name;
+
+        private long files;
+        private long lines;
+        private long nanos;
+        private long violations;
+
+        private CheckStatistics(String sourceName) {
+            this.name = sourceName.substring(sourceName.lastIndexOf('.') + 1);
+        }
+    }
+
+    private static final class FileTiming {
+
+        private String fileName;
+        private long nanos;
+        private int lineCount;
+    }
+}
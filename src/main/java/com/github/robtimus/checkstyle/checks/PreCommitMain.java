@@ -0,0 +1,340 @@
+/*
+ * PreCommitMain.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+/**
+ * A minimal command line entry point for running the line based checks of this project, for instance from a pre-commit hook.
+ * It does not start a {@code Checker} or parse an XML configuration. Instead, it reads a small configuration file and runs the configured
+ * checks directly on each file. Output uses the same format as Checkstyle's plain output. The exit code is 0 if there are no violations with
+ * severity {@code error}, 1 if there are, and 2 if the audit could not be performed, for instance because of an invalid configuration or a
+ * file that could not be read.
+ * <p>
+ * Usage: {@code java -cp checkstyle.jar:checkstyle-extension.jar com.github.robtimus.checkstyle.checks.PreCommitMain [-c <file>] <path>...}
+ * <p>
+ * The configuration file contains one entry per line. Empty lines and lines starting with {@code #} are ignored. An entry is either the name of
+ * a check, optionally without the {@code Check} suffix, or a property of a check in the form {@code <check>.<property> = <value>}. Setting a
+ * property also enables the check. Properties are set in the order they appear. If no configuration file is given,
+ * {@code NoTrailingWhitespace}, {@code NoSubsequentBlankLines}, {@code NoBlankLineAfterSymbols} and {@code NoBlankLineBeforeSymbols} are run
+ * with their default settings. For example:
+ * <pre><code>
+ * NoTrailingWhitespace
+ * NoSubsequentBlankLines
+ * LicenseComment.predefinedLicenseText = Apache-2.0
+ * LicenseComment.includeCopyright = true
+ * </code></pre>
+ * Directories are searched recursively, except for {@code .git} and {@code target} directories inside them. Files are always read as UTF-8.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+public final class PreCommitMain {
+
+    static final int EXIT_SUCCESS = 0;
+    static final int EXIT_VIOLATIONS = 1;
+    static final int EXIT_FAILURE = 2;
+
+    private static final String USAGE = "Usage: PreCommitMain [-c <configuration file>] <file or directory>...";
+
+    private static final Map<String, Supplier<AbstractFileSetCheck>> SUPPORTED_CHECKS = supportedChecks();
+
+    private static final Set<String> EXCLUDED_DIRECTORIES = Set.of(".git", "target");
+
+    private static final String CHARSET = StandardCharsets.UTF_8.name();
+
+    static final List<String> DEFAULT_CHECKS = List.of(
+            "NoTrailingWhitespace", "NoSubsequentBlankLines", "NoBlankLineAfterSymbols", "NoBlankLineBeforeSymbols");
+
+    private PreCommitMain() {
+    }
+
+    private static Map<String, Supplier<AbstractFileSetCheck>> supportedChecks() {
+        Map<String, Supplier<AbstractFileSetCheck>> checks = new LinkedHashMap<>();
+        checks.put("IndentationWhitespace", IndentationWhitespaceCheck::new);
+        checks.put("LicenseComment", LicenseCommentCheck::new);
+        checks.put("LineEndings", LineEndingsCheck::new);
+        checks.put("NoBlankLineAfterSymbols", NoBlankLineAfterSymbolsCheck::new);
+        checks.put("NoBlankLineBeforeSymbols", NoBlankLineBeforeSymbolsCheck::new);
+        checks.put("NoDisallowedCharacters", NoDisallowedCharactersCheck::new);
+        checks.put("NoForbiddenTokens", NoForbiddenTokensCheck::new);
+        checks.put("NoLeadingOrTrailingBlankLines", NoLeadingOrTrailingBlankLinesCheck::new);
+        checks.put("NoSubsequentBlankLines", NoSubsequentBlankLinesCheck::new);
+        checks.put("NoTrailingWhitespace", NoTrailingWhitespaceCheck::new);
+        return checks;
+    }
+
+    /**
+     * Runs the configured checks on the given files.
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String... args) {
+        int exitCode = run(args, System.out, System.err);
+        if (exitCode != EXIT_SUCCESS) {
+            System.exit(exitCode);
+        }
+    }
+
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        Path configFile = null;
+        List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("-c".equals(args[i])) {
+                if (i + 1 == args.length) {
+                    err.println("Missing configuration file for -c");
+                    err.println(USAGE);
+                    return EXIT_FAILURE;
+                }
+                configFile = Path.of(args[++i]);
+            } else {
+                paths.add(Path.of(args[i]));
+            }
+        }
+        if (paths.isEmpty()) {
+            err.println(USAGE);
+            return EXIT_FAILURE;
+        }
+
+        try {
+            List<AbstractFileSetCheck> checks = configFile == null ? createChecks(DEFAULT_CHECKS) : createChecks(Files.readAllLines(configFile));
+            int errorCount = audit(checks, listFiles(paths), out);
+            return errorCount > 0 ? EXIT_VIOLATIONS : EXIT_SUCCESS;
+        } catch (CheckstyleException | IOException e) {
+            err.println(e.getMessage());
+            return EXIT_FAILURE;
+        }
+    }
+
+    static List<AbstractFileSetCheck> createChecks(List<String> configuration) throws CheckstyleException {
+        Map<String, AbstractFileSetCheck> checks = new LinkedHashMap<>();
+        for (int i = 0; i < configuration.size(); i++) {
+            String entry = configuration.get(i).strip();
+            if (entry.isEmpty() || entry.startsWith("#")) {
+                continue;
+            }
+            int lineNumber = i + 1;
+            int equalsIndex = entry.indexOf('=');
+            String key = equalsIndex == -1 ? entry : entry.substring(0, equalsIndex).strip();
+            int dotIndex = key.indexOf('.');
+            String checkName = dotIndex == -1 ? key : key.substring(0, dotIndex);
+
+            AbstractFileSetCheck check = checks.get(normalizeCheckName(checkName));
+            if (check == null) {
+                check = createCheck(checkName, lineNumber);
+                checks.put(normalizeCheckName(checkName), check);
+            }
+            if (dotIndex != -1) {
+                if (equalsIndex == -1) {
+                    throw new CheckstyleException(String.format("Line %d: missing value for property %s", lineNumber, key));
+                }
+                String property = key.substring(dotIndex + 1).strip();
+                if (property.isEmpty()) {
+                    throw new CheckstyleException(String.format("Line %d: missing property name for check %s", lineNumber, checkName));
+                }
+                setProperty(check, property, entry.substring(equalsIndex + 1).strip(), lineNumber);
+            } else if (equalsIndex != -1) {
+                throw new CheckstyleException(String.format("Line %d: missing property name for check %s", lineNumber, checkName));
+            }
+        }
+        return new ArrayList<>(checks.values());
+    }
+
+    private static String normalizeCheckName(String checkName) {
+        return checkName.endsWith("Check") ? checkName.substring(0, checkName.length() - "Check".length()) : checkName;
+    }
+
+    private static AbstractFileSetCheck createCheck(String checkName, int lineNumber) throws CheckstyleException {
+        Supplier<AbstractFileSetCheck> factory = SUPPORTED_CHECKS.get(normalizeCheckName(checkName));
+        if (factory == null) {
+            throw new CheckstyleException(String.format("Line %d: unsupported check %s; supported checks are %s",
+                    lineNumber, checkName, String.join(", ", SUPPORTED_CHECKS.keySet())));
+        }
+        return factory.get();
+    }
+
+    private static void setProperty(AbstractFileSetCheck check, String property, String value, int lineNumber) throws CheckstyleException {
+        String setterName = "set" + property.substring(0, 1).toUpperCase(Locale.ROOT) + property.substring(1);
+        Method setter = Arrays.stream(check.getClass().getMethods())
+                .filter(m -> m.getName().equals(setterName) && m.getParameterCount() == 1)
+                .findFirst()
+                .orElseThrow(() -> new CheckstyleException(String.format("Line %d: unknown property %s for check %s",
+                        lineNumber, property, check.getClass().getSimpleName())));
+        try {
+            setter.invoke(check, convertValue(setter.getParameterTypes()[0], value, lineNumber));
+        } catch (InvocationTargetException e) {
+            throw new CheckstyleException(String.format("Line %d: invalid value for property %s: %s", lineNumber, property,
+                    e.getCause().getMessage()), e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new CheckstyleException(String.format("Line %d: cannot set property %s", lineNumber, property), e);
+        }
+    }
+
+    private static Object convertValue(Class<?> type, String value, int lineNumber) throws CheckstyleException {
+        if (type == String.class) {
+            // allow multi-line values like forbidden tokens to be written on a single line
+            return value.replace("\\n", "\n");
+        }
+        if (type == String[].class) {
+            return Arrays.stream(value.split(","))
+                    .map(String::strip)
+                    .filter(s -> !s.isEmpty())
+                    .toArray(String[]::new);
+        }
+        if (type == boolean.class) {
+            if ("true".equals(value) || "false".equals(value)) {
+                return Boolean.valueOf(value);
+            }
+            throw new CheckstyleException(String.format("Line %d: invalid boolean value: %s", lineNumber, value));
+        }
+        if (type == int.class) {
+            try {
+                return Integer.valueOf(value);
+            } catch (@SuppressWarnings("unused") NumberFormatException e) {
+                throw new CheckstyleException(String.format("Line %d: invalid integer value: %s", lineNumber, value));
+            }
+        }
+        throw new CheckstyleException(String.format("Line %d: unsupported property type: %s", lineNumber, type.getSimpleName()));
+    }
+
+    static List<File> listFiles(List<Path> paths) throws IOException {
+        List<File> files = new ArrayList<>();
+        for (Path path : paths) {
+            if (Files.isDirectory(path)) {
+                List<Path> directoryFiles = new ArrayList<>();
+                Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                        // only directories inside the given directory are excluded, so the given directory itself can always be checked
+                        return !dir.equals(path) && isExcludedDirectory(dir)
+                                ? FileVisitResult.SKIP_SUBTREE
+                                : FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        if (attrs.isRegularFile()) {
+                            directoryFiles.add(file);
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+                directoryFiles.sort(null);
+                for (Path file : directoryFiles) {
+                    files.add(file.toFile());
+                }
+            } else {
+                files.add(path.toFile());
+            }
+        }
+        return files;
+    }
+
+    static boolean isExcludedDirectory(Path directory) {
+        Path fileName = directory.getFileName();
+        return fileName != null && EXCLUDED_DIRECTORIES.contains(fileName.toString());
+    }
+
+    static int audit(List<AbstractFileSetCheck> checks, List<File> files, PrintStream out) throws CheckstyleException {
+        int errorCount = 0;
+        out.println("Starting audit...");
+        for (File file : files) {
+            File absoluteFile = file.getAbsoluteFile();
+            FileText fileText = readFile(absoluteFile);
+            SortedSet<Violation> violations = new TreeSet<>();
+            for (AbstractFileSetCheck check : checks) {
+                violations.addAll(check.process(absoluteFile, fileText));
+            }
+            for (Violation violation : violations) {
+                if (violation.getSeverityLevel() == SeverityLevel.ERROR) {
+                    errorCount++;
+                }
+                if (violation.getSeverityLevel() != SeverityLevel.IGNORE) {
+                    out.println(format(absoluteFile, violation));
+                }
+            }
+        }
+        out.println("Audit done.");
+        if (errorCount > 0) {
+            out.printf("Checkstyle ends with %d errors.%n", errorCount);
+        }
+        return errorCount;
+    }
+
+    static String format(File file, Violation violation) {
+        // the same format as Checkstyle's plain output
+        StringBuilder sb = new StringBuilder();
+        sb.append('[').append(severity(violation.getSeverityLevel())).append("] ");
+        sb.append(file.getPath()).append(':').append(violation.getLineNo()).append(':');
+        if (violation.getColumnNo() > 0) {
+            sb.append(violation.getColumnNo()).append(':');
+        }
+        sb.append(' ').append(violation.getViolation());
+        sb.append(" [").append(moduleName(violation)).append(']');
+        return sb.toString();
+    }
+
+    static String moduleName(Violation violation) {
+        return violation.getModuleId() != null ? violation.getModuleId() : normalizeCheckName(violation.getSourceName()
+                .substring(violation.getSourceName().lastIndexOf('.') + 1));
+    }
+
+    private static String severity(SeverityLevel severityLevel) {
+        return severityLevel == SeverityLevel.WARNING ? "WARN" : severityLevel.getName().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Reads a file as UTF-8.
+     *
+     * @param file The file to read.
+     * @return The contents of the file.
+     * @throws CheckstyleException If the file could not be read.
+     */
+    static FileText readFile(File file) throws CheckstyleException {
+        try {
+            return new FileText(file, CHARSET);
+        } catch (IOException e) {
+            throw new CheckstyleException("Exception was thrown while processing " + file.getPath(), e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * ProcessFileEvent.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import java.io.File;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JDK Flight Recorder event for the processing of a single file by a single check.
+ * <p>
+ * This event is disabled by default. While it's disabled, creating, beginning and ending it are practically free, and its fields are never set.
+ * It can be enabled using a custom JFR configuration file, optionally with a threshold to only record slow files, or programmatically using
+ * {@link jdk.jfr.Recording#enable(String)} with {@link #NAME}.
+ *
+ * @author Rob Spoor
+ */
+@Name(ProcessFileEvent.NAME)
+@Label("Process File")
+@Category({ "Checkstyle", "Extension" })
+@Description("Processing of a single file by a single check")
+@Enabled(false)
+@StackTrace(false)
+@SuppressWarnings("nls")
+final class ProcessFileEvent extends Event {
+
+    static final String NAME = "com.github.robtimus.checkstyle.ProcessFile";
+
+    @Label("Check")
+    @Description("The class of the check")
+    Class<?> check;
+
+    @Label("File")
+    @Description("The path of the processed file")
+    String file;
+
+    @Label("Line Count")
+    int lineCount;
+
+    @Label("Violation Count")
+    int violationCount;
+
+    /**
+     * Sets the fields of this event, and commits it. This method should only be called if {@link #shouldCommit()} returns {@code true}.
+     *
+     * @param check The check that processed the file.
+     * @param file The processed file.
+     * @param fileText The contents of the processed file.
+     * @param violationCount The number of violations found in the processed file.
+     */
+    void commit(AbstractFileSetCheck check, File file, FileText fileText, int violationCount) {
+        this.check = check.getClass();
+        this.file = file.getPath();
+        this.lineCount = fileText.size();
+        this.violationCount = violationCount;
+        commit();
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * ProcessFileProbe.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import java.io.File;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+/**
+ * A probe around the processing of a single file by a single check. It emits a {@link ProcessFileEvent} if that event is enabled, and notifies the
+ * {@link Observer} that has been registered for the current thread, if any. {@link ParallelAuditRunner} registers the observer of the thread that
+ * runs it for its worker threads as well, so observers may be notified from several threads at the same time.
+ * <p>
+ * Checks use probes as follows:
+ * <pre><code>
+ * ProcessFileProbe probe = ProcessFileProbe.start();
+ * try {
+ *     // process the file
+ * } finally {
+ *     probe.finish(this, file, fileText);
+ * }
+ * </code></pre>
+ *
+ * @author Rob Spoor
+ */
+final class ProcessFileProbe {
+
+    private static final ThreadLocal<Observer> OBSERVER = new ThreadLocal<>();
+
+    private final ProcessFileEvent event;
+    private final Observer observer;
+    private final long startNanos;
+
+    private ProcessFileProbe(Observer observer) {
+        this.event = new ProcessFileEvent();
+        this.observer = observer;
+        this.startNanos = observer != null ? System.nanoTime() : 0;
+        event.begin();
+    }
+
+    static ProcessFileProbe start() {
+        return new ProcessFileProbe(OBSERVER.get());
+    }
+
+    void finish(AbstractFileSetCheck check, File file, FileText fileText) {
+        event.end();
+        if (observer != null) {
+            observer.fileProcessed(check, fileText, System.nanoTime() - startNanos);
+        }
+        if (event.shouldCommit()) {
+            event.commit(check, file, fileText, check.getViolations().size());
+        }
+    }
+
+    /**
+     * Registers an observer for the current thread. Any previously registered observer for the current thread is replaced.
+     *
+     * @param observer The observer to register.
+     */
+    static void register(Observer observer) {
+        OBSERVER.set(observer);
+    }
+
+    /**
+     * Returns the observer for the current thread.
+     *
+     * @return The observer that is registered for the current thread, or {@code null} if there is none.
+     */
+    static Observer registered() {
+        return OBSERVER.get();
+    }
+
+    /**
+     * Replaces the observer for the current thread.
+     *
+     * @param observer The observer to register, or {@code null} to unregister any observer for the current thread.
+     * @return The observer that was registered for the current thread, or {@code null} if there was none.
+     */
+    static Observer replace(Observer observer) {
+        Observer previous = OBSERVER.get();
+        if (observer != null) {
+            OBSERVER.set(observer);
+        } else {
+            OBSERVER.remove();
+        }
+        return previous;
+    }
+
+    /**
+     * Unregisters an observer for the current thread. Nothing happens if the given observer is not registered for the current thread.
+     *
+     * @param observer The observer to unregister.
+     */
+    static void unregister(Observer observer) {
+        if (OBSERVER.get() == observer) {
+            OBSERVER.remove();
+        }
+    }
+
+    /**
+     * An observer for the processing of files by checks. Implementations must be thread-safe.
+     *
+     * @author Rob Spoor
+     */
+    interface Observer {
+
+        /**
+         * Called when a check has processed a file.
+         *
+         * @param check The check that processed the file.
+         * @param fileText The contents of the processed file.
+         * @param durationNanos The time it took the check to process the file, in nanoseconds.
+         */
+        void fileProcessed(AbstractFileSetCheck check, FileText fileText, long durationNanos);
+    }
+}
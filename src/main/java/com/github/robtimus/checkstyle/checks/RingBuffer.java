@@ -0,0 +1,126 @@
+/*
+ * RingBuffer.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded lock-free ring buffer for any number of producer threads and a single consumer thread.
+ * <p>
+ * The capacity is always a power of two, so positions can be mapped to indexes using a mask instead of a division. Positions are never reset,
+ * so the number of elements is always the difference between the producers' and the consumer's position.
+ * <p>
+ * Producers claim a position by incrementing the tail, and then publish their element by updating the sequence of its slot. The consumer only
+ * takes an element once it has been published, so elements are taken in the order in which their positions were claimed. For an empty slot at
+ * position {@code p}, the sequence is {@code 2p}; for a published element it is {@code 2p + 1}. Once the consumer has taken the element, the
+ * sequence becomes {@code 2(p + capacity)} for the position at which the slot can be used again. Doubling keeps the sequence of a published
+ * element different from that of the next empty position, even with a capacity of 1.
+ *
+ * @author Rob Spoor
+ * @param <E> The type of element in the ring buffer.
+ */
+final class RingBuffer<E> {
+
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    // the position of the next element to poll; only updated by the consumer
+    private final AtomicLong head = new AtomicLong();
+    // the position of the next element to offer; claimed by producers
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Creates a new ring buffer.
+     *
+     * @param minCapacity The minimum capacity. The actual capacity is the smallest power of two that is at least this value.
+     * @throws IllegalArgumentException If the given capacity is not positive, or larger than {@code 2^30}.
+     */
+    RingBuffer(int minCapacity) {
+        if (minCapacity <= 0 || minCapacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid ring buffer capacity: " + minCapacity);
+        }
+        int capacity = minCapacity == 1 ? 1 : Integer.highestOneBit(minCapacity - 1) << 1;
+        elements = new Object[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, 2L * i);
+        }
+        mask = capacity - 1;
+    }
+
+    int capacity() {
+        return elements.length;
+    }
+
+    /**
+     * Adds an element if the ring buffer is not full. This method can be called by any number of producer threads at the same time.
+     *
+     * @param element The element to add.
+     * @return {@code true} if the element was added, or {@code false} if the ring buffer is full.
+     */
+    boolean offer(E element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long sequence = sequences.get(index);
+            if (sequence < 2 * position) {
+                // the slot still contains the element of the previous round
+                return false;
+            }
+            if (sequence == 2 * position && tail.compareAndSet(position, position + 1)) {
+                elements[index] = element;
+                // a volatile write, so the consumer sees the element once it sees the new sequence
+                sequences.set(index, 2 * position + 1);
+                return true;
+            }
+            // another producer claimed this position first
+        }
+    }
+
+    /**
+     * Removes the oldest element. This method must only be called by the consumer thread.
+     *
+     * @return The removed element, or {@code null} if the ring buffer is empty, or if the oldest element has not been published yet.
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        long position = head.get();
+        int index = (int) (position & mask);
+        if (sequences.get(index) != 2 * position + 1) {
+            return null;
+        }
+        E element = (E) elements[index];
+        elements[index] = null;
+        head.set(position + 1);
+        // a volatile write, so producers only reuse the slot after the element has been removed
+        sequences.set(index, 2 * (position + elements.length));
+        return element;
+    }
+
+    /**
+     * Returns whether or not the ring buffer is empty. This method must only be called by the consumer thread.
+     *
+     * @return {@code true} if the oldest element has not been published yet, or {@code false} otherwise.
+     */
+    boolean isEmpty() {
+        long position = head.get();
+        return sequences.get((int) (position & mask)) != 2 * position + 1;
+    }
+}
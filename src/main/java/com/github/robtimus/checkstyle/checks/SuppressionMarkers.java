@@ -0,0 +1,82 @@
+/*
+ * SuppressionMarkers.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+/**
+ * Utility class for inline suppression markers. Lines between a line containing {@code checkstyle-ext:off} and a line containing
+ * {@code checkstyle-ext:on} are suppressed, as are the lines containing these markers. If there is no matching {@code checkstyle-ext:on}, all lines
+ * until the end of the file are suppressed.
+ * <p>
+ * Checks that support these markers recognize them while they iterate over the lines of a file, and skip suppressed lines completely.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+final class SuppressionMarkers {
+
+    private static final String MARKER_PREFIX = "checkstyle-ext:";
+    static final String OFF = "off";
+    static final String ON = "on";
+
+    private SuppressionMarkers() {
+    }
+
+    /**
+     * Returns the first line that is no longer suppressed.
+     *
+     * @param fileText The file text to check.
+     * @param lineNumber The 0-based number of the line to start at.
+     * @param lineCount The number of lines in the file text.
+     * @param budget The budget to report skipped lines to. Skipped lines only count towards its time budget.
+     * @param check The check that is processing the file.
+     * @return {@code lineNumber} if that line does not start a suppressed region, or the 0-based number of the first line after the suppressed region
+     *         that starts at {@code lineNumber}. This is {@code lineCount} if the remainder of the file is suppressed, or if the budget is exceeded
+     *         while skipping lines.
+     */
+    static int skipSuppressedLines(FileText fileText, int lineNumber, int lineCount, FileBudget budget, AbstractFileSetCheck check) {
+        if (!hasMarker(fileText.get(lineNumber), OFF)) {
+            return lineNumber;
+        }
+        for (int i = lineNumber + 1; i < lineCount; i++) {
+            String line = fileText.get(i);
+            if (budget.isTimeExceeded(check, i, line.length())) {
+                return lineCount;
+            }
+            if (hasMarker(line, ON)) {
+                return i + 1;
+            }
+        }
+        return lineCount;
+    }
+
+    static boolean hasMarker(String line, String marker) {
+        int index = line.indexOf(MARKER_PREFIX);
+        while (index != -1) {
+            int markerStart = index + MARKER_PREFIX.length();
+            int markerEnd = markerStart + marker.length();
+            if (line.startsWith(marker, markerStart) && (markerEnd == line.length() || !Character.isLetterOrDigit(line.charAt(markerEnd)))) {
+                return true;
+            }
+            index = line.indexOf(MARKER_PREFIX, index + MARKER_PREFIX.length());
+        }
+        return false;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * WorkCounters.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+/**
+ * Deterministic counters for the work that checks perform. Unlike time and memory measurements these counters are not affected by other processes,
+ * garbage collection or JIT compilation, which makes them suitable for detecting algorithmic regressions.
+ * <p>
+ * Counting is disabled unless system property {@code com.github.robtimus.checkstyle.workCounters} is set to {@code true} when this class is loaded.
+ * Because that flag is a constant, the JIT compiler removes all counting code when counting is disabled.
+ * <p>
+ * The following is counted, per thread:
+ * <ul>
+ *   <li>Lines visited: each time a check retrieves a line to inspect it.</li>
+ *   <li>Characters examined: the characters that checks scan, including characters that are searched using methods like
+ *       {@link String#contains(CharSequence)}. Scanning characters again counts them again, but reading the same character more than once during
+ *       a single scan does not. Searching for suppression markers and comparing already extracted values are not counted.</li>
+ * </ul>
+ *
+ * @author Rob Spoor
+ */
+final class WorkCounters {
+
+    static final String ENABLED_PROPERTY = "com.github.robtimus.checkstyle.workCounters";
+
+    static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private static final ThreadLocal<WorkCounters> COUNTERS = ThreadLocal.withInitial(WorkCounters::new);
+
+    private long linesVisited;
+    private long charactersExamined;
+
+    private WorkCounters() {
+    }
+
+    /**
+     * Resets the counters of the current thread.
+     *
+     * @return The counters of the current thread. These are not updated if counting is disabled.
+     */
+    static WorkCounters reset() {
+        WorkCounters counters = COUNTERS.get();
+        counters.linesVisited = 0;
+        counters.charactersExamined = 0;
+        return counters;
+    }
+
+    static void lineVisited() {
+        if (ENABLED) {
+            COUNTERS.get().linesVisited++;
+        }
+    }
+
+    static void charactersExamined(int count) {
+        if (ENABLED) {
+            COUNTERS.get().charactersExamined += count;
+        }
+    }
+
+    long linesVisited() {
+        return linesVisited;
+    }
+
+    long charactersExamined() {
+        return charactersExamined;
+    }
+
+    @Override
+    @SuppressWarnings("nls")
+    public String toString() {
+        return "linesVisited=" + linesVisited + ", charactersExamined=" + charactersExamined;
+    }
+}
@@ -17,5 +17,11 @@
 
 /**
  * Contains additional Checkstyle checks.
+ * <h2>Thread safety</h2>
+ * The checks in this package are configured using their setters before any file is processed. After that, processing a file does not modify
+ * any of their fields; all state for a single file is kept in local variables, or in thread-local storage if it needs to be shared between
+ * methods. Configured checks can therefore be used by several threads at the same time, as long as each thread processes different files.
+ * {@link com.github.robtimus.checkstyle.checks.ParallelAuditRunner ParallelAuditRunner} relies on this to run checks on several files at the
+ * same time. Subclasses of {@link com.github.robtimus.checkstyle.checks.AbstractTextCheck AbstractTextCheck} must follow the same contract.
  */
 package com.github.robtimus.checkstyle.checks;
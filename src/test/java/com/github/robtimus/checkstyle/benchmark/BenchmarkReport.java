@@ -0,0 +1,155 @@
+/*
+ * BenchmarkReport.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import com.puppycrawl.tools.checkstyle.Checker;
+
+/**
+ * A machine-readable benchmark report. Reports are written as JSON, so results of different runs and versions can be compared using any tool.
+ * <p>
+ * Each report contains the environment it was created in, the parameters of the benchmark, and a list of results.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+final class BenchmarkReport {
+
+    private final Map<String, Object> root = new LinkedHashMap<>();
+    private final Map<String, Object> parameters = new LinkedHashMap<>();
+    private final List<Object> results = new ArrayList<>();
+
+    BenchmarkReport(String benchmark) {
+        root.put("benchmark", benchmark);
+        root.put("timestamp", Instant.now().toString());
+        root.put("environment", environment());
+        root.put("parameters", parameters);
+        root.put("results", results);
+    }
+
+    private static Map<String, Object> environment() {
+        RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+
+        Map<String, Object> environment = new LinkedHashMap<>();
+        environment.put("extensionVersion", System.getProperty("benchmark.version", "unknown"));
+        environment.put("checkstyleVersion", Objects.requireNonNullElse(Checker.class.getPackage().getImplementationVersion(), "unknown"));
+        environment.put("javaVersion", System.getProperty("java.version"));
+        environment.put("javaVm", runtime.getVmName() + " " + runtime.getVmVersion());
+        environment.put("jvmArguments", runtime.getInputArguments());
+        environment.put("os", System.getProperty("os.name") + " " + System.getProperty("os.version") + " " + System.getProperty("os.arch"));
+        environment.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        environment.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+        return environment;
+    }
+
+    BenchmarkReport parameter(String name, Object value) {
+        parameters.put(name, value);
+        return this;
+    }
+
+    BenchmarkReport result(Map<String, Object> result) {
+        results.add(result);
+        return this;
+    }
+
+    void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writeValue(root, writer, "");
+            writer.write('\n');
+        }
+    }
+
+    private static void writeValue(Object value, Writer writer, String indent) throws IOException {
+        if (value instanceof Map<?, ?>) {
+            writeObject((Map<?, ?>) value, writer, indent);
+        } else if (value instanceof List<?>) {
+            writeArray((List<?>) value, writer, indent);
+        } else if (value instanceof Number || value instanceof Boolean) {
+            writer.write(String.valueOf(value));
+        } else if (value == null) {
+            writer.write("null");
+        } else {
+            writeString(value.toString(), writer);
+        }
+    }
+
+    private static void writeObject(Map<?, ?> map, Writer writer, String indent) throws IOException {
+        if (map.isEmpty()) {
+            writer.write("{}");
+            return;
+        }
+        String nestedIndent = indent + "  ";
+        writer.write("{\n");
+        for (Iterator<? extends Map.Entry<?, ?>> i = map.entrySet().iterator(); i.hasNext(); ) {
+            Map.Entry<?, ?> entry = i.next();
+            writer.write(nestedIndent);
+            writeString(entry.getKey().toString(), writer);
+            writer.write(": ");
+            writeValue(entry.getValue(), writer, nestedIndent);
+            writer.write(i.hasNext() ? ",\n" : "\n");
+        }
+        writer.write(indent);
+        writer.write('}');
+    }
+
+    private static void writeArray(List<?> list, Writer writer, String indent) throws IOException {
+        if (list.isEmpty()) {
+            writer.write("[]");
+            return;
+        }
+        String nestedIndent = indent + "  ";
+        writer.write("[\n");
+        for (Iterator<?> i = list.iterator(); i.hasNext(); ) {
+            writer.write(nestedIndent);
+            writeValue(i.next(), writer, nestedIndent);
+            writer.write(i.hasNext() ? ",\n" : "\n");
+        }
+        writer.write(indent);
+        writer.write(']');
+    }
+
+    private static void writeString(String value, Writer writer) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+                writer.write(c);
+            } else if (c < ' ') {
+                writer.write(String.format("\\u%04x", (int) c));
+            } else {
+                writer.write(c);
+            }
+        }
+        writer.write('"');
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * BenchmarkSettings.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The settings shared by all benchmarks. These can be set using the following system properties:
+ * <ul>
+ *   <li>{@code benchmark.files}: the number of files to generate; defaults to 10000.</li>
+ *   <li>{@code benchmark.seed}: the seed for generating files; defaults to 1.</li>
+ *   <li>{@code benchmark.warmupIterations}: the number of iterations that are run before measuring; defaults to 1.</li>
+ *   <li>{@code benchmark.iterations}: the number of measured iterations; defaults to 3.</li>
+ *   <li>{@code benchmark.directory}: the directory for generated files and results; defaults to {@code target/benchmark}.</li>
+ * </ul>
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+final class BenchmarkSettings {
+
+    private BenchmarkSettings() {
+    }
+
+    static int fileCount() {
+        return Integer.getInteger("benchmark.files", 10_000);
+    }
+
+    static long seed() {
+        return Long.getLong("benchmark.seed", 1);
+    }
+
+    static int warmupIterations() {
+        return Integer.getInteger("benchmark.warmupIterations", 1);
+    }
+
+    static int iterations() {
+        return Integer.getInteger("benchmark.iterations", 3);
+    }
+
+    static Path directory() {
+        return Paths.get(System.getProperty("benchmark.directory", "target/benchmark"));
+    }
+
+    static SyntheticSourceTree sourceTree() {
+        int fileCount = fileCount();
+        long seed = seed();
+        Path root = directory().resolve("tree-" + fileCount + "-" + seed);
+        return assertDoesNotThrow(() -> SyntheticSourceTree.create(root, fileCount, seed));
+    }
+
+    static BenchmarkReport newReport(String benchmark, SyntheticSourceTree tree) {
+        return new BenchmarkReport(benchmark)
+                .parameter("fileCount", fileCount())
+                .parameter("seed", seed())
+                .parameter("lineCount", tree.lineCount())
+                .parameter("byteCount", tree.byteCount())
+                .parameter("warmupIterations", warmupIterations())
+                .parameter("iterations", iterations());
+    }
+
+    static void writeReport(BenchmarkReport report, String benchmark) {
+        assertDoesNotThrow(() -> report.write(directory().resolve(benchmark + "-benchmark.json")));
+    }
+}
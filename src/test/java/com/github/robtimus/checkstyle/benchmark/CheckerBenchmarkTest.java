@@ -0,0 +1,192 @@
+/*
+ * CheckerBenchmarkTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import com.github.robtimus.checkstyle.checks.IndentationWhitespaceCheck;
+import com.github.robtimus.checkstyle.checks.LicenseCommentCheck;
+import com.github.robtimus.checkstyle.checks.LineEndingsCheck;
+import com.github.robtimus.checkstyle.checks.NoBlankLineAfterSymbolsCheck;
+import com.github.robtimus.checkstyle.checks.NoBlankLineBeforeSymbolsCheck;
+import com.github.robtimus.checkstyle.checks.NoDisallowedCharactersCheck;
+import com.github.robtimus.checkstyle.checks.NoForbiddenTokensCheck;
+import com.github.robtimus.checkstyle.checks.NoLeadingOrTrailingBlankLinesCheck;
+import com.github.robtimus.checkstyle.checks.NoSubsequentBlankLinesCheck;
+import com.github.robtimus.checkstyle.checks.NoTrailingWhitespaceCheck;
+import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+
+/**
+ * End-to-end benchmark that runs a full {@link Checker} with every module of this extension over a generated source tree.
+ * Unlike micro benchmarks, this includes the overhead of file decoding, dispatching to modules, and garbage collection.
+ * <p>
+ * This benchmark only runs with the {@code benchmark} profile. It can be configured using the system properties described in
+ * {@link BenchmarkSettings}. The results are written to {@code checker-benchmark.json} in the benchmark directory.
+ *
+ * @author Rob Spoor
+ */
+@Tag("benchmark")
+@SuppressWarnings("nls")
+class CheckerBenchmarkTest {
+
+    @Test
+    void benchmarkChecker() {
+        SyntheticSourceTree tree = BenchmarkSettings.sourceTree();
+        List<File> files = tree.files().stream()
+                .map(Path::toFile)
+                .collect(Collectors.toList());
+
+        int warmupIterations = BenchmarkSettings.warmupIterations();
+        int iterations = BenchmarkSettings.iterations();
+        BenchmarkReport report = BenchmarkSettings.newReport("checker", tree);
+
+        long expectedViolations = -1;
+        for (int i = 0; i < warmupIterations + iterations; i++) {
+            boolean warmup = i < warmupIterations;
+            Map<String, Object> result = runChecker(files, tree);
+            result.put("warmup", warmup);
+
+            long violations = (long) result.get("violations");
+            assertTrue(violations > 0, "generated files contain defects");
+            if (expectedViolations == -1) {
+                expectedViolations = violations;
+            } else {
+                assertEquals(expectedViolations, violations, "violations differ between iterations");
+            }
+
+            if (!warmup) {
+                report.result(result);
+            }
+        }
+
+        BenchmarkSettings.writeReport(report, "checker");
+    }
+
+    private Map<String, Object> runChecker(List<File> files, SyntheticSourceTree tree) {
+        Checker checker = new Checker();
+        checker.setModuleClassLoader(Checker.class.getClassLoader());
+        assertDoesNotThrow(() -> checker.configure(checkerConfiguration()));
+
+        ViolationCounter counter = new ViolationCounter();
+        checker.addListener(counter);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        ResourceMonitor monitor = ResourceMonitor.start();
+        try {
+            assertDoesNotThrow(() -> checker.process(files));
+        } finally {
+            monitor.stop(result);
+            checker.destroy();
+        }
+
+        double seconds = (double) result.get("wallTimeMillis") / 1000;
+        result.put("filesPerSecond", files.size() / seconds);
+        result.put("linesPerSecond", tree.lineCount() / seconds);
+        result.put("violations", counter.violations.get());
+
+        assertEquals(0, counter.exceptions.get(), "exceptions occurred");
+
+        return result;
+    }
+
+    static DefaultConfiguration checkerConfiguration() {
+        DefaultConfiguration checker = new DefaultConfiguration("Checker");
+        checker.addProperty("charset", "UTF-8");
+
+        DefaultConfiguration licenseComment = module(LicenseCommentCheck.class);
+        licenseComment.addProperty("includeFilename", "true");
+        licenseComment.addProperty("includeCopyright", "true");
+        licenseComment.addProperty("requiredCopyrightHolder", "Rob Spoor");
+        licenseComment.addProperty("includeEmptyLineBeforeLicenseText", "true");
+        licenseComment.addProperty("predefinedLicenseText", "Apache-2.0");
+        licenseComment.addProperty("skipGeneratedFiles", "true");
+        checker.addChild(licenseComment);
+
+        DefaultConfiguration indentation = module(IndentationWhitespaceCheck.class);
+        indentation.addProperty("indentationSize", "4");
+        checker.addChild(indentation);
+
+        checker.addChild(module(LineEndingsCheck.class));
+        checker.addChild(module(NoBlankLineAfterSymbolsCheck.class));
+        checker.addChild(module(NoBlankLineBeforeSymbolsCheck.class));
+        checker.addChild(module(NoDisallowedCharactersCheck.class));
+
+        DefaultConfiguration forbiddenTokens = module(NoForbiddenTokensCheck.class);
+        forbiddenTokens.addProperty("forbiddenTokens", "System.out.println\nprintStackTrace() => Do not print stack traces\n@author TODO");
+        checker.addChild(forbiddenTokens);
+
+        checker.addChild(module(NoLeadingOrTrailingBlankLinesCheck.class));
+        checker.addChild(module(NoSubsequentBlankLinesCheck.class));
+        checker.addChild(module(NoTrailingWhitespaceCheck.class));
+
+        return checker;
+    }
+
+    private static DefaultConfiguration module(Class<?> moduleClass) {
+        return new DefaultConfiguration(moduleClass.getName());
+    }
+
+    private static final class ViolationCounter implements AuditListener {
+
+        private final AtomicLong violations = new AtomicLong();
+        private final AtomicLong exceptions = new AtomicLong();
+
+        @Override
+        public void auditStarted(AuditEvent event) {
+            // does nothing
+        }
+
+        @Override
+        public void auditFinished(AuditEvent event) {
+            // does nothing
+        }
+
+        @Override
+        public void fileStarted(AuditEvent event) {
+            // does nothing
+        }
+
+        @Override
+        public void fileFinished(AuditEvent event) {
+            // does nothing
+        }
+
+        @Override
+        public void addError(AuditEvent event) {
+            violations.incrementAndGet();
+        }
+
+        @Override
+        public void addException(AuditEvent event, Throwable throwable) {
+            exceptions.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * ParallelAuditRunnerBenchmarkTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import com.github.robtimus.checkstyle.checks.IndentationWhitespaceCheck;
+import com.github.robtimus.checkstyle.checks.LicenseCommentCheck;
+import com.github.robtimus.checkstyle.checks.LineEndingsCheck;
+import com.github.robtimus.checkstyle.checks.NoBlankLineAfterSymbolsCheck;
+import com.github.robtimus.checkstyle.checks.NoBlankLineBeforeSymbolsCheck;
+import com.github.robtimus.checkstyle.checks.NoDisallowedCharactersCheck;
+import com.github.robtimus.checkstyle.checks.NoForbiddenTokensCheck;
+import com.github.robtimus.checkstyle.checks.NoLeadingOrTrailingBlankLinesCheck;
+import com.github.robtimus.checkstyle.checks.NoSubsequentBlankLinesCheck;
+import com.github.robtimus.checkstyle.checks.NoTrailingWhitespaceCheck;
+import com.github.robtimus.checkstyle.checks.ParallelAuditRunner;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+/**
+ * Benchmark that runs a {@link ParallelAuditRunner} with every check of this extension over a generated source tree, once with files read
+ * ahead of the workers and once with each worker reading its own files. Both runs must report the same number of violations. The checks are
+ * configured like {@link CheckerBenchmarkTest} configures them.
+ * <p>
+ * This benchmark only runs with the {@code benchmark} profile. It can be configured using the system properties described in
+ * {@link BenchmarkSettings}. The results are written to {@code parallel-audit-runner-benchmark.json} in the benchmark directory; each result
+ * has a {@code prefetchFiles} property that tells which of the two runs it belongs to.
+ *
+ * @author Rob Spoor
+ */
+@Tag("benchmark")
+@SuppressWarnings("nls")
+class ParallelAuditRunnerBenchmarkTest {
+
+    @Test
+    void benchmarkParallelAuditRunner() {
+        SyntheticSourceTree tree = BenchmarkSettings.sourceTree();
+        List<File> files = tree.files().stream()
+                .map(Path::toFile)
+                .collect(Collectors.toList());
+
+        int warmupIterations = BenchmarkSettings.warmupIterations();
+        int iterations = BenchmarkSettings.iterations();
+        BenchmarkReport report = BenchmarkSettings.newReport("parallel-audit-runner", tree)
+                .parameter("parallelism", Runtime.getRuntime().availableProcessors());
+
+        long expectedViolations = -1;
+        for (boolean prefetchFiles : new boolean[] { true, false }) {
+            for (int i = 0; i < warmupIterations + iterations; i++) {
+                boolean warmup = i < warmupIterations;
+                Map<String, Object> result = runParallelAuditRunner(files, tree, prefetchFiles);
+                result.put("warmup", warmup);
+
+                long violations = (long) result.get("violations");
+                assertTrue(violations > 0, "generated files contain defects");
+                if (expectedViolations == -1) {
+                    expectedViolations = violations;
+                } else {
+                    assertEquals(expectedViolations, violations, "violations differ between iterations");
+                }
+
+                if (!warmup) {
+                    report.result(result);
+                }
+            }
+        }
+
+        BenchmarkSettings.writeReport(report, "parallel-audit-runner");
+    }
+
+    private Map<String, Object> runParallelAuditRunner(List<File> files, SyntheticSourceTree tree, boolean prefetchFiles) {
+        ParallelAuditRunner runner = new ParallelAuditRunner(ParallelAuditRunnerBenchmarkTest::checks);
+        runner.setPrefetchFiles(prefetchFiles);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("prefetchFiles", prefetchFiles);
+
+        Map<File, SortedSet<Violation>> violations;
+        ResourceMonitor monitor = ResourceMonitor.start();
+        try {
+            violations = assertDoesNotThrow(() -> runner.run(files));
+        } finally {
+            monitor.stop(result);
+        }
+
+        double seconds = (double) result.get("wallTimeMillis") / 1000;
+        result.put("filesPerSecond", files.size() / seconds);
+        result.put("linesPerSecond", tree.lineCount() / seconds);
+        result.put("violations", violations.values().stream()
+                .mapToLong(SortedSet::size)
+                .sum());
+
+        return result;
+    }
+
+    private static List<AbstractFileSetCheck> checks() {
+        LicenseCommentCheck licenseComment = new LicenseCommentCheck();
+        licenseComment.setIncludeFilename(true);
+        licenseComment.setIncludeCopyright(true);
+        licenseComment.setRequiredCopyrightHolder("Rob Spoor");
+        licenseComment.setIncludeEmptyLineBeforeLicenseText(true);
+        licenseComment.setPredefinedLicenseText("Apache-2.0");
+        licenseComment.setSkipGeneratedFiles(true);
+
+        IndentationWhitespaceCheck indentation = new IndentationWhitespaceCheck();
+        indentation.setIndentationSize(4);
+
+        NoForbiddenTokensCheck forbiddenTokens = new NoForbiddenTokensCheck();
+        forbiddenTokens.setForbiddenTokens("System.out.println\nprintStackTrace() => Do not print stack traces\n@author TODO");
+
+        return List.of(
+                licenseComment,
+                indentation,
+                new LineEndingsCheck(),
+                new NoBlankLineAfterSymbolsCheck(),
+                new NoBlankLineBeforeSymbolsCheck(),
+                new NoDisallowedCharactersCheck(),
+                forbiddenTokens,
+                new NoLeadingOrTrailingBlankLinesCheck(),
+                new NoSubsequentBlankLinesCheck(),
+                new NoTrailingWhitespaceCheck()
+        );
+    }
+}
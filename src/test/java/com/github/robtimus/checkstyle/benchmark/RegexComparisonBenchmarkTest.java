@@ -0,0 +1,294 @@
+/*
+ * RegexComparisonBenchmarkTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import com.github.robtimus.checkstyle.checks.LicenseCommentCheck;
+import com.github.robtimus.checkstyle.checks.NoSubsequentBlankLinesCheck;
+import com.github.robtimus.checkstyle.checks.NoTrailingWhitespaceCheck;
+import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.checks.header.RegexpHeaderCheck;
+import com.puppycrawl.tools.checkstyle.checks.regexp.RegexpMultilineCheck;
+import com.puppycrawl.tools.checkstyle.checks.regexp.RegexpSinglelineCheck;
+
+/**
+ * Benchmark that compares checks of this extension with their closest equivalent configuration of standard Checkstyle checks:
+ * <ul>
+ *   <li>{@code NoTrailingWhitespace} with {@code RegexpSingleline} using format {@code \s+$}.</li>
+ *   <li>{@code NoSubsequentBlankLines} with {@code RegexpMultiline} matching two or more blank lines.</li>
+ *   <li>{@code LicenseComment} with {@code RegexpHeader}. {@code Header} cannot be used because the header contains the file name.</li>
+ * </ul>
+ * Both checks of each pair are run with a full {@link Checker} on the same generated source tree, and must report the same findings.
+ * For {@code LicenseComment} the findings are compared per file, because both checks report different lines for the same problem.
+ * <p>
+ * For each pair the median wall time and allocated bytes are reported, as well as the relative throughput and allocation of the extension
+ * check compared to the standard check. A relative throughput larger than 1 means that the extension check is faster.
+ * <p>
+ * This benchmark only runs with the {@code benchmark} profile. It can be configured using the system properties described in
+ * {@link BenchmarkSettings}. The results are written to {@code regex-comparison-benchmark.json} in the benchmark directory.
+ *
+ * @author Rob Spoor
+ */
+@Tag("benchmark")
+@SuppressWarnings("nls")
+class RegexComparisonBenchmarkTest {
+
+    private static final List<String> APACHE_LICENSE_HEADER = List.of(
+            "^/\\*$",
+            "^ \\* \\w+\\.java$",
+            "^ \\* Copyright \\d{4}(?:-\\d{4})? Rob Spoor$",
+            "^ \\*\\s*$",
+            quoted(" * Licensed under the Apache License, Version 2.0 (the \"License\");"),
+            quoted(" * you may not use this file except in compliance with the License."),
+            quoted(" * You may obtain a copy of the License at"),
+            "^ \\*\\s*$",
+            quoted(" *     http://www.apache.org/licenses/LICENSE-2.0"),
+            "^ \\*\\s*$",
+            quoted(" * Unless required by applicable law or agreed to in writing, software"),
+            quoted(" * distributed under the License is distributed on an \"AS IS\" BASIS,"),
+            quoted(" * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied."),
+            quoted(" * See the License for the specific language governing permissions and"),
+            quoted(" * limitations under the License."),
+            "^ \\*/\\s*$");
+
+    @Test
+    void compareWithRegexChecks() {
+        SyntheticSourceTree tree = BenchmarkSettings.sourceTree();
+        List<File> files = tree.files().stream()
+                .map(Path::toFile)
+                .collect(Collectors.toList());
+
+        BenchmarkReport report = BenchmarkSettings.newReport("regex-comparison", tree);
+
+        report.result(compare(files, tree, "trailing whitespace",
+                module(NoTrailingWhitespaceCheck.class),
+                regexpSingleline("\\s+$"),
+                RegexComparisonBenchmarkTest::fileAndLine));
+
+        report.result(compare(files, tree, "subsequent blank lines",
+                module(NoSubsequentBlankLinesCheck.class),
+                regexpMultiline("^(?:[ \\t]*\\r?\\n){2,}"),
+                RegexComparisonBenchmarkTest::fileAndLine));
+
+        report.result(compare(files, tree, "license header",
+                licenseComment(),
+                regexpHeader(APACHE_LICENSE_HEADER),
+                AuditEvent::getFileName));
+
+        BenchmarkSettings.writeReport(report, "regex-comparison");
+    }
+
+    private Map<String, Object> compare(List<File> files, SyntheticSourceTree tree, String name,
+            DefaultConfiguration extensionModule, DefaultConfiguration stockModule, Function<AuditEvent, String> finding) {
+
+        List<Map<String, Object>> extensionResults = new ArrayList<>();
+        List<Map<String, Object>> stockResults = new ArrayList<>();
+        Set<String> extensionFindings = null;
+        Set<String> stockFindings = null;
+
+        int warmupIterations = BenchmarkSettings.warmupIterations();
+        int iterations = BenchmarkSettings.iterations();
+        for (int i = 0; i < warmupIterations + iterations; i++) {
+            // alternate between the checks, so both are equally affected by changes in the environment
+            Map<String, Object> extensionResult = new LinkedHashMap<>();
+            extensionFindings = runChecker(files, extensionModule, finding, extensionResult);
+
+            Map<String, Object> stockResult = new LinkedHashMap<>();
+            stockFindings = runChecker(files, stockModule, finding, stockResult);
+
+            if (i >= warmupIterations) {
+                extensionResults.add(extensionResult);
+                stockResults.add(stockResult);
+            }
+        }
+
+        assertFalse(stockFindings.isEmpty(), "generated files contain defects");
+        assertEquals(stockFindings, extensionFindings, name + ": findings differ");
+
+        Map<String, Object> extension = summarize(extensionModule, extensionResults, files.size(), tree.lineCount());
+        Map<String, Object> stock = summarize(stockModule, stockResults, files.size(), tree.lineCount());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("comparison", name);
+        result.put("findings", extensionFindings.size());
+        result.put("extension", extension);
+        result.put("stock", stock);
+        result.put("relativeThroughput", (double) stock.get("medianWallTimeMillis") / (double) extension.get("medianWallTimeMillis"));
+        if (extension.containsKey("medianAllocatedBytes")) {
+            result.put("relativeAllocation", (double) extension.get("medianAllocatedBytes") / (double) stock.get("medianAllocatedBytes"));
+        }
+        return result;
+    }
+
+    private Set<String> runChecker(List<File> files, DefaultConfiguration module, Function<AuditEvent, String> finding,
+            Map<String, Object> result) {
+
+        DefaultConfiguration configuration = new DefaultConfiguration("Checker");
+        configuration.addProperty("charset", "UTF-8");
+        configuration.addChild(module);
+
+        Checker checker = new Checker();
+        checker.setModuleClassLoader(Checker.class.getClassLoader());
+        assertDoesNotThrow(() -> checker.configure(configuration));
+
+        FindingsCollector collector = new FindingsCollector(finding);
+        checker.addListener(collector);
+
+        ResourceMonitor monitor = ResourceMonitor.start();
+        try {
+            assertDoesNotThrow(() -> checker.process(files));
+        } finally {
+            monitor.stop(result);
+            checker.destroy();
+        }
+
+        assertEquals(Collections.emptyList(), collector.exceptions);
+
+        return collector.findings;
+    }
+
+    private Map<String, Object> summarize(DefaultConfiguration module, List<Map<String, Object>> results, int fileCount, long lineCount) {
+        double medianWallTime = median(results, "wallTimeMillis");
+        double seconds = medianWallTime / 1000;
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("module", module.getName());
+        for (String propertyName : module.getPropertyNames()) {
+            summary.put(propertyName, assertDoesNotThrow(() -> module.getProperty(propertyName)));
+        }
+        summary.put("medianWallTimeMillis", medianWallTime);
+        summary.put("filesPerSecond", fileCount / seconds);
+        summary.put("linesPerSecond", lineCount / seconds);
+        if (results.get(0).containsKey("allocatedBytes")) {
+            summary.put("medianAllocatedBytes", median(results, "allocatedBytes"));
+        }
+        summary.put("iterations", results);
+        return summary;
+    }
+
+    private static double median(List<Map<String, Object>> results, String key) {
+        double[] values = results.stream()
+                .mapToDouble(result -> ((Number) result.get(key)).doubleValue())
+                .sorted()
+                .toArray();
+        int middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }
+
+    private static String fileAndLine(AuditEvent event) {
+        return event.getFileName() + ":" + event.getLine();
+    }
+
+    private static DefaultConfiguration module(Class<?> moduleClass) {
+        return new DefaultConfiguration(moduleClass.getName());
+    }
+
+    private static DefaultConfiguration licenseComment() {
+        DefaultConfiguration module = module(LicenseCommentCheck.class);
+        module.addProperty("includeFilename", "true");
+        module.addProperty("includeCopyright", "true");
+        module.addProperty("requiredCopyrightHolder", "Rob Spoor");
+        module.addProperty("includeEmptyLineBeforeLicenseText", "true");
+        module.addProperty("predefinedLicenseText", "Apache-2.0");
+        return module;
+    }
+
+    private static DefaultConfiguration regexpSingleline(String format) {
+        DefaultConfiguration module = module(RegexpSinglelineCheck.class);
+        module.addProperty("format", format);
+        return module;
+    }
+
+    private static DefaultConfiguration regexpMultiline(String format) {
+        DefaultConfiguration module = module(RegexpMultilineCheck.class);
+        module.addProperty("format", format);
+        return module;
+    }
+
+    private static DefaultConfiguration regexpHeader(List<String> header) {
+        DefaultConfiguration module = module(RegexpHeaderCheck.class);
+        // RegexpHeader expects the lines of inline headers to be separated by a literal \n
+        module.addProperty("header", String.join("\\n", header));
+        module.addProperty("fileExtensions", "java");
+        return module;
+    }
+
+    private static String quoted(String line) {
+        return "^" + Pattern.quote(line) + "$";
+    }
+
+    private static final class FindingsCollector implements AuditListener {
+
+        private final Function<AuditEvent, String> finding;
+        private final Set<String> findings = new HashSet<>();
+        private final List<Throwable> exceptions = new ArrayList<>();
+
+        private FindingsCollector(Function<AuditEvent, String> finding) {
+            this.finding = finding;
+        }
+
+        @Override
+        public void auditStarted(AuditEvent event) {
+            // does nothing
+        }
+
+        @Override
+        public void auditFinished(AuditEvent event) {
+            // does nothing
+        }
+
+        @Override
+        public void fileStarted(AuditEvent event) {
+            // does nothing
+        }
+
+        @Override
+        public void fileFinished(AuditEvent event) {
+            // does nothing
+        }
+
+        @Override
+        public void addError(AuditEvent event) {
+            findings.add(finding.apply(event));
+        }
+
+        @Override
+        public void addException(AuditEvent event, Throwable throwable) {
+            exceptions.add(throwable);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * ResourceMonitor.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.benchmark;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Measures wall time, peak heap usage and garbage collection activity of the current JVM between two points in time.
+ * <p>
+ * Peak heap usage is the sum of the peak usages of all heap memory pools. Because these peaks can occur at different times, this is an upper
+ * bound. Garbage collection time is the accumulated collection time reported by the garbage collectors; for stop-the-world collectors this is
+ * the total pause time. Allocated bytes are only measured for the current thread, and only if the JVM supports it.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+final class ResourceMonitor {
+
+    private final List<MemoryPoolMXBean> heapPools;
+    private final List<GarbageCollectorMXBean> garbageCollectors;
+    private final ThreadMXBean threadBean;
+
+    private long startTime;
+    private long startGcCount;
+    private long startGcTime;
+    private long startAllocatedBytes;
+
+    private ResourceMonitor() {
+        heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .collect(Collectors.toList());
+        garbageCollectors = ManagementFactory.getGarbageCollectorMXBeans();
+        threadBean = ManagementFactory.getThreadMXBean() instanceof ThreadMXBean ? (ThreadMXBean) ManagementFactory.getThreadMXBean() : null;
+    }
+
+    static ResourceMonitor start() {
+        ResourceMonitor monitor = new ResourceMonitor();
+        System.gc();
+        monitor.heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        monitor.startGcCount = monitor.gcCount();
+        monitor.startGcTime = monitor.gcTime();
+        monitor.startAllocatedBytes = monitor.allocatedBytes();
+        monitor.startTime = System.nanoTime();
+        return monitor;
+    }
+
+    void stop(Map<String, Object> result) {
+        long wallTimeNanos = System.nanoTime() - startTime;
+        long allocatedBytes = allocatedBytes() - startAllocatedBytes;
+        long peakHeap = heapPools.stream()
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+
+        result.put("wallTimeMillis", wallTimeNanos / 1_000_000.0);
+        result.put("peakHeapBytes", peakHeap);
+        result.put("gcCount", gcCount() - startGcCount);
+        result.put("gcTimeMillis", gcTime() - startGcTime);
+        if (threadBean != null) {
+            result.put("allocatedBytes", allocatedBytes);
+        }
+    }
+
+    private long allocatedBytes() {
+        return threadBean != null ? threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+
+    private long gcCount() {
+        return garbageCollectors.stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                .filter(count -> count > 0)
+                .sum();
+    }
+
+    private long gcTime() {
+        return garbageCollectors.stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .filter(time -> time > 0)
+                .sum();
+    }
+}
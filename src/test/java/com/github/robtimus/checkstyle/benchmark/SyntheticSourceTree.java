@@ -0,0 +1,317 @@
+/*
+ * SyntheticSourceTree.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.benchmark;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * A reproducible tree of generated Java source files.
+ * <p>
+ * File sizes follow a log-normal distribution, like in real code bases: most files are a few hundred lines long, but some are several thousand
+ * lines long. Most files start with a valid Apache 2.0 license header; some have a different copyright holder or year range, an MIT header, or no
+ * header at all. Some files contain whitespace defects like trailing whitespace, multiple blank lines in a row, tab indentation, CRLF line endings,
+ * trailing blank lines or a missing newline at the end of the file. Some files start with a generated file banner.
+ * <p>
+ * The same seed and file count always result in the same files. A generated tree is reused if it already exists with the same settings.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+final class SyntheticSourceTree {
+
+    private static final String PROPERTIES_FILE = "tree.properties";
+
+    private static final int FILES_PER_PACKAGE = 50;
+    private static final int PACKAGES_PER_MODULE = 20;
+
+    private static final double MEDIAN_LINE_COUNT = 150;
+    private static final double LINE_COUNT_SIGMA = 0.9;
+    private static final int MIN_LINE_COUNT = 10;
+    private static final int MAX_LINE_COUNT = 10_000;
+
+    private static final List<String> APACHE_LICENSE = List.of(
+            " * Licensed under the Apache License, Version 2.0 (the \"License\");",
+            " * you may not use this file except in compliance with the License.",
+            " * You may obtain a copy of the License at",
+            " *",
+            " *     http://www.apache.org/licenses/LICENSE-2.0",
+            " *",
+            " * Unless required by applicable law or agreed to in writing, software",
+            " * distributed under the License is distributed on an \"AS IS\" BASIS,",
+            " * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.",
+            " * See the License for the specific language governing permissions and",
+            " * limitations under the License.");
+
+    private static final List<String> MIT_LICENSE = List.of(
+            " * Permission is hereby granted, free of charge, to any person obtaining a copy",
+            " * of this software and associated documentation files (the \"Software\"), to deal",
+            " * in the Software without restriction.");
+
+    private final Path root;
+    private final List<Path> files;
+    private final long lineCount;
+    private final long byteCount;
+
+    private SyntheticSourceTree(Path root, List<Path> files, long lineCount, long byteCount) {
+        this.root = root;
+        this.files = files;
+        this.lineCount = lineCount;
+        this.byteCount = byteCount;
+    }
+
+    Path root() {
+        return root;
+    }
+
+    List<Path> files() {
+        return files;
+    }
+
+    long lineCount() {
+        return lineCount;
+    }
+
+    long byteCount() {
+        return byteCount;
+    }
+
+    static SyntheticSourceTree create(Path root, int fileCount, long seed) throws IOException {
+        List<Path> files = new ArrayList<>(fileCount);
+        for (int i = 0; i < fileCount; i++) {
+            files.add(root.resolve(relativePath(i)));
+        }
+        files = Collections.unmodifiableList(files);
+
+        Properties properties = readProperties(root);
+        if (String.valueOf(fileCount).equals(properties.getProperty("fileCount")) && String.valueOf(seed).equals(properties.getProperty("seed"))) {
+            long lineCount = Long.parseLong(properties.getProperty("lineCount"));
+            long byteCount = Long.parseLong(properties.getProperty("byteCount"));
+            return new SyntheticSourceTree(root, files, lineCount, byteCount);
+        }
+
+        long lineCount = 0;
+        long byteCount = 0;
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < fileCount; i++) {
+            content.setLength(0);
+            Random random = new Random(seed * 31 + i);
+            lineCount += new SourceFile(random, i).write(content);
+
+            Path file = files.get(i);
+            Files.createDirectories(file.getParent());
+            byte[] bytes = content.toString().getBytes(StandardCharsets.UTF_8);
+            Files.write(file, bytes);
+            byteCount += bytes.length;
+        }
+
+        properties = new Properties();
+        properties.setProperty("fileCount", String.valueOf(fileCount));
+        properties.setProperty("seed", String.valueOf(seed));
+        properties.setProperty("lineCount", String.valueOf(lineCount));
+        properties.setProperty("byteCount", String.valueOf(byteCount));
+        try (Writer writer = Files.newBufferedWriter(root.resolve(PROPERTIES_FILE))) {
+            properties.store(writer, null);
+        }
+        return new SyntheticSourceTree(root, files, lineCount, byteCount);
+    }
+
+    private static Properties readProperties(Path root) throws IOException {
+        Properties properties = new Properties();
+        Path file = root.resolve(PROPERTIES_FILE);
+        if (Files.isRegularFile(file)) {
+            try (Reader reader = Files.newBufferedReader(file)) {
+                properties.load(reader);
+            }
+        }
+        return properties;
+    }
+
+    private static String relativePath(int index) {
+        int packageIndex = index / FILES_PER_PACKAGE;
+        int moduleIndex = packageIndex / PACKAGES_PER_MODULE;
+        return String.format("module%d/src/main/java/com/example/module%d/package%d/Class%d.java",
+                moduleIndex, moduleIndex, packageIndex % PACKAGES_PER_MODULE, index);
+    }
+
+    private static String packageName(int index) {
+        int packageIndex = index / FILES_PER_PACKAGE;
+        int moduleIndex = packageIndex / PACKAGES_PER_MODULE;
+        return String.format("com.example.module%d.package%d", moduleIndex, packageIndex % PACKAGES_PER_MODULE);
+    }
+
+    private static final class SourceFile {
+
+        private final Random random;
+        private final int index;
+        private final String lineEnding;
+        private final String indent;
+        private final double trailingWhitespaceChance;
+        private final double extraBlankLineChance;
+
+        private int lineCount;
+
+        private SourceFile(Random random, int index) {
+            this.random = random;
+            this.index = index;
+            this.lineEnding = random.nextInt(50) == 0 ? "\r\n" : "\n";
+            this.indent = random.nextInt(50) == 0 ? "\t" : "    ";
+            this.trailingWhitespaceChance = random.nextInt(10) == 0 ? 0.02 : 0;
+            this.extraBlankLineChance = random.nextInt(20) == 0 ? 0.01 : 0;
+        }
+
+        private int write(StringBuilder content) {
+            int targetLineCount = targetLineCount();
+
+            writeHeader(content);
+            line(content, "package " + packageName(index) + ";");
+            line(content, "");
+            line(content, "import java.util.List;");
+            line(content, "import java.util.Map;");
+            line(content, "");
+            line(content, "/**");
+            line(content, " * Class number " + index + ".");
+            line(content, " */");
+            line(content, "public class Class" + index + " {");
+
+            int methodIndex = 0;
+            while (lineCount < targetLineCount) {
+                writeMethod(content, methodIndex++);
+            }
+
+            line(content, "}");
+            writeEnd(content);
+            return lineCount;
+        }
+
+        private int targetLineCount() {
+            double lines = MEDIAN_LINE_COUNT * Math.exp(LINE_COUNT_SIGMA * random.nextGaussian());
+            return (int) Math.max(MIN_LINE_COUNT, Math.min(MAX_LINE_COUNT, lines));
+        }
+
+        private void writeHeader(StringBuilder content) {
+            int variant = random.nextInt(100);
+            if (variant < 5) {
+                // no header
+                return;
+            }
+            if (variant < 10) {
+                line(content, "// Generated by the protocol buffer compiler.  DO NOT EDIT!");
+                line(content, "// source: module" + index + ".proto");
+                line(content, "");
+                return;
+            }
+            line(content, "/*");
+            line(content, " * Class" + index + ".java");
+            if (variant < 15) {
+                line(content, " * Copyright 2015-2023 Rob Spoor");
+            } else if (variant < 20) {
+                line(content, " * Copyright 2023 Someone Else");
+            } else {
+                line(content, " * Copyright 2023 Rob Spoor");
+            }
+            line(content, " *");
+            List<String> license = variant < 23 ? MIT_LICENSE : APACHE_LICENSE;
+            for (String licenseLine : license) {
+                line(content, licenseLine);
+            }
+            line(content, " */");
+            line(content, "");
+        }
+
+        private void writeMethod(StringBuilder content, int methodIndex) {
+            line(content, "");
+            line(content, indent + "/**");
+            line(content, indent + " * Performs step " + methodIndex + ".");
+            line(content, indent + " *");
+            line(content, indent + " * @param values The values to process.");
+            line(content, indent + " * @return The result.");
+            line(content, indent + " */");
+            line(content, indent + "public int step" + methodIndex + "(List<String> values, Map<String, Integer> counts) {");
+            line(content, indent + indent + "int result = " + random.nextInt(1000) + ";");
+
+            int statements = 1 + random.nextInt(20);
+            for (int i = 0; i < statements; i++) {
+                writeStatement(content, i);
+            }
+
+            line(content, indent + indent + "return result;");
+            line(content, indent + "}");
+        }
+
+        private void writeStatement(StringBuilder content, int statementIndex) {
+            String bodyIndent = indent + indent;
+            switch (random.nextInt(4)) {
+                case 0:
+                    line(content, bodyIndent + "for (String value : values) {");
+                    line(content, bodyIndent + indent + "result += counts.getOrDefault(value, " + statementIndex + ");");
+                    line(content, bodyIndent + "}");
+                    break;
+                case 1:
+                    line(content, bodyIndent + "if (values.size() > " + random.nextInt(100) + ") {");
+                    line(content, bodyIndent + indent + "result *= 31;");
+                    line(content, bodyIndent + "} else {");
+                    line(content, bodyIndent + indent + "result -= values.size();");
+                    line(content, bodyIndent + "}");
+                    break;
+                case 2:
+                    line(content, bodyIndent + "// adjust the result with a constant");
+                    line(content, bodyIndent + "result ^= 0x" + Integer.toHexString(random.nextInt()) + ";");
+                    break;
+                default:
+                    line(content, bodyIndent + "counts.put(\"key" + statementIndex + "\", result);");
+                    break;
+            }
+        }
+
+        private void writeEnd(StringBuilder content) {
+            int variant = random.nextInt(100);
+            if (variant < 3) {
+                // trailing blank lines
+                line(content, "");
+                line(content, "");
+            } else if (variant < 5) {
+                // no newline at the end of the file
+                content.setLength(content.length() - lineEnding.length());
+            }
+        }
+
+        private void line(StringBuilder content, String line) {
+            content.append(line);
+            if (!line.isEmpty() && random.nextDouble() < trailingWhitespaceChance) {
+                content.append(' ');
+            }
+            content.append(lineEnding);
+            lineCount++;
+
+            if (line.isEmpty() && random.nextDouble() < extraBlankLineChance) {
+                content.append(lineEnding);
+                lineCount++;
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * AllocationBudgetTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+/**
+ * Verifies that checks do not allocate memory per line for files without violations.
+ * The number of bytes allocated while processing a file must not exceed a fixed budget, regardless of the size of the file.
+ */
+@SuppressWarnings("nls")
+class AllocationBudgetTest {
+
+    // covers per-file allocations like the set of violations returned by process
+    private static final long WHITESPACE_CHECK_BUDGET = 16 * 1024;
+    // covers reading and validating the license header, which does not depend on the size of the rest of the file
+    private static final long LICENSE_COMMENT_BUDGET = 32 * 1024;
+
+    private static final File FILE = new File("Budget.java");
+
+    private static final List<String> HEADER = List.of(
+            "/*",
+            " * Budget.java",
+            " * Copyright 2023 Rob Spoor",
+            " *",
+            " * Licensed under the Apache License, Version 2.0 (the \"License\");",
+            " * you may not use this file except in compliance with the License.",
+            " * You may obtain a copy of the License at",
+            " *",
+            " *     http://www.apache.org/licenses/LICENSE-2.0",
+            " *",
+            " * Unless required by applicable law or agreed to in writing, software",
+            " * distributed under the License is distributed on an \"AS IS\" BASIS,",
+            " * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.",
+            " * See the License for the specific language governing permissions and",
+            " * limitations under the License.",
+            " */",
+            "",
+            "package com.example;",
+            "",
+            "public class Budget {");
+
+    private static final List<String> METHOD = List.of(
+            "",
+            "    /**",
+            "     * Doubles positive values.",
+            "     *",
+            "     * @param x The value to double.",
+            "     * @return The result.",
+            "     */",
+            "    public int method(int x) {",
+            "        if (x > 0) {",
+            "            return x * 2; // doubled",
+            "        }",
+            "        return x;",
+            "    }");
+
+    @ParameterizedTest(name = "{0}: {2} methods")
+    @MethodSource("whitespaceChecks")
+    void testWhitespaceCheck(String name, Supplier<AbstractTextCheck> checkFactory, int methodCount) {
+        assertWithinBudget(checkFactory.get(), cleanFile(methodCount), WHITESPACE_CHECK_BUDGET);
+    }
+
+    @ParameterizedTest(name = "{0} methods")
+    @ValueSource(ints = { 10_000, 20_000 })
+    void testLicenseComment(int methodCount) {
+        LicenseCommentCheck check = new LicenseCommentCheck();
+        DefaultConfiguration configuration = new DefaultConfiguration("LicenseComment");
+        configuration.addProperty("includeFilename", "true");
+        configuration.addProperty("includeCopyright", "true");
+        configuration.addProperty("includeEmptyLineBeforeLicenseText", "true");
+        configuration.addProperty("predefinedLicenseText", "Apache-2.0");
+        assertDoesNotThrow(() -> check.configure(configuration));
+
+        assertWithinBudget(check, cleanFile(methodCount), LICENSE_COMMENT_BUDGET);
+    }
+
+    private static void assertWithinBudget(AbstractFileSetCheck check, FileText fileText, long budget) {
+        // the first call may initialize caches
+        Set<Violation> violations = assertDoesNotThrow(() -> check.process(FILE, fileText));
+        assertEquals(Collections.emptySet(), violations);
+
+        long allocatedBytes = Measurements.allocatedBytes(() -> check.process(FILE, fileText));
+        assertTrue(allocatedBytes <= budget,
+                () -> String.format("Allocated %d bytes for %d lines, budget is %d bytes", allocatedBytes, fileText.size(), budget));
+    }
+
+    private static FileText cleanFile(int methodCount) {
+        List<String> lines = new ArrayList<>(HEADER.size() + methodCount * METHOD.size() + 1);
+        lines.addAll(HEADER);
+        for (int i = 0; i < methodCount; i++) {
+            lines.addAll(METHOD);
+        }
+        lines.add("}");
+        return new FileText(FILE, lines);
+    }
+
+    static Stream<Arguments> whitespaceChecks() {
+        // the license comment check is tested separately, with a configuration that reads the entire license header
+        return TestChecks.arguments()
+                .filter(arguments -> !LicenseCommentCheck.class.getSimpleName().equals(arguments.get()[0]))
+                .flatMap(arguments -> Stream.of(10_000, 20_000)
+                        .map(methodCount -> Arguments.of(arguments.get()[0], arguments.get()[1], methodCount)));
+    }
+}
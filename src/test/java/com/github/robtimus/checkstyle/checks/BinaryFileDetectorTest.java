@@ -0,0 +1,74 @@
+/*
+ * BinaryFileDetectorTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.File;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+@SuppressWarnings("nls")
+class BinaryFileDetectorTest {
+
+    @Test
+    void testEmptyFile() {
+        assertFalse(BinaryFileDetector.isBinaryOrMinified(fileText()));
+    }
+
+    @Test
+    void testTextFile() {
+        assertFalse(BinaryFileDetector.isBinaryOrMinified(fileText("class Test {", "\tint x;\f", "}")));
+    }
+
+    @Test
+    void testNulCharacter() {
+        assertTrue(BinaryFileDetector.isBinaryOrMinified(fileText("class Test {", "\0", "}")));
+    }
+
+    @Test
+    void testNulCharacterAfterSample() {
+        String line = "x".repeat(BinaryFileDetector.SAMPLE_SIZE);
+
+        assertFalse(BinaryFileDetector.isBinaryOrMinified(fileText(line, "\0")));
+    }
+
+    @Test
+    void testLongFirstLine() {
+        String line = "x".repeat(BinaryFileDetector.SAMPLE_SIZE + 1);
+
+        assertTrue(BinaryFileDetector.isBinaryOrMinified(fileText(line)));
+        assertFalse(BinaryFileDetector.isBinaryOrMinified(fileText("class Test {", line, "}")));
+    }
+
+    @Test
+    void testNonPrintableCharacters() {
+        assertFalse(BinaryFileDetector.isBinaryOrMinified(fileText("class Test \u0001{", "}")));
+        assertTrue(BinaryFileDetector.isBinaryOrMinified(fileText("class \u0001\u0002\u0003Test {", "}")));
+    }
+
+    @Test
+    void testReplacementCharacters() {
+        assertTrue(BinaryFileDetector.isBinaryOrMinified(fileText("\uFFFD\uFFFDPNG", "\uFFFD\uFFFD")));
+    }
+
+    private static FileText fileText(String... lines) {
+        return new FileText(new File("Test.java"), Arrays.asList(lines));
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * CheckDaemonTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.ConnectException;
+import java.net.ProtocolFamily;
+import java.net.ServerSocket;
+import java.net.SocketAddress;
+import java.net.SocketOption;
+import java.net.StandardProtocolFamily;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.spi.SelectorProvider;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+@SuppressWarnings("nls")
+class CheckDaemonTest {
+
+    @Test
+    void testLoopbackSocket(@TempDir Path tempDir) throws IOException, CheckstyleException {
+        Path file = createFile(tempDir);
+
+        try (CheckDaemon daemon = new CheckDaemon(PreCommitMain.createChecks(PreCommitMain.DEFAULT_CHECKS), CheckDaemon.openLoopbackSocket(0))) {
+            daemon.start();
+            SocketAddress address = daemon.getLocalAddress();
+
+            String expected = expectedOutput(file);
+
+            // the checks are reused for each request
+            assertEquals(expected, request(SocketChannel.open(address), file.toString()));
+            assertEquals(expected, request(SocketChannel.open(address), file.toString()));
+        }
+    }
+
+    @Test
+    void testConcurrentRequests(@TempDir Path tempDir) throws IOException, CheckstyleException {
+        Path file = createFile(tempDir);
+
+        try (CheckDaemon daemon = new CheckDaemon(PreCommitMain.createChecks(PreCommitMain.DEFAULT_CHECKS), CheckDaemon.openLoopbackSocket(0))) {
+            daemon.start();
+            SocketAddress address = daemon.getLocalAddress();
+
+            String expected = expectedOutput(file);
+
+            List<CompletableFuture<String>> responses = IntStream.range(0, 16)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return request(SocketChannel.open(address), file.toString());
+                        } catch (IOException e) {
+                            throw new CompletionException(e);
+                        }
+                    }))
+                    .collect(Collectors.toList());
+
+            for (CompletableFuture<String> response : responses) {
+                assertEquals(expected, response.join());
+            }
+        }
+    }
+
+    @Test
+    void testNoViolations(@TempDir Path tempDir) throws IOException, CheckstyleException {
+        Path file = tempDir.resolve("Example.java");
+        Files.write(file, List.of("class Example {", "}"));
+
+        try (CheckDaemon daemon = new CheckDaemon(PreCommitMain.createChecks(PreCommitMain.DEFAULT_CHECKS), CheckDaemon.openLoopbackSocket(0))) {
+            daemon.start();
+
+            String response = request(SocketChannel.open(daemon.getLocalAddress()), file.toString());
+
+            assertEquals(String.join(System.lineSeparator(),
+                    "Starting audit...",
+                    "Audit done.",
+                    "Exit code: 0",
+                    ""), response);
+        }
+    }
+
+    @Test
+    void testFileCannotBeRead(@TempDir Path tempDir) throws IOException, CheckstyleException {
+        Path file = tempDir.resolve("missing.java");
+
+        try (CheckDaemon daemon = new CheckDaemon(PreCommitMain.createChecks(PreCommitMain.DEFAULT_CHECKS), CheckDaemon.openLoopbackSocket(0))) {
+            daemon.start();
+
+            String response = request(SocketChannel.open(daemon.getLocalAddress()), file.toString());
+
+            assertEquals(String.join(System.lineSeparator(),
+                    "Starting audit...",
+                    "Exception was thrown while processing " + file.toFile().getAbsolutePath(),
+                    "Exit code: 2",
+                    ""), response);
+        }
+    }
+
+    @Test
+    void testRequestFails(@TempDir Path tempDir) throws IOException {
+        Path file = createFile(tempDir);
+        AbstractFileSetCheck check = new AbstractFileSetCheck() {
+            @Override
+            protected void processFiltered(File f, FileText fileText) {
+                throw new IllegalStateException("broken");
+            }
+        };
+
+        try (CheckDaemon daemon = new CheckDaemon(List.of(check), CheckDaemon.openLoopbackSocket(0))) {
+            daemon.start();
+
+            String response = request(SocketChannel.open(daemon.getLocalAddress()), file.toString());
+
+            assertEquals(String.join(System.lineSeparator(),
+                    "Starting audit...",
+                    "Exception was thrown while processing request: java.lang.IllegalStateException: broken",
+                    "Exit code: 2",
+                    ""), response);
+
+            // the daemon keeps handling requests
+            response = request(SocketChannel.open(daemon.getLocalAddress()), file.toString());
+
+            assertEquals(String.join(System.lineSeparator(),
+                    "Starting audit...",
+                    "Exception was thrown while processing request: java.lang.IllegalStateException: broken",
+                    "Exit code: 2",
+                    ""), response);
+        }
+    }
+
+    @Test
+    void testAcceptFails() {
+        FailingServerSocketChannel serverChannel = new FailingServerSocketChannel();
+        CheckDaemon daemon = new CheckDaemon(List.of(), serverChannel);
+        daemon.start();
+
+        IOException exception = assertThrows(IOException.class, daemon::await);
+        assertEquals("Too many open files", exception.getMessage());
+        assertFalse(serverChannel.isOpen());
+    }
+
+    @Test
+    void testUnixDomainSocket(@TempDir Path tempDir) throws IOException, CheckstyleException, ReflectiveOperationException {
+        assumeTrue(CheckDaemon.isUnixDomainSocketSupported(), "Unix domain sockets are not supported");
+
+        Path file = createFile(tempDir);
+        Path socket = tempDir.resolve("checkstyle.sock");
+
+        List<AbstractFileSetCheck> checks = PreCommitMain.createChecks(PreCommitMain.DEFAULT_CHECKS);
+        try (CheckDaemon daemon = new CheckDaemon(checks, CheckDaemon.openUnixDomainSocket(socket))) {
+            daemon.start();
+
+            // the test sources are compiled for Java 11, so the Unix domain socket API is accessed through reflection
+            SocketChannel channel = (SocketChannel) SocketChannel.class.getMethod("open", ProtocolFamily.class)
+                    .invoke(null, StandardProtocolFamily.valueOf("UNIX"));
+            channel.connect(daemon.getLocalAddress());
+
+            assertEquals(expectedOutput(file), request(channel, file.toString()));
+        }
+    }
+
+    @Test
+    void testClose() throws IOException, CheckstyleException {
+        CheckDaemon daemon = new CheckDaemon(PreCommitMain.createChecks(PreCommitMain.DEFAULT_CHECKS), CheckDaemon.openLoopbackSocket(0));
+        daemon.start();
+        SocketAddress address = daemon.getLocalAddress();
+
+        daemon.close();
+
+        assertThrows(ConnectException.class, () -> SocketChannel.open(address));
+    }
+
+    @Test
+    void testUsage() {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        int exitCode = CheckDaemon.run(new String[] { "--port", "not a number" }, new PrintStream(err, true, StandardCharsets.UTF_8));
+
+        assertEquals(PreCommitMain.EXIT_FAILURE, exitCode);
+        assertEquals("Usage: CheckDaemon [-c <configuration file>] (--socket <path> | --port <port>)" + System.lineSeparator(),
+                err.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testAwaitAfterClose() throws IOException, CheckstyleException {
+        CheckDaemon daemon = new CheckDaemon(PreCommitMain.createChecks(PreCommitMain.DEFAULT_CHECKS), CheckDaemon.openLoopbackSocket(0));
+        daemon.start();
+
+        daemon.close();
+
+        assertDoesNotThrow(daemon::await);
+    }
+
+    private static Path createFile(Path dir) throws IOException {
+        Path file = dir.resolve("Example.java");
+        Files.write(file, List.of("class Example {", "    int x = 1;  ", "}"));
+        return file;
+    }
+
+    private static String expectedOutput(Path file) {
+        return String.join(System.lineSeparator(),
+                "Starting audit...",
+                "[ERROR] " + file.toFile().getAbsolutePath() + ":2:15: " + TestMessages.whitespace.trailing() + " [NoTrailingWhitespace]",
+                "Audit done.",
+                "Checkstyle ends with 1 errors.",
+                "Exit code: 1",
+                "");
+    }
+
+    private static String request(SocketChannel channel, String... paths) throws IOException {
+        try (SocketChannel c = channel) {
+            String request = String.join("\n", paths) + "\n\n";
+            ByteBuffer buffer = ByteBuffer.wrap(request.getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                c.write(buffer);
+            }
+            InputStream input = Channels.newInputStream(c);
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class FailingServerSocketChannel extends ServerSocketChannel {
+
+        private FailingServerSocketChannel() {
+            super(SelectorProvider.provider());
+        }
+
+        @Override
+        public SocketChannel accept() throws IOException {
+            throw new IOException("Too many open files");
+        }
+
+        @Override
+        public ServerSocketChannel bind(SocketAddress local, int backlog) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> ServerSocketChannel setOption(SocketOption<T> name, T value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> T getOption(SocketOption<T> name) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Set<SocketOption<?>> supportedOptions() {
+            return Set.of();
+        }
+
+        @Override
+        public ServerSocket socket() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SocketAddress getLocalAddress() {
+            return null;
+        }
+
+        @Override
+        protected void implCloseSelectableChannel() {
+            // nothing to close
+        }
+
+        @Override
+        protected void implConfigureBlocking(boolean block) {
+            // always blocking
+        }
+    }
+}
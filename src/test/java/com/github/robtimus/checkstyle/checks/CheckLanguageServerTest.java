@@ -0,0 +1,423 @@
+/*
+ * CheckLanguageServerTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+
+@SuppressWarnings("nls")
+class CheckLanguageServerTest {
+
+    private static final String URI = "file:///project/Example.java";
+
+    @Test
+    void testLifecycle() throws IOException, CheckstyleException {
+        try (Client client = new Client(0)) {
+            client.request(1, "initialize", Map.of("processId", 1));
+
+            Map<String, Object> response = client.awaitMessage(m -> Long.valueOf(1).equals(m.get("id")));
+            Map<String, Object> capabilities = object(object(response.get("result")).get("capabilities"));
+            assertEquals(Map.of("openClose", true, "change", 2L), capabilities.get("textDocumentSync"));
+            assertEquals(Map.of("codeActionKinds", List.of("quickfix")), capabilities.get("codeActionProvider"));
+
+            client.notify("initialized", Map.of());
+            client.request(2, "shutdown", null);
+            client.awaitMessage(m -> Long.valueOf(2).equals(m.get("id")));
+            client.notify("exit", null);
+
+            assertEquals(0, client.exitCode());
+        }
+    }
+
+    @Test
+    void testExitWithoutShutdown() throws IOException, CheckstyleException {
+        try (Client client = new Client(0)) {
+            client.notify("exit", null);
+
+            assertEquals(1, client.exitCode());
+        }
+    }
+
+    @Test
+    void testDiagnosticsAfterIncrementalChanges() throws IOException, CheckstyleException {
+        try (Client client = new Client(0)) {
+            client.notify("textDocument/didOpen", Map.of("textDocument", Map.of(
+                    "uri", URI, "languageId", "java", "version", 1, "text", "class Example {\n    int x = 1;  \n}\n")));
+
+            Map<String, Object> diagnostics = client.awaitDiagnostics(1);
+            assertEquals(List.of(diagnostic(1, 14, 1, 16, TestMessages.whitespace.trailing(), "NoTrailingWhitespace")),
+                    diagnostics.get("diagnostics"));
+
+            // remove the trailing whitespace
+            client.notify("textDocument/didChange", Map.of(
+                    "textDocument", Map.of("uri", URI, "version", 2),
+                    "contentChanges", List.of(Map.of("range", range(1, 14, 1, 16), "text", ""))));
+
+            diagnostics = client.awaitDiagnostics(2);
+            assertEquals(List.of(), diagnostics.get("diagnostics"));
+
+            // add two blank lines after the field
+            client.notify("textDocument/didChange", Map.of(
+                    "textDocument", Map.of("uri", URI, "version", 3),
+                    "contentChanges", List.of(Map.of("range", range(1, 14, 1, 14), "text", "\n\n"))));
+
+            diagnostics = client.awaitDiagnostics(3);
+            assertEquals(List.of(
+                    diagnostic(3, 0, 3, 0, TestMessages.whitespace.blankLineBeforeSymbols(")}];"), "NoBlankLineBeforeSymbols"),
+                    diagnostic(2, 0, 2, 0, TestMessages.whitespace.multipleBlankLinesInARow(), "NoSubsequentBlankLines")),
+                    sorted(diagnostics.get("diagnostics")));
+        }
+    }
+
+    @ParameterizedTest(name = "tabWidth: {0}")
+    @ValueSource(ints = { 2, 4, 8 })
+    void testTabWidthFromConfiguration(int tabWidth) throws IOException, CheckstyleException {
+        List<AbstractFileSetCheck> checks = PreCommitMain.createChecks(List.of("NoTrailingWhitespace.tabWidth = " + tabWidth));
+        try (Client client = new Client(checks, 0)) {
+            client.notify("textDocument/didOpen", Map.of("textDocument", Map.of(
+                    "uri", URI, "languageId", "java", "version", 1, "text", "class Example {\n\t\tint x = 1;  \n}\n")));
+
+            // the check reports the column with expanded tabs, but the range uses characters
+            Map<String, Object> diagnostics = client.awaitDiagnostics(1);
+            assertEquals(List.of(diagnostic(1, 12, 1, 14, TestMessages.whitespace.trailing(), "NoTrailingWhitespace")),
+                    diagnostics.get("diagnostics"));
+        }
+    }
+
+    @Test
+    void testRelativeUri() throws IOException, CheckstyleException {
+        try (Client client = new Client(0)) {
+            client.notify("textDocument/didOpen", Map.of("textDocument", Map.of(
+                    "uri", "Example.java", "languageId", "java", "version", 1, "text", "class Example { \n}\n")));
+
+            Map<String, Object> diagnostics = client.awaitDiagnostics(1);
+            assertEquals("Example.java", diagnostics.get("uri"));
+            assertEquals(List.of(diagnostic(0, 15, 0, 16, TestMessages.whitespace.trailing(), "NoTrailingWhitespace")),
+                    diagnostics.get("diagnostics"));
+        }
+    }
+
+    @Test
+    void testDebounce() throws IOException, CheckstyleException {
+        try (Client client = new Client(500)) {
+            client.notify("textDocument/didOpen", Map.of("textDocument", Map.of(
+                    "uri", URI, "languageId", "java", "version", 1, "text", "class Example { \n}\n")));
+            client.notify("textDocument/didChange", Map.of(
+                    "textDocument", Map.of("uri", URI, "version", 2),
+                    "contentChanges", List.of(Map.of("range", range(0, 15, 0, 16), "text", ""))));
+
+            // only the latest version is published
+            Map<String, Object> diagnostics = client.awaitMessage(m -> "textDocument/publishDiagnostics".equals(m.get("method")));
+            assertEquals(2L, object(diagnostics.get("params")).get("version"));
+            assertEquals(List.of(), object(diagnostics.get("params")).get("diagnostics"));
+        }
+    }
+
+    @Test
+    void testFullChange() throws IOException, CheckstyleException {
+        try (Client client = new Client(0)) {
+            client.notify("textDocument/didOpen", Map.of("textDocument", Map.of(
+                    "uri", URI, "languageId", "java", "version", 1, "text", "class Example {\n}\n")));
+            client.notify("textDocument/didChange", Map.of(
+                    "textDocument", Map.of("uri", URI, "version", 2),
+                    "contentChanges", List.of(Map.of("text", "class Example { \r\n}\r\n"))));
+
+            Map<String, Object> diagnostics = client.awaitDiagnostics(2);
+            assertEquals(List.of(diagnostic(0, 15, 0, 16, TestMessages.whitespace.trailing(), "NoTrailingWhitespace")),
+                    diagnostics.get("diagnostics"));
+        }
+    }
+
+    @Test
+    void testCodeActions() throws IOException, CheckstyleException {
+        try (Client client = new Client(0)) {
+            client.notify("textDocument/didOpen", Map.of("textDocument", Map.of(
+                    "uri", URI, "languageId", "java", "version", 1, "text", "class Example {\n    int x = 1;\t \n\n\n \n    int y = 2;\n}\n")));
+            client.awaitDiagnostics(1);
+
+            client.request(1, "textDocument/codeAction", Map.of(
+                    "textDocument", Map.of("uri", URI),
+                    "range", range(0, 0, 6, 0),
+                    "context", Map.of("diagnostics", List.of())));
+
+            Map<String, Object> response = client.awaitMessage(m -> Long.valueOf(1).equals(m.get("id")));
+            List<Object> codeActions = list(response.get("result"));
+            assertEquals(3, codeActions.size());
+
+            Map<String, Object> removeTrailingWhitespace = object(codeActions.get(0));
+            assertEquals("Remove trailing whitespace", removeTrailingWhitespace.get("title"));
+            assertEquals("quickfix", removeTrailingWhitespace.get("kind"));
+            assertEquals(Map.of("changes", Map.of(URI, List.of(textEdit(1, 14, 1, 16)))), removeTrailingWhitespace.get("edit"));
+
+            // the first blank line is kept; the line with only whitespace is removed as well
+            Map<String, Object> removeBlankLines = object(codeActions.get(1));
+            assertEquals("Remove subsequent blank lines", removeBlankLines.get("title"));
+            assertEquals(Map.of("changes", Map.of(URI, List.of(textEdit(2, 0, 4, 1)))), removeBlankLines.get("edit"));
+
+            Map<String, Object> removeWhitespaceLine = object(codeActions.get(2));
+            assertEquals("Remove trailing whitespace", removeWhitespaceLine.get("title"));
+            assertEquals(Map.of("changes", Map.of(URI, List.of(textEdit(4, 0, 4, 1)))), removeWhitespaceLine.get("edit"));
+
+            // outside the range of the violations
+            client.request(2, "textDocument/codeAction", Map.of(
+                    "textDocument", Map.of("uri", URI),
+                    "range", range(5, 0, 6, 0),
+                    "context", Map.of("diagnostics", List.of())));
+
+            response = client.awaitMessage(m -> Long.valueOf(2).equals(m.get("id")));
+            assertEquals(List.of(), response.get("result"));
+        }
+    }
+
+    @Test
+    void testDidClose() throws IOException, CheckstyleException {
+        try (Client client = new Client(0)) {
+            client.notify("textDocument/didOpen", Map.of("textDocument", Map.of(
+                    "uri", URI, "languageId", "java", "version", 1, "text", "class Example { \n}\n")));
+            client.awaitDiagnostics(1);
+
+            client.notify("textDocument/didClose", Map.of("textDocument", Map.of("uri", URI)));
+
+            Map<String, Object> cleared = client.awaitMessage(m -> "textDocument/publishDiagnostics".equals(m.get("method"))
+                    && !object(m.get("params")).containsKey("version"));
+            assertEquals(List.of(), object(cleared.get("params")).get("diagnostics"));
+        }
+    }
+
+    @Test
+    void testErrors() throws IOException, CheckstyleException {
+        try (Client client = new Client(0)) {
+            client.request(1, "textDocument/hover", Map.of());
+
+            Map<String, Object> response = client.awaitMessage(m -> Long.valueOf(1).equals(m.get("id")));
+            assertEquals(Map.of("code", -32601L, "message", "Method not found: textDocument/hover"), response.get("error"));
+
+            client.request(2, "textDocument/codeAction", Map.of());
+
+            response = client.awaitMessage(m -> Long.valueOf(2).equals(m.get("id")));
+            assertEquals(Map.of("code", -32602L, "message", "Missing or invalid textDocument"), response.get("error"));
+
+            // notifications cannot have responses
+            client.notify("textDocument/didChange", Map.of(
+                    "textDocument", Map.of("uri", URI, "version", 2),
+                    "contentChanges", List.of()));
+
+            Map<String, Object> log = client.awaitMessage(m -> "window/logMessage".equals(m.get("method")));
+            assertEquals(Map.of("type", 1L, "message", "Document is not open: " + URI), log.get("params"));
+        }
+    }
+
+    @Test
+    void testSplitLines() {
+        assertEquals(List.of(""), CheckLanguageServer.splitLines(""));
+        assertEquals(List.of("a", "b", "c", "d", ""), CheckLanguageServer.splitLines("a\nb\r\nc\rd\n"));
+        assertEquals(List.of("", "", ""), CheckLanguageServer.splitLines("\r\r\n"));
+    }
+
+    @Test
+    void testNegativeDebounceTime() throws CheckstyleException {
+        CheckLanguageServer server = new CheckLanguageServer(PreCommitMain.createChecks(PreCommitMain.DEFAULT_CHECKS),
+                new ByteArrayInputStream(new byte[0]), new ByteArrayOutputStream());
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> server.setDebounceMillis(-1));
+        assertEquals("Negative debounce time: -1", exception.getMessage());
+    }
+
+    @Test
+    void testUsage() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        int exitCode = CheckLanguageServer.run(new String[] { "--debounce", "not a number" },
+                new ByteArrayInputStream(new byte[0]), out, new PrintStream(err, true, StandardCharsets.UTF_8));
+
+        assertEquals(PreCommitMain.EXIT_FAILURE, exitCode);
+        assertEquals("", out.toString(StandardCharsets.UTF_8));
+        assertEquals("Usage: CheckLanguageServer [-c <configuration file>] [--debounce <millis>]" + System.lineSeparator(),
+                err.toString(StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, Object> diagnostic(int startLine, int startCharacter, int endLine, int endCharacter, String message,
+            String code) {
+
+        Map<String, Object> diagnostic = new LinkedHashMap<>();
+        diagnostic.put("range", range(startLine, startCharacter, endLine, endCharacter));
+        diagnostic.put("severity", 1L);
+        diagnostic.put("code", code);
+        diagnostic.put("source", "checkstyle");
+        diagnostic.put("message", message);
+        return diagnostic;
+    }
+
+    private static Map<String, Object> textEdit(int startLine, int startCharacter, int endLine, int endCharacter) {
+        return Map.of("range", range(startLine, startCharacter, endLine, endCharacter), "newText", "");
+    }
+
+    private static Map<String, Object> range(int startLine, int startCharacter, int endLine, int endCharacter) {
+        return Map.of(
+                "start", Map.of("line", (long) startLine, "character", (long) startCharacter),
+                "end", Map.of("line", (long) endLine, "character", (long) endCharacter));
+    }
+
+    private static List<Object> sorted(Object diagnostics) {
+        List<Object> result = new ArrayList<>(list(diagnostics));
+        result.sort((d1, d2) -> ((String) object(d1).get("code")).compareTo((String) object(d2).get("code")));
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> object(Object value) {
+        return (Map<String, Object>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> list(Object value) {
+        return (List<Object>) value;
+    }
+
+    private static final class Client implements AutoCloseable {
+
+        private final PipedOutputStream input;
+        private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        private final CompletableFuture<Integer> serving;
+
+        // the number of bytes of output that have been parsed, and the messages parsed so far
+        private int parsed = 0;
+        private final List<Map<String, Object>> messages = new ArrayList<>();
+
+        private Client(long debounceMillis) throws IOException, CheckstyleException {
+            this(PreCommitMain.createChecks(PreCommitMain.DEFAULT_CHECKS), debounceMillis);
+        }
+
+        private Client(List<AbstractFileSetCheck> checks, long debounceMillis) throws IOException {
+            input = new PipedOutputStream();
+            CheckLanguageServer server = new CheckLanguageServer(checks, new PipedInputStream(input, 65536), output);
+            server.setDebounceMillis(debounceMillis);
+            serving = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return server.serve();
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            });
+        }
+
+        private void request(int id, String method, Object params) throws IOException {
+            Map<String, Object> message = new LinkedHashMap<>();
+            message.put("jsonrpc", "2.0");
+            message.put("id", id);
+            message.put("method", method);
+            message.put("params", params);
+            send(message);
+        }
+
+        private void notify(String method, Object params) throws IOException {
+            Map<String, Object> message = new LinkedHashMap<>();
+            message.put("jsonrpc", "2.0");
+            message.put("method", method);
+            message.put("params", params);
+            send(message);
+        }
+
+        private void send(Map<String, Object> message) throws IOException {
+            byte[] content = Json.write(message).getBytes(StandardCharsets.UTF_8);
+            input.write(("Content-Length: " + content.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            input.write(content);
+            input.flush();
+        }
+
+        private Map<String, Object> awaitDiagnostics(int version) {
+            Map<String, Object> message = awaitMessage(m -> "textDocument/publishDiagnostics".equals(m.get("method"))
+                    && Long.valueOf(version).equals(object(m.get("params")).get("version")));
+            return object(message.get("params"));
+        }
+
+        private Map<String, Object> awaitMessage(Predicate<Map<String, Object>> predicate) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            int index = 0;
+            while (System.nanoTime() < deadline) {
+                parseMessages();
+                for (; index < messages.size(); index++) {
+                    if (predicate.test(messages.get(index))) {
+                        return messages.remove(index);
+                    }
+                }
+                sleep();
+            }
+            throw new AssertionError("No matching message received; received: " + messages);
+        }
+
+        private void parseMessages() {
+            byte[] bytes = output.toByteArray();
+            while (true) {
+                String remaining = new String(bytes, parsed, bytes.length - parsed, StandardCharsets.US_ASCII);
+                int headerEnd = remaining.indexOf("\r\n\r\n");
+                if (headerEnd == -1) {
+                    return;
+                }
+                int contentLength = Integer.parseInt(remaining.substring("Content-Length: ".length(), headerEnd));
+                int contentStart = parsed + headerEnd + 4;
+                if (contentStart + contentLength > bytes.length) {
+                    return;
+                }
+                messages.add(object(Json.parse(new String(bytes, contentStart, contentLength, StandardCharsets.UTF_8))));
+                parsed = contentStart + contentLength;
+            }
+        }
+
+        private int exitCode() {
+            return serving.orTimeout(30, TimeUnit.SECONDS).join();
+        }
+
+        private static void sleep() {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            // closing the input ends the server
+            input.close();
+            serving.orTimeout(30, TimeUnit.SECONDS).join();
+        }
+    }
+}
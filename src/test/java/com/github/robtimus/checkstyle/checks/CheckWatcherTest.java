@@ -0,0 +1,264 @@
+/*
+ * CheckWatcherTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+
+@SuppressWarnings("nls")
+class CheckWatcherTest {
+
+    @Test
+    void testRecheck(@TempDir Path tempDir) throws IOException, CheckstyleException {
+        Path file = tempDir.resolve("Example.java");
+        Files.write(file, List.of("class Example {", "    int x = 1;  ", "}"));
+        Path other = tempDir.resolve("Other.java");
+        Files.write(other, List.of("class Other {", "    int x = 1;  ", "}"));
+
+        try (CheckWatcher watcher = createWatcher(tempDir)) {
+            assertEquals(List.of(
+                    "+ " + trailingWhitespace(file, 2, 15),
+                    "+ " + trailingWhitespace(other, 2, 15)), watcher.checkAll());
+
+            // move the violation to another line, and add a new one
+            Files.write(file, List.of("class Example {  ", "    int x = 1;", "    int y = 2; ", "}"));
+
+            assertEquals(List.of(
+                    "- " + trailingWhitespace(file, 2, 15),
+                    "+ " + trailingWhitespace(file, 1, 16),
+                    "+ " + trailingWhitespace(file, 3, 15)), watcher.recheck(List.of(file)));
+
+            // nothing changed
+            assertEquals(List.of(), watcher.recheck(List.of(file, other)));
+
+            Files.delete(other);
+
+            assertEquals(List.of("- " + trailingWhitespace(other, 2, 15)), watcher.recheck(List.of(other)));
+
+            Path added = tempDir.resolve("Added.java");
+            Files.write(added, List.of("class Added {", "    int x = 1;", "", "", "    int y = 2;", "}"));
+
+            assertEquals(List.of(
+                    "+ [ERROR] " + added.toFile().getAbsolutePath() + ":3: " + TestMessages.whitespace.multipleBlankLinesInARow()
+                            + " [NoSubsequentBlankLines]"), watcher.recheck(List.of(added)));
+        }
+    }
+
+    @Test
+    void testRecheckShiftedLines(@TempDir Path tempDir) throws IOException, CheckstyleException {
+        Path file = tempDir.resolve("Example.java");
+        Files.write(file, List.of("class Example {", "    int x = 1;  ", "    int y = 2;  ", "}"));
+
+        try (CheckWatcher watcher = createWatcher(tempDir)) {
+            assertEquals(List.of(
+                    "+ " + trailingWhitespace(file, 2, 15),
+                    "+ " + trailingWhitespace(file, 3, 15)), watcher.checkAll());
+
+            // insert a line above the existing violations; they only move
+            Files.write(file, List.of("// comment", "class Example {", "    int x = 1;  ", "    int y = 2;  ", "}"));
+
+            assertEquals(List.of(), watcher.recheck(List.of(file)));
+
+            // removed violations are printed with their current line number
+            Files.write(file, List.of("// comment", "class Example {", "    int x = 1;", "    int y = 2;  ", "}"));
+
+            assertEquals(List.of("- " + trailingWhitespace(file, 3, 15)), watcher.recheck(List.of(file)));
+
+            // a violation on a line with the same text as another is still added
+            Files.write(file, List.of("// comment", "class Example {", "    int y = 2;  ", "    int x = 1;", "    int y = 2;  ", "}"));
+
+            assertEquals(List.of("+ " + trailingWhitespace(file, 5, 15)), watcher.recheck(List.of(file)));
+        }
+    }
+
+    @Test
+    void testRecheckDeletedDirectory(@TempDir Path tempDir) throws IOException, CheckstyleException {
+        Path dir = Files.createDirectory(tempDir.resolve("dir"));
+        Path file = dir.resolve("Example.java");
+        Files.write(file, List.of("class Example {", "    int x = 1;  ", "}"));
+
+        try (CheckWatcher watcher = createWatcher(tempDir)) {
+            assertEquals(List.of("+ " + trailingWhitespace(file, 2, 15)), watcher.checkAll());
+
+            Files.delete(file);
+            Files.delete(dir);
+
+            assertEquals(List.of("- " + trailingWhitespace(file, 2, 15)), watcher.recheck(List.of(dir)));
+        }
+    }
+
+    @Test
+    void testWatch(@TempDir Path tempDir) throws IOException, CheckstyleException, InterruptedException {
+        Path file = tempDir.resolve("Example.java");
+        Files.write(file, List.of("class Example {", "    int x = 1;  ", "}"));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        CheckWatcher watcher = createWatcher(tempDir, new PrintStream(output, true, StandardCharsets.UTF_8));
+        CompletableFuture<Void> watching;
+        try {
+            watcher.setDebounceMillis(50);
+
+            watching = CompletableFuture.runAsync(() -> {
+                try {
+                    watcher.watch();
+                } catch (IOException | InterruptedException e) {
+                    throw new CompletionException(e);
+                }
+            });
+
+            String initial = "+ " + trailingWhitespace(file, 2, 15) + System.lineSeparator();
+            awaitOutput(output, initial);
+
+            Files.write(file, List.of("class Example {", "    int x = 1;", "}"));
+
+            awaitOutput(output, initial + "- " + trailingWhitespace(file, 2, 15) + System.lineSeparator());
+
+            // files in new excluded directories are not checked
+            Path target = Files.createDirectory(tempDir.resolve("target"));
+            Files.write(target.resolve("Generated.java"), List.of("class Generated { "));
+
+            // files in new directories are checked as well
+            Path dir = Files.createDirectory(tempDir.resolve("dir"));
+            Path nested = dir.resolve("Nested.java");
+            Files.write(nested, List.of("class Nested { "));
+
+            String expected = initial + "- " + trailingWhitespace(file, 2, 15) + System.lineSeparator()
+                    + "+ " + trailingWhitespace(nested, 1, 15) + System.lineSeparator();
+            awaitOutput(output, expected);
+        } finally {
+            watcher.close();
+        }
+        // closing the watcher stops watching
+        watching.join();
+    }
+
+    @Test
+    void testWatchFile(@TempDir Path tempDir) throws IOException, CheckstyleException, InterruptedException {
+        Path file = tempDir.resolve("Example.java");
+        Files.write(file, List.of("class Example {", "    int x = 1;  ", "}"));
+        Path other = tempDir.resolve("Other.java");
+        Files.write(other, List.of("class Other {", "}"));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        CheckWatcher watcher = createWatcher(file, new PrintStream(output, true, StandardCharsets.UTF_8));
+        CompletableFuture<Void> watching;
+        try {
+            watcher.setDebounceMillis(50);
+
+            watching = CompletableFuture.runAsync(() -> {
+                try {
+                    watcher.watch();
+                } catch (IOException | InterruptedException e) {
+                    throw new CompletionException(e);
+                }
+            });
+
+            String initial = "+ " + trailingWhitespace(file, 2, 15) + System.lineSeparator();
+            awaitOutput(output, initial);
+
+            // other files in the same directory or in new sub directories are not checked
+            Files.write(other, List.of("class Other { ", "}"));
+            Path dir = Files.createDirectory(tempDir.resolve("dir"));
+            Files.write(dir.resolve("Nested.java"), List.of("class Nested { "));
+
+            Files.write(file, List.of("class Example {", "    int x = 1;", "}"));
+
+            awaitOutput(output, initial + "- " + trailingWhitespace(file, 2, 15) + System.lineSeparator());
+        } finally {
+            watcher.close();
+        }
+        watching.join();
+    }
+
+    @Test
+    void testWatchedDirectories(@TempDir Path tempDir) throws IOException, CheckstyleException {
+        Path src = Files.createDirectories(tempDir.resolve("src/main"));
+        Files.createDirectories(tempDir.resolve("src/target/classes"));
+        Files.createDirectories(tempDir.resolve(".git/objects"));
+        Files.createDirectories(tempDir.resolve("target"));
+        Path sub = Files.createDirectories(tempDir.resolve("other/sub"));
+        Path file = tempDir.resolve("other/Example.java");
+        Files.write(file, List.of("class Example {", "}"));
+
+        try (CheckWatcher watcher = createWatcher(tempDir)) {
+            assertEquals(List.of(tempDir, sub.getParent(), sub, src.getParent(), src), List.copyOf(watcher.watchedDirectories()));
+        }
+
+        // a file is watched through its parent only
+        try (CheckWatcher watcher = createWatcher(file)) {
+            assertEquals(List.of(sub.getParent()), List.copyOf(watcher.watchedDirectories()));
+        }
+    }
+
+    @Test
+    void testNegativeDebounceTime(@TempDir Path tempDir) throws IOException, CheckstyleException {
+        try (CheckWatcher watcher = createWatcher(tempDir)) {
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> watcher.setDebounceMillis(-1));
+            assertEquals("Negative debounce time: -1", exception.getMessage());
+        }
+    }
+
+    @Test
+    void testUsage() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        int exitCode = CheckWatcher.run(new String[] { "--debounce", "not a number", "src" },
+                new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(err, true, StandardCharsets.UTF_8));
+
+        assertEquals(PreCommitMain.EXIT_FAILURE, exitCode);
+        assertEquals("", out.toString(StandardCharsets.UTF_8));
+        assertEquals("Usage: CheckWatcher [-c <configuration file>] [--debounce <millis>] <file or directory>..." + System.lineSeparator(),
+                err.toString(StandardCharsets.UTF_8));
+    }
+
+    private static CheckWatcher createWatcher(Path root) throws IOException, CheckstyleException {
+        return createWatcher(root, new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8));
+    }
+
+    private static CheckWatcher createWatcher(Path root, PrintStream out) throws IOException, CheckstyleException {
+        return new CheckWatcher(PreCommitMain.createChecks(PreCommitMain.DEFAULT_CHECKS), List.of(root), out);
+    }
+
+    private static String trailingWhitespace(Path file, int line, int column) {
+        return "[ERROR] " + file.toFile().getAbsolutePath() + ":" + line + ":" + column + ": " + TestMessages.whitespace.trailing()
+                + " [NoTrailingWhitespace]";
+    }
+
+    private static void awaitOutput(ByteArrayOutputStream output, String expected) throws InterruptedException {
+        // some WatchService implementations poll for changes, so allow for some delay
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!expected.equals(output.toString(StandardCharsets.UTF_8)) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(expected, output.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * ComplexityStressTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+/**
+ * Feeds pathological inputs to all checks, and verifies that the work needed grows linearly with the size of the input.
+ * Each input is processed with size N and size 2N. Linear growth doubles the work; quadratic growth would quadruple it.
+ * <p>
+ * By default the work is measured using {@link WorkCounters}, which are deterministic, and the memory that is allocated. The same inputs are also
+ * timed, but only with the {@code benchmark} profile, because timing is affected by other processes, garbage collection and JIT compilation.
+ */
+@SuppressWarnings("nls")
+class ComplexityStressTest {
+
+    private static final long LINEAR_GROWTH = 2;
+    // absorbs work that does not depend on the input size, like inspecting the first line of a file
+    private static final long WORK_SLACK = 16;
+
+    private static final double MAX_GROWTH = 3;
+    // absorbs timer resolution and noise for checks that finish very quickly
+    private static final long TIME_SLACK_NANOS = 2_000_000;
+    // absorbs allocations that do not depend on the input size, like the set of violations
+    private static final long ALLOCATION_SLACK_BYTES = 64 * 1024;
+    private static final int RUNS = 5;
+
+    private static final File FILE = new File("Stress.java");
+
+    @ParameterizedTest(name = "{0}: {2}")
+    @MethodSource("checksAndInputs")
+    void testLinearWork(String name, Supplier<AbstractTextCheck> checkFactory, Input input) {
+        assumeTrue(WorkCounters.ENABLED, "work counters are disabled");
+
+        AbstractTextCheck check = checkFactory.get();
+        FileText small = input.fileText(input.size);
+        FileText large = input.fileText(2 * input.size);
+
+        WorkCounters smallCounters = process(check, small);
+        long smallLines = smallCounters.linesVisited();
+        long smallCharacters = smallCounters.charactersExamined();
+
+        WorkCounters largeCounters = process(check, large);
+        long largeLines = largeCounters.linesVisited();
+        long largeCharacters = largeCounters.charactersExamined();
+
+        // every check inspects at least part of every input, so no counted work means the counters are not updated
+        assertTrue(smallLines + smallCharacters > 0, "No work was counted");
+        assertTrue(largeLines <= LINEAR_GROWTH * smallLines + WORK_SLACK,
+                () -> String.format("Lines visited grew from %d to %d when doubling the input size", smallLines, largeLines));
+        assertTrue(largeCharacters <= LINEAR_GROWTH * smallCharacters + WORK_SLACK,
+                () -> String.format("Characters examined grew from %d to %d when doubling the input size", smallCharacters, largeCharacters));
+    }
+
+    @ParameterizedTest(name = "{0}: {2}")
+    @MethodSource("checksAndInputs")
+    void testLinearAllocation(String name, Supplier<AbstractTextCheck> checkFactory, Input input) {
+        AbstractTextCheck check = checkFactory.get();
+        FileText small = input.fileText(input.size);
+        FileText large = input.fileText(2 * input.size);
+
+        Executable processSmall = () -> process(check, small, input.repetitions);
+        Executable processLarge = () -> process(check, large, input.repetitions);
+
+        // the first calls may initialize caches
+        assertDoesNotThrow(processSmall);
+        assertDoesNotThrow(processLarge);
+
+        long smallAllocation = Measurements.allocatedBytes(processSmall);
+        long largeAllocation = Measurements.allocatedBytes(processLarge);
+        assertTrue(largeAllocation <= MAX_GROWTH * smallAllocation + ALLOCATION_SLACK_BYTES,
+                () -> String.format("Allocation grew from %d bytes to %d bytes when doubling the input size", smallAllocation, largeAllocation));
+    }
+
+    @ParameterizedTest(name = "{0}: {2}")
+    @MethodSource("checksAndInputs")
+    @Tag("benchmark")
+    void testLinearTime(String name, Supplier<AbstractTextCheck> checkFactory, Input input) {
+        AbstractTextCheck check = checkFactory.get();
+        FileText small = input.fileText(input.size);
+        FileText large = input.fileText(2 * input.size);
+
+        Executable processSmall = () -> process(check, small, input.repetitions);
+        Executable processLarge = () -> process(check, large, input.repetitions);
+
+        // warm up
+        assertDoesNotThrow(processSmall);
+        assertDoesNotThrow(processLarge);
+
+        // interleave the runs, so both sizes see the same JIT and GC state
+        long smallTime = Long.MAX_VALUE;
+        long largeTime = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            smallTime = Math.min(smallTime, Measurements.minimalNanoTime(processSmall, 1));
+            largeTime = Math.min(largeTime, Measurements.minimalNanoTime(processLarge, 1));
+        }
+        long minimalSmallTime = smallTime;
+        long minimalLargeTime = largeTime;
+        assertTrue(minimalLargeTime <= MAX_GROWTH * minimalSmallTime + TIME_SLACK_NANOS,
+                () -> String.format("Time grew from %d ns to %d ns when doubling the input size", minimalSmallTime, minimalLargeTime));
+    }
+
+    private static WorkCounters process(AbstractFileSetCheck check, FileText fileText) {
+        WorkCounters counters = WorkCounters.reset();
+        assertDoesNotThrow(() -> check.process(FILE, fileText));
+        return counters;
+    }
+
+    private static void process(AbstractFileSetCheck check, FileText fileText, int repetitions) throws Exception {
+        for (int i = 0; i < repetitions; i++) {
+            check.process(FILE, fileText);
+        }
+    }
+
+    static Stream<Arguments> checksAndInputs() {
+        return TestChecks.arguments()
+                .flatMap(arguments -> Stream.of(Input.values())
+                        .map(input -> Arguments.of(arguments.get()[0], arguments.get()[1], input)));
+    }
+
+    enum Input {
+        MILLION_LINES(size -> Collections.nCopies(size, "    int x = 0;"), 500_000, 1),
+        // whitespace at both ends makes both indentation and trailing whitespace checks scan half of the line
+        FIVE_MEGABYTE_LINE(size -> List.of(" ".repeat(size / 2) + "x" + " ".repeat(size / 2)), 2_500_000, 1),
+        UNCLOSED_COMMENT(size -> {
+            List<String> lines = new ArrayList<>(size + 1);
+            lines.add("/*");
+            lines.addAll(Collections.nCopies(size, " * Lorem ipsum dolor sit amet, consectetur adipiscing elit."));
+            return lines;
+        }, 100_000, 1),
+        ONLY_BLANK_LINES(size -> Collections.nCopies(size, ""), 500_000, 1),
+        // symbol lines surround a blank line, so both NoBlankLineAfterSymbols and NoBlankLineBeforeSymbols match
+        SYMBOL_LINES(size -> List.of("{".repeat(size), "", "}".repeat(size)), 50_000, 50),
+        ;
+
+        private final IntFunction<List<String>> lines;
+        private final int size;
+        // small inputs are repeated, so they take long enough to time
+        private final int repetitions;
+
+        Input(IntFunction<List<String>> lines, int size, int repetitions) {
+            this.lines = lines;
+            this.size = size;
+            this.repetitions = repetitions;
+        }
+
+        private FileText fileText(int inputSize) {
+            return new FileText(FILE, lines.apply(inputSize));
+        }
+    }
+}
@@ -0,0 +1,417 @@
+/*
+ * DifferentialFuzzTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static com.github.robtimus.checkstyle.checks.DifferentialFuzzer.assertSameViolations;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@SuppressWarnings("nls")
+class DifferentialFuzzTest {
+
+    private static final String[] WHITESPACE = {
+            " ", "  ", "\t", "\u000B", "\f", "\u00A0", "\u2003", "\u3000", "\u001C",
+    };
+
+    private static final String[] WORDS = {
+            "x", "int i = 0;", "return;", "// comment", "/*", "*/", "*",
+    };
+
+    private static final String[] SYMBOLS = {
+            "(", ")", "{", "}", "[", "]", ";", ";;", "<", ">",
+    };
+
+    private static final String[] SUPPRESSION_MARKERS = {
+            "// checkstyle-ext:off", "// checkstyle-ext:on", "// checkstyle-ext:offline",
+    };
+
+    private static final int[] CODE_POINTS = {
+            'a', ' ', '\t', 0x00A0, 0x00AD, 0x00E9, 0x200B, 0x200F, 0x2028, 0x202E, 0x2060, 0x2066, 0x2069, 0xFEFF, 0xFFFD,
+            0x1F600, 0x1F64F, 0x1F650, 0x10FFFF, 0xD800, 0xDC00,
+    };
+
+    private static final String[] FORBIDDEN_TOKEN_ALPHABET = {
+            "a", "b", "c", " ", "\u00E9", "\u00E9\u00E9",
+    };
+
+    private static final List<String> FORBIDDEN_TOKENS = List.of("a", "ab", "aab", "ba", "bab", "\u00E9a", "b", "ab");
+    // null for the default message
+    private static final List<String> FORBIDDEN_TOKEN_MESSAGES = Arrays.asList(
+            null, null, "Don't use '{0}' {here}", null, null, null, null, "duplicate");
+
+    private static final String COPYRIGHT_HOLDER = "Rob Spoor";
+    private static final List<String> LICENSE_TEXT = List.of(
+            "Licensed under the Apache License, Version 2.0 (the \"License\");",
+            "you may not use this file except in compliance with the License.",
+            "",
+            "    http://www.apache.org/licenses/LICENSE-2.0");
+
+    @Nested
+    class NoTrailingWhitespace {
+
+        @Test
+        void testWhitespace() {
+            assertSameViolations(this::newCheck, ReferenceChecks.TrailingWhitespace::new, DifferentialFuzzTest::whitespaceLines, 1);
+        }
+
+        @Test
+        void testUnicode() {
+            assertSameViolations(this::newCheck, ReferenceChecks.TrailingWhitespace::new, DifferentialFuzzTest::unicodeLines, 2);
+        }
+
+        private NoTrailingWhitespaceCheck newCheck() {
+            NoTrailingWhitespaceCheck check = new NoTrailingWhitespaceCheck();
+            disablePreChecks(check);
+            return check;
+        }
+    }
+
+    @Nested
+    class NoSubsequentBlankLines {
+
+        @Test
+        void testWhitespace() {
+            assertSameViolations(this::newCheck, ReferenceChecks.SubsequentBlankLines::new, DifferentialFuzzTest::whitespaceLines, 3);
+        }
+
+        @Test
+        void testSymbols() {
+            assertSameViolations(this::newCheck, ReferenceChecks.SubsequentBlankLines::new, DifferentialFuzzTest::symbolLines, 4);
+        }
+
+        private NoSubsequentBlankLinesCheck newCheck() {
+            NoSubsequentBlankLinesCheck check = new NoSubsequentBlankLinesCheck();
+            disablePreChecks(check);
+            return check;
+        }
+    }
+
+    @Nested
+    class NoBlankLineAfterSymbols {
+
+        @ParameterizedTest
+        @ValueSource(strings = { "({[", "{;", "<", "{ " })
+        void testSymbols(String symbols) {
+            assertSameViolations(() -> newCheck(symbols), () -> new ReferenceChecks.BlankLineAfterSymbols(symbols),
+                    DifferentialFuzzTest::symbolLines, 5);
+        }
+
+        @Test
+        void testWhitespace() {
+            assertSameViolations(() -> newCheck("({["), () -> new ReferenceChecks.BlankLineAfterSymbols("({["),
+                    DifferentialFuzzTest::whitespaceLines, 6);
+        }
+
+        private NoBlankLineAfterSymbolsCheck newCheck(String symbols) {
+            NoBlankLineAfterSymbolsCheck check = new NoBlankLineAfterSymbolsCheck();
+            check.setSymbols(symbols);
+            disablePreChecks(check);
+            return check;
+        }
+    }
+
+    @Nested
+    class NoBlankLineBeforeSymbols {
+
+        @ParameterizedTest
+        @ValueSource(strings = { ")}];", ")}]", ">", "}\t" })
+        void testSymbols(String symbols) {
+            assertSameViolations(() -> newCheck(symbols), () -> new ReferenceChecks.BlankLineBeforeSymbols(symbols),
+                    DifferentialFuzzTest::symbolLines, 7);
+        }
+
+        @Test
+        void testWhitespace() {
+            assertSameViolations(() -> newCheck(")}];"), () -> new ReferenceChecks.BlankLineBeforeSymbols(")}];"),
+                    DifferentialFuzzTest::whitespaceLines, 8);
+        }
+
+        private NoBlankLineBeforeSymbolsCheck newCheck(String symbols) {
+            NoBlankLineBeforeSymbolsCheck check = new NoBlankLineBeforeSymbolsCheck();
+            check.setSymbols(symbols);
+            disablePreChecks(check);
+            return check;
+        }
+    }
+
+    @Nested
+    class NoForbiddenTokens {
+
+        @Test
+        void testTokens() {
+            assertSameViolations(this::newCheck, () -> new ReferenceChecks.ForbiddenTokens(FORBIDDEN_TOKENS, FORBIDDEN_TOKEN_MESSAGES),
+                    DifferentialFuzzTest::forbiddenTokenLines, 9);
+        }
+
+        @Test
+        void testUnicode() {
+            assertSameViolations(this::newCheck, () -> new ReferenceChecks.ForbiddenTokens(FORBIDDEN_TOKENS, FORBIDDEN_TOKEN_MESSAGES),
+                    DifferentialFuzzTest::unicodeLines, 10);
+        }
+
+        private NoForbiddenTokensCheck newCheck() {
+            NoForbiddenTokensCheck check = new NoForbiddenTokensCheck();
+            check.setForbiddenTokens(IntStream.range(0, FORBIDDEN_TOKENS.size())
+                    .mapToObj(i -> FORBIDDEN_TOKEN_MESSAGES.get(i) == null
+                            ? FORBIDDEN_TOKENS.get(i)
+                            : FORBIDDEN_TOKENS.get(i) + " => " + FORBIDDEN_TOKEN_MESSAGES.get(i))
+                    .collect(Collectors.joining("\n")));
+            return check;
+        }
+    }
+
+    @Nested
+    class NoDisallowedCharacters {
+
+        @ParameterizedTest
+        @ValueSource(booleans = { true, false })
+        void testUnicode(boolean allowByteOrderMark) {
+            Set<Integer> disallowedCodePoints = new HashSet<>();
+            disallowedCodePoints.add(0x00A0);
+            disallowedCodePoints.add(0x00AD);
+            IntStream.rangeClosed(0x200B, 0x200F).forEach(disallowedCodePoints::add);
+            IntStream.rangeClosed(0x2028, 0x202E).forEach(disallowedCodePoints::add);
+            disallowedCodePoints.add(0xFEFF);
+            IntStream.rangeClosed(0x1F600, 0x1F64F).forEach(disallowedCodePoints::add);
+            disallowedCodePoints.add(0x10FFFF);
+
+            assertSameViolations(() -> newCheck(allowByteOrderMark), () -> new ReferenceChecks.DisallowedCharacters(disallowedCodePoints, allowByteOrderMark),
+                    DifferentialFuzzTest::unicodeLines, 11);
+        }
+
+        private NoDisallowedCharactersCheck newCheck(boolean allowByteOrderMark) {
+            NoDisallowedCharactersCheck check = new NoDisallowedCharactersCheck();
+            check.setDisallowedCharacters("U+00A0", "U+00AD", "U+200B-U+200F", "U+2028-U+202E", "U+FEFF", "U+1F600-U+1F64F", "U+10FFFF");
+            check.setAllowByteOrderMark(allowByteOrderMark);
+            return check;
+        }
+    }
+
+    @Nested
+    class LicenseComment {
+
+        @Test
+        void testHeaderMutations() {
+            assertSameViolations(this::newCheck, () -> new ReferenceChecks.LicenseComment(COPYRIGHT_HOLDER, LICENSE_TEXT),
+                    DifferentialFuzzTest::headerLines, 12);
+        }
+
+        @Test
+        void testWhitespace() {
+            assertSameViolations(this::newCheck, () -> new ReferenceChecks.LicenseComment(COPYRIGHT_HOLDER, LICENSE_TEXT),
+                    random -> withWhitespaceMutations(headerLines(random), random), 13);
+        }
+
+        private LicenseCommentCheck newCheck() {
+            LicenseCommentCheck check = new LicenseCommentCheck();
+            check.setIncludeFilename(true);
+            check.setRequiredCopyrightHolder(COPYRIGHT_HOLDER);
+            check.setIncludeEmptyLineBeforeLicenseText(true);
+            check.setCustomLicenseText(String.join("\n", LICENSE_TEXT));
+            disablePreChecks(check);
+            return check;
+        }
+    }
+
+    @Test
+    void testMinimize() {
+        List<String> lines = whitespaceLines(new Random(0));
+        lines.add(lines.size() / 2, "needle  ");
+
+        List<String> minimized = DifferentialFuzzer.minimize(lines, candidate -> candidate.stream().anyMatch(line -> line.contains("needle")));
+
+        assertEquals(List.of("needle"), minimized);
+    }
+
+    private static void disablePreChecks(AbstractTextCheck check) {
+        check.setSkipBinaryOrMinifiedFiles(false);
+        check.setSkipGeneratedFiles(false);
+    }
+
+    // generators
+
+    static List<String> whitespaceLines(Random random) {
+        int lineCount = random.nextInt(30);
+        List<String> lines = new ArrayList<>(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            StringBuilder line = new StringBuilder();
+            int fragmentCount = random.nextInt(3) == 0 ? 0 : random.nextInt(6);
+            for (int j = 0; j < fragmentCount; j++) {
+                String[] fragments = random.nextInt(3) == 0 ? WORDS : WHITESPACE;
+                line.append(pick(fragments, random));
+            }
+            lines.add(line.toString());
+        }
+        return withSuppressionMarkers(lines, random);
+    }
+
+    static List<String> unicodeLines(Random random) {
+        int lineCount = random.nextInt(20);
+        List<String> lines = new ArrayList<>(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            StringBuilder line = new StringBuilder();
+            int codePointCount = random.nextInt(12);
+            for (int j = 0; j < codePointCount; j++) {
+                line.appendCodePoint(random.nextInt(4) == 0 ? random.nextInt(Character.MAX_CODE_POINT + 1) : CODE_POINTS[random.nextInt(CODE_POINTS.length)]);
+            }
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    static List<String> symbolLines(Random random) {
+        int lineCount = random.nextInt(30);
+        List<String> lines = new ArrayList<>(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            StringBuilder line = new StringBuilder();
+            int fragmentCount = random.nextInt(4) == 0 ? 0 : random.nextInt(5);
+            for (int j = 0; j < fragmentCount; j++) {
+                int kind = random.nextInt(10);
+                if (kind < 6) {
+                    line.append(pick(SYMBOLS, random));
+                } else if (kind < 9) {
+                    line.append(pick(WHITESPACE, random));
+                } else {
+                    line.append(pick(WORDS, random));
+                }
+            }
+            lines.add(line.toString());
+        }
+        return withSuppressionMarkers(lines, random);
+    }
+
+    static List<String> forbiddenTokenLines(Random random) {
+        int lineCount = random.nextInt(10);
+        List<String> lines = new ArrayList<>(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            StringBuilder line = new StringBuilder();
+            int fragmentCount = random.nextInt(20);
+            for (int j = 0; j < fragmentCount; j++) {
+                line.append(pick(FORBIDDEN_TOKEN_ALPHABET, random));
+            }
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    static List<String> headerLines(Random random) {
+        List<String> lines = new ArrayList<>();
+        lines.add("/*");
+        lines.add(" * " + DifferentialFuzzer.file().getName());
+        lines.add(" * Copyright 2023 " + COPYRIGHT_HOLDER);
+        lines.add(" *");
+        for (String line : LICENSE_TEXT) {
+            lines.add(line.isEmpty() ? " *" : " * " + line);
+        }
+        lines.add(" */");
+        lines.add("");
+        lines.add("package com.example;");
+
+        int mutationCount = random.nextInt(4);
+        for (int i = 0; i < mutationCount; i++) {
+            mutateHeader(lines, random);
+        }
+        return lines;
+    }
+
+    private static void mutateHeader(List<String> lines, Random random) {
+        if (lines.isEmpty()) {
+            lines.add("/*");
+            return;
+        }
+        int index = random.nextInt(lines.size());
+        String line = lines.get(index);
+        switch (random.nextInt(12)) {
+            case 0:
+                lines.remove(index);
+                break;
+            case 1:
+                lines.add(index, line);
+                break;
+            case 2:
+                if (index + 1 < lines.size()) {
+                    lines.set(index, lines.get(index + 1));
+                    lines.set(index + 1, line);
+                }
+                break;
+            case 3:
+                lines.add(index, " *");
+                break;
+            case 4:
+                lines.set(index, line.replace("2023", pick(new String[] { "2023-2024", "2024-2023", "2023-2023", "20x3", "202" }, random)));
+                break;
+            case 5:
+                lines.set(index, line.replace(COPYRIGHT_HOLDER, pick(new String[] { "", "Someone Else", COPYRIGHT_HOLDER + " ", " " + COPYRIGHT_HOLDER }, random)));
+                break;
+            case 6:
+                lines.set(index, line.replace(" * ", pick(new String[] { "*", "  * ", "*\t", " ** ", "   " }, random)));
+                break;
+            case 7:
+                lines.set(index, line.replace("/*", pick(new String[] { "/**", "/* ", " /*", "//" }, random)));
+                break;
+            case 8:
+                lines.set(index, line.replace("*/", ""));
+                break;
+            case 9:
+                lines.set(index, line + pick(WHITESPACE, random));
+                break;
+            case 10:
+                lines.set(index, line.replace("Copyright", pick(new String[] { "copyright", "(C)", "Copyright  " }, random)));
+                break;
+            default:
+                if (!line.isEmpty()) {
+                    int position = random.nextInt(line.length());
+                    lines.set(index, line.substring(0, position) + line.substring(position + 1));
+                }
+                break;
+        }
+    }
+
+    private static List<String> withWhitespaceMutations(List<String> lines, Random random) {
+        for (int i = 0; i < lines.size(); i++) {
+            if (random.nextInt(4) == 0) {
+                String line = lines.get(i);
+                int position = random.nextInt(line.length() + 1);
+                lines.set(i, line.substring(0, position) + pick(WHITESPACE, random) + line.substring(position));
+            }
+        }
+        return lines;
+    }
+
+    private static List<String> withSuppressionMarkers(List<String> lines, Random random) {
+        if (!lines.isEmpty() && random.nextInt(5) == 0) {
+            lines.add(random.nextInt(lines.size()), pick(SUPPRESSION_MARKERS, random));
+        }
+        return lines;
+    }
+
+    private static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+}
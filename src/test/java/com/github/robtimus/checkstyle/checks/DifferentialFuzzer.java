@@ -0,0 +1,158 @@
+/*
+ * DifferentialFuzzer.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static org.junit.jupiter.api.Assertions.fail;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+/**
+ * Runs a check and its reference implementation against randomly generated inputs, and fails if their violations differ.
+ * <p>
+ * All inputs are derived from a single seed, which can be overridden using system property {@code fuzz.seed}; the number of inputs can be
+ * overridden using system property {@code fuzz.iterations}. When the violations differ, the input is first minimized by removing lines and characters
+ * for as long as the violations keep differing. The failure message contains the seed of the failing input and the minimized input.
+ */
+@SuppressWarnings("nls")
+final class DifferentialFuzzer {
+
+    private static final int DEFAULT_ITERATIONS = 500;
+
+    private static final File FILE = new File("Fuzz.java");
+
+    private DifferentialFuzzer() {
+    }
+
+    static File file() {
+        return FILE;
+    }
+
+    static void assertSameViolations(Supplier<? extends AbstractFileSetCheck> check, Supplier<? extends AbstractFileSetCheck> reference,
+            Function<Random, List<String>> generator, long defaultSeed) {
+
+        long seed = Long.getLong("fuzz.seed", defaultSeed);
+        int iterations = Integer.getInteger("fuzz.iterations", DEFAULT_ITERATIONS);
+
+        Random seeds = new Random(seed);
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            long inputSeed = seeds.nextLong();
+            List<String> lines = generator.apply(new Random(inputSeed));
+
+            Predicate<List<String>> differs = candidate -> !process(check.get(), candidate).equals(process(reference.get(), candidate));
+            if (differs.test(lines)) {
+                List<String> minimized = minimize(lines, differs);
+                fail(String.format("Violations differ for input %d of seed %d (input seed %d)%nMinimized input:%n%s%nCheck:     %s%nReference: %s",
+                        iteration, seed, inputSeed, describe(minimized),
+                        process(check.get(), minimized), process(reference.get(), minimized)));
+            }
+        }
+    }
+
+    static List<String> process(AbstractFileSetCheck check, List<String> lines) {
+        try {
+            return check.process(FILE, new FileText(FILE, lines)).stream()
+                    .map(violation -> violation.getLineNo() + ":" + violation.getColumnNo() + " " + violation.getKey() + " " + violation.getViolation())
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (CheckstyleException | RuntimeException e) {
+            return List.of(e.getClass().getName());
+        }
+    }
+
+    /**
+     * Minimizes an input for which a predicate holds. First chunks of lines are removed, then chunks of characters from each remaining line, until no
+     * more lines or characters can be removed without the predicate failing.
+     *
+     * @param lines The input to minimize.
+     * @param predicate The predicate that must keep holding.
+     * @return The minimized input.
+     */
+    static List<String> minimize(List<String> lines, Predicate<List<String>> predicate) {
+        List<String> current = lines;
+        boolean changed = true;
+        while (changed) {
+            List<String> reduced = removeLines(current, predicate);
+            reduced = removeCharacters(reduced, predicate);
+            changed = !reduced.equals(current);
+            current = reduced;
+        }
+        return current;
+    }
+
+    private static List<String> removeLines(List<String> lines, Predicate<List<String>> predicate) {
+        List<String> current = lines;
+        for (int chunkSize = Math.max(current.size() / 2, 1); chunkSize >= 1; chunkSize /= 2) {
+            int start = 0;
+            while (start < current.size()) {
+                List<String> candidate = new ArrayList<>(current.subList(0, start));
+                candidate.addAll(current.subList(Math.min(start + chunkSize, current.size()), current.size()));
+                if (predicate.test(candidate)) {
+                    current = candidate;
+                } else {
+                    start += chunkSize;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static List<String> removeCharacters(List<String> lines, Predicate<List<String>> predicate) {
+        List<String> current = new ArrayList<>(lines);
+        for (int i = 0; i < current.size(); i++) {
+            for (int chunkSize = Math.max(current.get(i).length() / 2, 1); chunkSize >= 1; chunkSize /= 2) {
+                int start = 0;
+                while (start < current.get(i).length()) {
+                    String line = current.get(i);
+                    List<String> candidate = new ArrayList<>(current);
+                    candidate.set(i, line.substring(0, start) + line.substring(Math.min(start + chunkSize, line.length())));
+                    if (predicate.test(candidate)) {
+                        current = candidate;
+                    } else {
+                        start += chunkSize;
+                    }
+                }
+            }
+        }
+        return current;
+    }
+
+    static String describe(List<String> lines) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < lines.size(); i++) {
+            sb.append(String.format("%4d: ", i + 1));
+            for (char c : lines.get(i).toCharArray()) {
+                if (c >= ' ' && c <= '~') {
+                    sb.append(c);
+                } else {
+                    sb.append(String.format("\\u%04X", (int) c));
+                }
+            }
+            sb.append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+}
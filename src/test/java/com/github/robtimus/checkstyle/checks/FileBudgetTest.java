@@ -0,0 +1,281 @@
+/*
+ * FileBudgetTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static com.github.robtimus.checkstyle.checks.CheckUtils.violation;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+@SuppressWarnings("nls")
+class FileBudgetTest {
+
+    private static final File FILE = new File("Budget.java");
+
+    private static final int LINE_COUNT = 1000;
+    private static final int MAX_LINES = 10;
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("checks")
+    void testMaxLinesPerFile(String checkName, Supplier<AbstractTextCheck> checkFactory, List<String> lines) {
+        AbstractTextCheck check = checkFactory.get();
+        check.setMaxLinesPerFile(MAX_LINES);
+
+        FileText fileText = new FileText(FILE, lines);
+
+        Set<Violation> violations = assertDoesNotThrow(() -> check.process(FILE, fileText));
+
+        List<Violation> budgetViolations = violations.stream()
+                .filter(violation -> FileBudget.MESSAGE_KEY.equals(violation.getKey()))
+                .collect(Collectors.toList());
+        assertThat(budgetViolations, contains(
+                violation(MAX_LINES + 1, 0, FileBudget.MESSAGE_KEY, TestMessages.budgetExceeded(checkName, MAX_LINES + " lines"))
+        ));
+
+        // no other violations after the budget has been exceeded
+        assertTrue(violations.stream().allMatch(violation -> violation.getLineNo() <= MAX_LINES + 1), violations::toString);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("checks")
+    void testNoBudget(String checkName, Supplier<AbstractTextCheck> checkFactory, List<String> lines) {
+        AbstractTextCheck check = checkFactory.get();
+
+        FileText fileText = new FileText(FILE, lines);
+
+        Set<Violation> violations = assertDoesNotThrow(() -> check.process(FILE, fileText));
+
+        assertFalse(violations.stream().anyMatch(violation -> FileBudget.MESSAGE_KEY.equals(violation.getKey())), violations::toString);
+    }
+
+    @Test
+    void testMaxLinesPerFileNotExceeded() {
+        NoTrailingWhitespaceCheck check = new NoTrailingWhitespaceCheck();
+        check.setMaxLinesPerFile(LINE_COUNT);
+
+        FileText fileText = new FileText(FILE, Collections.nCopies(LINE_COUNT, "x = 1;"));
+
+        Set<Violation> violations = assertDoesNotThrow(() -> check.process(FILE, fileText));
+
+        assertThat(violations, empty());
+    }
+
+    @Test
+    void testMaxMillisPerFile() throws InterruptedException {
+        NoTrailingWhitespaceCheck check = new NoTrailingWhitespaceCheck();
+
+        FileBudget budget = new FileBudget();
+        budget.setMaxMillis(1);
+        budget.start();
+
+        Thread.sleep(10);
+
+        // the time is only checked every TIME_CHECK_INTERVAL characters; each line also counts its line terminator
+        for (int i = 0; i < FileBudget.TIME_CHECK_INTERVAL - 1; i++) {
+            assertFalse(budget.isExceeded(check, i, 0));
+        }
+        assertTrue(budget.isExceeded(check, FileBudget.TIME_CHECK_INTERVAL - 1, 0));
+
+        // a new file gets a new budget
+        budget.start();
+        for (int i = 0; i < FileBudget.TIME_CHECK_INTERVAL - 1; i++) {
+            assertFalse(budget.isExceeded(check, i, 0));
+        }
+
+        // a single long line is enough to check the time
+        budget.start();
+        Thread.sleep(10);
+        assertTrue(budget.isExceeded(check, 0, FileBudget.TIME_CHECK_INTERVAL));
+    }
+
+    @Test
+    void testMaxMillisPerFileSkippedLines() throws InterruptedException {
+        NoTrailingWhitespaceCheck check = new NoTrailingWhitespaceCheck();
+
+        FileBudget budget = new FileBudget();
+        budget.setMaxLines(MAX_LINES);
+        budget.setMaxMillis(1);
+        budget.start();
+
+        Thread.sleep(10);
+
+        // skipped lines only count towards the time budget
+        assertFalse(budget.isTimeExceeded(check, MAX_LINES, 0));
+        assertTrue(budget.isTimeExceeded(check, MAX_LINES + 1, FileBudget.TIME_CHECK_INTERVAL));
+    }
+
+    @Test
+    void testMaxMillisPerFileExceeded() {
+        NoTrailingWhitespaceCheck check = new NoTrailingWhitespaceCheck();
+        check.setMaxMillisPerFile(1);
+
+        // a line that takes a while to check, repeated often enough to take a lot longer than the budget
+        String line = "x" + " ".repeat(10_000) + "x";
+        FileText fileText = new FileText(FILE, Collections.nCopies(25_600, line));
+
+        Set<Violation> violations = assertDoesNotThrow(() -> check.process(FILE, fileText));
+
+        assertEquals(1, violations.size(), violations::toString);
+        Violation violation = violations.iterator().next();
+        assertEquals(FileBudget.MESSAGE_KEY, violation.getKey());
+        assertEquals(TestMessages.budgetExceeded("NoTrailingWhitespaceCheck", "1 ms"), violation.getViolation());
+    }
+
+    @Test
+    void testMaxLinesPerFileExceededInTrailingBlankLines() {
+        NoLeadingOrTrailingBlankLinesCheck check = new NoLeadingOrTrailingBlankLinesCheck();
+        check.setMaxLinesPerFile(MAX_LINES);
+
+        List<String> lines = new ArrayList<>(Collections.nCopies(LINE_COUNT, ""));
+        lines.set(0, "x = 1;");
+        FileText fileText = new FileText(FILE, lines);
+
+        Set<Violation> violations = assertDoesNotThrow(() -> check.process(FILE, fileText));
+
+        // the trailing blank lines are searched from the end of the file, which is beyond the maximum number of lines
+        String message = TestMessages.budgetExceeded("NoLeadingOrTrailingBlankLinesCheck", MAX_LINES + " lines");
+        assertThat(violations, contains(violation(LINE_COUNT, 0, FileBudget.MESSAGE_KEY, message)));
+    }
+
+    @Test
+    void testMaxMillisPerFileExceededInTrailingBlankLines() {
+        NoLeadingOrTrailingBlankLinesCheck check = new NoLeadingOrTrailingBlankLinesCheck();
+        check.setMaxMillisPerFile(1);
+
+        // blank lines that take a while to check, repeated often enough to take a lot longer than the budget
+        List<String> lines = new ArrayList<>(Collections.nCopies(25_600, " ".repeat(10_000)));
+        lines.set(0, "x = 1;");
+        FileText fileText = new FileText(FILE, lines);
+
+        Set<Violation> violations = assertDoesNotThrow(() -> check.process(FILE, fileText));
+
+        assertEquals(1, violations.size(), violations::toString);
+        Violation violation = violations.iterator().next();
+        assertEquals(FileBudget.MESSAGE_KEY, violation.getKey());
+        assertEquals(TestMessages.budgetExceeded("NoLeadingOrTrailingBlankLinesCheck", "1 ms"), violation.getViolation());
+        assertThat(violation.getLineNo(), greaterThan(1));
+    }
+
+    @Test
+    void testMaxMillisPerFileExceededInLongLine() {
+        NoForbiddenTokensCheck check = new NoForbiddenTokensCheck();
+        check.setForbiddenTokens("x");
+        check.setMaxMillisPerFile(1);
+
+        // a single line with so many forbidden tokens that it takes a lot longer than the budget
+        int length = 100 * FileBudget.TIME_CHECK_INTERVAL;
+        FileText fileText = new FileText(FILE, Collections.singletonList("x".repeat(length)));
+
+        Set<Violation> violations = assertDoesNotThrow(() -> check.process(FILE, fileText));
+
+        List<Violation> budgetViolations = violations.stream()
+                .filter(violation -> FileBudget.MESSAGE_KEY.equals(violation.getKey()))
+                .collect(Collectors.toList());
+        assertThat(budgetViolations, contains(
+                violation(1, 0, FileBudget.MESSAGE_KEY, TestMessages.budgetExceeded("NoForbiddenTokensCheck", "1 ms"))
+        ));
+        // the line was not checked completely
+        assertThat(violations.size(), lessThan(length));
+    }
+
+    @Test
+    void testMaxMillisPerFileExceededInSuppressedLines() {
+        NoTrailingWhitespaceCheck check = new NoTrailingWhitespaceCheck();
+        check.setMaxMillisPerFile(1);
+
+        // lines that are all suppressed, enough to take a lot longer than the budget to skip
+        List<String> lines = new ArrayList<>(Collections.nCopies(2_000, "checkstyle-ext:of ".repeat(500)));
+        lines.set(0, "// checkstyle-ext:off");
+        lines.add("x ");
+        FileText fileText = new FileText(FILE, lines);
+
+        Set<Violation> violations = assertDoesNotThrow(() -> check.process(FILE, fileText));
+
+        assertEquals(1, violations.size(), violations::toString);
+        Violation violation = violations.iterator().next();
+        assertEquals(FileBudget.MESSAGE_KEY, violation.getKey());
+        assertThat(violation.getLineNo(), lessThan(lines.size()));
+    }
+
+    @Nested
+    class SetMaxLines {
+
+        @Test
+        void testNegative() {
+            FileBudget budget = new FileBudget();
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> budget.setMaxLines(-1));
+            assertEquals("Negative maximum number of lines per file: -1", exception.getMessage());
+        }
+    }
+
+    @Nested
+    class SetMaxMillis {
+
+        @Test
+        void testNegative() {
+            FileBudget budget = new FileBudget();
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> budget.setMaxMillis(-1));
+            assertEquals("Negative maximum number of milliseconds per file: -1", exception.getMessage());
+        }
+    }
+
+    static Stream<Arguments> checks() {
+        // each line has trailing whitespace, a disallowed character, a forbidden token and mixed indentation
+        List<String> lines = Collections.nCopies(LINE_COUNT, " \tSystem.out.println();\u00A0 ");
+        List<String> blankLines = Collections.nCopies(LINE_COUNT, "");
+        List<String> unterminatedComment = new ArrayList<>(Collections.nCopies(LINE_COUNT, " * "));
+        unterminatedComment.set(0, "/*");
+
+        return TestChecks.arguments()
+                .map(arguments -> {
+                    Object checkName = arguments.get()[0];
+                    Object checkFactory = arguments.get()[1];
+                    if (LicenseCommentCheck.class.getSimpleName().equals(checkName)) {
+                        return Arguments.of(checkName, checkFactory, unterminatedComment);
+                    }
+                    if (NoLeadingOrTrailingBlankLinesCheck.class.getSimpleName().equals(checkName)) {
+                        return Arguments.of(checkName, checkFactory, blankLines);
+                    }
+                    return Arguments.of(checkName, checkFactory, lines);
+                });
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * FileTextPrefetcherTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+@SuppressWarnings("nls")
+class FileTextPrefetcherTest {
+
+    private static final String UTF_8 = StandardCharsets.UTF_8.name();
+
+    @Test
+    void testFilesInOrder(@TempDir Path tempDir) throws IOException {
+        List<File> files = createFiles(tempDir, 50, 100);
+
+        try (FileTextPrefetcher prefetcher = new FileTextPrefetcher(files, UTF_8, 4, Long.MAX_VALUE)) {
+            for (int i = 0; i < files.size(); i++) {
+                assertTrue(prefetcher.bufferedFileCount() <= 4);
+                assertTrue(prefetcher.hasNext());
+
+                FileText fileText = prefetcher.next();
+
+                assertEquals(files.get(i).getAbsoluteFile(), fileText.getFile());
+                assertEquals("file " + i, fileText.get(0));
+            }
+            assertFalse(prefetcher.hasNext());
+            assertEquals(0, prefetcher.bufferedFileCount());
+            assertEquals(0, prefetcher.bufferedBytes());
+            assertThrows(NoSuchElementException.class, prefetcher::next);
+        }
+    }
+
+    @Test
+    void testMaxFilesAhead(@TempDir Path tempDir) throws IOException {
+        List<File> files = createFiles(tempDir, 10, 100);
+
+        try (FileTextPrefetcher prefetcher = new FileTextPrefetcher(files, UTF_8, 3, Long.MAX_VALUE)) {
+            assertEquals(3, prefetcher.bufferedFileCount());
+
+            prefetcher.next();
+
+            assertEquals(3, prefetcher.bufferedFileCount());
+        }
+    }
+
+    @Test
+    void testMaxBufferedBytes(@TempDir Path tempDir) throws IOException {
+        List<File> files = createFiles(tempDir, 10, 1000);
+        long fileSize = files.get(0).length();
+
+        try (FileTextPrefetcher prefetcher = new FileTextPrefetcher(files, UTF_8, 8, fileSize * 5 / 2)) {
+            while (prefetcher.hasNext()) {
+                assertTrue(prefetcher.bufferedFileCount() <= 2);
+                assertTrue(prefetcher.bufferedBytes() <= fileSize * 5 / 2);
+
+                prefetcher.next();
+            }
+        }
+    }
+
+    @Test
+    void testFileLargerThanMaxBufferedBytes(@TempDir Path tempDir) throws IOException {
+        List<File> files = createFiles(tempDir, 5, 1000);
+
+        try (FileTextPrefetcher prefetcher = new FileTextPrefetcher(files, UTF_8, 8, 10)) {
+            for (int i = 0; i < files.size(); i++) {
+                // only the next file is read
+                assertEquals(1, prefetcher.bufferedFileCount());
+
+                assertEquals("file " + i, prefetcher.next().get(0));
+            }
+            assertFalse(prefetcher.hasNext());
+        }
+    }
+
+    @Test
+    void testClaimAndRelease(@TempDir Path tempDir) throws IOException {
+        List<File> files = createFiles(tempDir, 10, 100);
+
+        try (FileTextPrefetcher prefetcher = new FileTextPrefetcher(files, UTF_8, 3, Long.MAX_VALUE)) {
+            FileTextPrefetcher.PendingFile first = prefetcher.claim();
+            FileTextPrefetcher.PendingFile second = prefetcher.claim();
+            FileTextPrefetcher.PendingFile third = prefetcher.claim();
+
+            // claimed files count towards the limits until they are released
+            assertEquals(3, prefetcher.bufferedFileCount());
+
+            // the next file is read even if the claimed files fill up the limits
+            FileTextPrefetcher.PendingFile fourth = prefetcher.claim();
+            assertEquals(4, prefetcher.bufferedFileCount());
+
+            // claimed files can be awaited in any order
+            assertEquals("file 3", fourth.await().get(0));
+            assertEquals("file 1", second.await().get(0));
+            assertEquals("file 0", first.await().get(0));
+            assertEquals("file 2", third.await().get(0));
+
+            prefetcher.release(first);
+            prefetcher.release(second);
+            assertEquals(3, prefetcher.bufferedFileCount());
+
+            prefetcher.release(third);
+            prefetcher.release(fourth);
+            assertEquals(3, prefetcher.bufferedFileCount());
+
+            assertEquals("file 4", prefetcher.next().get(0));
+        }
+    }
+
+    @Test
+    void testFileCannotBeRead(@TempDir Path tempDir) throws IOException {
+        List<File> files = new ArrayList<>(createFiles(tempDir, 5, 100));
+        files.add(2, tempDir.resolve("missing.java").toFile());
+
+        try (FileTextPrefetcher prefetcher = new FileTextPrefetcher(files, UTF_8)) {
+            assertEquals("file 0", prefetcher.next().get(0));
+            assertEquals("file 1", prefetcher.next().get(0));
+            assertThrows(NoSuchFileException.class, prefetcher::next);
+            // files after the failing file are still returned
+            assertEquals("file 2", prefetcher.next().get(0));
+            assertEquals("file 3", prefetcher.next().get(0));
+            assertEquals("file 4", prefetcher.next().get(0));
+            assertFalse(prefetcher.hasNext());
+        }
+    }
+
+    @Test
+    void testClose(@TempDir Path tempDir) throws IOException {
+        List<File> files = createFiles(tempDir, 10, 100);
+
+        FileTextPrefetcher prefetcher = new FileTextPrefetcher(files, UTF_8);
+        prefetcher.next();
+        prefetcher.close();
+
+        assertFalse(prefetcher.hasNext());
+        assertEquals(0, prefetcher.bufferedFileCount());
+        assertThrows(IllegalStateException.class, prefetcher::next);
+
+        // closing again has no effect
+        prefetcher.close();
+    }
+
+    @Test
+    void testNoFiles() {
+        try (FileTextPrefetcher prefetcher = new FileTextPrefetcher(List.of(), UTF_8)) {
+            assertFalse(prefetcher.hasNext());
+            assertThrows(NoSuchElementException.class, prefetcher::next);
+        }
+    }
+
+    @Nested
+    class Constructor {
+
+        @Test
+        void testUnsupportedCharset() {
+            List<File> files = List.of();
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> new FileTextPrefetcher(files, "unsupported"));
+            assertEquals("Unsupported charset: unsupported", exception.getMessage());
+        }
+
+        @ParameterizedTest(name = "{0}")
+        @ValueSource(ints = { 0, -1 })
+        void testInvalidMaxFilesAhead(int maxFilesAhead) {
+            List<File> files = List.of();
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> new FileTextPrefetcher(files, UTF_8, maxFilesAhead, 1));
+            assertEquals("Non-positive maximum number of files ahead: " + maxFilesAhead, exception.getMessage());
+        }
+
+        @ParameterizedTest(name = "{0}")
+        @ValueSource(longs = { 0, -1 })
+        void testInvalidMaxBufferedBytes(long maxBufferedBytes) {
+            List<File> files = List.of();
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> new FileTextPrefetcher(files, UTF_8, 1, maxBufferedBytes));
+            assertEquals("Non-positive maximum number of buffered bytes: " + maxBufferedBytes, exception.getMessage());
+        }
+    }
+
+    private static List<File> createFiles(Path dir, int count, int lineCount) throws IOException {
+        List<File> files = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<String> lines = new ArrayList<>(lineCount);
+            lines.add("file " + i);
+            for (int j = 1; j < lineCount; j++) {
+                lines.add("line " + j);
+            }
+            Path file = dir.resolve(String.format("Example%03d.java", i));
+            Files.write(file, lines);
+            files.add(file.toFile());
+        }
+        return files;
+    }
+}
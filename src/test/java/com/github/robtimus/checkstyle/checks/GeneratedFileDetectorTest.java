@@ -0,0 +1,102 @@
+/*
+ * GeneratedFileDetectorTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+@SuppressWarnings("nls")
+class GeneratedFileDetectorTest {
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {
+            "@Generated(\"com.example.Generator\")",
+            "// Code generated by a tool. DO NOT EDIT.",
+            "// Generated by the protocol buffer compiler.  DO NOT EDIT!",
+            "// Generated from Java.g4 by ANTLR 4.13.1",
+    })
+    void testDefaultMarkers(String line) {
+        GeneratedFileDetector detector = GeneratedFileDetector.getInstance(GeneratedFileDetector.DEFAULT_MARKERS, 5);
+
+        assertTrue(detector.isGenerated(fileText("package com.example;", "", line, "public class Test {", "}")));
+    }
+
+    @Test
+    void testNoMarkers() {
+        GeneratedFileDetector detector = GeneratedFileDetector.getInstance(GeneratedFileDetector.DEFAULT_MARKERS, 5);
+
+        assertFalse(detector.isGenerated(fileText("package com.example;", "", "public class Test {", "    // do not edit", "}")));
+    }
+
+    @Test
+    void testMarkerAfterHeaderLines() {
+        GeneratedFileDetector detector = GeneratedFileDetector.getInstance(GeneratedFileDetector.DEFAULT_MARKERS, 2);
+
+        assertFalse(detector.isGenerated(fileText("package com.example;", "", "// DO NOT EDIT")));
+    }
+
+    @Test
+    void testCustomMarkers() {
+        GeneratedFileDetector detector = GeneratedFileDetector.getInstance(List.of("<auto-generated>"), 5);
+
+        assertTrue(detector.isGenerated(fileText("// <auto-generated>", "class Test {", "}")));
+        assertFalse(detector.isGenerated(fileText("// DO NOT EDIT", "class Test {", "}")));
+    }
+
+    @Test
+    void testEmptyMarkers() {
+        GeneratedFileDetector detector = GeneratedFileDetector.getInstance(List.of(), 5);
+
+        assertFalse(detector.isGenerated(fileText("// DO NOT EDIT", "class Test {", "}")));
+    }
+
+    @Test
+    void testVerdictPerFileText() {
+        GeneratedFileDetector detector = GeneratedFileDetector.getInstance(GeneratedFileDetector.DEFAULT_MARKERS, 5);
+
+        FileText generated = fileText("// DO NOT EDIT", "class Test {", "}");
+        FileText notGenerated = fileText("class Test {", "}");
+
+        assertTrue(detector.isGenerated(generated));
+        assertTrue(detector.isGenerated(generated));
+        assertFalse(detector.isGenerated(notGenerated));
+        assertTrue(detector.isGenerated(generated));
+    }
+
+    @Test
+    void testSharedInstances() {
+        GeneratedFileDetector detector = GeneratedFileDetector.getInstance(List.of("a", "b"), 5);
+
+        assertSame(detector, GeneratedFileDetector.getInstance(Arrays.asList("a", "b"), 5));
+        assertNotSame(detector, GeneratedFileDetector.getInstance(List.of("a", "b"), 6));
+        assertNotSame(detector, GeneratedFileDetector.getInstance(List.of("b", "a"), 5));
+    }
+
+    private static FileText fileText(String... lines) {
+        return new FileText(new File("Test.java"), Arrays.asList(lines));
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * IncrementalCheckerTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+@SuppressWarnings("nls")
+class IncrementalCheckerTest {
+
+    private static final File FILE = new File("Example.java");
+
+    private static final List<String> LINE_VARIANTS = List.of(
+            "",
+            "   ",
+            "class Example {",
+            "}",
+            "    int x = 1;",
+            "    int y = 2;  ",
+            "\tint z = 3;",
+            "    foo(",
+            "    );",
+            "    {",
+            "    };",
+            "/*",
+            " * Example.java",
+            " * Copyright 2023 Rob Spoor",
+            " */",
+            "// @Generated",
+            "// checkstyle-ext:off",
+            "// checkstyle-ext:on",
+            "a\u0000b");
+
+    @ParameterizedTest(name = "seed {0}")
+    @ValueSource(longs = { 1, 2, 3, 4, 5, 6, 7, 8 })
+    void testSameViolationsAsFullCheck(long seed) throws CheckstyleException {
+        Random random = new Random(seed);
+        IncrementalChecker checker = new IncrementalChecker(checks());
+
+        List<String> lines = randomLines(random, 30);
+        IncrementalChecker.State state = checker.check(FILE, lines);
+
+        for (int i = 0; i < 200; i++) {
+            int startLine = random.nextInt(lines.size() + 1);
+            int endLine = startLine + random.nextInt(Math.min(lines.size() - startLine, 3) + 1);
+            List<String> newLines = randomLines(random, random.nextInt(4));
+
+            state = checker.edit(state, startLine, endLine, newLines);
+
+            List<String> expectedLines = new ArrayList<>(lines.subList(0, startLine));
+            expectedLines.addAll(newLines);
+            expectedLines.addAll(lines.subList(endLine, lines.size()));
+            lines = expectedLines;
+
+            int edit = i;
+            List<String> fileLines = lines;
+            assertEquals(lines, state.getLines());
+            assertEquals(format(checkFully(fileLines)), format(state.getViolations()), () -> "edit " + edit + ", lines " + fileLines);
+        }
+    }
+
+    @Test
+    void testOnlyAffectedLinesAreProcessed() throws CheckstyleException {
+        CountingNoTrailingWhitespaceCheck trailingWhitespaceCheck = new CountingNoTrailingWhitespaceCheck();
+        CountingNoBlankLineAfterSymbolsCheck blankLineAfterSymbolsCheck = new CountingNoBlankLineAfterSymbolsCheck();
+        CountingNoSubsequentBlankLinesCheck subsequentBlankLinesCheck = new CountingNoSubsequentBlankLinesCheck();
+        IncrementalChecker checker = new IncrementalChecker(List.of(trailingWhitespaceCheck, blankLineAfterSymbolsCheck, subsequentBlankLinesCheck));
+
+        List<String> lines = IntStream.range(0, 1000)
+                .mapToObj(i -> i % 10 == 0 ? "" : "    int x" + i + " = " + i + ";")
+                .collect(Collectors.toList());
+        IncrementalChecker.State state = checker.check(FILE, lines);
+
+        assertEquals(List.of(1000), trailingWhitespaceCheck.processedLineCounts);
+        assertEquals(List.of(1000), blankLineAfterSymbolsCheck.processedLineCounts);
+        assertEquals(List.of(1000), subsequentBlankLinesCheck.processedLineCounts);
+
+        // line 500 is blank
+        state = checker.edit(state, 501, 502, List.of("  "));
+
+        // only the edited line
+        assertEquals(List.of(1000, 1), trailingWhitespaceCheck.processedLineCounts);
+        // the edited line, the lines before and after it, and one more line of context before and after those
+        assertEquals(List.of(1000, 5), blankLineAfterSymbolsCheck.processedLineCounts);
+        // the edited line and the blank line before it
+        assertEquals(List.of(1000, 2), subsequentBlankLinesCheck.processedLineCounts);
+
+        assertEquals(List.of(
+                "501:0 null NoSubsequentBlankLinesCheck " + TestMessages.whitespace.multipleBlankLinesInARow(),
+                "502:1 null NoTrailingWhitespaceCheck " + TestMessages.whitespace.trailing()), format(state.getViolations()));
+    }
+
+    @Test
+    void testLicenseCommentOnlyRecheckedIfTouched() throws CheckstyleException {
+        CountingLicenseCommentCheck licenseCommentCheck = new CountingLicenseCommentCheck();
+        licenseCommentCheck.setCustomLicenseText("Some license");
+        IncrementalChecker checker = new IncrementalChecker(List.of(licenseCommentCheck));
+
+        LicenseCommentCheck fullCheck = new LicenseCommentCheck();
+        fullCheck.setCustomLicenseText("Some license");
+
+        IncrementalChecker.State state = checker.check(FILE, List.of("/*", " * Some license", " */", "", "class Example {", "}"));
+
+        assertEquals(1, licenseCommentCheck.processCount);
+        assertEquals(List.of(), format(state.getViolations()));
+
+        state = checker.edit(state, 4, 5, List.of("class Example2 {"));
+
+        assertEquals(1, licenseCommentCheck.processCount);
+
+        state = checker.edit(state, 1, 2, List.of(" * Other license"));
+
+        assertEquals(2, licenseCommentCheck.processCount);
+        assertEquals(format(checkFully(List.of(fullCheck), state.getLines())), format(state.getViolations()));
+        assertFalse(state.getViolations().isEmpty());
+
+        state = checker.edit(state, 5, 5, List.of("    int x = 1;"));
+
+        assertEquals(2, licenseCommentCheck.processCount);
+        assertEquals(format(checkFully(List.of(fullCheck), state.getLines())), format(state.getViolations()));
+    }
+
+    @Test
+    void testMovedViolationsKeepTheirMessage() throws CheckstyleException {
+        NoBlankLineAfterSymbolsCheck check = new NoBlankLineAfterSymbolsCheck();
+        IncrementalChecker checker = new IncrementalChecker(List.of(check));
+
+        IncrementalChecker.State state = checker.check(FILE, List.of("class Example {", "    {", "", "    }", "}"));
+        Violation violation = state.getViolations().first();
+
+        state = checker.edit(state, 0, 0, List.of("// comment", "// comment"));
+
+        Violation movedViolation = state.getViolations().first();
+        assertEquals(violation.getLineNo() + 2, movedViolation.getLineNo());
+        assertEquals(violation.getColumnNo(), movedViolation.getColumnNo());
+        assertEquals(violation.getKey(), movedViolation.getKey());
+        assertEquals(violation.getViolation(), movedViolation.getViolation());
+        assertEquals(violation.getSourceName(), movedViolation.getSourceName());
+        assertEquals(violation.getSeverityLevel(), movedViolation.getSeverityLevel());
+    }
+
+    @Test
+    void testEditInSuppressedRegion() throws CheckstyleException {
+        IncrementalChecker checker = new IncrementalChecker(List.of(new NoTrailingWhitespaceCheck()));
+
+        IncrementalChecker.State state = checker.check(FILE, List.of("class Example {", "// checkstyle-ext:off", "", "// checkstyle-ext:on", "}"));
+
+        state = checker.edit(state, 2, 3, List.of("    int x = 1;  "));
+
+        assertEquals(List.of(), format(state.getViolations()));
+
+        state = checker.edit(state, 4, 4, List.of("    int y = 2;  "));
+
+        assertEquals(List.of("5:15 null NoTrailingWhitespaceCheck " + TestMessages.whitespace.trailing()), format(state.getViolations()));
+    }
+
+    @Test
+    void testInvalidLineRange() throws CheckstyleException {
+        IncrementalChecker checker = new IncrementalChecker(List.of(new NoTrailingWhitespaceCheck()));
+        IncrementalChecker.State state = checker.check(FILE, List.of("class Example {", "}"));
+        List<String> newLines = List.of();
+
+        assertThrows(IndexOutOfBoundsException.class, () -> checker.edit(state, -1, 1, newLines));
+        assertThrows(IndexOutOfBoundsException.class, () -> checker.edit(state, 1, 0, newLines));
+        assertThrows(IndexOutOfBoundsException.class, () -> checker.edit(state, 1, 3, newLines));
+    }
+
+    private static List<AbstractFileSetCheck> checks() {
+        IndentationWhitespaceCheck spacesCheck = new IndentationWhitespaceCheck();
+        spacesCheck.setId("spaces");
+        spacesCheck.setSkipGeneratedFiles(true);
+        spacesCheck.setGeneratedFileHeaderLines(5);
+
+        IndentationWhitespaceCheck consistentCheck = new IndentationWhitespaceCheck();
+        consistentCheck.setId("consistent");
+        consistentCheck.setIndentWith("consistent");
+
+        LicenseCommentCheck licenseCommentCheck = new LicenseCommentCheck();
+        licenseCommentCheck.setCustomLicenseText("Some license");
+        licenseCommentCheck.setIncludeFilename(true);
+        licenseCommentCheck.setIncludeCopyright(true);
+
+        NoSubsequentBlankLinesCheck noSubsequentBlankLinesCheck = new NoSubsequentBlankLinesCheck();
+        noSubsequentBlankLinesCheck.setSkipGeneratedFiles(true);
+        noSubsequentBlankLinesCheck.setGeneratedFileHeaderLines(5);
+
+        NoTrailingWhitespaceCheck noTrailingWhitespaceCheck = new NoTrailingWhitespaceCheck();
+        noTrailingWhitespaceCheck.setSkipBinaryOrMinifiedFiles(true);
+
+        return List.of(
+                spacesCheck,
+                consistentCheck,
+                licenseCommentCheck,
+                new NoBlankLineAfterSymbolsCheck(),
+                new NoBlankLineBeforeSymbolsCheck(),
+                new NoDisallowedCharactersCheck(),
+                noSubsequentBlankLinesCheck,
+                noTrailingWhitespaceCheck
+        );
+    }
+
+    private static List<String> randomLines(Random random, int count) {
+        return random.ints(count, 0, LINE_VARIANTS.size())
+                .mapToObj(LINE_VARIANTS::get)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Violation> checkFully(List<String> lines) throws CheckstyleException {
+        return checkFully(checks(), lines);
+    }
+
+    private static List<Violation> checkFully(List<? extends AbstractFileSetCheck> checks, List<String> lines) throws CheckstyleException {
+        FileText fileText = new FileText(FILE, lines);
+        List<Violation> violations = new ArrayList<>();
+        for (AbstractFileSetCheck check : checks) {
+            violations.addAll(check.process(FILE, fileText));
+        }
+        return violations;
+    }
+
+    private static List<String> format(Collection<Violation> violations) {
+        // Violation does not implement equals
+        List<String> formatted = violations.stream()
+                .map(v -> v.getLineNo() + ":" + v.getColumnNo() + " " + v.getModuleId() + " " + shortName(v.getSourceName()) + " " + v.getViolation())
+                .distinct()
+                .collect(Collectors.toCollection(ArrayList::new));
+        Collections.sort(formatted);
+        return formatted;
+    }
+
+    private static String shortName(String sourceName) {
+        return sourceName.substring(Math.max(sourceName.lastIndexOf('.'), sourceName.lastIndexOf('$')) + 1).replace("Counting", "");
+    }
+
+    private static final class CountingNoTrailingWhitespaceCheck extends NoTrailingWhitespaceCheck {
+
+        private final List<Integer> processedLineCounts = new ArrayList<>();
+
+        @Override
+        protected void processText(File file, FileText fileText) {
+            processedLineCounts.add(fileText.size());
+            super.processText(file, fileText);
+        }
+    }
+
+    private static final class CountingNoBlankLineAfterSymbolsCheck extends NoBlankLineAfterSymbolsCheck {
+
+        private final List<Integer> processedLineCounts = new ArrayList<>();
+
+        @Override
+        protected void processText(File file, FileText fileText) throws CheckstyleException {
+            processedLineCounts.add(fileText.size());
+            super.processText(file, fileText);
+        }
+    }
+
+    private static final class CountingNoSubsequentBlankLinesCheck extends NoSubsequentBlankLinesCheck {
+
+        private final List<Integer> processedLineCounts = new ArrayList<>();
+
+        @Override
+        protected void processText(File file, FileText fileText) throws CheckstyleException {
+            processedLineCounts.add(fileText.size());
+            super.processText(file, fileText);
+        }
+    }
+
+    private static final class CountingLicenseCommentCheck extends LicenseCommentCheck {
+
+        private int processCount;
+
+        @Override
+        protected void processText(File file, FileText fileText) throws CheckstyleException {
+            processCount++;
+            super.processText(file, fileText);
+        }
+    }
+}
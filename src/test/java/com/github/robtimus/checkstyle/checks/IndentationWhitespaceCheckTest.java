@@ -0,0 +1,165 @@
+/*
+ * IndentationWhitespaceCheckTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static com.github.robtimus.checkstyle.checks.CheckUtils.violation;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import com.github.robtimus.junit.support.extension.testresource.AsLines;
+import com.github.robtimus.junit.support.extension.testresource.Encoding;
+import com.github.robtimus.junit.support.extension.testresource.TestResource;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+@SuppressWarnings("nls")
+@Encoding("UTF-8")
+class IndentationWhitespaceCheckTest {
+
+    @Nested
+    class Process {
+
+        @Test
+        void testSpaces(@TestResource("Indentation.java") @AsLines List<String> lines) {
+            File file = new File("Indentation.java");
+            FileText fileText = new FileText(file, lines);
+
+            IndentationWhitespaceCheck check = newCheck();
+
+            Set<Violation> violations = assertDoesNotThrow(() -> check.process(file, fileText));
+            assertThat(violations, contains(
+                    violation(10, 1, "indentation.tab", TestMessages.indentation.tab()),
+                    violation(11, 1, "indentation.tab", TestMessages.indentation.tab()),
+                    violation(12, 1, "indentation.tab", TestMessages.indentation.tab()),
+                    violation(14, 1, "indentation.tab", TestMessages.indentation.tab()),
+                    violation(15, 1, "indentation.tab", TestMessages.indentation.tab()),
+                    violation(16, 1, "indentation.tab", TestMessages.indentation.tab()),
+                    violation(17, 5, "indentation.mixed", TestMessages.indentation.mixed()),
+                    violation(18, 9, "indentation.mixed", TestMessages.indentation.mixed())
+            ));
+        }
+
+        @Test
+        void testSpacesWithIndentationSize(@TestResource("Indentation.java") @AsLines List<String> lines) {
+            File file = new File("Indentation.java");
+            FileText fileText = new FileText(file, lines);
+
+            IndentationWhitespaceCheck check = newCheck();
+            check.setIndentationSize(4);
+
+            Set<Violation> violations = assertDoesNotThrow(() -> check.process(file, fileText));
+            assertThat(violations, contains(
+                    violation(7, 7, "indentation.size", TestMessages.indentation.size(6, 4)),
+                    violation(10, 1, "indentation.tab", TestMessages.indentation.tab()),
+                    violation(11, 1, "indentation.tab", TestMessages.indentation.tab()),
+                    violation(12, 1, "indentation.tab", TestMessages.indentation.tab()),
+                    violation(14, 1, "indentation.tab", TestMessages.indentation.tab()),
+                    violation(15, 1, "indentation.tab", TestMessages.indentation.tab()),
+                    violation(16, 1, "indentation.tab", TestMessages.indentation.tab()),
+                    violation(17, 5, "indentation.mixed", TestMessages.indentation.mixed()),
+                    violation(18, 9, "indentation.mixed", TestMessages.indentation.mixed())
+            ));
+        }
+
+        @Test
+        void testTabs(@TestResource("Indentation.java") @AsLines List<String> lines) {
+            File file = new File("Indentation.java");
+            FileText fileText = new FileText(file, lines);
+
+            IndentationWhitespaceCheck check = newCheck();
+            check.setIndentWith("tabs");
+            // the indentation size should be ignored for tabs
+            check.setIndentationSize(3);
+
+            Set<Violation> violations = assertDoesNotThrow(() -> check.process(file, fileText));
+            assertThat(violations, contains(
+                    violation(3, 1, "indentation.space", TestMessages.indentation.space()),
+                    violation(4, 1, "indentation.space", TestMessages.indentation.space()),
+                    violation(5, 1, "indentation.space", TestMessages.indentation.space()),
+                    violation(6, 1, "indentation.space", TestMessages.indentation.space()),
+                    violation(7, 1, "indentation.space", TestMessages.indentation.space()),
+                    violation(8, 1, "indentation.space", TestMessages.indentation.space()),
+                    violation(17, 5, "indentation.mixed", TestMessages.indentation.mixed()),
+                    violation(18, 9, "indentation.mixed", TestMessages.indentation.mixed()),
+                    violation(19, 1, "indentation.space", TestMessages.indentation.space())
+            ));
+        }
+
+        @Test
+        void testConsistent(@TestResource("Indentation.java") @AsLines List<String> lines) {
+            File file = new File("Indentation.java");
+            FileText fileText = new FileText(file, lines);
+
+            IndentationWhitespaceCheck check = newCheck();
+            check.setIndentWith("consistent");
+
+            Set<Violation> violations = assertDoesNotThrow(() -> check.process(file, fileText));
+            assertThat(violations, contains(
+                    violation(10, 1, "indentation.tab", TestMessages.indentation.tab()),
+                    violation(11, 1, "indentation.tab", TestMessages.indentation.tab()),
+                    violation(12, 1, "indentation.tab", TestMessages.indentation.tab()),
+                    violation(14, 1, "indentation.tab", TestMessages.indentation.tab()),
+                    violation(15, 1, "indentation.tab", TestMessages.indentation.tab()),
+                    violation(16, 1, "indentation.tab", TestMessages.indentation.tab()),
+                    violation(17, 5, "indentation.mixed", TestMessages.indentation.mixed()),
+                    violation(18, 9, "indentation.mixed", TestMessages.indentation.mixed())
+            ));
+        }
+
+        @Test
+        void testSuppressedRegions(@TestResource("SuppressedRegions.java") @AsLines List<String> lines) {
+            File file = new File("SuppressedRegions.java");
+            FileText fileText = new FileText(file, lines);
+
+            IndentationWhitespaceCheck check = newCheck();
+
+            Set<Violation> violations = assertDoesNotThrow(() -> check.process(file, fileText));
+            assertEquals(Collections.emptySet(), violations);
+        }
+    }
+
+    @Test
+    void testInvalidIndentWith() {
+        IndentationWhitespaceCheck check = newCheck();
+
+        assertThrows(IllegalArgumentException.class, () -> check.setIndentWith("both"));
+    }
+
+    @Test
+    void testNegativeIndentationSize() {
+        IndentationWhitespaceCheck check = newCheck();
+
+        assertThrows(IllegalArgumentException.class, () -> check.setIndentationSize(-1));
+    }
+
+    private IndentationWhitespaceCheck newCheck() {
+        IndentationWhitespaceCheck check = new IndentationWhitespaceCheck();
+        DefaultConfiguration configuration = new DefaultConfiguration("default");
+        assertDoesNotThrow(() -> check.configure(configuration));
+        return check;
+    }
+}
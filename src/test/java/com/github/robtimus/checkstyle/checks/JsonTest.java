@@ -0,0 +1,96 @@
+/*
+ * JsonTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class JsonTest {
+
+    @Test
+    void testParse() {
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("string", "a\"b\\c\nd\u00E9");
+        expected.put("integer", -12L);
+        expected.put("decimal", 1.5e3);
+        expected.put("array", Arrays.asList(true, false, null));
+        expected.put("object", Map.of());
+
+        Object parsed = Json.parse(" { \"string\" : \"a\\\"b\\\\c\\nd\\u00e9\", \"integer\": -12, \"decimal\": 1.5e3,"
+                + " \"array\": [true, false, null], \"object\": {} } ");
+
+        assertEquals(expected, parsed);
+        // the order of properties is preserved
+        assertEquals(List.copyOf(expected.keySet()), List.copyOf(((Map<?, ?>) parsed).keySet()));
+    }
+
+    @Test
+    void testParseInvalid() {
+        assertParseError("Unexpected end of input at index 0", "");
+        assertParseError("Expected a property name at index 1", "{1:2}");
+        assertParseError("Expected ']' at index 3", "[1 2]");
+        assertParseError("Unterminated string at index 4", "\"abc");
+        assertParseError("Unexpected character 'x' at index 0", "xyz");
+        assertParseError("Unexpected trailing characters at index 3", "{} []");
+    }
+
+    @Test
+    void testWrite() {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("string", "a\"b\\c\nd\t");
+        value.put("number", 1);
+        value.put("array", Arrays.asList(true, null));
+        value.put("object", Map.of("x", "y"));
+
+        assertEquals("{\"string\":\"a\\\"b\\\\c\\nd\\t\",\"number\":1,\"array\":[true,null],\"object\":{\"x\":\"y\"}}", Json.write(value));
+    }
+
+    @Test
+    void testWriteUnsupported() {
+        Object value = List.of(new Object() {
+            @Override
+            public String toString() {
+                return "unsupported";
+            }
+        });
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> Json.write(value));
+        assertEquals("Unsupported JSON value: unsupported", exception.getMessage());
+    }
+
+    @Test
+    void testRoundTrip() {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("control", "\u0001\u001f");
+        value.put("separators", "\u2028\u2029");
+        value.put("nested", List.of(Map.of("a", List.of(1L, 2L))));
+
+        assertEquals(value, Json.parse(Json.write(value)));
+    }
+
+    private static void assertParseError(String expectedMessage, String text) {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> Json.parse(text));
+        assertEquals(expectedMessage, exception.getMessage());
+    }
+}
@@ -32,6 +32,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -270,6 +271,18 @@ class LicenseCommentCheckTest {
             assertThat(violations, contains(violation(1, 0, "licenseComment.noLicense", TestMessages.licenseComment.noLicense())));
         }
 
+        @Test
+        void testSkipGeneratedFiles() {
+            File file = new File("Generated.java");
+            FileText fileText = new FileText(file, Arrays.asList("// Generated from Test.g4 by ANTLR 4.13.1", "class Generated {", "}"));
+
+            LicenseCommentCheck check = newCheck();
+            check.setSkipGeneratedFiles(true);
+
+            Set<Violation> violations = assertDoesNotThrow(() -> check.process(file, fileText));
+            assertEquals(Collections.emptySet(), violations);
+        }
+
         @Test
         void testNoCommentEnd(@TestResource("licenseComment/NoCommentEnd.java") @AsLines List<String> lines) {
             File file = new File("NoCommentEnd.java");
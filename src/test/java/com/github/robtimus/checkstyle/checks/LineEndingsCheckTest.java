@@ -0,0 +1,149 @@
+/*
+ * LineEndingsCheckTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static com.github.robtimus.checkstyle.checks.CheckUtils.violation;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+@SuppressWarnings("nls")
+class LineEndingsCheckTest {
+
+    @Nested
+    class Process {
+
+        @Nested
+        class Consistent {
+
+            @ParameterizedTest(name = "{0}")
+            @ValueSource(strings = { "", "class Test {", "class Test {\n}\n", "class Test {\r\n}\r\n", "class Test {\r}\r" })
+            void testValid(String content, @TempDir Path tempDir) {
+                FileText fileText = createFileText(tempDir, content);
+
+                LineEndingsCheck check = newCheck();
+
+                Set<Violation> violations = assertDoesNotThrow(() -> check.process(fileText.getFile(), fileText));
+                assertEquals(Collections.emptySet(), violations);
+            }
+
+            @Test
+            void testMixed(@TempDir Path tempDir) {
+                FileText fileText = createFileText(tempDir, "class Test {\r\n    int x;\n    int y;\r}\n");
+
+                LineEndingsCheck check = newCheck();
+
+                Set<Violation> violations = assertDoesNotThrow(() -> check.process(fileText.getFile(), fileText));
+                assertThat(violations, contains(
+                        violation(2, 11, "whitespace.inconsistentLineEnding", TestMessages.whitespace.inconsistentLineEnding("LF", "CRLF"))
+                ));
+            }
+        }
+
+        @Nested
+        class Lf {
+
+            @Test
+            void testValid(@TempDir Path tempDir) {
+                FileText fileText = createFileText(tempDir, "class Test {\n}\n");
+
+                LineEndingsCheck check = newCheck();
+                check.setLineEndings("lf");
+
+                Set<Violation> violations = assertDoesNotThrow(() -> check.process(fileText.getFile(), fileText));
+                assertEquals(Collections.emptySet(), violations);
+            }
+
+            @Test
+            void testInvalid(@TempDir Path tempDir) {
+                FileText fileText = createFileText(tempDir, "class Test {\n    int x;\r\n}\r\n");
+
+                LineEndingsCheck check = newCheck();
+                check.setLineEndings("lf");
+
+                Set<Violation> violations = assertDoesNotThrow(() -> check.process(fileText.getFile(), fileText));
+                assertThat(violations, contains(
+                        violation(2, 11, "whitespace.invalidLineEnding", TestMessages.whitespace.invalidLineEnding("CRLF", "LF"))
+                ));
+            }
+        }
+
+        @Nested
+        class Crlf {
+
+            @Test
+            void testValid(@TempDir Path tempDir) {
+                FileText fileText = createFileText(tempDir, "class Test {\r\n}\r\n");
+
+                LineEndingsCheck check = newCheck();
+                check.setLineEndings("CRLF");
+
+                Set<Violation> violations = assertDoesNotThrow(() -> check.process(fileText.getFile(), fileText));
+                assertEquals(Collections.emptySet(), violations);
+            }
+
+            @Test
+            void testInvalid(@TempDir Path tempDir) {
+                FileText fileText = createFileText(tempDir, "class Test {\r}\r\n");
+
+                LineEndingsCheck check = newCheck();
+                check.setLineEndings("crlf");
+
+                Set<Violation> violations = assertDoesNotThrow(() -> check.process(fileText.getFile(), fileText));
+                assertThat(violations, contains(
+                        violation(1, 13, "whitespace.invalidLineEnding", TestMessages.whitespace.invalidLineEnding("CR", "CRLF"))
+                ));
+            }
+        }
+    }
+
+    @Test
+    void testInvalidLineEndings() {
+        LineEndingsCheck check = newCheck();
+
+        assertThrows(IllegalArgumentException.class, () -> check.setLineEndings("cr"));
+    }
+
+    private FileText createFileText(Path tempDir, String content) {
+        Path path = tempDir.resolve("Test.java");
+        assertDoesNotThrow(() -> Files.writeString(path, content));
+        return assertDoesNotThrow(() -> new FileText(path.toFile(), StandardCharsets.UTF_8.name()));
+    }
+
+    private LineEndingsCheck newCheck() {
+        LineEndingsCheck check = new LineEndingsCheck();
+        DefaultConfiguration configuration = new DefaultConfiguration("default");
+        assertDoesNotThrow(() -> check.configure(configuration));
+        return check;
+    }
+}
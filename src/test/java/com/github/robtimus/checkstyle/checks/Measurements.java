@@ -0,0 +1,78 @@
+/*
+ * Measurements.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.function.Executable;
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Utility class for measuring the time and memory that actions take.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+final class Measurements {
+
+    private Measurements() {
+    }
+
+    /**
+     * Returns the minimal time that an action takes. Using the minimal time instead of the average time filters out most noise caused by other
+     * processes, garbage collection and JIT compilation.
+     *
+     * @param action The action to measure.
+     * @param runs The number of times to run the action.
+     * @return The minimal time in nanoseconds that the action took.
+     */
+    static long minimalNanoTime(Executable action, int runs) {
+        long minimal = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            assertDoesNotThrow(action);
+            minimal = Math.min(minimal, System.nanoTime() - start);
+        }
+        return minimal;
+    }
+
+    /**
+     * Returns the number of bytes that an action allocates. The test is aborted if the JVM cannot measure allocated bytes.
+     *
+     * @param action The action to measure.
+     * @return The number of bytes that the action allocated in the current thread.
+     */
+    static long allocatedBytes(Executable action) {
+        ThreadMXBean threadBean = threadBean();
+        long threadId = Thread.currentThread().getId();
+
+        long start = threadBean.getThreadAllocatedBytes(threadId);
+        assertDoesNotThrow(action);
+        return threadBean.getThreadAllocatedBytes(threadId) - start;
+    }
+
+    private static ThreadMXBean threadBean() {
+        java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean instanceof ThreadMXBean, "allocated bytes cannot be measured");
+        ThreadMXBean allocationBean = (ThreadMXBean) threadBean;
+        assumeTrue(allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled(),
+                "allocated bytes cannot be measured");
+        return allocationBean;
+    }
+}
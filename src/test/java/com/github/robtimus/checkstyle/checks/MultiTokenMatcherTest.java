@@ -0,0 +1,107 @@
+/*
+ * MultiTokenMatcherTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@SuppressWarnings("nls")
+class MultiTokenMatcherTest {
+
+    @Test
+    void testEmptyToken() {
+        List<String> tokens = Arrays.asList("foo", "");
+
+        assertThrows(IllegalArgumentException.class, () -> new MultiTokenMatcher(tokens));
+    }
+
+    @Nested
+    class FindAll {
+
+        @Test
+        void testOverlappingTokens() {
+            MultiTokenMatcher matcher = new MultiTokenMatcher(Arrays.asList("he", "she", "his", "hers"));
+
+            assertEquals(Arrays.asList("she@1", "he@2", "hers@2"), findAll(matcher, "ushers"));
+        }
+
+        @Test
+        void testRepeatedTokens() {
+            MultiTokenMatcher matcher = new MultiTokenMatcher(Arrays.asList("aa", "a"));
+
+            assertEquals(Arrays.asList("a@0", "aa@0", "a@1", "aa@1", "a@2"), findAll(matcher, "aaa"));
+        }
+
+        @Test
+        void testDuplicateTokens() {
+            MultiTokenMatcher matcher = new MultiTokenMatcher(Arrays.asList("foo", "bar", "foo"));
+
+            assertEquals(Arrays.asList("foo@0", "bar@4"), findAll(matcher, "foo bar"));
+        }
+
+        @Test
+        void testNonAsciiTokens() {
+            MultiTokenMatcher matcher = new MultiTokenMatcher(Arrays.asList("caf\u00e9", "\u00e9t\u00e9"));
+
+            assertEquals(Arrays.asList("caf\u00e9@0", "\u00e9t\u00e9@6"), findAll(matcher, "caf\u00e9, \u00e9t\u00e9, \u00e9\u00e0t\u00e9"));
+        }
+
+        @Test
+        void testNoTokens() {
+            MultiTokenMatcher matcher = new MultiTokenMatcher(Collections.emptyList());
+
+            assertEquals(Collections.emptyList(), findAll(matcher, "foo bar"));
+        }
+
+        private List<String> findAll(MultiTokenMatcher matcher, String text) {
+            List<String> matches = new ArrayList<>();
+            matcher.findAll(text, (tokenIndex, startIndex) -> matches.add(matcher.tokens().get(tokenIndex) + "@" + startIndex));
+            return matches;
+        }
+    }
+
+    @Nested
+    class ContainsAny {
+
+        @ParameterizedTest(name = "{0}")
+        @ValueSource(strings = { "System.out.println(x);", "x.printStackTrace();", "// prints to System.err" })
+        void testContainsToken(String text) {
+            MultiTokenMatcher matcher = new MultiTokenMatcher(Arrays.asList("System.out.println", "printStackTrace()", "System.err"));
+
+            assertTrue(matcher.containsAny(text));
+        }
+
+        @ParameterizedTest(name = "{0}")
+        @ValueSource(strings = { "", "System.out.print(x);", "x.printStackTrace(System.out);", "System.er" })
+        void testDoesNotContainToken(String text) {
+            MultiTokenMatcher matcher = new MultiTokenMatcher(Arrays.asList("System.out.println", "printStackTrace()", "System.err"));
+
+            assertFalse(matcher.containsAny(text));
+        }
+    }
+}
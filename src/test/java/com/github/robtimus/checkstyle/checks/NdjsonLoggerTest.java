@@ -0,0 +1,284 @@
+/*
+ * NdjsonLoggerTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+@SuppressWarnings("nls")
+class NdjsonLoggerTest {
+
+    private static final String BUNDLE = "com.github.robtimus.checkstyle.checks.messages";
+
+    @Test
+    void testViolationsAndExceptions(@TempDir Path tempDir) throws IOException {
+        Path outputFile = tempDir.resolve("checkstyle.ndjson");
+
+        NdjsonLogger logger = new NdjsonLogger();
+        logger.setFile(outputFile.toString());
+
+        logger.auditStarted(new AuditEvent(this));
+        logger.fileStarted(new AuditEvent(this, "Example.java"));
+        logger.addError(new AuditEvent(this, "Example.java", violation(3, 12, SeverityLevel.ERROR, null)));
+        logger.addError(new AuditEvent(this, "Example.java", violation(5, 0, SeverityLevel.WARNING, "trailing")));
+        logger.addError(new AuditEvent(this, "Example.java", violation(7, 0, SeverityLevel.IGNORE, null)));
+        logger.addException(new AuditEvent(this, "Example.java"), new IllegalStateException("Cannot \"process\""));
+        logger.fileFinished(new AuditEvent(this, "Example.java"));
+        logger.auditFinished(new AuditEvent(this));
+
+        List<String> lines = Files.readAllLines(outputFile);
+
+        assertEquals(List.of(
+                "{\"file\":\"Example.java\",\"line\":3,\"column\":12,\"severity\":\"error\",\"message\":\"Trailing whitespace.\","
+                        + "\"source\":\"com.github.robtimus.checkstyle.checks.NoTrailingWhitespaceCheck\"}",
+                "{\"file\":\"Example.java\",\"line\":5,\"column\":0,\"severity\":\"warning\",\"message\":\"Trailing whitespace.\","
+                        + "\"source\":\"com.github.robtimus.checkstyle.checks.NoTrailingWhitespaceCheck\",\"moduleId\":\"trailing\"}",
+                "{\"file\":\"Example.java\",\"exception\":\"java.lang.IllegalStateException\",\"message\":\"Cannot \\\"process\\\"\"}"
+        ), lines);
+    }
+
+    @Test
+    void testNoEvents(@TempDir Path tempDir) throws IOException {
+        Path outputFile = tempDir.resolve("checkstyle.ndjson");
+
+        NdjsonLogger logger = new NdjsonLogger();
+        logger.setFile(outputFile.toString());
+
+        logger.auditStarted(new AuditEvent(this));
+        logger.auditFinished(new AuditEvent(this));
+
+        assertEquals(List.of(), Files.readAllLines(outputFile));
+    }
+
+    @Test
+    void testBackpressure(@TempDir Path tempDir) throws IOException {
+        Path outputFile = tempDir.resolve("checkstyle.ndjson");
+        int count = 100_000;
+
+        NdjsonLogger logger = new NdjsonLogger();
+        logger.setFile(outputFile.toString());
+        // with a buffer of one event, nearly every event has to wait for the writer
+        logger.setBufferSize(1);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            logger.auditStarted(new AuditEvent(this));
+            for (int i = 1; i <= count; i++) {
+                logger.addError(new AuditEvent(this, "Example.java", violation(i, 0, SeverityLevel.ERROR, null)));
+            }
+            logger.auditFinished(new AuditEvent(this));
+        });
+
+        List<String> lines = Files.readAllLines(outputFile);
+
+        // every event is written exactly once, in order
+        assertEquals(count, lines.size());
+        for (int i = 1; i <= count; i++) {
+            String expectedStart = "{\"file\":\"Example.java\",\"line\":" + i + ",";
+            String line = lines.get(i - 1);
+            assertTrue(line.startsWith(expectedStart), line);
+        }
+    }
+
+    @Test
+    void testEventsFromSeveralThreads(@TempDir Path tempDir) throws IOException {
+        Path outputFile = tempDir.resolve("checkstyle.ndjson");
+        int threadCount = 4;
+        int count = 25_000;
+
+        NdjsonLogger logger = new NdjsonLogger();
+        logger.setFile(outputFile.toString());
+        // a small buffer, so threads also have to wait for the writer at the same time
+        logger.setBufferSize(16);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            logger.auditStarted(new AuditEvent(this));
+            List<CompletableFuture<Void>> futures = IntStream.range(0, threadCount)
+                    .mapToObj(t -> CompletableFuture.runAsync(() -> {
+                        for (int i = 1; i <= count; i++) {
+                            logger.addError(new AuditEvent(this, "Example" + t + ".java", violation(i, 0, SeverityLevel.ERROR, null)));
+                        }
+                    }, Executors.newSingleThreadExecutor()))
+                    .collect(Collectors.toList());
+            futures.forEach(CompletableFuture::join);
+            logger.auditFinished(new AuditEvent(this));
+        });
+
+        List<String> lines = Files.readAllLines(outputFile);
+
+        // every event is written exactly once, and the events of each thread are written in order
+        assertEquals(threadCount * count, lines.size());
+        for (int t = 0; t < threadCount; t++) {
+            String prefix = "{\"file\":\"Example" + t + ".java\",\"line\":";
+            List<String> threadLines = lines.stream()
+                    .filter(line -> line.startsWith(prefix))
+                    .map(line -> line.substring(prefix.length(), line.indexOf(',', prefix.length())))
+                    .collect(Collectors.toList());
+            List<String> expected = IntStream.rangeClosed(1, count)
+                    .mapToObj(Integer::toString)
+                    .collect(Collectors.toList());
+            assertEquals(expected, threadLines);
+        }
+    }
+
+    @Test
+    void testWriteFailureFailsAudit() {
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+                throw new IllegalStateException("Cannot write");
+            }
+        }));
+        try {
+            NdjsonLogger logger = new NdjsonLogger();
+            logger.setBufferSize(1);
+
+            assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+                logger.auditStarted(new AuditEvent(this));
+                // writing fails once the first batches reach the output, after which the next event fails the audit
+                IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+                    for (int i = 1; i <= 1_000_000; i++) {
+                        logger.addError(new AuditEvent(this, "Example.java", violation(i, 0, SeverityLevel.ERROR, null)));
+                    }
+                });
+                assertFailure(exception);
+
+                exception = assertThrows(IllegalStateException.class, () -> logger.auditFinished(new AuditEvent(this)));
+                assertFailure(exception);
+            });
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+
+    @Test
+    void testMultipleAudits(@TempDir Path tempDir) throws IOException {
+        Path outputFile = tempDir.resolve("checkstyle.ndjson");
+
+        NdjsonLogger logger = new NdjsonLogger();
+        logger.setFile(outputFile.toString());
+
+        for (int i = 1; i <= 3; i++) {
+            logger.auditStarted(new AuditEvent(this));
+            logger.addError(new AuditEvent(this, "Example" + i + ".java", violation(i, 0, SeverityLevel.ERROR, null)));
+            logger.auditFinished(new AuditEvent(this));
+        }
+
+        // each audit overwrites the file
+        List<String> lines = Files.readAllLines(outputFile);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"file\":\"Example3.java\",\"line\":3,"), lines.get(0));
+    }
+
+    @Test
+    void testStandardOutput() {
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8));
+        try {
+            NdjsonLogger logger = new NdjsonLogger();
+
+            logger.auditStarted(new AuditEvent(this));
+            logger.addError(new AuditEvent(this, "Example.java", violation(1, 0, SeverityLevel.INFO, null)));
+            logger.auditFinished(new AuditEvent(this));
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        assertEquals("{\"file\":\"Example.java\",\"line\":1,\"column\":0,\"severity\":\"info\",\"message\":\"Trailing whitespace.\","
+                + "\"source\":\"com.github.robtimus.checkstyle.checks.NoTrailingWhitespaceCheck\"}\n", output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testOutputFileCannotBeOpened(@TempDir Path tempDir) {
+        NdjsonLogger logger = new NdjsonLogger();
+        // a directory cannot be opened as file
+        logger.setFile(tempDir.toString());
+
+        AuditEvent event = new AuditEvent(this);
+        assertThrows(UncheckedIOException.class, () -> logger.auditStarted(event));
+    }
+
+    @Test
+    void testEscaping(@TempDir Path tempDir) throws IOException {
+        Path outputFile = tempDir.resolve("checkstyle.ndjson");
+
+        NdjsonLogger logger = new NdjsonLogger();
+        logger.setFile(outputFile.toString());
+
+        IllegalStateException exception = new IllegalStateException("quote \" backslash \\ newline \n tab \t bell \u0007 separator \u2028 \u00E9");
+        IllegalStateException exceptionWithoutMessage = new IllegalStateException();
+
+        logger.auditStarted(new AuditEvent(this));
+        logger.addException(new AuditEvent(this, "C:\\Example.java"), exception);
+        logger.addException(new AuditEvent(this, "C:\\Example.java"), exceptionWithoutMessage);
+        logger.auditFinished(new AuditEvent(this));
+
+        assertEquals("{\"file\":\"C:\\\\Example.java\",\"exception\":\"java.lang.IllegalStateException\","
+                + "\"message\":\"quote \\\" backslash \\\\ newline \\n tab \\t bell \\u0007 separator \\u2028 \u00E9\"}\n"
+                + "{\"file\":\"C:\\\\Example.java\",\"exception\":\"java.lang.IllegalStateException\",\"message\":null}\n",
+                Files.readString(outputFile));
+    }
+
+    @Nested
+    class SetBufferSize {
+
+        @ParameterizedTest(name = "{0}")
+        @ValueSource(ints = { 0, -1, (1 << 30) + 1 })
+        void testInvalid(int bufferSize) {
+            NdjsonLogger logger = new NdjsonLogger();
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> logger.setBufferSize(bufferSize));
+            assertEquals("Invalid buffer size: " + bufferSize, exception.getMessage());
+        }
+    }
+
+    private static Violation violation(int line, int column, SeverityLevel severity, String moduleId) {
+        return new Violation(line, column, BUNDLE, "whitespace.trailing", new Object[0], severity, moduleId, NoTrailingWhitespaceCheck.class, null);
+    }
+
+    private static void assertFailure(IllegalStateException exception) {
+        Throwable cause = exception.getCause();
+        assertEquals(IllegalStateException.class, cause.getClass());
+        assertEquals("Cannot write", cause.getMessage());
+    }
+}
@@ -21,7 +21,9 @@ import static com.github.robtimus.checkstyle.checks.CheckUtils.violation;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import java.io.File;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import org.junit.jupiter.api.Test;
@@ -49,6 +51,17 @@ class NoBlankLineAfterSymbolsCheckTest {
         ));
     }
 
+    @Test
+    void testSuppressedRegions(@TestResource("SuppressedRegions.java") @AsLines List<String> lines) {
+        File file = new File("SuppressedRegions.java");
+        FileText fileText = new FileText(file, lines);
+
+        NoBlankLineAfterSymbolsCheck check = newCheck();
+
+        Set<Violation> violations = assertDoesNotThrow(() -> check.process(file, fileText));
+        assertEquals(Collections.emptySet(), violations);
+    }
+
     private NoBlankLineAfterSymbolsCheck newCheck() {
         NoBlankLineAfterSymbolsCheck check = new NoBlankLineAfterSymbolsCheck();
         DefaultConfiguration configuration = new DefaultConfiguration("default");
@@ -21,7 +21,9 @@ import static com.github.robtimus.checkstyle.checks.CheckUtils.violation;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import java.io.File;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import org.junit.jupiter.api.Nested;
@@ -73,6 +75,17 @@ class NoBlankLineBeforeSymbolsCheckTest {
                     violation(25, 0, "whitespace.blankLineBeforeSymbols", TestMessages.whitespace.blankLineBeforeSymbols(")}]"))
             ));
         }
+
+        @Test
+        void testSuppressedRegions(@TestResource("SuppressedRegions.java") @AsLines List<String> lines) {
+            File file = new File("SuppressedRegions.java");
+            FileText fileText = new FileText(file, lines);
+
+            NoBlankLineBeforeSymbolsCheck check = newCheck();
+
+            Set<Violation> violations = assertDoesNotThrow(() -> check.process(file, fileText));
+            assertEquals(Collections.emptySet(), violations);
+        }
     }
 
     private NoBlankLineBeforeSymbolsCheck newCheck() {
@@ -0,0 +1,183 @@
+/*
+ * NoDisallowedCharactersCheckTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static com.github.robtimus.checkstyle.checks.CheckUtils.violation;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+@SuppressWarnings("nls")
+class NoDisallowedCharactersCheckTest {
+
+    private static final String CONTENT = "\uFEFFclass Test {\n"
+            + "    String s = \"a\u00A0b\";\n"
+            + "    // \u200B\u200B\n"
+            + "\tString e = \"\uD83D\uDE00\";\n"
+            + "}\n";
+
+    @Nested
+    class Process {
+
+        @Test
+        void testDefaults(@TempDir Path tempDir) {
+            FileText fileText = createFileText(tempDir, CONTENT);
+
+            NoDisallowedCharactersCheck check = newCheck();
+
+            Set<Violation> violations = assertDoesNotThrow(() -> check.process(fileText.getFile(), fileText));
+            assertThat(violations, contains(
+                    violation(1, 0, "characters.byteOrderMark", TestMessages.characters.byteOrderMark()),
+                    violation(2, 18, "characters.disallowed", TestMessages.characters.disallowed("U+00A0")),
+                    violation(3, 8, "characters.disallowed", TestMessages.characters.disallowed("U+200B")),
+                    violation(3, 9, "characters.disallowed", TestMessages.characters.disallowed("U+200B"))
+            ));
+        }
+
+        @Test
+        void testByteOrderMarkAllowed(@TempDir Path tempDir) {
+            FileText fileText = createFileText(tempDir, CONTENT);
+
+            NoDisallowedCharactersCheck check = newCheck();
+            check.setAllowByteOrderMark(true);
+
+            Set<Violation> violations = assertDoesNotThrow(() -> check.process(fileText.getFile(), fileText));
+            assertThat(violations, contains(
+                    violation(2, 18, "characters.disallowed", TestMessages.characters.disallowed("U+00A0")),
+                    violation(3, 8, "characters.disallowed", TestMessages.characters.disallowed("U+200B")),
+                    violation(3, 9, "characters.disallowed", TestMessages.characters.disallowed("U+200B"))
+            ));
+        }
+
+        @Test
+        void testCustomCharacters(@TempDir Path tempDir) {
+            FileText fileText = createFileText(tempDir, CONTENT);
+
+            NoDisallowedCharactersCheck check = newCheck();
+            check.setAllowByteOrderMark(true);
+            check.setDisallowedCharacters("U+0009", "u+1f600-U+1F64F");
+
+            Set<Violation> violations = assertDoesNotThrow(() -> check.process(fileText.getFile(), fileText));
+            assertThat(violations, contains(
+                    violation(4, 1, "characters.disallowed", TestMessages.characters.disallowed("U+0009")),
+                    violation(4, 21, "characters.disallowed", TestMessages.characters.disallowed("U+1F600"))
+            ));
+        }
+
+        @Test
+        void testDisallowedSurrogates() {
+            // lone surrogates cannot be written to a file as UTF-8
+            File file = new File("Test.java");
+            FileText fileText = new FileText(file, List.of("String e = \"\uD83D\uDE00\";", "String l = \"\uD83D\";", "String t = \"\uDE00\";"));
+
+            NoDisallowedCharactersCheck check = newCheck();
+            check.setDisallowedCharacters("U+D800-U+DFFF");
+
+            // surrogate pairs are not reported, only lone surrogates
+            Set<Violation> violations = assertDoesNotThrow(() -> check.process(file, fileText));
+            assertThat(violations, contains(
+                    violation(2, 13, "characters.disallowed", TestMessages.characters.disallowed("U+D83D")),
+                    violation(3, 13, "characters.disallowed", TestMessages.characters.disallowed("U+DE00"))
+            ));
+        }
+
+        @Test
+        void testNoDisallowedCharacters(@TempDir Path tempDir) {
+            FileText fileText = createFileText(tempDir, "class Test {\n    String s = \"\u00E9\";\n}\n");
+
+            NoDisallowedCharactersCheck check = newCheck();
+
+            Set<Violation> violations = assertDoesNotThrow(() -> check.process(fileText.getFile(), fileText));
+            assertEquals(Collections.emptySet(), violations);
+        }
+
+        @Test
+        void testGeneratedFileSkipped(@TempDir Path tempDir) {
+            FileText fileText = createFileText(tempDir, "// DO NOT EDIT\n" + CONTENT);
+
+            NoDisallowedCharactersCheck check = newCheck();
+            check.setSkipGeneratedFiles(true);
+
+            Set<Violation> violations = assertDoesNotThrow(() -> check.process(fileText.getFile(), fileText));
+            assertEquals(Collections.emptySet(), violations);
+        }
+
+        @Test
+        void testMaxLinesPerFile(@TempDir Path tempDir) {
+            FileText fileText = createFileText(tempDir, CONTENT);
+
+            NoDisallowedCharactersCheck check = newCheck();
+            check.setMaxLinesPerFile(2);
+
+            Set<Violation> violations = assertDoesNotThrow(() -> check.process(fileText.getFile(), fileText));
+            assertThat(violations, contains(
+                    violation(1, 0, "characters.byteOrderMark", TestMessages.characters.byteOrderMark()),
+                    violation(2, 18, "characters.disallowed", TestMessages.characters.disallowed("U+00A0")),
+                    violation(3, 0, "budgetExceeded", TestMessages.budgetExceeded("NoDisallowedCharactersCheck", "2 lines"))
+            ));
+        }
+
+        @Test
+        void testEmptyFile(@TempDir Path tempDir) {
+            FileText fileText = createFileText(tempDir, "");
+
+            NoDisallowedCharactersCheck check = newCheck();
+
+            Set<Violation> violations = assertDoesNotThrow(() -> check.process(fileText.getFile(), fileText));
+            assertEquals(Collections.emptySet(), violations);
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = { "", "00A0", "U+00G0", "U+200F-U+200B", "U+110000" })
+    void testInvalidDisallowedCharacters(String value) {
+        NoDisallowedCharactersCheck check = newCheck();
+
+        assertThrows(IllegalArgumentException.class, () -> check.setDisallowedCharacters(value));
+    }
+
+    private FileText createFileText(Path tempDir, String content) {
+        Path path = tempDir.resolve("Test.java");
+        assertDoesNotThrow(() -> Files.writeString(path, content));
+        return assertDoesNotThrow(() -> new FileText(path.toFile(), StandardCharsets.UTF_8.name()));
+    }
+
+    private NoDisallowedCharactersCheck newCheck() {
+        NoDisallowedCharactersCheck check = new NoDisallowedCharactersCheck();
+        DefaultConfiguration configuration = new DefaultConfiguration("default");
+        assertDoesNotThrow(() -> check.configure(configuration));
+        return check;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * NoForbiddenTokensCheckTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static com.github.robtimus.checkstyle.checks.CheckUtils.violation;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import com.github.robtimus.junit.support.extension.testresource.AsLines;
+import com.github.robtimus.junit.support.extension.testresource.Encoding;
+import com.github.robtimus.junit.support.extension.testresource.TestResource;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+@SuppressWarnings("nls")
+@Encoding("UTF-8")
+class NoForbiddenTokensCheckTest {
+
+    @Nested
+    class Process {
+
+        @Test
+        void testDefaultMessages(@TestResource("ForbiddenTokens.java") @AsLines List<String> lines) {
+            File file = new File("ForbiddenTokens.java");
+            FileText fileText = new FileText(file, lines);
+
+            NoForbiddenTokensCheck check = newCheck();
+            check.setForbiddenTokens("@author\nSystem.out.println\nprintStackTrace()\nSystem.err");
+
+            Set<Violation> violations = assertDoesNotThrow(() -> check.process(file, fileText));
+            assertThat(violations, contains(
+                    violation(2, 4, "forbiddenToken.found", TestMessages.forbiddenToken.found("@author")),
+                    violation(7, 9, "forbiddenToken.found", TestMessages.forbiddenToken.found("System.out.println")),
+                    violation(11, 15, "forbiddenToken.found", TestMessages.forbiddenToken.found("printStackTrace()"))
+            ));
+        }
+
+        @Test
+        void testCustomMessages(@TestResource("ForbiddenTokens.java") @AsLines List<String> lines) {
+            File file = new File("ForbiddenTokens.java");
+            FileText fileText = new FileText(file, lines);
+
+            NoForbiddenTokensCheck check = newCheck();
+            check.setForbiddenTokens("\n"
+                    + "    @author =>\n"
+                    + "    System.out.println => Use a logger instead of {0}\n"
+                    + "\n"
+                    + "    printStackTrace() => Exceptions should be logged\n");
+
+            Set<Violation> violations = assertDoesNotThrow(() -> check.process(file, fileText));
+            assertThat(violations, contains(
+                    violation(2, 4, "forbiddenToken.found", TestMessages.forbiddenToken.found("@author")),
+                    violation(7, 9, "forbiddenToken.custom", "Use a logger instead of System.out.println"),
+                    violation(11, 15, "forbiddenToken.custom", "Exceptions should be logged")
+            ));
+        }
+
+        @Test
+        void testCustomMessagesWithFormatCharacters(@TestResource("ForbiddenTokens.java") @AsLines List<String> lines) {
+            File file = new File("ForbiddenTokens.java");
+            FileText fileText = new FileText(file, lines);
+
+            NoForbiddenTokensCheck check = newCheck();
+            check.setForbiddenTokens("System.out.println => Don't use '{0}' {or {1}\n"
+                    + "printStackTrace() => Use a logger {");
+
+            Set<Violation> violations = assertDoesNotThrow(() -> check.process(file, fileText));
+            assertThat(violations, contains(
+                    violation(7, 9, "forbiddenToken.custom", "Don't use 'System.out.println' {or {1}"),
+                    violation(11, 15, "forbiddenToken.custom", "Use a logger {")
+            ));
+        }
+
+        @Test
+        void testGeneratedFileSkipped(@TestResource("ForbiddenTokens.java") @AsLines List<String> lines) {
+            File file = new File("ForbiddenTokens.java");
+            List<String> generatedLines = new ArrayList<>(lines);
+            generatedLines.add(0, "// DO NOT EDIT");
+            FileText fileText = new FileText(file, generatedLines);
+
+            NoForbiddenTokensCheck check = newCheck();
+            check.setForbiddenTokens("@author\nSystem.out.println");
+            check.setSkipGeneratedFiles(true);
+
+            Set<Violation> violations = assertDoesNotThrow(() -> check.process(file, fileText));
+            assertEquals(Collections.emptySet(), violations);
+        }
+
+        @Test
+        void testNoTokens(@TestResource("ForbiddenTokens.java") @AsLines List<String> lines) {
+            File file = new File("ForbiddenTokens.java");
+            FileText fileText = new FileText(file, lines);
+
+            NoForbiddenTokensCheck check = newCheck();
+
+            Set<Violation> violations = assertDoesNotThrow(() -> check.process(file, fileText));
+            assertEquals(Collections.emptySet(), violations);
+        }
+    }
+
+    @Test
+    void testMissingToken() {
+        NoForbiddenTokensCheck check = newCheck();
+
+        assertThrows(IllegalArgumentException.class, () -> check.setForbiddenTokens("@author\n => Some message"));
+    }
+
+    private NoForbiddenTokensCheck newCheck() {
+        NoForbiddenTokensCheck check = new NoForbiddenTokensCheck();
+        DefaultConfiguration configuration = new DefaultConfiguration("default");
+        assertDoesNotThrow(() -> check.configure(configuration));
+        return check;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * NoLeadingOrTrailingBlankLinesCheckTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static com.github.robtimus.checkstyle.checks.CheckUtils.violation;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import com.github.robtimus.junit.support.extension.testresource.AsLines;
+import com.github.robtimus.junit.support.extension.testresource.Encoding;
+import com.github.robtimus.junit.support.extension.testresource.TestResource;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+@SuppressWarnings("nls")
+@Encoding("UTF-8")
+class NoLeadingOrTrailingBlankLinesCheckTest {
+
+    @Nested
+    class Process {
+
+        @Test
+        void testTrailingBlankLines(@TestResource("BlankLines.java") @AsLines List<String> lines) {
+            File file = new File("BlankLines.java");
+            FileText fileText = new FileText(file, lines);
+
+            NoLeadingOrTrailingBlankLinesCheck check = newCheck();
+
+            Set<Violation> violations = assertDoesNotThrow(() -> check.process(file, fileText));
+            assertThat(violations, contains(
+                    violation(27, 0, "whitespace.trailingBlankLines", TestMessages.whitespace.trailingBlankLines())
+            ));
+        }
+
+        @Test
+        void testLeadingBlankLines(@TempDir Path tempDir) {
+            FileText fileText = createFileText(tempDir, "\n  \nclass Test {\n}\n");
+
+            NoLeadingOrTrailingBlankLinesCheck check = newCheck();
+
+            Set<Violation> violations = assertDoesNotThrow(() -> check.process(fileText.getFile(), fileText));
+            assertThat(violations, contains(
+                    violation(1, 0, "whitespace.leadingBlankLines", TestMessages.whitespace.leadingBlankLines())
+            ));
+        }
+
+        @Test
+        void testLeadingAndTrailingBlankLines(@TempDir Path tempDir) {
+            FileText fileText = createFileText(tempDir, "\nclass Test {\n}\n\n\n");
+
+            NoLeadingOrTrailingBlankLinesCheck check = newCheck();
+
+            Set<Violation> violations = assertDoesNotThrow(() -> check.process(fileText.getFile(), fileText));
+            assertThat(violations, contains(
+                    violation(1, 0, "whitespace.leadingBlankLines", TestMessages.whitespace.leadingBlankLines()),
+                    violation(4, 0, "whitespace.trailingBlankLines", TestMessages.whitespace.trailingBlankLines())
+            ));
+        }
+
+        @Test
+        void testOnlyBlankLines(@TempDir Path tempDir) {
+            FileText fileText = createFileText(tempDir, "\n \n\n");
+
+            NoLeadingOrTrailingBlankLinesCheck check = newCheck();
+
+            Set<Violation> violations = assertDoesNotThrow(() -> check.process(fileText.getFile(), fileText));
+            assertThat(violations, contains(
+                    violation(1, 0, "whitespace.leadingBlankLines", TestMessages.whitespace.leadingBlankLines())
+            ));
+        }
+
+        @ParameterizedTest(name = "{0}")
+        @ValueSource(strings = { "", "class Test {\n}\n", "class Test {\r\n}\r\n", "class Test {\r}\r" })
+        void testValid(String content, @TempDir Path tempDir) {
+            FileText fileText = createFileText(tempDir, content);
+
+            NoLeadingOrTrailingBlankLinesCheck check = newCheck();
+
+            Set<Violation> violations = assertDoesNotThrow(() -> check.process(fileText.getFile(), fileText));
+            assertEquals(Collections.emptySet(), violations);
+        }
+
+        @Nested
+        class MissingNewlineAtEndOfFile {
+
+            @Test
+            void testRequired(@TempDir Path tempDir) {
+                FileText fileText = createFileText(tempDir, "class Test {\n}");
+
+                NoLeadingOrTrailingBlankLinesCheck check = newCheck();
+
+                Set<Violation> violations = assertDoesNotThrow(() -> check.process(fileText.getFile(), fileText));
+                assertThat(violations, contains(
+                        violation(2, 2, "whitespace.missingNewlineAtEndOfFile", TestMessages.whitespace.missingNewlineAtEndOfFile())
+                ));
+            }
+
+            @Test
+            void testNotRequired(@TempDir Path tempDir) {
+                FileText fileText = createFileText(tempDir, "class Test {\n}");
+
+                NoLeadingOrTrailingBlankLinesCheck check = newCheck();
+                check.setRequireNewlineAtEndOfFile(false);
+
+                Set<Violation> violations = assertDoesNotThrow(() -> check.process(fileText.getFile(), fileText));
+                assertEquals(Collections.emptySet(), violations);
+            }
+        }
+    }
+
+    private FileText createFileText(Path tempDir, String content) {
+        Path path = tempDir.resolve("Test.java");
+        assertDoesNotThrow(() -> Files.writeString(path, content));
+        return assertDoesNotThrow(() -> new FileText(path.toFile(), StandardCharsets.UTF_8.name()));
+    }
+
+    private NoLeadingOrTrailingBlankLinesCheck newCheck() {
+        NoLeadingOrTrailingBlankLinesCheck check = new NoLeadingOrTrailingBlankLinesCheck();
+        DefaultConfiguration configuration = new DefaultConfiguration("default");
+        assertDoesNotThrow(() -> check.configure(configuration));
+        return check;
+    }
+}
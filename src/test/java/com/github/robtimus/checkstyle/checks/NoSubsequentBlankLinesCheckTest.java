@@ -51,6 +51,19 @@ class NoSubsequentBlankLinesCheckTest {
         ));
     }
 
+    @Test
+    void testSuppressedRegions(@TestResource("SuppressedRegions.java") @AsLines List<String> lines) {
+        File file = new File("SuppressedRegions.java");
+        FileText fileText = new FileText(file, lines);
+
+        NoSubsequentBlankLinesCheck check = newCheck();
+
+        Set<Violation> violations = assertDoesNotThrow(() -> check.process(file, fileText));
+        assertThat(violations, contains(
+                violation(12, 0, "whitespace.multipleBlankLinesInARow", TestMessages.whitespace.multipleBlankLinesInARow())
+        ));
+    }
+
     private NoSubsequentBlankLinesCheck newCheck() {
         NoSubsequentBlankLinesCheck check = new NoSubsequentBlankLinesCheck();
         DefaultConfiguration configuration = new DefaultConfiguration("default");
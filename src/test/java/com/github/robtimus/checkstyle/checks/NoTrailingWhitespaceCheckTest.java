@@ -20,8 +20,11 @@ package com.github.robtimus.checkstyle.checks;
 import static com.github.robtimus.checkstyle.checks.CheckUtils.violation;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import java.io.File;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import org.junit.jupiter.api.Test;
@@ -59,6 +62,70 @@ class NoTrailingWhitespaceCheckTest {
         ));
     }
 
+    @Test
+    void testSuppressedRegions(@TestResource("SuppressedRegions.java") @AsLines List<String> lines) {
+        File file = new File("SuppressedRegions.java");
+        FileText fileText = new FileText(file, lines);
+
+        NoTrailingWhitespaceCheck check = newCheck();
+
+        Set<Violation> violations = assertDoesNotThrow(() -> check.process(file, fileText));
+        assertThat(violations, contains(
+                violation(11, 15, "whitespace.trailing", TestMessages.whitespace.trailing())
+        ));
+    }
+
+    @Test
+    void testSkipBinaryOrMinifiedFiles() {
+        File file = new File("Binary.java");
+        FileText fileText = new FileText(file, Arrays.asList("class Binary {\0 ", "}"));
+
+        NoTrailingWhitespaceCheck check = newCheck();
+
+        Set<Violation> violations = assertDoesNotThrow(() -> check.process(file, fileText));
+        assertThat(violations, contains(
+                violation(1, 16, "whitespace.trailing", TestMessages.whitespace.trailing())
+        ));
+
+        check.setSkipBinaryOrMinifiedFiles(true);
+
+        violations = assertDoesNotThrow(() -> check.process(file, fileText));
+        assertThat(violations, empty());
+    }
+
+    @Test
+    void testSkipGeneratedFiles() {
+        File file = new File("Generated.java");
+        FileText fileText = new FileText(file, Arrays.asList("// Generated by the protocol buffer compiler.  DO NOT EDIT! ", "class Generated {", "}"));
+
+        NoTrailingWhitespaceCheck check = newCheck();
+
+        Set<Violation> violations = assertDoesNotThrow(() -> check.process(file, fileText));
+        assertThat(violations, contains(
+                violation(1, 60, "whitespace.trailing", TestMessages.whitespace.trailing())
+        ));
+
+        check.setSkipGeneratedFiles(true);
+
+        violations = assertDoesNotThrow(() -> check.process(file, fileText));
+        assertThat(violations, empty());
+
+        check.setGeneratedFileMarkers("@Generated");
+
+        violations = assertDoesNotThrow(() -> check.process(file, fileText));
+        assertThat(violations, contains(
+                violation(1, 60, "whitespace.trailing", TestMessages.whitespace.trailing())
+        ));
+    }
+
+    @Test
+    void testInvalidGeneratedFileSettings() {
+        NoTrailingWhitespaceCheck check = newCheck();
+
+        assertThrows(IllegalArgumentException.class, () -> check.setGeneratedFileMarkers("@Generated", ""));
+        assertThrows(IllegalArgumentException.class, () -> check.setGeneratedFileHeaderLines(0));
+    }
+
     private NoTrailingWhitespaceCheck newCheck() {
         NoTrailingWhitespaceCheck check = new NoTrailingWhitespaceCheck();
         DefaultConfiguration configuration = new DefaultConfiguration("default");
@@ -0,0 +1,356 @@
+/*
+ * ParallelAuditRunnerTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+@SuppressWarnings("nls")
+class ParallelAuditRunnerTest {
+
+    private static final int FILE_COUNT = 200;
+
+    @ParameterizedTest(name = "prefetchFiles: {0}")
+    @ValueSource(booleans = { true, false })
+    void testSameResultAsSequential(boolean prefetchFiles, @TempDir Path tempDir) throws IOException, CheckstyleException {
+        List<File> files = createFiles(tempDir, FILE_COUNT);
+
+        ParallelAuditRunner runner = new ParallelAuditRunner(ParallelAuditRunnerTest::allChecks);
+        runner.setParallelism(4);
+        runner.setPrefetchFiles(prefetchFiles);
+
+        Map<File, SortedSet<Violation>> result = runner.run(files);
+
+        // the result is in the order of the files, not in the order in which they were processed
+        assertEquals(files, new ArrayList<>(result.keySet()));
+
+        List<? extends AbstractFileSetCheck> checks = allChecks();
+        for (File file : files) {
+            FileText fileText = new FileText(file.getAbsoluteFile(), StandardCharsets.UTF_8.name());
+            List<String> expected = new ArrayList<>();
+            for (AbstractFileSetCheck check : checks) {
+                expected.addAll(describe(check.process(file, fileText)));
+            }
+            expected.sort(null);
+
+            List<String> actual = describe(result.get(file));
+            actual.sort(null);
+
+            assertEquals(expected, actual, file::getName);
+        }
+    }
+
+    @Test
+    void testCheckInstancesPerWorker(@TempDir Path tempDir) throws IOException, CheckstyleException {
+        List<File> files = createFiles(tempDir, FILE_COUNT);
+        AtomicInteger factoryCalls = new AtomicInteger();
+
+        ParallelAuditRunner runner = new ParallelAuditRunner(() -> {
+            factoryCalls.incrementAndGet();
+            return List.of(new NoTrailingWhitespaceCheck());
+        });
+        runner.setParallelism(4);
+
+        runner.run(files);
+
+        int calls = factoryCalls.get();
+        assertTrue(calls >= 1 && calls <= 4, () -> "factory calls: " + calls);
+    }
+
+    @ParameterizedTest(name = "prefetchFiles: {0}")
+    @ValueSource(booleans = { true, false })
+    void testDuplicateFiles(boolean prefetchFiles, @TempDir Path tempDir) throws IOException, CheckstyleException {
+        List<File> files = createFiles(tempDir, 3);
+        List<File> filesWithDuplicates = List.of(files.get(0), files.get(1), files.get(0), files.get(2), files.get(1));
+        AtomicInteger processedFiles = new AtomicInteger();
+
+        ParallelAuditRunner runner = new ParallelAuditRunner(() -> List.of(new NoTrailingWhitespaceCheck() {
+            @Override
+            protected void processText(File file, FileText fileText) {
+                processedFiles.incrementAndGet();
+                super.processText(file, fileText);
+            }
+        }));
+        runner.setParallelism(4);
+        runner.setPrefetchFiles(prefetchFiles);
+
+        Map<File, SortedSet<Violation>> result = runner.run(filesWithDuplicates);
+
+        // each file is checked once, in the order in which it first occurs
+        assertEquals(files, new ArrayList<>(result.keySet()));
+        assertEquals(files.size(), processedFiles.get());
+    }
+
+    @Test
+    void testNoFiles() throws CheckstyleException {
+        ParallelAuditRunner runner = new ParallelAuditRunner(ParallelAuditRunnerTest::allChecks);
+
+        assertEquals(Map.of(), runner.run(List.of()));
+    }
+
+    @ParameterizedTest(name = "prefetchFiles: {0}")
+    @ValueSource(booleans = { true, false })
+    void testFileCannotBeRead(boolean prefetchFiles, @TempDir Path tempDir) throws IOException {
+        List<File> files = new ArrayList<>(createFiles(tempDir, FILE_COUNT));
+        File missingFile1 = tempDir.resolve("missing1.java").toFile();
+        File missingFile2 = tempDir.resolve("missing2.java").toFile();
+        files.add(FILE_COUNT / 2, missingFile1);
+        files.add(FILE_COUNT / 4, missingFile2);
+
+        ParallelAuditRunner runner = new ParallelAuditRunner(ParallelAuditRunnerTest::allChecks);
+        runner.setParallelism(4);
+        runner.setPrefetchFiles(prefetchFiles);
+
+        // the first failing file is reported, regardless of which file failed first
+        CheckstyleException exception = assertThrows(CheckstyleException.class, () -> runner.run(files));
+        assertEquals("Exception was thrown while processing " + missingFile2.getPath(), exception.getMessage());
+        assertEquals(NoSuchFileException.class, exception.getCause().getClass());
+    }
+
+    @Nested
+    class SetParallelism {
+
+        @ParameterizedTest(name = "{0}")
+        @ValueSource(ints = { 0, -1 })
+        void testInvalid(int parallelism) {
+            ParallelAuditRunner runner = new ParallelAuditRunner(List::of);
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> runner.setParallelism(parallelism));
+            assertEquals("Non-positive parallelism: " + parallelism, exception.getMessage());
+        }
+    }
+
+    @Nested
+    class SetCharset {
+
+        @Test
+        void testUnsupported() {
+            ParallelAuditRunner runner = new ParallelAuditRunner(List::of);
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> runner.setCharset("unsupported"));
+            assertEquals("Unsupported charset: unsupported", exception.getMessage());
+        }
+    }
+
+    @Nested
+    class ThreadSafetyContract {
+
+        @ParameterizedTest(name = "{0}")
+        @MethodSource("com.github.robtimus.checkstyle.checks.ParallelAuditRunnerTest#checks")
+        void testNoFieldsModifiedWhileProcessing(String checkName, Supplier<AbstractFileSetCheck> checkFactory) throws CheckstyleException {
+            AbstractFileSetCheck check = checkFactory.get();
+
+            List<Object> before = snapshot(check);
+
+            for (int i = 0; i < 20; i++) {
+                File file = new File("Example" + i + ".java");
+                check.process(file, new FileText(file, lines(i)));
+            }
+
+            assertEquals(before, snapshot(check));
+        }
+
+        @ParameterizedTest(name = "{0}")
+        @MethodSource("com.github.robtimus.checkstyle.checks.ParallelAuditRunnerTest#checks")
+        void testSharedInstance(String checkName, Supplier<AbstractFileSetCheck> checkFactory) throws CheckstyleException {
+            AbstractFileSetCheck sequentialCheck = checkFactory.get();
+            List<List<String>> expected = new ArrayList<>();
+            for (int i = 0; i < FILE_COUNT; i++) {
+                File file = new File("Example" + i + ".java");
+                expected.add(describe(sequentialCheck.process(file, new FileText(file, lines(i)))));
+            }
+
+            AbstractFileSetCheck sharedCheck = checkFactory.get();
+            int threadCount = 4;
+            List<CompletableFuture<Void>> futures = IntStream.range(0, threadCount)
+                    .mapToObj(t -> CompletableFuture.runAsync(() -> {
+                        for (int i = t; i < FILE_COUNT; i += threadCount) {
+                            File file = new File("Example" + i + ".java");
+                            FileText fileText = new FileText(file, lines(i));
+                            SortedSet<Violation> violations = assertDoesNotThrow(() -> sharedCheck.process(file, fileText));
+                            assertEquals(expected.get(i), describe(violations), file::getName);
+                        }
+                    }))
+                    .collect(Collectors.toList());
+
+            futures.forEach(CompletableFuture::join);
+        }
+
+        private List<Object> snapshot(Object object) {
+            List<Object> snapshot = new ArrayList<>();
+            for (Class<?> c = object.getClass(); c != AbstractFileSetCheck.class && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        field.setAccessible(true);
+                        Object value = getValue(field, object);
+                        snapshot.add(field.getName());
+                        snapshot.add(snapshotValue(value));
+                    }
+                }
+            }
+            return snapshot;
+        }
+
+        private Object snapshotValue(Object value) {
+            if (value == null) {
+                return null;
+            }
+            if (value.getClass().isArray()) {
+                return Arrays.deepToString(new Object[] { value });
+            }
+            if (value.getClass().getPackage() == ParallelAuditRunner.class.getPackage() && !value.getClass().isEnum()) {
+                return snapshot(value);
+            }
+            return value;
+        }
+
+        private Object getValue(Field field, Object object) {
+            try {
+                return field.get(object);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private <T> T assertDoesNotThrow(CheckstyleCall<T> call) {
+            try {
+                return call.call();
+            } catch (CheckstyleException e) {
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    private interface CheckstyleCall<T> {
+
+        T call() throws CheckstyleException;
+    }
+
+    static Stream<Arguments> checks() {
+        return allChecks().stream()
+                .map(check -> {
+                    Class<? extends AbstractFileSetCheck> checkClass = check.getClass();
+                    Supplier<AbstractFileSetCheck> checkFactory = () -> allChecks().stream()
+                            .filter(checkClass::isInstance)
+                            .findFirst()
+                            .orElseThrow();
+                    return Arguments.arguments(checkClass.getSimpleName(), checkFactory);
+                });
+    }
+
+    private static List<AbstractTextCheck> allChecks() {
+        List<AbstractTextCheck> checks = TestChecks.all();
+        // some checks skip files or have a budget, so the shared skip detection and budgets are used concurrently as well
+        for (AbstractTextCheck check : checks) {
+            if (check instanceof IndentationWhitespaceCheck) {
+                check.setSkipGeneratedFiles(true);
+            } else if (check instanceof LicenseCommentCheck) {
+                LicenseCommentCheck licenseCommentCheck = (LicenseCommentCheck) check;
+                licenseCommentCheck.setIncludeFilename(true);
+                licenseCommentCheck.setIncludeCopyright(true);
+                licenseCommentCheck.setMaxMillisPerFile(60_000);
+            } else if (check instanceof NoForbiddenTokensCheck) {
+                check.setMaxMillisPerFile(60_000);
+            } else if (check instanceof NoTrailingWhitespaceCheck) {
+                check.setMaxLinesPerFile(25);
+                check.setSkipBinaryOrMinifiedFiles(true);
+            }
+        }
+        return checks;
+    }
+
+    private static List<File> createFiles(Path dir, int count) throws IOException {
+        List<File> files = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Path file = dir.resolve("Example" + i + ".java");
+            Files.write(file, lines(i));
+            files.add(file.toFile());
+        }
+        return files;
+    }
+
+    private static List<String> lines(int index) {
+        // each file differs in length and content, so violations differ per file
+        List<String> lines = new ArrayList<>();
+        if (index % 7 == 0) {
+            lines.add("// @Generated");
+        }
+        lines.add("/*");
+        lines.add(" * Example" + index + ".java");
+        lines.add(" */");
+        lines.add("");
+        for (int i = 0; i < index % 40; i++) {
+            switch ((index + i) % 5) {
+                case 0:
+                    lines.add("    int x" + i + " = 1; ");
+                    break;
+                case 1:
+                    lines.add("\tint y" + i + " = 2; System.out.println(y" + i + ");");
+                    break;
+                case 2:
+                    lines.add("");
+                    break;
+                case 3:
+                    lines.add("    {\u00A0");
+                    break;
+                default:
+                    lines.add(" \t}");
+                    break;
+            }
+        }
+        return lines;
+    }
+
+    private static List<String> describe(Collection<Violation> violations) {
+        return violations.stream()
+                .map(v -> v.getLineNo() + ":" + v.getColumnNo() + ":" + v.getKey() + ":" + v.getViolation())
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+}
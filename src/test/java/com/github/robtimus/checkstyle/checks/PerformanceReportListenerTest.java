@@ -0,0 +1,263 @@
+/*
+ * PerformanceReportListenerTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+@SuppressWarnings("nls")
+class PerformanceReportListenerTest {
+
+    @Test
+    void testReport(@TempDir Path tempDir) throws IOException, CheckstyleException {
+        Path reportFile = tempDir.resolve("report.txt");
+
+        PerformanceReportListener listener = new PerformanceReportListener();
+        listener.setSlowestFiles(2);
+        listener.setFile(reportFile.toString());
+
+        NoForbiddenTokensCheck forbiddenTokensCheck = new NoForbiddenTokensCheck();
+        forbiddenTokensCheck.setForbiddenTokens("System.out.println");
+
+        listener.auditStarted(new AuditEvent(this));
+        for (int i = 1; i <= 5; i++) {
+            File file = new File("Example" + i + ".java");
+            List<String> lines = new ArrayList<>(Collections.nCopies(i * 10, "        System.out.println(x);"));
+            lines.add("  ");
+            process(listener, file, lines, new NoTrailingWhitespaceCheck(), forbiddenTokensCheck);
+        }
+        listener.auditFinished(new AuditEvent(this));
+
+        List<String> report = Files.readAllLines(reportFile);
+
+        // 5 files with 11, 21, 31, 41 and 51 lines
+        assertTrue(report.contains("Files:       5 (155 lines)"), () -> String.join("\n", report));
+        assertTrue(report.stream().anyMatch(line -> line.startsWith("Throughput:")));
+        assertTrue(report.stream().anyMatch(line -> line.startsWith("File time:")));
+
+        String trailingWhitespace = checkLine(report, "NoTrailingWhitespaceCheck");
+        assertTrue(trailingWhitespace.matches(".* 5 +[\\d,]+ +5$"), trailingWhitespace);
+        String forbiddenTokens = checkLine(report, "NoForbiddenTokensCheck");
+        assertTrue(forbiddenTokens.matches(".* 5 +[\\d,]+ +150$"), forbiddenTokens);
+
+        List<String> slowestFiles = section(report, "Slowest files:");
+        // header + 2 files
+        assertEquals(3, slowestFiles.size(), () -> String.join("\n", report));
+        assertTrue(slowestFiles.stream().skip(1).allMatch(line -> line.matches(" +[\\d,.]+ +\\d+  Example\\d\\.java")), slowestFiles::toString);
+
+        List<String> histogram = section(report, "File time histogram:");
+        long histogramFileCount = histogram.stream()
+                .mapToLong(line -> Long.parseLong(line.substring(line.lastIndexOf(' ') + 1).replace(",", "")))
+                .sum();
+        assertEquals(5, histogramFileCount);
+    }
+
+    @Test
+    void testReportWithViolationsOfOtherModules(@TempDir Path tempDir) throws IOException {
+        Path reportFile = tempDir.resolve("report.txt");
+
+        PerformanceReportListener listener = new PerformanceReportListener();
+        listener.setFile(reportFile.toString());
+
+        Violation violation = new Violation(1, 0, "messages", "key", new Object[0], SeverityLevel.ERROR, null, String.class, null);
+
+        listener.auditStarted(new AuditEvent(this));
+        listener.fileStarted(new AuditEvent(this, "Example.java"));
+        listener.addError(new AuditEvent(this, "Example.java", violation));
+        listener.addError(new AuditEvent(this, "Example.java", violation));
+        listener.fileFinished(new AuditEvent(this, "Example.java"));
+        listener.auditFinished(new AuditEvent(this));
+
+        List<String> report = Files.readAllLines(reportFile);
+
+        assertTrue(report.contains("Files:       1 (0 lines)"), () -> String.join("\n", report));
+        assertTrue(checkLine(report, "String").matches(" +String +- +- +- +2"), () -> String.join("\n", report));
+    }
+
+    @Test
+    void testReportWithoutFiles(@TempDir Path tempDir) throws IOException, CheckstyleException {
+        Path reportFile = tempDir.resolve("report.txt");
+
+        PerformanceReportListener listener = new PerformanceReportListener();
+        listener.setFile(reportFile.toString());
+
+        listener.auditStarted(new AuditEvent(this));
+        listener.auditFinished(new AuditEvent(this));
+
+        // files processed outside of an audit are not recorded
+        new NoTrailingWhitespaceCheck().process(new File("Example.java"), new FileText(new File("Example.java"), List.of("x ")));
+
+        listener.auditStarted(new AuditEvent(this));
+        listener.auditFinished(new AuditEvent(this));
+
+        List<String> report = Files.readAllLines(reportFile);
+
+        assertTrue(report.contains("Files:       0 (0 lines)"), () -> String.join("\n", report));
+        assertFalse(report.contains("Checks:"), () -> String.join("\n", report));
+        assertFalse(report.contains("Slowest files:"), () -> String.join("\n", report));
+        assertFalse(report.contains("File time histogram:"), () -> String.join("\n", report));
+    }
+
+    @Test
+    void testReportWithParallelAuditRunner(@TempDir Path tempDir) throws IOException, CheckstyleException {
+        Path reportFile = tempDir.resolve("report.txt");
+
+        PerformanceReportListener listener = new PerformanceReportListener();
+        listener.setFile(reportFile.toString());
+
+        List<File> files = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            Path file = tempDir.resolve("Example" + i + ".java");
+            Files.write(file, List.of("class Example" + i + " { ", "}"));
+            files.add(file.toFile());
+        }
+
+        ParallelAuditRunner runner = new ParallelAuditRunner(() -> List.of(new NoTrailingWhitespaceCheck()));
+        runner.setParallelism(4);
+
+        listener.auditStarted(new AuditEvent(this));
+        runner.run(files);
+        listener.auditFinished(new AuditEvent(this));
+
+        List<String> report = Files.readAllLines(reportFile);
+
+        // the runner does not notify listeners, so files and violations are not recorded, but the checks on its worker threads are
+        assertTrue(report.contains("Files:       0 (0 lines)"), () -> String.join("\n", report));
+        String trailingWhitespace = checkLine(report, "NoTrailingWhitespaceCheck");
+        assertTrue(trailingWhitespace.matches(".* 20 +[\\d,]+ +0$"), trailingWhitespace);
+    }
+
+    @Test
+    void testReportRetainsOnlySlowestFiles(@TempDir Path tempDir) throws IOException {
+        Path reportFile = tempDir.resolve("report.txt");
+
+        PerformanceReportListener listener = new PerformanceReportListener();
+        listener.setSlowestFiles(3);
+        listener.setFile(reportFile.toString());
+
+        listener.auditStarted(new AuditEvent(this));
+        for (int i = 0; i < 100_000; i++) {
+            String fileName = "Example" + i + ".java";
+            listener.fileStarted(new AuditEvent(this, fileName));
+            listener.fileFinished(new AuditEvent(this, fileName));
+        }
+        listener.auditFinished(new AuditEvent(this));
+
+        List<String> report = Files.readAllLines(reportFile);
+
+        assertTrue(report.contains("Files:       100,000 (0 lines)"), () -> String.join("\n", report));
+        // header + 3 files
+        assertEquals(4, section(report, "Slowest files:").size());
+    }
+
+    @Test
+    void testReportWithoutSlowestFiles(@TempDir Path tempDir) throws IOException {
+        Path reportFile = tempDir.resolve("report.txt");
+
+        PerformanceReportListener listener = new PerformanceReportListener();
+        listener.setSlowestFiles(0);
+        listener.setFile(reportFile.toString());
+
+        listener.auditStarted(new AuditEvent(this));
+        listener.fileStarted(new AuditEvent(this, "Example.java"));
+        listener.fileFinished(new AuditEvent(this, "Example.java"));
+        listener.auditFinished(new AuditEvent(this));
+
+        List<String> report = Files.readAllLines(reportFile);
+
+        assertFalse(report.contains("Slowest files:"), () -> String.join("\n", report));
+        assertTrue(report.contains("File time histogram:"), () -> String.join("\n", report));
+    }
+
+    @Nested
+    class SetSlowestFiles {
+
+        @Test
+        void testNegative() {
+            PerformanceReportListener listener = new PerformanceReportListener();
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> listener.setSlowestFiles(-1));
+            assertEquals("Negative number of slowest files: -1", exception.getMessage());
+        }
+    }
+
+    @Test
+    void testHistogramBucket() {
+        assertEquals(0, PerformanceReportListener.histogramBucket(0));
+        assertEquals(0, PerformanceReportListener.histogramBucket(999));
+        assertEquals(1, PerformanceReportListener.histogramBucket(1_000));
+        assertEquals(1, PerformanceReportListener.histogramBucket(1_999));
+        assertEquals(2, PerformanceReportListener.histogramBucket(2_000));
+        assertEquals(2, PerformanceReportListener.histogramBucket(3_999));
+        assertEquals(3, PerformanceReportListener.histogramBucket(4_000));
+        assertEquals(11, PerformanceReportListener.histogramBucket(1_024_000));
+        assertEquals(31, PerformanceReportListener.histogramBucket(Long.MAX_VALUE));
+    }
+
+    private void process(PerformanceReportListener listener, File file, List<String> lines, AbstractFileSetCheck... checks)
+            throws CheckstyleException {
+
+        FileText fileText = new FileText(file, lines);
+        String fileName = file.getPath();
+
+        listener.fileStarted(new AuditEvent(this, fileName));
+        for (AbstractFileSetCheck check : checks) {
+            SortedSet<Violation> violations = check.process(file, fileText);
+            for (Violation violation : violations) {
+                listener.addError(new AuditEvent(this, fileName, violation));
+            }
+        }
+        listener.fileFinished(new AuditEvent(this, fileName));
+    }
+
+    private static String checkLine(List<String> report, String check) {
+        return section(report, "Checks:").stream()
+                .filter(line -> line.trim().startsWith(check + " "))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError(String.join("\n", report)));
+    }
+
+    private static List<String> section(List<String> report, String title) {
+        int start = report.indexOf(title);
+        assertTrue(start >= 0, () -> String.join("\n", report));
+        return report.stream()
+                .skip(start + 1L)
+                .takeWhile(line -> !line.isEmpty())
+                .collect(Collectors.toList());
+    }
+}
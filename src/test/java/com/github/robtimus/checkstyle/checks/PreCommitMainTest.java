@@ -0,0 +1,317 @@
+/*
+ * PreCommitMainTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+
+@SuppressWarnings("nls")
+class PreCommitMainTest {
+
+    @Test
+    void testDefaultChecks(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("Example.java");
+        Files.write(file, List.of("class Example {", "    int x = 1;  ", "", "", "    int y = 2;", "}"));
+
+        Output output = run(file.toString());
+
+        String path = file.toFile().getAbsolutePath();
+        assertEquals(String.join(System.lineSeparator(),
+                "Starting audit...",
+                "[ERROR] " + path + ":2:15: " + TestMessages.whitespace.trailing() + " [NoTrailingWhitespace]",
+                "[ERROR] " + path + ":3: " + TestMessages.whitespace.multipleBlankLinesInARow() + " [NoSubsequentBlankLines]",
+                "Audit done.",
+                "Checkstyle ends with 2 errors.",
+                ""), output.out);
+        assertEquals("", output.err);
+        assertEquals(PreCommitMain.EXIT_VIOLATIONS, output.exitCode);
+    }
+
+    @Test
+    void testConfiguration(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("Example.java");
+        Files.write(file, List.of("class Example {", "\tint x = 1;  ", "}"));
+        Path ignored = tempDir.resolve("Example.txt");
+        Files.write(ignored, List.of("\tignored  "));
+
+        Path configFile = tempDir.resolve("pre-commit.conf");
+        Files.write(configFile, List.of(
+                "# a comment",
+                "",
+                "NoTrailingWhitespaceCheck",
+                "NoTrailingWhitespace.severity = warning",
+                "IndentationWhitespace.indentWith = spaces",
+                "IndentationWhitespace.id = indentation",
+                "IndentationWhitespace.fileExtensions = java, kt"));
+
+        Output output = run("-c", configFile.toString(), tempDir.toString());
+
+        String path = file.toFile().getAbsolutePath();
+        String ignoredPath = ignored.toFile().getAbsolutePath();
+        assertEquals(String.join(System.lineSeparator(),
+                "Starting audit...",
+                "[ERROR] " + path + ":2:1: " + TestMessages.indentation.tab() + " [indentation]",
+                "[WARN] " + path + ":2:19: " + TestMessages.whitespace.trailing() + " [NoTrailingWhitespace]",
+                "[WARN] " + ignoredPath + ":1:16: " + TestMessages.whitespace.trailing() + " [NoTrailingWhitespace]",
+                "Audit done.",
+                "Checkstyle ends with 1 errors.",
+                ""), output.out);
+        assertEquals(PreCommitMain.EXIT_VIOLATIONS, output.exitCode);
+    }
+
+    @Test
+    void testOnlyWarnings(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("Example.java");
+        Files.write(file, List.of("class Example {  ", "}"));
+
+        Path configFile = tempDir.resolve("pre-commit.conf");
+        Files.write(configFile, List.of("NoTrailingWhitespace.severity = warning"));
+
+        Output output = run("-c", configFile.toString(), file.toString());
+
+        String path = file.toFile().getAbsolutePath();
+        assertEquals(String.join(System.lineSeparator(),
+                "Starting audit...",
+                "[WARN] " + path + ":1:16: " + TestMessages.whitespace.trailing() + " [NoTrailingWhitespace]",
+                "Audit done.",
+                ""), output.out);
+        assertEquals(PreCommitMain.EXIT_SUCCESS, output.exitCode);
+    }
+
+    @Test
+    void testLineEndings(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("Example.java");
+        Files.writeString(file, "class Example {\n    int x;\r\n}\n", StandardCharsets.UTF_8);
+
+        Path configFile = tempDir.resolve("pre-commit.conf");
+        Files.write(configFile, List.of("LineEndings.lineEndings = lf", "NoLeadingOrTrailingBlankLines"));
+
+        Output output = run("-c", configFile.toString(), file.toString());
+
+        String path = file.toFile().getAbsolutePath();
+        assertEquals(String.join(System.lineSeparator(),
+                "Starting audit...",
+                "[ERROR] " + path + ":2:11: " + TestMessages.whitespace.invalidLineEnding("CRLF", "LF") + " [LineEndings]",
+                "Audit done.",
+                "Checkstyle ends with 1 errors.",
+                ""), output.out);
+        assertEquals(PreCommitMain.EXIT_VIOLATIONS, output.exitCode);
+    }
+
+    @Test
+    void testExcludedDirectories(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("src/Example.java");
+        Path gitFile = tempDir.resolve(".git/config");
+        Path targetFile = tempDir.resolve("target/Generated.java");
+        Path nestedTargetFile = tempDir.resolve("module/target/Generated.java");
+        for (Path path : List.of(file, gitFile, targetFile, nestedTargetFile)) {
+            Files.createDirectories(path.getParent());
+            Files.write(path, List.of("class Example {  ", "}"));
+        }
+
+        Output output = run(tempDir.toString());
+
+        assertEquals(String.join(System.lineSeparator(),
+                "Starting audit...",
+                "[ERROR] " + file.toFile().getAbsolutePath() + ":1:16: " + TestMessages.whitespace.trailing() + " [NoTrailingWhitespace]",
+                "Audit done.",
+                "Checkstyle ends with 1 errors.",
+                ""), output.out);
+
+        // excluded directories are only skipped inside the given directories
+        output = run(tempDir.resolve("target").toString());
+
+        assertEquals(String.join(System.lineSeparator(),
+                "Starting audit...",
+                "[ERROR] " + targetFile.toFile().getAbsolutePath() + ":1:16: " + TestMessages.whitespace.trailing() + " [NoTrailingWhitespace]",
+                "Audit done.",
+                "Checkstyle ends with 1 errors.",
+                ""), output.out);
+    }
+
+    @Test
+    void testNoViolations(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("Example.java");
+        Files.write(file, List.of("class Example {", "}"));
+
+        Output output = run(file.toString());
+
+        assertEquals(String.join(System.lineSeparator(), "Starting audit...", "Audit done.", ""), output.out);
+        assertEquals(0, output.exitCode);
+    }
+
+    @Test
+    void testNoArguments() {
+        Output output = run();
+
+        assertEquals("", output.out);
+        assertEquals("Usage: PreCommitMain [-c <configuration file>] <file or directory>..." + System.lineSeparator(), output.err);
+        assertEquals(PreCommitMain.EXIT_FAILURE, output.exitCode);
+    }
+
+    @Test
+    void testMissingConfigurationFile(@TempDir Path tempDir) {
+        Output output = run(tempDir.toString(), "-c");
+
+        assertEquals("", output.out);
+        assertEquals(String.join(System.lineSeparator(),
+                "Missing configuration file for -c",
+                "Usage: PreCommitMain [-c <configuration file>] <file or directory>...",
+                ""), output.err);
+        assertEquals(PreCommitMain.EXIT_FAILURE, output.exitCode);
+    }
+
+    @Test
+    void testEmptyPropertyName(@TempDir Path tempDir) throws IOException {
+        Path configFile = tempDir.resolve("pre-commit.conf");
+        Files.write(configFile, List.of("NoTrailingWhitespace. = x"));
+
+        Output output = run("-c", configFile.toString(), tempDir.toString());
+
+        assertEquals("", output.out);
+        assertEquals("Line 1: missing property name for check NoTrailingWhitespace" + System.lineSeparator(), output.err);
+        assertEquals(PreCommitMain.EXIT_FAILURE, output.exitCode);
+    }
+
+    @Test
+    void testFileCannotBeRead(@TempDir Path tempDir) {
+        Path file = tempDir.resolve("missing.java");
+
+        Output output = run(file.toString());
+
+        assertEquals("Exception was thrown while processing " + file.toFile().getAbsolutePath() + System.lineSeparator(), output.err);
+        assertEquals(PreCommitMain.EXIT_FAILURE, output.exitCode);
+    }
+
+    @Nested
+    class CreateChecks {
+
+        @Test
+        void testPropertiesInOrder() throws CheckstyleException {
+            List<AbstractFileSetCheck> checks = PreCommitMain.createChecks(List.of(
+                    "NoBlankLineAfterSymbols.symbols = {",
+                    "NoTrailingWhitespace",
+                    "NoBlankLineAfterSymbolsCheck.id = after"));
+
+            assertEquals(2, checks.size());
+            assertEquals(NoBlankLineAfterSymbolsCheck.class, checks.get(0).getClass());
+            assertEquals("after", checks.get(0).getId());
+            assertEquals(NoTrailingWhitespaceCheck.class, checks.get(1).getClass());
+        }
+
+        @Test
+        void testUnsupportedCheck() {
+            List<String> configuration = List.of("NoTrailingWhitespace", "RegexpSingleline");
+
+            CheckstyleException exception = assertThrows(CheckstyleException.class, () -> PreCommitMain.createChecks(configuration));
+            assertEquals("Line 2: unsupported check RegexpSingleline; supported checks are IndentationWhitespace, LicenseComment, LineEndings, "
+                    + "NoBlankLineAfterSymbols, NoBlankLineBeforeSymbols, NoDisallowedCharacters, NoForbiddenTokens, NoLeadingOrTrailingBlankLines, "
+                    + "NoSubsequentBlankLines, NoTrailingWhitespace",
+                    exception.getMessage());
+        }
+
+        @Test
+        void testUnknownProperty() {
+            List<String> configuration = List.of("NoTrailingWhitespace.unknown = true");
+
+            CheckstyleException exception = assertThrows(CheckstyleException.class, () -> PreCommitMain.createChecks(configuration));
+            assertEquals("Line 1: unknown property unknown for check NoTrailingWhitespaceCheck", exception.getMessage());
+        }
+
+        @Test
+        void testMissingValue() {
+            List<String> configuration = List.of("NoTrailingWhitespace.skipGeneratedFiles");
+
+            CheckstyleException exception = assertThrows(CheckstyleException.class, () -> PreCommitMain.createChecks(configuration));
+            assertEquals("Line 1: missing value for property NoTrailingWhitespace.skipGeneratedFiles", exception.getMessage());
+        }
+
+        @Test
+        void testMissingPropertyName() {
+            List<String> configuration = List.of("NoTrailingWhitespace = true");
+
+            CheckstyleException exception = assertThrows(CheckstyleException.class, () -> PreCommitMain.createChecks(configuration));
+            assertEquals("Line 1: missing property name for check NoTrailingWhitespace", exception.getMessage());
+        }
+
+        @Test
+        void testEmptyPropertyName() {
+            List<String> configuration = List.of("NoTrailingWhitespace. = x");
+
+            CheckstyleException exception = assertThrows(CheckstyleException.class, () -> PreCommitMain.createChecks(configuration));
+            assertEquals("Line 1: missing property name for check NoTrailingWhitespace", exception.getMessage());
+        }
+
+        @Test
+        void testInvalidBoolean() {
+            List<String> configuration = List.of("NoTrailingWhitespace.skipGeneratedFiles = yes");
+
+            CheckstyleException exception = assertThrows(CheckstyleException.class, () -> PreCommitMain.createChecks(configuration));
+            assertEquals("Line 1: invalid boolean value: yes", exception.getMessage());
+        }
+
+        @Test
+        void testInvalidInteger() {
+            List<String> configuration = List.of("IndentationWhitespace.indentationSize = four");
+
+            CheckstyleException exception = assertThrows(CheckstyleException.class, () -> PreCommitMain.createChecks(configuration));
+            assertEquals("Line 1: invalid integer value: four", exception.getMessage());
+        }
+
+        @Test
+        void testInvalidValue() {
+            List<String> configuration = List.of("IndentationWhitespace.indentationSize = -1");
+
+            CheckstyleException exception = assertThrows(CheckstyleException.class, () -> PreCommitMain.createChecks(configuration));
+            assertEquals("Line 1: invalid value for property indentationSize: Negative indentation size: -1", exception.getMessage());
+        }
+    }
+
+    private static Output run(String... args) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int exitCode = PreCommitMain.run(args,
+                new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(err, true, StandardCharsets.UTF_8));
+        return new Output(out.toString(StandardCharsets.UTF_8), err.toString(StandardCharsets.UTF_8), exitCode);
+    }
+
+    private static final class Output {
+
+        private final String out;
+        private final String err;
+        private final int exitCode;
+
+        private Output(String out, String err, int exitCode) {
+            this.out = out;
+            this.err = err;
+            this.exitCode = exitCode;
+        }
+    }
+}
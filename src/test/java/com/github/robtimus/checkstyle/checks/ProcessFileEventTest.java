@@ -0,0 +1,105 @@
+/*
+ * ProcessFileEventTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+@SuppressWarnings("nls")
+class ProcessFileEventTest {
+
+    private static final File FILE = new File("src/main/java/Example.java");
+
+    private static final FileText FILE_TEXT = new FileText(FILE, List.of(
+            "package com.example;  ",
+            "",
+            "",
+            "public class Example {",
+            "    private String value = \"\u00A0\";",
+            "}"));
+
+    @Test
+    void testEventsWhenEnabled(@TempDir Path tempDir) throws IOException {
+        List<RecordedEvent> events = record(tempDir, true,
+                new NoTrailingWhitespaceCheck(), new NoSubsequentBlankLinesCheck(), new NoDisallowedCharactersCheck(), new NoForbiddenTokensCheck());
+
+        assertEquals(4, events.size());
+        assertEvent(events.get(0), NoTrailingWhitespaceCheck.class, 1);
+        assertEvent(events.get(1), NoSubsequentBlankLinesCheck.class, 1);
+        assertEvent(events.get(2), NoDisallowedCharactersCheck.class, 1);
+        assertEvent(events.get(3), NoForbiddenTokensCheck.class, 0);
+    }
+
+    @Test
+    void testEventsForSkippedFiles(@TempDir Path tempDir) throws IOException {
+        NoTrailingWhitespaceCheck check = new NoTrailingWhitespaceCheck();
+        check.setSkipGeneratedFiles(true);
+        check.setGeneratedFileMarkers("com.example");
+
+        List<RecordedEvent> events = record(tempDir, true, check);
+
+        assertEquals(1, events.size());
+        assertEvent(events.get(0), NoTrailingWhitespaceCheck.class, 0);
+    }
+
+    @Test
+    void testNoEventsByDefault(@TempDir Path tempDir) throws IOException {
+        List<RecordedEvent> events = record(tempDir, false, new NoTrailingWhitespaceCheck(), new NoDisallowedCharactersCheck());
+
+        assertEquals(List.of(), events);
+    }
+
+    private static void assertEvent(RecordedEvent event, Class<?> expectedCheck, int expectedViolationCount) {
+        assertEquals(expectedCheck.getName(), event.getClass("check").getName());
+        assertEquals(FILE.getPath(), event.getString("file"));
+        assertEquals(FILE_TEXT.size(), event.getInt("lineCount"));
+        assertEquals(expectedViolationCount, event.getInt("violationCount"));
+        assertFalse(event.getDuration().isNegative());
+    }
+
+    private static List<RecordedEvent> record(Path tempDir, boolean enable, AbstractFileSetCheck... checks) throws IOException {
+        Path recordingFile = tempDir.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            if (enable) {
+                recording.enable(ProcessFileEvent.NAME);
+            }
+            recording.start();
+            for (AbstractFileSetCheck check : checks) {
+                assertDoesNotThrow(() -> check.process(FILE, FILE_TEXT));
+            }
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+        return RecordingFile.readAllEvents(recordingFile).stream()
+                .filter(event -> ProcessFileEvent.NAME.equals(event.getEventType().getName()))
+                .collect(Collectors.toList());
+    }
+}
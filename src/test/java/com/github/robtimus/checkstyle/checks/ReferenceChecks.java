@@ -0,0 +1,335 @@
+/*
+ * ReferenceChecks.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
+
+/**
+ * Straightforward implementations of the checks, used as oracles by {@link DifferentialFuzzTest}.
+ * <p>
+ * These implementations are frozen copies of the simple line loops that the checks started with. They favour obviousness over speed, and do not
+ * skip binary, minified or generated files. When a check gets an optimized implementation, its reference implementation here must not change.
+ */
+@SuppressWarnings("nls")
+final class ReferenceChecks {
+
+    private static final FileBudget NO_BUDGET = new FileBudget();
+
+    private ReferenceChecks() {
+    }
+
+    static final class TrailingWhitespace extends AbstractFileSetCheck {
+
+        @Override
+        protected void processFiltered(File file, FileText fileText) {
+            int lineNumber = 0;
+            int lineCount = fileText.size();
+
+            while (lineNumber < lineCount) {
+                int nextLineNumber = SuppressionMarkers.skipSuppressedLines(fileText, lineNumber, lineCount, NO_BUDGET, this);
+                if (nextLineNumber != lineNumber) {
+                    lineNumber = nextLineNumber;
+                    continue;
+                }
+                String line = fileText.get(lineNumber);
+                int index = line.length() - 1;
+                while (index >= 0 && Character.isWhitespace(line.charAt(index))) {
+                    index--;
+                }
+                if (index != line.length() - 1) {
+                    log(lineNumber + 1, index + 1, "whitespace.trailing");
+                }
+                lineNumber++;
+            }
+        }
+    }
+
+    static final class SubsequentBlankLines extends AbstractFileSetCheck {
+
+        @Override
+        protected void processFiltered(File file, FileText fileText) {
+            int lineNumber = 0;
+            int lineCount = fileText.size();
+
+            while (lineNumber < lineCount) {
+                int nextLineNumber = SuppressionMarkers.skipSuppressedLines(fileText, lineNumber, lineCount, NO_BUDGET, this);
+                if (nextLineNumber != lineNumber) {
+                    lineNumber = nextLineNumber;
+                    continue;
+                }
+                if (CommonUtil.isBlank(fileText.get(lineNumber))) {
+                    int nextNonBlankLine = lineNumber + 1;
+                    while (nextNonBlankLine < lineCount && CommonUtil.isBlank(fileText.get(nextNonBlankLine))) {
+                        nextNonBlankLine++;
+                    }
+                    if (nextNonBlankLine - lineNumber > 1) {
+                        log(lineNumber + 1, "whitespace.multipleBlankLinesInARow");
+                        lineNumber = nextNonBlankLine;
+                    }
+                }
+                lineNumber++;
+            }
+        }
+    }
+
+    static final class BlankLineAfterSymbols extends AbstractFileSetCheck {
+
+        private final String symbols;
+
+        BlankLineAfterSymbols(String symbols) {
+            this.symbols = symbols;
+        }
+
+        @Override
+        protected void processFiltered(File file, FileText fileText) {
+            int lineNumber = 0;
+            int lineCount = fileText.size();
+
+            while (lineNumber < lineCount) {
+                int nextLineNumber = SuppressionMarkers.skipSuppressedLines(fileText, lineNumber, lineCount, NO_BUDGET, this);
+                if (nextLineNumber != lineNumber) {
+                    lineNumber = nextLineNumber;
+                    continue;
+                }
+                if (isSymbolLine(fileText.get(lineNumber), symbols, true)
+                        && lineNumber + 1 < lineCount && CommonUtil.isBlank(fileText.get(lineNumber + 1))) {
+                    log(lineNumber + 2, "whitespace.blankLineAfterSymbols", symbols);
+                }
+                lineNumber++;
+            }
+        }
+    }
+
+    static final class BlankLineBeforeSymbols extends AbstractFileSetCheck {
+
+        private final String symbols;
+
+        BlankLineBeforeSymbols(String symbols) {
+            this.symbols = symbols;
+        }
+
+        @Override
+        protected void processFiltered(File file, FileText fileText) {
+            int lineNumber = 0;
+            int lineCount = fileText.size();
+
+            while (lineNumber < lineCount) {
+                int nextLineNumber = SuppressionMarkers.skipSuppressedLines(fileText, lineNumber, lineCount, NO_BUDGET, this);
+                if (nextLineNumber != lineNumber) {
+                    lineNumber = nextLineNumber;
+                    continue;
+                }
+                if (isSymbolLine(fileText.get(lineNumber), symbols, symbols.indexOf(';') == -1)
+                        && lineNumber > 0 && CommonUtil.isBlank(fileText.get(lineNumber - 1))) {
+                    log(lineNumber, "whitespace.blankLineBeforeSymbols", symbols);
+                }
+                lineNumber++;
+            }
+        }
+    }
+
+    private static boolean isSymbolLine(String line, String symbols, boolean trimSemicolons) {
+        String content = line;
+        if (trimSemicolons) {
+            while (content.endsWith(";")) {
+                content = content.substring(0, content.length() - 1);
+            }
+        }
+        boolean hasSymbol = false;
+        for (char c : content.toCharArray()) {
+            if (symbols.indexOf(c) != -1) {
+                hasSymbol = true;
+            } else if (!Character.isWhitespace(c)) {
+                return false;
+            }
+        }
+        return hasSymbol;
+    }
+
+    static final class ForbiddenTokens extends AbstractFileSetCheck {
+
+        private final List<String> tokens;
+        private final List<String> messages;
+
+        ForbiddenTokens(List<String> tokens, List<String> messages) {
+            this.tokens = tokens;
+            this.messages = messages;
+        }
+
+        @Override
+        protected void processFiltered(File file, FileText fileText) {
+            Set<String> seen = new LinkedHashSet<>();
+            for (int tokenIndex = 0; tokenIndex < tokens.size(); tokenIndex++) {
+                String token = tokens.get(tokenIndex);
+                // duplicate tokens are reported only once, for their first occurrence
+                if (seen.add(token)) {
+                    for (int lineNumber = 0; lineNumber < fileText.size(); lineNumber++) {
+                        String line = fileText.get(lineNumber);
+                        for (int index = line.indexOf(token); index != -1; index = line.indexOf(token, index + 1)) {
+                            String message = messages.get(tokenIndex);
+                            if (message == null) {
+                                log(lineNumber + 1, index, "forbiddenToken.found", token);
+                            } else {
+                                log(lineNumber + 1, index, "forbiddenToken.custom", message.replace("{0}", token));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    static final class DisallowedCharacters extends AbstractFileSetCheck {
+
+        private final Set<Integer> disallowedCodePoints;
+        private final boolean allowByteOrderMark;
+
+        DisallowedCharacters(Set<Integer> disallowedCodePoints, boolean allowByteOrderMark) {
+            this.disallowedCodePoints = disallowedCodePoints;
+            this.allowByteOrderMark = allowByteOrderMark;
+        }
+
+        @Override
+        protected void processFiltered(File file, FileText fileText) {
+            for (int lineNumber = 0; lineNumber < fileText.size(); lineNumber++) {
+                String line = fileText.get(lineNumber);
+                int index = 0;
+                if (lineNumber == 0 && line.startsWith("\uFEFF")) {
+                    if (!allowByteOrderMark) {
+                        log(1, "characters.byteOrderMark");
+                    }
+                    index = 1;
+                }
+                while (index < line.length()) {
+                    int codePoint = line.codePointAt(index);
+                    if (disallowedCodePoints.contains(codePoint)) {
+                        log(lineNumber + 1, index, "characters.disallowed", String.format(Locale.ROOT, "U+%04X", codePoint));
+                    }
+                    index += Character.charCount(codePoint);
+                }
+            }
+        }
+    }
+
+    /**
+     * A reference implementation for license comments that require a filename, a copyright with a specific holder, an empty line, and a specific
+     * license text.
+     */
+    static final class LicenseComment extends AbstractFileSetCheck {
+
+        private static final Pattern COPYRIGHT_PATTERN = Pattern.compile("Copyright (\\d{4})(?:-(\\d{4}))?(?: +(.*))?");
+
+        private final String requiredCopyrightHolder;
+        private final List<String> requiredLicenseText;
+
+        LicenseComment(String requiredCopyrightHolder, List<String> requiredLicenseText) {
+            this.requiredCopyrightHolder = requiredCopyrightHolder;
+            this.requiredLicenseText = requiredLicenseText;
+            setFileExtensions("java");
+        }
+
+        @Override
+        protected void processFiltered(File file, FileText fileText) {
+            if (fileText.size() == 0 || !"/*".equals(fileText.get(0))) {
+                log(1, "licenseComment.noLicense");
+                return;
+            }
+            List<String> contents = new ArrayList<>();
+            List<Integer> columns = new ArrayList<>();
+            for (int i = 1; i < fileText.size() && !fileText.get(i).contains("*/"); i++) {
+                int column = LicenseCommentCheck.endOfCommentPrefix(fileText.get(i));
+                contents.add(fileText.get(i).substring(column));
+                columns.add(column);
+            }
+            if (contents.isEmpty()) {
+                log(1, "licenseComment.noLicense");
+                return;
+            }
+
+            int index = 0;
+            int lineNumber = 2;
+
+            String first = contents.get(0);
+            if (first.startsWith("Copyright ") || first.isEmpty() || requiredLicenseText.contains(first)) {
+                log(lineNumber, "licenseComment.missingFilename");
+            } else {
+                if (!first.equals(file.getName())) {
+                    log(lineNumber, columns.get(0), "licenseComment.invalidFilename", file.getName());
+                }
+                index++;
+                lineNumber++;
+            }
+
+            if (index < contents.size() && contents.get(index).startsWith("Copyright ")) {
+                int column = columns.get(index);
+                Matcher matcher = COPYRIGHT_PATTERN.matcher(contents.get(index));
+                if (matcher.matches()) {
+                    String yearFrom = matcher.group(1);
+                    String yearTo = matcher.group(2);
+                    if (yearTo != null && yearTo.compareTo(yearFrom) <= 0) {
+                        log(lineNumber, column + "Copyright ".length(), "licenseComment.invalidCopyrightYearRange");
+                    }
+                    if (!requiredCopyrightHolder.equals(matcher.group(3))) {
+                        int holderColumn = column + (yearTo == null ? "Copyright 2000 " : "Copyright 2000-2001 ").length();
+                        log(lineNumber, holderColumn, "licenseComment.invalidCopyrightHolder", requiredCopyrightHolder);
+                    }
+                } else {
+                    log(lineNumber, column, "licenseComment.invalidCopyright");
+                }
+                index++;
+                lineNumber++;
+            } else {
+                log(lineNumber, "licenseComment.missingCopyright");
+            }
+
+            if (index < contents.size() && contents.get(index).isEmpty()) {
+                index++;
+                lineNumber++;
+            } else {
+                log(lineNumber, "licenseComment.missingEmptyLine");
+            }
+
+            int requiredIndex = 0;
+            while (index < contents.size() && requiredIndex < requiredLicenseText.size()) {
+                String required = requiredLicenseText.get(requiredIndex);
+                if (!required.equals(contents.get(index))) {
+                    log(lineNumber, columns.get(index), "licenseComment.licenseTextMismatch", required);
+                    return;
+                }
+                index++;
+                requiredIndex++;
+                lineNumber++;
+            }
+            if (index < contents.size()) {
+                log(lineNumber, columns.get(index), "licenseComment.licenseTextMismatch", "");
+            } else if (requiredIndex < requiredLicenseText.size()) {
+                log(lineNumber, "licenseComment.licenseTextMismatch", requiredLicenseText.get(requiredIndex));
+            }
+        }
+    }
+}
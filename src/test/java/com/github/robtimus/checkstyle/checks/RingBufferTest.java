@@ -0,0 +1,165 @@
+/*
+ * RingBufferTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@SuppressWarnings("nls")
+class RingBufferTest {
+
+    @ParameterizedTest(name = "{0} => {1}")
+    @CsvSource({
+            "1, 1",
+            "2, 2",
+            "3, 4",
+            "1000, 1024",
+            "1024, 1024",
+            "1025, 2048"
+    })
+    void testCapacity(int minCapacity, int expectedCapacity) {
+        assertEquals(expectedCapacity, new RingBuffer<>(minCapacity).capacity());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(ints = { 0, -1, (1 << 30) + 1 })
+    void testInvalidCapacity(int minCapacity) {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> new RingBuffer<>(minCapacity));
+        assertEquals("Invalid ring buffer capacity: " + minCapacity, exception.getMessage());
+    }
+
+    @Test
+    void testOfferAndPoll() {
+        RingBuffer<String> buffer = new RingBuffer<>(4);
+
+        assertTrue(buffer.isEmpty());
+        assertNull(buffer.poll());
+
+        assertTrue(buffer.offer("a"));
+        assertTrue(buffer.offer("b"));
+        assertTrue(buffer.offer("c"));
+        assertTrue(buffer.offer("d"));
+        assertFalse(buffer.offer("e"));
+        assertFalse(buffer.isEmpty());
+
+        assertEquals("a", buffer.poll());
+        assertTrue(buffer.offer("e"));
+        assertFalse(buffer.offer("f"));
+
+        assertEquals("b", buffer.poll());
+        assertEquals("c", buffer.poll());
+        assertEquals("d", buffer.poll());
+        assertEquals("e", buffer.poll());
+        assertNull(buffer.poll());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    void testConcurrentProducerAndConsumer() {
+        int count = 1_000_000;
+        RingBuffer<Integer> buffer = new RingBuffer<>(16);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < count; i++) {
+                    Integer value = i;
+                    while (!buffer.offer(value)) {
+                        Thread.yield();
+                    }
+                }
+            });
+
+            // elements must arrive exactly once, in order
+            for (int i = 0; i < count; i++) {
+                Integer value;
+                while ((value = buffer.poll()) == null) {
+                    Thread.yield();
+                }
+                assertEquals(i, value.intValue());
+            }
+
+            producer.join();
+            assertTrue(buffer.isEmpty());
+        });
+    }
+
+    @Test
+    void testConcurrentProducers() {
+        int producerCount = 4;
+        int count = 250_000;
+        RingBuffer<int[]> buffer = new RingBuffer<>(16);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            List<CompletableFuture<Void>> producers = IntStream.range(0, producerCount)
+                    .mapToObj(p -> CompletableFuture.runAsync(() -> {
+                        for (int i = 0; i < count; i++) {
+                            int[] value = { p, i };
+                            while (!buffer.offer(value)) {
+                                Thread.yield();
+                            }
+                        }
+                    }, Executors.newSingleThreadExecutor()))
+                    .collect(Collectors.toList());
+
+            // elements must arrive exactly once, and the elements of each producer in order
+            int[] next = new int[producerCount];
+            for (int i = 0; i < producerCount * count; i++) {
+                int[] value;
+                while ((value = buffer.poll()) == null) {
+                    Thread.yield();
+                }
+                assertEquals(next[value[0]], value[1]);
+                next[value[0]]++;
+            }
+
+            producers.forEach(CompletableFuture::join);
+            assertTrue(buffer.isEmpty());
+            for (int p = 0; p < producerCount; p++) {
+                assertEquals(count, next[p]);
+            }
+        });
+    }
+
+    @Test
+    void testCapacityOfOne() {
+        RingBuffer<String> buffer = new RingBuffer<>(1);
+
+        assertTrue(buffer.offer("a"));
+        assertFalse(buffer.offer("b"));
+        assertEquals("a", buffer.poll());
+        assertNull(buffer.poll());
+        assertTrue(buffer.offer("b"));
+        assertFalse(buffer.offer("c"));
+        assertEquals("b", buffer.poll());
+        assertTrue(buffer.isEmpty());
+    }
+}
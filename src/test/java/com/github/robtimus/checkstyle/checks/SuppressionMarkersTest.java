@@ -0,0 +1,104 @@
+/*
+ * SuppressionMarkersTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+@SuppressWarnings("nls")
+class SuppressionMarkersTest {
+
+    @Nested
+    class SkipSuppressedLines {
+
+        private final FileBudget noBudget = new FileBudget();
+        private final NoTrailingWhitespaceCheck check = new NoTrailingWhitespaceCheck();
+
+        private final FileText fileText = new FileText(new File("Test.java"), Arrays.asList(
+                "class Test {",
+                "    // checkstyle-ext:off",
+                "    int x;",
+                "    // checkstyle-ext:on",
+                "    int y;",
+                "    // checkstyle-ext:off",
+                "    int z;",
+                "}"));
+
+        @Test
+        void testNotSuppressed() {
+            assertEquals(0, SuppressionMarkers.skipSuppressedLines(fileText, 0, fileText.size(), noBudget, check));
+            assertEquals(4, SuppressionMarkers.skipSuppressedLines(fileText, 4, fileText.size(), noBudget, check));
+        }
+
+        @Test
+        void testSuppressedUntilOnMarker() {
+            assertEquals(4, SuppressionMarkers.skipSuppressedLines(fileText, 1, fileText.size(), noBudget, check));
+        }
+
+        @Test
+        void testSuppressedUntilEndOfFile() {
+            assertEquals(8, SuppressionMarkers.skipSuppressedLines(fileText, 5, fileText.size(), noBudget, check));
+        }
+
+        @Test
+        void testBudgetExceeded() throws InterruptedException {
+            List<String> lines = new ArrayList<>(Collections.nCopies(10, " ".repeat(FileBudget.TIME_CHECK_INTERVAL)));
+            lines.set(0, "// checkstyle-ext:off");
+            lines.set(5, "// checkstyle-ext:on");
+            FileText longLines = new FileText(new File("Test.java"), lines);
+
+            assertEquals(6, SuppressionMarkers.skipSuppressedLines(longLines, 0, longLines.size(), noBudget, check));
+
+            FileBudget budget = new FileBudget();
+            budget.setMaxMillis(1);
+            budget.start();
+
+            Thread.sleep(10);
+
+            // the first skipped line is long enough to check the time; the budget being exceeded ends the file
+            assertEquals(longLines.size(), SuppressionMarkers.skipSuppressedLines(longLines, 0, longLines.size(), budget, check));
+        }
+    }
+
+    @Nested
+    class HasMarker {
+
+        @ParameterizedTest(name = "{0}")
+        @ValueSource(strings = { "// checkstyle-ext:off", "/* checkstyle-ext:off */", "checkstyle-ext:off", "// checkstyle-ext:on checkstyle-ext:off" })
+        void testHasMarker(String line) {
+            assertTrue(SuppressionMarkers.hasMarker(line, "off"));
+        }
+
+        @ParameterizedTest(name = "{0}")
+        @ValueSource(strings = { "", "// checkstyle-ext:on", "// checkstyle-ext: off", "// checkstyle-ext:offset", "// checkstyle:off" })
+        void testDoesNotHaveMarker(String line) {
+            assertFalse(SuppressionMarkers.hasMarker(line, "off"));
+        }
+    }
+}
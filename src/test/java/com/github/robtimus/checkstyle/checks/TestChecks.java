@@ -0,0 +1,89 @@
+/*
+ * TestChecks.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.params.provider.Arguments;
+
+/**
+ * All checks of this package, for tests that are run for each check.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+final class TestChecks {
+
+    /** The forbidden tokens of {@link NoForbiddenTokensCheck}. */
+    static final String FORBIDDEN_TOKENS = "System.out.println\nprintStackTrace()\nLorem ipsum\n{{{}";
+
+    private TestChecks() {
+    }
+
+    /**
+     * Returns new instances of all checks. Checks that need configuration get the smallest configuration that makes them useful:
+     * <ul>
+     *   <li>{@link IndentationWhitespaceCheck} requires an indentation size of 4.</li>
+     *   <li>{@link LicenseCommentCheck} requires the Apache 2.0 license text.</li>
+     *   <li>{@link NoForbiddenTokensCheck} forbids {@link #FORBIDDEN_TOKENS}.</li>
+     * </ul>
+     * All other properties have their default values.
+     *
+     * @return A list with new instances of all checks, ordered by class name.
+     */
+    static List<AbstractTextCheck> all() {
+        IndentationWhitespaceCheck indentationWhitespaceCheck = new IndentationWhitespaceCheck();
+        indentationWhitespaceCheck.setIndentationSize(4);
+
+        LicenseCommentCheck licenseCommentCheck = new LicenseCommentCheck();
+        licenseCommentCheck.setPredefinedLicenseText("Apache-2.0");
+
+        NoForbiddenTokensCheck noForbiddenTokensCheck = new NoForbiddenTokensCheck();
+        noForbiddenTokensCheck.setForbiddenTokens(FORBIDDEN_TOKENS);
+
+        return List.of(
+                indentationWhitespaceCheck,
+                licenseCommentCheck,
+                new LineEndingsCheck(),
+                new NoBlankLineAfterSymbolsCheck(),
+                new NoBlankLineBeforeSymbolsCheck(),
+                new NoDisallowedCharactersCheck(),
+                noForbiddenTokensCheck,
+                new NoLeadingOrTrailingBlankLinesCheck(),
+                new NoSubsequentBlankLinesCheck(),
+                new NoTrailingWhitespaceCheck()
+        );
+    }
+
+    /**
+     * Returns arguments for tests that are run for each check. Each argument consists of the simple class name of a check, and a
+     * {@link Supplier} that returns new instances of that check, configured like {@link #all()} does.
+     *
+     * @return A stream with arguments for each check.
+     */
+    static Stream<Arguments> arguments() {
+        List<AbstractTextCheck> checks = all();
+        return IntStream.range(0, checks.size())
+                .mapToObj(i -> {
+                    Supplier<AbstractTextCheck> checkFactory = () -> all().get(i);
+                    return Arguments.of(checks.get(i).getClass().getSimpleName(), checkFactory);
+                });
+    }
+}
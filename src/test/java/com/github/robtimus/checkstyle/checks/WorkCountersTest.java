@@ -0,0 +1,319 @@
+/*
+ * WorkCountersTest.java
+ * Copyright 2023 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.checkstyle.checks;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+/**
+ * Asserts exact or bounded work counts for fixed inputs. Unlike time measurements these counts are deterministic, so any algorithmic regression
+ * makes these tests fail.
+ */
+@SuppressWarnings("nls")
+class WorkCountersTest {
+
+    private static final File FILE = new File("Example.java");
+
+    private static final List<String> HEADER = List.of(
+            "/*",
+            " * Example.java",
+            " * Copyright 2023 Rob Spoor",
+            " *",
+            " * Licensed under the Apache License, Version 2.0 (the \"License\");",
+            " * you may not use this file except in compliance with the License.",
+            " */");
+
+    private static final List<String> BLOCK = List.of(
+            "    public void method() {",
+            "        if (x > 0) {",
+            "            x--;",
+            "        }",
+            "    }",
+            "");
+
+    @BeforeEach
+    void assumeEnabled() {
+        assumeTrue(WorkCounters.ENABLED, "work counters are disabled");
+    }
+
+    @Test
+    void testNoBlankLineAfterSymbols() {
+        FileText fileText = source(1000);
+
+        WorkCounters counters = process(new NoBlankLineAfterSymbolsCheck(), fileText);
+
+        // each line is visited once, and each character is examined at most once
+        assertEquals(fileText.size(), counters.linesVisited());
+        assertTrue(counters.charactersExamined() <= characterCount(fileText), counters::toString);
+    }
+
+    @Test
+    void testNoBlankLineAfterSymbolsWithOnlySymbolsAndBlankLines() {
+        // every character of these lines needs to be examined, but only once
+        FileText fileText = fileText(repeat(List.of("({[", "", "    ({[;;", " \t "), 1000));
+
+        WorkCounters counters = process(new NoBlankLineAfterSymbolsCheck(), fileText);
+
+        assertEquals(fileText.size(), counters.linesVisited());
+        assertEquals(characterCount(fileText), counters.charactersExamined());
+    }
+
+    @Test
+    void testNoBlankLineBeforeSymbols() {
+        FileText fileText = source(1000);
+
+        WorkCounters counters = process(new NoBlankLineBeforeSymbolsCheck(), fileText);
+
+        // each line is visited once, and each character is examined at most once
+        assertEquals(fileText.size(), counters.linesVisited());
+        assertTrue(counters.charactersExamined() <= characterCount(fileText), counters::toString);
+    }
+
+    @Test
+    void testNoBlankLineBeforeSymbolsWithOnlySymbolsAndBlankLines() {
+        // every character of these lines needs to be examined, but only once
+        FileText fileText = fileText(repeat(List.of("", ")}];", " \t ", "    ]);;"), 1000));
+
+        WorkCounters counters = process(new NoBlankLineBeforeSymbolsCheck(), fileText);
+
+        assertEquals(fileText.size(), counters.linesVisited());
+        assertEquals(characterCount(fileText), counters.charactersExamined());
+    }
+
+    @Test
+    void testNoTrailingWhitespace() {
+        FileText fileText = source(1000);
+        long nonEmptyLineCount = lines(fileText).stream().filter(line -> !line.isEmpty()).count();
+
+        WorkCounters counters = process(new NoTrailingWhitespaceCheck(), fileText);
+
+        // without trailing whitespace, only the last character of each non-empty line is examined
+        assertEquals(fileText.size(), counters.linesVisited());
+        assertEquals(nonEmptyLineCount, counters.charactersExamined());
+    }
+
+    @Test
+    void testNoSubsequentBlankLines() {
+        FileText fileText = source(1000);
+        List<String> lines = lines(fileText);
+        long expectedLineCount = lines.size();
+        long expectedCharacterCount = lines.stream().mapToLong(this::leadingWhitespaceAndNextCharacter).sum();
+        // a line after a single blank line is visited twice: once to find the end of the blank lines, and once on its own
+        for (int i = 0; i < lines.size() - 1; i++) {
+            if (lines.get(i).isBlank()) {
+                expectedLineCount++;
+                expectedCharacterCount += leadingWhitespaceAndNextCharacter(lines.get(i + 1));
+            }
+        }
+
+        WorkCounters counters = process(new NoSubsequentBlankLinesCheck(), fileText);
+
+        // lines are only examined up to their first non-whitespace character
+        assertEquals(expectedLineCount, counters.linesVisited());
+        assertEquals(expectedCharacterCount, counters.charactersExamined());
+    }
+
+    @Test
+    void testNoSubsequentBlankLinesWithOnlyBlankLines() {
+        FileText fileText = fileText(Collections.nCopies(1000, "    "));
+
+        WorkCounters counters = process(new NoSubsequentBlankLinesCheck(), fileText);
+
+        // the blank lines are visited once while finding the next non-blank line
+        assertEquals(fileText.size(), counters.linesVisited());
+        assertEquals(characterCount(fileText), counters.charactersExamined());
+    }
+
+    @Test
+    void testIndentationWhitespace() {
+        FileText fileText = source(1000);
+        long expectedCharacterCount = lines(fileText).stream().mapToLong(this::leadingWhitespaceAndNextCharacter).sum();
+
+        WorkCounters counters = process(new IndentationWhitespaceCheck(), fileText);
+
+        // only the indentation and the first character after it are examined
+        assertEquals(fileText.size(), counters.linesVisited());
+        assertEquals(expectedCharacterCount, counters.charactersExamined());
+    }
+
+    @Test
+    void testNoLeadingOrTrailingBlankLines() {
+        WorkCounters small = process(new NoLeadingOrTrailingBlankLinesCheck(), source(100));
+        long smallLinesVisited = small.linesVisited();
+        long smallCharactersExamined = small.charactersExamined();
+
+        WorkCounters large = process(new NoLeadingOrTrailingBlankLinesCheck(), source(1000));
+
+        // only the start and end of the file are inspected
+        assertEquals(2, large.linesVisited());
+        assertEquals(smallLinesVisited, large.linesVisited());
+        assertEquals(smallCharactersExamined, large.charactersExamined());
+    }
+
+    @Test
+    void testNoLeadingOrTrailingBlankLinesWithBlankLines() {
+        FileText fileText = fileText(List.of("", "  ", "class Example {", "}", "   ", ""));
+
+        WorkCounters counters = process(new NoLeadingOrTrailingBlankLinesCheck(), fileText);
+
+        // blank lines are examined completely, non-blank lines up to their first non-whitespace character
+        assertEquals(fileText.size(), counters.linesVisited());
+        assertEquals(2 + 1 + 1 + 3, counters.charactersExamined());
+    }
+
+    @Test
+    void testLineEndings() {
+        FileText fileText = source(1000);
+
+        WorkCounters counters = process(new LineEndingsCheck(), fileText);
+
+        assertEquals(0, counters.linesVisited());
+        assertEquals(fileText.getFullText().length(), counters.charactersExamined());
+    }
+
+    @Test
+    void testLineEndingsWithInconsistentLineEnding(@TempDir Path tempDir) {
+        String text = "class Example {\n    int x;\r\n" + String.join("\n", lines(source(1000))) + "\n";
+        Path path = tempDir.resolve("Example.java");
+        assertDoesNotThrow(() -> Files.writeString(path, text));
+        FileText fileText = assertDoesNotThrow(() -> new FileText(path.toFile(), StandardCharsets.UTF_8.name()));
+
+        WorkCounters counters = process(new LineEndingsCheck(), fileText);
+
+        // the text is examined up to and including the first inconsistent line ending
+        assertEquals(0, counters.linesVisited());
+        assertEquals(text.indexOf("\r\n") + 2, counters.charactersExamined());
+    }
+
+    @Test
+    void testNoDisallowedCharacters() {
+        FileText fileText = source(1000);
+
+        WorkCounters counters = process(new NoDisallowedCharactersCheck(), fileText);
+
+        // each character is examined once, plus the first character to check for a byte order mark
+        assertEquals(fileText.size(), counters.linesVisited());
+        assertEquals(characterCount(fileText) + 1, counters.charactersExamined());
+    }
+
+    @Test
+    void testNoForbiddenTokens() {
+        FileText fileText = source(1000);
+
+        NoForbiddenTokensCheck check = new NoForbiddenTokensCheck();
+        check.setForbiddenTokens("System.out.println\nSystem.err.println\nprintStackTrace\nx--\nx++\n--x\n++x");
+
+        WorkCounters counters = process(check, fileText);
+
+        // each character is examined once, regardless of the number of tokens
+        assertEquals(fileText.size(), counters.linesVisited());
+        assertEquals(characterCount(fileText), counters.charactersExamined());
+    }
+
+    @Test
+    void testLicenseComment() {
+        LicenseCommentCheck check = new LicenseCommentCheck();
+        check.setIncludeFilename(true);
+        check.setRequiredCopyrightHolder("Rob Spoor");
+        check.setIncludeEmptyLineBeforeLicenseText(true);
+        check.setCustomLicenseText(String.join("\n", HEADER.subList(4, HEADER.size() - 1)).replace(" * ", ""));
+
+        WorkCounters small = process(check, source(100));
+        long smallLinesVisited = small.linesVisited();
+        long smallCharactersExamined = small.charactersExamined();
+
+        WorkCounters large = process(check, source(1000));
+
+        // only the license comment is inspected
+        assertEquals(HEADER.size(), large.linesVisited());
+        assertEquals(characterCount(HEADER.subList(1, HEADER.size())), large.charactersExamined());
+
+        assertEquals(smallLinesVisited, large.linesVisited());
+        assertEquals(smallCharactersExamined, large.charactersExamined());
+    }
+
+    private long leadingWhitespaceAndNextCharacter(String line) {
+        int index = 0;
+        while (index < line.length() && Character.isWhitespace(line.charAt(index))) {
+            index++;
+        }
+        return Math.min(index + 1, line.length());
+    }
+
+    private static WorkCounters process(AbstractFileSetCheck check, FileText fileText) {
+        WorkCounters counters = WorkCounters.reset();
+        assertDoesNotThrow(() -> check.process(FILE, fileText));
+        return counters;
+    }
+
+    private static FileText source(int blockCount) {
+        List<String> lines = new ArrayList<>(HEADER);
+        lines.add("");
+        lines.add("package com.example;");
+        lines.add("");
+        lines.add("public class Example {");
+        lines.add("");
+        lines.add("    private int x = 0;");
+        lines.add("");
+        lines.addAll(repeat(BLOCK, blockCount));
+        lines.add("}");
+        return fileText(lines);
+    }
+
+    private static List<String> repeat(List<String> lines, int count) {
+        List<String> result = new ArrayList<>(lines.size() * count);
+        for (int i = 0; i < count; i++) {
+            result.addAll(lines);
+        }
+        return result;
+    }
+
+    private static FileText fileText(List<String> lines) {
+        return new FileText(FILE, lines);
+    }
+
+    private static List<String> lines(FileText fileText) {
+        return IntStream.range(0, fileText.size())
+                .mapToObj(fileText::get)
+                .collect(Collectors.toList());
+    }
+
+    private static long characterCount(FileText fileText) {
+        return characterCount(lines(fileText));
+    }
+
+    private static long characterCount(List<String> lines) {
+        return lines.stream().mapToLong(String::length).sum();
+    }
+}
@@ -0,0 +1,14 @@
+/**
+ * @author John Doe
+ */
+public class ForbiddenTokens {
+
+    public static void main(String... args) {
+        System.out.println("Hello World");
+        try {
+            run();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
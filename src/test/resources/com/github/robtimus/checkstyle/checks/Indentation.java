@@ -0,0 +1,20 @@
+public class Indentation {
+
+    /**
+     * Comment.
+     */
+    void spaces() {
+      int x = 0;
+    }
+
+	void tabs() {
+		int x = 0;
+	}
+
+	/**
+	 * Comment.
+	 */
+    	void mixed() {
+	    int x = 0;
+    }
+}
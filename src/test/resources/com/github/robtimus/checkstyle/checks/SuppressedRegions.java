@@ -0,0 +1,16 @@
+public class SuppressedRegions {
+    // checkstyle-ext:off 
+    int x = 0;   
+
+
+    {
+
+    }
+	int tab;
+    // checkstyle-ext:on
+    int y = 0; 
+
+
+    /* checkstyle-ext:off */
+    int z = 0;   
+}